@@ -0,0 +1,100 @@
+package com.nebula.auth.bulk;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nebula.auth.dto.response.BatchItemResult;
+import com.nebula.common.result.ResultClock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Batch Result Writer
+ * Streams per-item results of a bulk request inside the usual Result envelope:
+ * {@code {"code":200,"message":...,"data":{"items":[...],"total":..,"succeeded":..,"failed":..},"timestamp":..}}.
+ * Items are written as batches complete, so the response never holds all results in memory.
+ * Since the status line is sent with the first batch, problems discovered later (malformed
+ * JSON, too many items) are reported in {@code data.error} rather than as an HTTP status.
+ */
+public class BatchResultWriter implements Closeable {
+
+    private final JsonGenerator generator;
+
+    private int total;
+
+    private int succeeded;
+
+    public BatchResultWriter(OutputStream out, ObjectMapper objectMapper, String message) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        generator.writeStartObject();
+        generator.writeNumberField("code", 200);
+        generator.writeStringField("message", message);
+        generator.writeFieldName("data");
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("items");
+    }
+
+    public void write(BatchItemResult result) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("index", result.getIndex());
+        if (result.getId() != null) {
+            generator.writeNumberField("id", result.getId());
+        }
+        generator.writeStringField("status", result.getStatus());
+        if (result.getMessage() != null) {
+            generator.writeStringField("message", result.getMessage());
+        }
+        if (result.getData() != null) {
+            generator.writeObjectField("data", result.getData());
+        }
+        generator.writeEndObject();
+        total++;
+        if (isSuccess(result.getStatus())) {
+            succeeded++;
+        }
+    }
+
+    /**
+     * Push what has been written so far to the client
+     */
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    /**
+     * Close the items array and the envelope
+     *
+     * @param error why processing stopped early, or null
+     */
+    public void finish(String error) throws IOException {
+        generator.writeEndArray();
+        generator.writeNumberField("total", total);
+        generator.writeNumberField("succeeded", succeeded);
+        generator.writeNumberField("failed", total - succeeded);
+        if (error != null) {
+            generator.writeStringField("error", error);
+        }
+        generator.writeEndObject();
+        generator.writeStringField("timestamp", ResultClock.now());
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+
+    private static boolean isSuccess(String status) {
+        return "ok".equals(status) || "created".equals(status) || "updated".equals(status);
+    }
+}
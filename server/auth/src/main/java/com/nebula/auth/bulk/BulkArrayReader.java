@@ -0,0 +1,115 @@
+package com.nebula.auth.bulk;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk Array Reader
+ * Reads a JSON array request body element by element, handing out at most {@code batchSize}
+ * bound elements at a time, so memory stays proportional to the batch instead of the body.
+ * Each element is read as a tree first: one that doesn't bind to the target type becomes an
+ * invalid item and the rest of the array is still read. Malformed JSON ends the stream.
+ */
+public class BulkArrayReader<T> implements Closeable {
+
+    private final JsonParser parser;
+
+    private final ObjectReader reader;
+
+    private final int batchSize;
+
+    private final int maxItems;
+
+    private int count;
+
+    private boolean finished;
+
+    private boolean truncated;
+
+    private BulkArrayReader(JsonParser parser, ObjectReader reader, int batchSize, int maxItems) {
+        this.parser = parser;
+        this.reader = reader;
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the body is not a JSON array
+     */
+    public static <T> BulkArrayReader<T> open(InputStream body, ObjectMapper objectMapper, Class<T> type,
+                                              int batchSize, int maxItems) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(body);
+        JsonToken first;
+        try {
+            first = parser.nextToken();
+        } catch (JsonProcessingException e) {
+            parser.close();
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (first != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IllegalArgumentException("Request body must be a JSON array");
+        }
+        return new BulkArrayReader<>(parser, objectMapper.readerFor(type), batchSize, maxItems);
+    }
+
+    /**
+     * The next elements, empty once the array is exhausted
+     */
+    public List<BulkItem<T>> nextBatch() throws IOException {
+        if (finished) {
+            return List.of();
+        }
+        List<BulkItem<T>> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY || token == null) {
+                finished = true;
+                break;
+            }
+            if (count == maxItems) {
+                finished = true;
+                truncated = true;
+                break;
+            }
+            int index = count++;
+            JsonNode element = parser.readValueAsTree();
+            try {
+                T value = reader.readValue(element);
+                batch.add(value == null
+                        ? new BulkItem<>(index, null, "Element must not be null")
+                        : new BulkItem<>(index, value, null));
+            } catch (JsonMappingException e) {
+                batch.add(new BulkItem<>(index, null, e.getOriginalMessage()));
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Whether elements beyond maxItems were left unread
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
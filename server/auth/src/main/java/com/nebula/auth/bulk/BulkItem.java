@@ -0,0 +1,12 @@
+package com.nebula.auth.bulk;
+
+/**
+ * Bulk Item
+ * One element of a bulk request array: its position and bound value, or why it couldn't be bound
+ */
+public record BulkItem<T>(int index, T value, String error) {
+
+    public boolean isValid() {
+        return error == null;
+    }
+}
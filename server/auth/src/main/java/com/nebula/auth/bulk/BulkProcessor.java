@@ -0,0 +1,85 @@
+package com.nebula.auth.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nebula.auth.config.BulkProperties;
+import com.nebula.auth.dto.response.BatchItemResult;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bulk Processor
+ * Runs a bulk request end to end: reads the JSON array body in batches of
+ * {@code nebula.bulk.batch-size}, hands the elements that bound cleanly to the operation,
+ * and streams every element's result back in request order before reading the next batch.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkProcessor {
+
+    private final ObjectMapper objectMapper;
+
+    private final BulkProperties properties;
+
+    /**
+     * @param operation name for the log
+     * @param handler   processes one batch of valid items, returning one result per item in the same order
+     * @throws IllegalArgumentException if the body is not a JSON array (nothing has been written yet)
+     */
+    public <T> void process(String operation, HttpServletRequest request, HttpServletResponse response, Class<T> type,
+                            Function<List<BulkItem<T>>, List<BatchItemResult>> handler) throws IOException {
+        long start = System.nanoTime();
+        try (BulkArrayReader<T> reader = BulkArrayReader.open(request.getInputStream(), objectMapper, type,
+                properties.getBatchSize(), properties.getMaxItems())) {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            try (BatchResultWriter writer = new BatchResultWriter(response.getOutputStream(), objectMapper,
+                    "Batch processed")) {
+                String error = null;
+                try {
+                    List<BulkItem<T>> batch;
+                    while (!(batch = reader.nextBatch()).isEmpty()) {
+                        writeBatch(writer, batch, handler);
+                        writer.flush();
+                    }
+                    if (reader.isTruncated()) {
+                        error = "Only the first " + properties.getMaxItems() + " items were processed";
+                    }
+                } catch (JsonProcessingException e) {
+                    error = "Malformed JSON after item " + reader.getCount() + ": " + e.getOriginalMessage();
+                }
+                writer.finish(error);
+                log.info("Bulk {}: {} items, {} succeeded in {} ms{}", operation, writer.getTotal(),
+                        writer.getSucceeded(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                        error == null ? "" : " (" + error + ")");
+            }
+        }
+    }
+
+    private static <T> void writeBatch(BatchResultWriter writer, List<BulkItem<T>> batch,
+                                       Function<List<BulkItem<T>>, List<BatchItemResult>> handler) throws IOException {
+        List<BulkItem<T>> valid = new ArrayList<>(batch.size());
+        for (BulkItem<T> item : batch) {
+            if (item.isValid()) {
+                valid.add(item);
+            }
+        }
+        List<BatchItemResult> results = valid.isEmpty() ? List.of() : handler.apply(valid);
+        int next = 0;
+        for (BulkItem<T> item : batch) {
+            writer.write(item.isValid()
+                    ? results.get(next++)
+                    : new BatchItemResult(item.index(), null, "invalid", item.error(), null));
+        }
+    }
+}
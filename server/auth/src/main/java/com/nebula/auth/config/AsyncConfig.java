@@ -0,0 +1,16 @@
+package com.nebula.auth.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Async Configuration
+ * Enables {@code @Async} on Boot's applicationTaskExecutor, which follows
+ * spring.threads.virtual.enabled: a bounded platform pool by default, one virtual thread
+ * per task in virtual-thread mode. CPU-bound work (password hashing) keeps its own pool
+ * either way, and the token wheel ticker stays on a platform thread.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
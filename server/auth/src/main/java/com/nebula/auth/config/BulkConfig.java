@@ -0,0 +1,13 @@
+package com.nebula.auth.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bulk Configuration
+ * Limits for the streaming bulk endpoints (see BulkProcessor)
+ */
+@Configuration
+@EnableConfigurationProperties(BulkProperties.class)
+public class BulkConfig {
+}
@@ -0,0 +1,23 @@
+package com.nebula.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bulk Properties
+ * Batching limits for the bulk user and role endpoints
+ */
+@Data
+@ConfigurationProperties(prefix = "nebula.bulk")
+public class BulkProperties {
+
+    /**
+     * Elements read, applied under one repository lock and written back per step
+     */
+    private int batchSize = 500;
+
+    /**
+     * Elements processed per request; the rest of the array is ignored and reported
+     */
+    private int maxItems = 100_000;
+}
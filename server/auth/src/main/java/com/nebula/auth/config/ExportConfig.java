@@ -0,0 +1,13 @@
+package com.nebula.auth.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Export Configuration
+ * Limits for the streaming export endpoints (see ExportService)
+ */
+@Configuration
+@EnableConfigurationProperties(ExportProperties.class)
+public class ExportConfig {
+}
@@ -0,0 +1,23 @@
+package com.nebula.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Export Properties
+ * Chunking and buffering of the user and role export endpoints
+ */
+@Data
+@ConfigurationProperties(prefix = "nebula.export")
+public class ExportProperties {
+
+    /**
+     * Users read per repository lock acquisition; also the rows written between flushes
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Characters buffered before they are written to the response
+     */
+    private int bufferSize = 64 * 1024;
+}
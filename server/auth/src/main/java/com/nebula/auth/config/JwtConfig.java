@@ -0,0 +1,21 @@
+package com.nebula.auth.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nebula.common.jwt.JwtCodec;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JWT Configuration
+ * Builds the codec used to sign access tokens
+ */
+@Configuration
+@EnableConfigurationProperties(JwtProperties.class)
+public class JwtConfig {
+
+    @Bean
+    public JwtCodec jwtCodec(JwtProperties properties, ObjectMapper objectMapper) {
+        return new JwtCodec(properties.getKeys(), properties.getActiveKeyId(), objectMapper);
+    }
+}
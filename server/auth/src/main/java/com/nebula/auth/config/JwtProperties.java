@@ -0,0 +1,37 @@
+package com.nebula.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JWT Properties
+ * Signing keys and lifetimes for access tokens issued by the auth service
+ */
+@Data
+@ConfigurationProperties(prefix = "nebula.jwt")
+public class JwtProperties {
+
+    /**
+     * Issuer claim written into every token
+     */
+    private String issuer = "nebula-auth";
+
+    /**
+     * Key id → HS256 secret; must match the gateway configuration
+     */
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+    /**
+     * Key id used for signing new tokens
+     */
+    private String activeKeyId = "default";
+
+    /**
+     * Access token lifetime
+     */
+    private Duration accessTokenTtl = Duration.ofMinutes(30);
+}
@@ -0,0 +1,20 @@
+package com.nebula.auth.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nebula.auth.menu.DefaultMenus;
+import com.nebula.auth.menu.MenuTreeCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Menu Configuration
+ * Per-role menu trees, serialized once with the MVC ObjectMapper
+ */
+@Configuration
+public class MenuConfig {
+
+    @Bean
+    public MenuTreeCache menuTreeCache(ObjectMapper objectMapper) {
+        return new MenuTreeCache(objectMapper, DefaultMenus.create());
+    }
+}
@@ -0,0 +1,21 @@
+package com.nebula.auth.config;
+
+import com.nebula.auth.password.PasswordHasher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Password Configuration
+ * Dedicated, bounded hashing pool for login password checks
+ */
+@Configuration
+@EnableConfigurationProperties(PasswordProperties.class)
+public class PasswordConfig {
+
+    @Bean
+    public PasswordHasher passwordHasher(PasswordProperties properties, MeterRegistry meterRegistry) {
+        return new PasswordHasher(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,50 @@
+package com.nebula.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Password Properties
+ * Hashing pool size, admission limits and the adaptive work factor of the password hasher
+ */
+@Data
+@ConfigurationProperties(prefix = "nebula.password")
+public class PasswordProperties {
+
+    /**
+     * Hashing threads; 0 uses half the available processors (at least one)
+     */
+    private int threads;
+
+    /**
+     * Verifications allowed to wait for a thread; beyond this logins get 503 immediately
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * A queued verification older than this is dropped with 503 instead of hashed
+     */
+    private Duration maxQueueWait = Duration.ofSeconds(1);
+
+    /**
+     * CPU time one new hash should take; the iteration count is tuned towards it
+     */
+    private Duration targetHashTime = Duration.ofMillis(200);
+
+    /**
+     * Lower bound for the iteration count, whatever the measured speed
+     */
+    private int minIterations = 310_000;
+
+    /**
+     * Upper bound for the iteration count
+     */
+    private int maxIterations = 2_000_000;
+
+    /**
+     * Re-hash a password on successful login when its iteration count is below the target
+     */
+    private boolean upgradeOnLogin = true;
+}
@@ -0,0 +1,21 @@
+package com.nebula.auth.config;
+
+import com.nebula.auth.menu.DefaultMenus;
+import com.nebula.auth.permission.PermissionEngine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Permission Configuration
+ * Role grants compiled from the menu tree and nebula.permission.grants
+ */
+@Configuration
+@EnableConfigurationProperties(PermissionProperties.class)
+public class PermissionConfig {
+
+    @Bean
+    public PermissionEngine permissionEngine(PermissionProperties properties) {
+        return new PermissionEngine(properties, DefaultMenus.create());
+    }
+}
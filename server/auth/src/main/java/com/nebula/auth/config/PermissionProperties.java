@@ -0,0 +1,33 @@
+package com.nebula.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Permission Properties
+ * Server-side enforcement of button permissions ({@code @RequiresPermission})
+ */
+@Data
+@ConfigurationProperties(prefix = "nebula.permission")
+public class PermissionProperties {
+
+    /**
+     * Whether annotated handlers are checked at all
+     */
+    private boolean enabled = true;
+
+    /**
+     * Roles that hold every permission
+     */
+    private List<String> superRoles = new ArrayList<>(List.of("R_SUPER"));
+
+    /**
+     * Role → button codes, in addition to those derived from the menus' authList
+     */
+    private Map<String, List<String>> grants = new LinkedHashMap<>();
+}
@@ -0,0 +1,43 @@
+package com.nebula.auth.config;
+
+import com.nebula.auth.token.BufferedTokenMinter;
+import com.nebula.auth.token.RevocationFeed;
+import com.nebula.auth.token.TokenMinter;
+import com.nebula.auth.token.TokenRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Token Configuration
+ * Server-side session registry for issued access and refresh tokens, the minter
+ * their ids are drawn from, and the revocation feed the gateway polls
+ */
+@Configuration
+@EnableConfigurationProperties(TokenProperties.class)
+public class TokenConfig {
+
+    /**
+     * Replaced by any other TokenMinter bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TokenMinter tokenMinter() {
+        return new BufferedTokenMinter();
+    }
+
+    /**
+     * Kept as long as an access token issued before a revocation can still be valid at the gateway
+     */
+    @Bean
+    public RevocationFeed revocationFeed(TokenProperties properties, JwtProperties jwtProperties) {
+        return new RevocationFeed(jwtProperties.getAccessTokenTtl().plusMinutes(1), properties.getRevocationFeedSize());
+    }
+
+    @Bean
+    public TokenRegistry tokenRegistry(TokenProperties properties, TokenMinter tokenMinter,
+                                       RevocationFeed revocationFeed) {
+        return new TokenRegistry(properties, tokenMinter, revocationFeed);
+    }
+}
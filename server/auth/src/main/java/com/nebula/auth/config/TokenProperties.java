@@ -0,0 +1,51 @@
+package com.nebula.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Token Properties
+ * Session lifetimes and refresh token signing for the token registry
+ */
+@Data
+@ConfigurationProperties(prefix = "nebula.token")
+public class TokenProperties {
+
+    /**
+     * Sliding timeout: a session unused for this long expires
+     */
+    private Duration idleTimeout = Duration.ofHours(2);
+
+    /**
+     * Hard limit on a session's lifetime, however often it is refreshed
+     */
+    private Duration absoluteTimeout = Duration.ofDays(7);
+
+    /**
+     * HMAC secret for refresh tokens (at least 32 bytes)
+     */
+    private String refreshSecret;
+
+    /**
+     * Hand out opaque access tokens, which the gateway introspects, instead of signed JWTs
+     */
+    private boolean opaqueAccessTokens = false;
+
+    /**
+     * Lifetime of an opaque access token; the session behind it is extended by refreshing
+     */
+    private Duration opaqueTokenTtl = Duration.ofMinutes(10);
+
+    /**
+     * Expiry resolution of the timing wheel
+     */
+    private Duration wheelTick = Duration.ofSeconds(1);
+
+    /**
+     * Recent revocations kept for the gateway to poll; past this, the oldest are dropped and
+     * those tokens only stop working at the gateway when they expire
+     */
+    private int revocationFeedSize = 100_000;
+}
@@ -1,14 +1,51 @@
 package com.nebula.auth.config;
 
+import com.nebula.auth.permission.PermissionEngine;
+import com.nebula.auth.permission.PermissionInterceptor;
+import com.nebula.auth.trace.TraceContextFilter;
+import com.nebula.common.trace.SpanExporter;
+import com.nebula.common.trace.TraceSampler;
+import jakarta.servlet.DispatcherType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
  * Web Configuration for Auth Service
- * Configure CORS, interceptors, and other web-related settings
+ * Configure CORS, interceptors, filters, and other web-related settings
  */
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
-    // Future: Add CORS configuration, interceptors, etc.
+    private final PermissionProperties permissionProperties;
+
+    private final PermissionEngine permissionEngine;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (permissionProperties.isEnabled()) {
+            registry.addInterceptor(new PermissionInterceptor(permissionEngine)).addPathPatterns("/api/**");
+        }
+    }
+
+    /**
+     * First filter, so every later filter and handler logs with the trace id
+     */
+    @Bean
+    public FilterRegistrationBean<TraceContextFilter> traceContextFilter(TracingProperties tracingProperties,
+                                                                         TraceSampler traceSampler,
+                                                                         SpanExporter spanExporter) {
+        FilterRegistrationBean<TraceContextFilter> registration =
+                new FilterRegistrationBean<>(new TraceContextFilter(traceSampler, spanExporter));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.addUrlPatterns("/*");
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registration.setEnabled(tracingProperties.isEnabled());
+        return registration;
+    }
 }
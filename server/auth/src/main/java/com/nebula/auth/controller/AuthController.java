@@ -1,7 +1,11 @@
 package com.nebula.auth.controller;
 
+import com.nebula.auth.dto.request.IntrospectRequest;
 import com.nebula.auth.dto.request.LoginRequest;
+import com.nebula.auth.dto.request.RefreshTokenRequest;
+import com.nebula.auth.dto.response.IntrospectionResponse;
 import com.nebula.auth.dto.response.LoginResponse;
+import com.nebula.auth.dto.response.RevocationsResponse;
 import com.nebula.auth.dto.response.UserInfoResponse;
 import com.nebula.auth.service.AuthService;
 import com.nebula.common.result.Result;
@@ -10,6 +14,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RestController
 @RequestMapping("/api")
@@ -18,11 +24,49 @@ public class AuthController {
 
     private final AuthService authService;
 
+    /**
+     * Completes asynchronously: the servlet thread is released while the password is
+     * checked on the hashing pool
+     */
     @PostMapping("/auth/login")
-    public Result<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<Result<LoginResponse>> login(@Valid @RequestBody LoginRequest request) {
         log.info("Processing login request for user: {}", request.getUserName());
-        LoginResponse response = authService.login(request);
-        return Result.success(response, "Login successful");
+        return authService.login(request)
+                .thenApply(response -> Result.success(response, "Login successful"));
+    }
+
+    @PostMapping("/auth/refresh")
+    public Result<LoginResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        log.info("Processing token refresh");
+        LoginResponse response = authService.refresh(request.getRefreshToken());
+        return Result.success(response, "Token refreshed");
+    }
+
+    /**
+     * The gateway forwards the verified access token's jti as X-Token-Id
+     */
+    @PostMapping("/auth/logout")
+    public Result<Void> logout(@RequestHeader(value = "X-Token-Id", required = false) String tokenId) {
+        log.info("Processing logout");
+        authService.logout(tokenId);
+        return Result.success(null, "Logout successful");
+    }
+
+    /**
+     * Token introspection for the gateway; unknown tokens are a successful "active: false"
+     */
+    @PostMapping("/auth/introspect")
+    public Result<IntrospectionResponse> introspect(@Valid @RequestBody IntrospectRequest request) {
+        return Result.success(authService.introspect(request.getToken()));
+    }
+
+    /**
+     * Revocations since the gateway's last poll ({@code epoch} and {@code since} from the previous answer)
+     */
+    @GetMapping("/auth/revocations")
+    public Result<RevocationsResponse> revocations(@RequestParam(defaultValue = "0") long epoch,
+                                                   @RequestParam(defaultValue = "0") long since) {
+        return Result.success(authService.revocations(epoch, since));
     }
 
     @GetMapping("/user/info")
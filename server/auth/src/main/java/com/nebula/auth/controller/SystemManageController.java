@@ -1,16 +1,28 @@
 package com.nebula.auth.controller;
 
-import com.nebula.auth.dto.response.MenuResponse;
 import com.nebula.auth.dto.response.PaginatedResponse;
 import com.nebula.auth.dto.response.RoleItem;
 import com.nebula.auth.dto.response.UserItem;
+import com.nebula.auth.export.ExportFormat;
+import com.nebula.auth.export.StreamingExport;
+import com.nebula.auth.permission.RequiresPermission;
+import com.nebula.auth.service.ExportService;
 import com.nebula.auth.service.SystemManageService;
 import com.nebula.common.result.Result;
+import com.nebula.common.result.SerializedResult;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @RestController
@@ -20,6 +32,8 @@ public class SystemManageController {
 
     private final SystemManageService systemManageService;
 
+    private final ExportService exportService;
+
     @GetMapping("/user/list")
     public Result<PaginatedResponse<UserItem>> getUserList(@RequestParam Map<String, Object> params) {
         log.info("Fetching user list with params: {}", params);
@@ -34,10 +48,61 @@ public class SystemManageController {
         return Result.success(response);
     }
 
+    /**
+     * Writes the caller's pre-serialized menu tree; roles come from the gateway's X-User-Roles
+     */
     @GetMapping("/v3/system/menus")
-    public Result<MenuResponse[]> getMenuList() {
+    public void getMenuList(@RequestHeader(value = "X-User-Roles", required = false) String roles,
+                            HttpServletResponse response) throws IOException {
         log.info("Fetching menu list");
-        MenuResponse[] response = systemManageService.getMenuList();
-        return Result.success(response);
+        SerializedResult menus = systemManageService.getMenuList(roles);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(menus.contentLength());
+        menus.writeTo(response.getOutputStream());
+    }
+
+    /**
+     * Every user matching the /user/list filters, streamed as {@code format=ndjson|csv};
+     * {@code compress=gzip} sends a .gz file
+     */
+    @RequiresPermission("export")
+    @GetMapping("/user/export")
+    public void exportUsers(@RequestParam Map<String, Object> params, HttpServletResponse response) throws IOException {
+        log.info("Exporting users with params: {}", params);
+        ExportFormat format = ExportFormat.of(text(params.get("format")));
+        write("users", format, params, exportService.exportUsers(params, format), response);
+    }
+
+    @RequiresPermission("export")
+    @GetMapping("/role/export")
+    public void exportRoles(@RequestParam Map<String, Object> params, HttpServletResponse response) throws IOException {
+        log.info("Exporting roles with params: {}", params);
+        ExportFormat format = ExportFormat.of(text(params.get("format")));
+        write("roles", format, params, exportService.exportRoles(params, format), response);
+    }
+
+    /**
+     * Sent chunked, without a content length; a failure after the first flush can only cut the
+     * stream short, so clients should treat a missing final newline (or gzip trailer) as an error
+     */
+    private static void write(String name, ExportFormat format, Map<String, Object> params, StreamingExport export,
+                              HttpServletResponse response) throws IOException {
+        boolean gzip = "gzip".equalsIgnoreCase(text(params.get("compress")));
+        String fileName = name + "-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + "." + format.getExtension();
+        response.setContentType(gzip ? "application/gzip" : format.getContentType());
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + (gzip ? ".gz\"" : "\""));
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        // Keeps the gateway's cache, compression and coalescing filters from buffering the stream
+        response.setHeader("Cache-Control", "no-store, no-transform");
+
+        long start = System.nanoTime();
+        // syncFlush so each flushed chunk reaches the client instead of waiting in the deflater
+        OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), 8192, true) : response.getOutputStream();
+        long rows = export.writeTo(out);
+        log.info("Exported {} {} as {} in {} ms", rows, name, format, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static String text(Object value) {
+        return value == null ? null : value.toString();
     }
 }
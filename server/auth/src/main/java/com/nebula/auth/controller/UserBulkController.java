@@ -0,0 +1,80 @@
+package com.nebula.auth.controller;
+
+import com.nebula.auth.bulk.BulkProcessor;
+import com.nebula.auth.dto.request.RoleAssignment;
+import com.nebula.auth.dto.request.UserBatchItem;
+import com.nebula.auth.permission.RequiresPermission;
+import com.nebula.auth.service.UserBulkService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * User Bulk API Controller
+ * Bodies are JSON arrays, read and applied in batches; the response streams one result per
+ * element (index, id, status, message) in request order, so a bad element fails alone.
+ * The operator recorded on changes is the gateway's X-User-Name.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class UserBulkController {
+
+    private static final String SYSTEM_OPERATOR = "system";
+
+    private final BulkProcessor bulkProcessor;
+
+    private final UserBulkService userBulkService;
+
+    /**
+     * Body: array of user ids
+     */
+    @PostMapping("/user/batch/get")
+    public void getUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        bulkProcessor.process("user get", request, response, Integer.class, userBulkService::getUsers);
+    }
+
+    @RequiresPermission("add")
+    @PostMapping("/user/batch/create")
+    public void createUsers(@RequestHeader(value = "X-User-Name", required = false) String operator,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        bulkProcessor.process("user create", request, response, UserBatchItem.class,
+                items -> userBulkService.createUsers(items, operatorOf(operator)));
+    }
+
+    @RequiresPermission("edit")
+    @PostMapping("/user/batch/update")
+    public void updateUsers(@RequestHeader(value = "X-User-Name", required = false) String operator,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        bulkProcessor.process("user update", request, response, UserBatchItem.class,
+                items -> userBulkService.updateUsers(items, operatorOf(operator)));
+    }
+
+    /**
+     * Body: array of user ids
+     */
+    @RequiresPermission("delete")
+    @PostMapping("/user/batch/disable")
+    public void disableUsers(@RequestHeader(value = "X-User-Name", required = false) String operator,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        bulkProcessor.process("user disable", request, response, Integer.class,
+                ids -> userBulkService.disableUsers(ids, operatorOf(operator)));
+    }
+
+    @RequiresPermission("assign")
+    @PostMapping("/role/batch/assign")
+    public void assignRoles(@RequestHeader(value = "X-User-Name", required = false) String operator,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        bulkProcessor.process("role assign", request, response, RoleAssignment.class,
+                assignments -> userBulkService.assignRoles(assignments, operatorOf(operator)));
+    }
+
+    private static String operatorOf(String header) {
+        return header == null || header.isBlank() ? SYSTEM_OPERATOR : header;
+    }
+}
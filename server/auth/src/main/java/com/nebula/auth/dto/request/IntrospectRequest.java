@@ -0,0 +1,23 @@
+package com.nebula.auth.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class IntrospectRequest {
+
+    /**
+     * Access token, with or without the "Bearer " prefix
+     */
+    @NotBlank(message = "Token cannot be blank")
+    private String token;
+
+    public IntrospectRequest() {
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+}
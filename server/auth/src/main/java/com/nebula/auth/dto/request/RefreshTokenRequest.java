@@ -0,0 +1,20 @@
+package com.nebula.auth.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class RefreshTokenRequest {
+
+    @NotBlank(message = "Refresh token cannot be blank")
+    private String refreshToken;
+
+    public RefreshTokenRequest() {
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
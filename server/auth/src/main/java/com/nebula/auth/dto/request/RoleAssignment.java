@@ -0,0 +1,46 @@
+package com.nebula.auth.dto.request;
+
+import java.util.List;
+
+/**
+ * Role Assignment
+ * One element of a batch role assignment
+ */
+public class RoleAssignment {
+
+    private Integer userId;
+
+    private List<String> roles;
+
+    /**
+     * replace (default), add or remove
+     */
+    private String mode;
+
+    public RoleAssignment() {
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(List<String> roles) {
+        this.roles = roles;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+}
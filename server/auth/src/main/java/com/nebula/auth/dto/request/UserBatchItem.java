@@ -0,0 +1,109 @@
+package com.nebula.auth.dto.request;
+
+import java.util.List;
+
+/**
+ * User Batch Item
+ * One element of a batch create or update; on update, null fields are left unchanged
+ */
+public class UserBatchItem {
+
+    /**
+     * Required on update, ignored on create
+     */
+    private Integer id;
+
+    private String userName;
+
+    private String nickName;
+
+    private String userGender;
+
+    private String userPhone;
+
+    private String userEmail;
+
+    private String status;
+
+    private String avatar;
+
+    /**
+     * Rejected per item when present; roles are changed with a role assignment
+     */
+    private List<String> userRoles;
+
+    public UserBatchItem() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getNickName() {
+        return nickName;
+    }
+
+    public void setNickName(String nickName) {
+        this.nickName = nickName;
+    }
+
+    public String getUserGender() {
+        return userGender;
+    }
+
+    public void setUserGender(String userGender) {
+        this.userGender = userGender;
+    }
+
+    public String getUserPhone() {
+        return userPhone;
+    }
+
+    public void setUserPhone(String userPhone) {
+        this.userPhone = userPhone;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public void setUserEmail(String userEmail) {
+        this.userEmail = userEmail;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getAvatar() {
+        return avatar;
+    }
+
+    public void setAvatar(String avatar) {
+        this.avatar = avatar;
+    }
+
+    public List<String> getUserRoles() {
+        return userRoles;
+    }
+
+    public void setUserRoles(List<String> userRoles) {
+        this.userRoles = userRoles;
+    }
+}
@@ -0,0 +1,72 @@
+package com.nebula.auth.dto.response;
+
+/**
+ * Batch Item Result
+ * Outcome of one element of a bulk request, by its position in the request array
+ */
+public class BatchItemResult {
+
+    private int index;
+
+    private Integer id;
+
+    /**
+     * ok, created, updated, not_found, invalid or conflict
+     */
+    private String status;
+
+    private String message;
+
+    private Object data;
+
+    public BatchItemResult() {
+    }
+
+    public BatchItemResult(int index, Integer id, String status, String message, Object data) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+        this.data = data;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Object getData() {
+        return data;
+    }
+
+    public void setData(Object data) {
+        this.data = data;
+    }
+}
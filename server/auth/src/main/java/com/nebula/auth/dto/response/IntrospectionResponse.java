@@ -0,0 +1,84 @@
+package com.nebula.auth.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Introspection Response
+ * RFC 7662 style answer: {@code active} is always present, the other fields only for active
+ * tokens. Field names follow the JWT claims so the gateway can treat both token kinds alike.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IntrospectionResponse {
+
+    private boolean active;
+
+    private String sub;
+
+    private Integer uid;
+
+    private List<String> roles;
+
+    private String jti;
+
+    /**
+     * Expiry, epoch seconds; the session may still be revoked earlier
+     */
+    private Long exp;
+
+    public IntrospectionResponse() {
+    }
+
+    public static IntrospectionResponse inactive() {
+        return new IntrospectionResponse();
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public String getSub() {
+        return sub;
+    }
+
+    public void setSub(String sub) {
+        this.sub = sub;
+    }
+
+    public Integer getUid() {
+        return uid;
+    }
+
+    public void setUid(Integer uid) {
+        this.uid = uid;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(List<String> roles) {
+        this.roles = roles;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public Long getExp() {
+        return exp;
+    }
+
+    public void setExp(Long exp) {
+        this.exp = exp;
+    }
+}
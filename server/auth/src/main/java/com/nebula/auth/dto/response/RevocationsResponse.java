@@ -0,0 +1,115 @@
+package com.nebula.auth.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Revocations Response
+ * Revocations since the gateway's last poll. With {@code reset} the list is the complete
+ * current set and replaces what the gateway holds.
+ */
+public class RevocationsResponse {
+
+    private long epoch;
+
+    private long sequence;
+
+    private boolean reset;
+
+    /**
+     * How long the gateway should keep each entry
+     */
+    private long retentionSeconds;
+
+    private List<Entry> revocations;
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public void setEpoch(long epoch) {
+        this.epoch = epoch;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public void setReset(boolean reset) {
+        this.reset = reset;
+    }
+
+    public long getRetentionSeconds() {
+        return retentionSeconds;
+    }
+
+    public void setRetentionSeconds(long retentionSeconds) {
+        this.retentionSeconds = retentionSeconds;
+    }
+
+    public List<Entry> getRevocations() {
+        return revocations;
+    }
+
+    public void setRevocations(List<Entry> revocations) {
+        this.revocations = revocations;
+    }
+
+    /**
+     * A revoked session (jti), or a user whose tokens issued before {@code at} are revoked (uid)
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Entry {
+
+        private String jti;
+
+        private Integer uid;
+
+        /**
+         * Epoch seconds
+         */
+        private long at;
+
+        public Entry() {
+        }
+
+        public Entry(String jti, Integer uid, long at) {
+            this.jti = jti;
+            this.uid = uid;
+            this.at = at;
+        }
+
+        public String getJti() {
+            return jti;
+        }
+
+        public void setJti(String jti) {
+            this.jti = jti;
+        }
+
+        public Integer getUid() {
+            return uid;
+        }
+
+        public void setUid(Integer uid) {
+            this.uid = uid;
+        }
+
+        public long getAt() {
+            return at;
+        }
+
+        public void setAt(long at) {
+            this.at = at;
+        }
+    }
+}
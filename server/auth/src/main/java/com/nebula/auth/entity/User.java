@@ -0,0 +1,79 @@
+package com.nebula.auth.entity;
+
+import lombok.Data;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * User
+ * Stored user record; mapped to UserItem for the API
+ */
+@Data
+public class User {
+
+    private Integer id;
+
+    private String avatar;
+
+    /**
+     * "1" enabled, "2" disabled, ...
+     */
+    private String status;
+
+    private String userName;
+
+    /**
+     * "1" male, "2" female
+     */
+    private String userGender;
+
+    private String nickName;
+
+    private String userPhone;
+
+    private String userEmail;
+
+    /**
+     * Encoded password hash (see PasswordHash); never mapped to API responses
+     */
+    @ToString.Exclude
+    private String passwordHash;
+
+    /**
+     * Role codes, e.g. R_SUPER
+     */
+    private List<String> userRoles = new ArrayList<>();
+
+    private String createBy;
+
+    private LocalDateTime createTime;
+
+    private String updateBy;
+
+    private LocalDateTime updateTime;
+
+    /**
+     * Detached copy, so callers cannot change stored (indexed) state
+     */
+    public User copy() {
+        User copy = new User();
+        copy.id = id;
+        copy.avatar = avatar;
+        copy.status = status;
+        copy.userName = userName;
+        copy.userGender = userGender;
+        copy.nickName = nickName;
+        copy.userPhone = userPhone;
+        copy.userEmail = userEmail;
+        copy.passwordHash = passwordHash;
+        copy.userRoles = userRoles == null ? new ArrayList<>() : new ArrayList<>(userRoles);
+        copy.createBy = createBy;
+        copy.createTime = createTime;
+        copy.updateBy = updateBy;
+        copy.updateTime = updateTime;
+        return copy;
+    }
+}
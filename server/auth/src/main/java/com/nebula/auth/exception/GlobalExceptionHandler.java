@@ -0,0 +1,69 @@
+package com.nebula.auth.exception;
+
+import com.nebula.auth.password.HasherBusyException;
+import com.nebula.auth.token.TokenException;
+import com.nebula.common.result.Result;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Global Exception Handler
+ * Maps service-layer exceptions to Result error bodies
+ */
+@Slf4j
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    /**
+     * Malformed request parameters and rejected writes
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Result<Void> handleIllegalArgument(IllegalArgumentException e) {
+        log.debug("Rejected request: {}", e.getMessage());
+        return Result.validationError(e.getMessage());
+    }
+
+    /**
+     * Rejected refresh tokens; a reused token has already revoked its session
+     */
+    @ExceptionHandler(TokenException.class)
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    public Result<Void> handleToken(TokenException e) {
+        log.debug("Rejected token ({}): {}", e.getReason(), e.getMessage());
+        return Result.unauthorized(e.getMessage());
+    }
+
+    /**
+     * Failed login
+     */
+    @ExceptionHandler(InvalidCredentialsException.class)
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    public Result<Void> handleInvalidCredentials(InvalidCredentialsException e) {
+        return Result.unauthorized(e.getMessage());
+    }
+
+    /**
+     * Handler requires a permission the caller's roles don't grant
+     */
+    @ExceptionHandler(PermissionDeniedException.class)
+    @ResponseStatus(HttpStatus.FORBIDDEN)
+    public Result<Void> handlePermissionDenied(PermissionDeniedException e) {
+        return Result.forbidden(e.getMessage());
+    }
+
+    /**
+     * Login shed because the password hashing pool is saturated
+     */
+    @ExceptionHandler(HasherBusyException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Result<Void> handleHasherBusy(HasherBusyException e, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        return Result.error(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+    }
+}
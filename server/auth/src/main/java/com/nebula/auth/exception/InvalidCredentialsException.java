@@ -0,0 +1,12 @@
+package com.nebula.auth.exception;
+
+/**
+ * Invalid Credentials Exception
+ * Unknown user name or wrong password; deliberately does not say which
+ */
+public class InvalidCredentialsException extends RuntimeException {
+
+    public InvalidCredentialsException() {
+        super("Invalid user name or password", null, false, false);
+    }
+}
@@ -0,0 +1,12 @@
+package com.nebula.auth.exception;
+
+/**
+ * Permission Denied Exception
+ * The caller's roles don't grant a permission the handler requires
+ */
+public class PermissionDeniedException extends RuntimeException {
+
+    public PermissionDeniedException(String[] required) {
+        super("Missing permission: " + String.join(", ", required), null, false, false);
+    }
+}
@@ -0,0 +1,10 @@
+package com.nebula.auth.export;
+
+import java.util.function.Function;
+
+/**
+ * Export Column
+ * A CSV column: header and value of a row; null values are written as empty fields
+ */
+public record ExportColumn<T>(String header, Function<T, ?> value) {
+}
@@ -0,0 +1,52 @@
+package com.nebula.auth.export;
+
+import java.util.Locale;
+
+/**
+ * Export Format
+ * Row formats of the export endpoints, selected with the {@code format} parameter
+ */
+public enum ExportFormat {
+
+    /**
+     * One JSON object per line, with the same fields as the list endpoints
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * RFC 4180 with a header row; list values are joined with commas inside one field
+     */
+    CSV("text/csv;charset=UTF-8", "csv");
+
+    private final String contentType;
+
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @param name case-insensitive; null or blank means NDJSON
+     * @throws IllegalArgumentException for an unknown format
+     */
+    public static ExportFormat of(String name) {
+        if (name == null || name.isBlank()) {
+            return NDJSON;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + name);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.nebula.auth.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Export Writer
+ * Writes rows in an {@link ExportFormat} through a fixed-size buffer. Nothing reaches the
+ * client until the buffer fills or {@link #flush} is called, and a slow client blocks the
+ * write, which in turn stops the caller from fetching more rows.
+ */
+public final class ExportWriter<T> implements Closeable {
+
+    private final ExportFormat format;
+
+    private final Writer out;
+
+    private final List<ExportColumn<T>> columns;
+
+    private final ObjectWriter json;
+
+    private final JsonGenerator generator;
+
+    private long rows;
+
+    /**
+     * @param type    row type, serialized as the list endpoints would for NDJSON
+     * @param columns CSV columns, in order
+     */
+    public ExportWriter(ExportFormat format, OutputStream out, int bufferSize, ObjectMapper objectMapper,
+                        Class<T> type, List<ExportColumn<T>> columns) throws IOException {
+        this.format = format;
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), bufferSize);
+        this.columns = columns;
+        if (format == ExportFormat.NDJSON) {
+            this.json = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            this.generator = objectMapper.getFactory().createGenerator(this.out);
+            // Lines are separated explicitly, so no root separator before each value
+            this.generator.setRootValueSeparator(null);
+        } else {
+            this.json = null;
+            this.generator = null;
+            writeHeader();
+        }
+    }
+
+    public void write(T row) throws IOException {
+        if (generator != null) {
+            json.writeValue(generator, row);
+            generator.writeRaw('\n');
+        } else {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                writeField(columns.get(i).value().apply(row));
+            }
+            out.write("\r\n");
+        }
+        rows++;
+    }
+
+    /**
+     * Push the buffered rows to the client, blocking while it is slower than the export
+     */
+    public void flush() throws IOException {
+        if (generator != null) {
+            generator.flush();
+        } else {
+            out.flush();
+        }
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (generator != null) {
+            generator.close();
+        }
+        out.close();
+    }
+
+    private void writeHeader() throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeField(columns.get(i).header());
+        }
+        out.write("\r\n");
+    }
+
+    private void writeField(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof Collection<?> list
+                ? String.join(",", list.stream().map(String::valueOf).toList())
+                : value.toString();
+        if (text.isEmpty()) {
+            return;
+        }
+        // Spreadsheets evaluate fields starting with these as formulas
+        char first = text.charAt(0);
+        boolean formula = first == '=' || first == '+' || first == '-' || first == '@';
+        boolean quote = formula;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        if (formula) {
+            out.write('\'');
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+}
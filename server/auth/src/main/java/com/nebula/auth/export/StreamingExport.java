@@ -0,0 +1,20 @@
+package com.nebula.auth.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streaming Export
+ * An export whose parameters have been validated, ready to be written once the response
+ * headers are set. Rows are produced while writing, so nothing is materialized up front.
+ */
+@FunctionalInterface
+public interface StreamingExport {
+
+    /**
+     * Write every row and close {@code out}
+     *
+     * @return rows written
+     */
+    long writeTo(OutputStream out) throws IOException;
+}
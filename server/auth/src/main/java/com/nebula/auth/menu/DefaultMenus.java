@@ -0,0 +1,105 @@
+package com.nebula.auth.menu;
+
+import com.nebula.auth.dto.response.MenuMeta;
+import com.nebula.auth.dto.response.MenuResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Default Menus
+ * Built-in route tree served by /api/v3/system/menus; visibility per role is in meta.roles
+ */
+public final class DefaultMenus {
+
+    private DefaultMenus() {
+    }
+
+    public static List<MenuResponse> create() {
+        MenuMeta.AuthButton menuAuthAdd = new MenuMeta.AuthButton("新增", "add");
+        MenuMeta.AuthButton menuAuthEdit = new MenuMeta.AuthButton("编辑", "edit");
+        MenuMeta.AuthButton menuAuthDelete = new MenuMeta.AuthButton("删除", "delete");
+
+        MenuResponse dashboardRoute = new MenuResponse();
+        dashboardRoute.setPath("/dashboard");
+        dashboardRoute.setName("Dashboard");
+        dashboardRoute.setComponent("/index/index");
+        MenuMeta dashboardMeta = new MenuMeta();
+        dashboardMeta.setTitle("menus.home.title");
+        dashboardMeta.setIcon("ri:dashboard-3-line");
+        dashboardRoute.setMeta(dashboardMeta);
+        dashboardRoute.setId(1);
+
+        MenuResponse systemRoute = new MenuResponse();
+        systemRoute.setPath("/system");
+        systemRoute.setName("System");
+        systemRoute.setComponent("/index/index");
+        MenuMeta systemMeta = new MenuMeta();
+        systemMeta.setTitle("menus.system.title");
+        systemMeta.setIcon("ri:user-3-line");
+        systemMeta.setRoles(Arrays.asList("R_SUPER", "R_ADMIN"));
+        systemRoute.setMeta(systemMeta);
+        systemRoute.setId(10);
+
+        List<MenuResponse> systemChildren = new ArrayList<>();
+
+        MenuResponse userRoute = new MenuResponse();
+        userRoute.setPath("user");
+        userRoute.setName("User");
+        userRoute.setComponent("/system/user");
+        MenuMeta userMeta = new MenuMeta();
+        userMeta.setTitle("menus.system.user");
+        userMeta.setIcon("ri:user-line");
+        userMeta.setKeepAlive(true);
+        userMeta.setRoles(Arrays.asList("R_SUPER", "R_ADMIN"));
+        userRoute.setMeta(userMeta);
+        userRoute.setId(11);
+        systemChildren.add(userRoute);
+
+        MenuResponse roleRoute = new MenuResponse();
+        roleRoute.setPath("role");
+        roleRoute.setName("Role");
+        roleRoute.setComponent("/system/role");
+        MenuMeta roleMeta = new MenuMeta();
+        roleMeta.setTitle("menus.system.role");
+        roleMeta.setIcon("ri:user-settings-line");
+        roleMeta.setKeepAlive(true);
+        roleMeta.setRoles(Arrays.asList("R_SUPER"));
+        roleRoute.setMeta(roleMeta);
+        roleRoute.setId(12);
+        systemChildren.add(roleRoute);
+
+        MenuResponse userCenterRoute = new MenuResponse();
+        userCenterRoute.setPath("user-center");
+        userCenterRoute.setName("UserCenter");
+        userCenterRoute.setComponent("/system/user-center");
+        MenuMeta userCenterMeta = new MenuMeta();
+        userCenterMeta.setTitle("menus.system.userCenter");
+        userCenterMeta.setIcon("ri:user-line");
+        userCenterMeta.setIsHide(true);
+        userCenterMeta.setKeepAlive(true);
+        userCenterMeta.setIsHideTab(true);
+        userCenterRoute.setMeta(userCenterMeta);
+        userCenterRoute.setId(13);
+        systemChildren.add(userCenterRoute);
+
+        MenuResponse menuRoute = new MenuResponse();
+        menuRoute.setPath("menu");
+        menuRoute.setName("Menus");
+        menuRoute.setComponent("/system/menu");
+        MenuMeta menuMeta = new MenuMeta();
+        menuMeta.setTitle("menus.system.menu");
+        menuMeta.setIcon("ri:menu-line");
+        menuMeta.setKeepAlive(true);
+        menuMeta.setRoles(Arrays.asList("R_SUPER"));
+        menuMeta.setAuthList(Arrays.asList(menuAuthAdd, menuAuthEdit, menuAuthDelete));
+        menuRoute.setMeta(menuMeta);
+        menuRoute.setId(14);
+        systemChildren.add(menuRoute);
+
+        systemRoute.setChildren(systemChildren);
+
+        return List.of(dashboardRoute, systemRoute);
+    }
+}
@@ -0,0 +1,129 @@
+package com.nebula.auth.menu;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nebula.auth.dto.response.MenuMeta;
+import com.nebula.auth.dto.response.MenuResponse;
+import com.nebula.common.result.Result;
+import com.nebula.common.result.SerializedResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Menu Tree Cache
+ * The menu tree filtered for each distinct role set, serialized once as a
+ * {@code Result<MenuResponse[]>}. A menu is kept when its {@code meta.roles} is empty or shares
+ * a role with the caller, and its children are filtered the same way. Hidden ({@code isHide})
+ * routes are still sent because the router has to register them, and a menu's action
+ * buttons ({@code authList}) travel with it.
+ *
+ * <p>The menus are static ({@link DefaultMenus}, fixed at startup), so entries never go stale.
+ * Changing a user's roles needs no invalidation either: the gateway forwards the new role list,
+ * which selects a different entry.
+ */
+public class MenuTreeCache {
+
+    /**
+     * Raw role header variants remembered per snapshot; beyond this they are normalized per request
+     */
+    private static final int MAX_ALIASES = 1024;
+
+    private final ObjectMapper objectMapper;
+
+    private final List<MenuResponse> menus;
+
+    /**
+     * Keyed by the sorted, de-duplicated role list
+     */
+    private final Map<String, SerializedResult> byRoleSet = new ConcurrentHashMap<>();
+
+    /**
+     * Keyed by the role header exactly as received, so the hot path is one lookup
+     */
+    private final Map<String, SerializedResult> byAlias = new ConcurrentHashMap<>();
+
+    public MenuTreeCache(ObjectMapper objectMapper, List<MenuResponse> menus) {
+        this.objectMapper = objectMapper;
+        this.menus = List.copyOf(menus);
+    }
+
+    /**
+     * The serialized tree for a comma-separated role list, as forwarded by the gateway
+     * in X-User-Roles; null or blank means no roles
+     */
+    public SerializedResult get(String roles) {
+        String alias = roles == null ? "" : roles;
+        SerializedResult cached = byAlias.get(alias);
+        if (cached != null) {
+            return cached;
+        }
+
+        TreeSet<String> roleSet = parseRoles(alias);
+        SerializedResult result = byRoleSet.computeIfAbsent(String.join(",", roleSet), key -> build(roleSet));
+        if (byAlias.size() < MAX_ALIASES) {
+            byAlias.putIfAbsent(alias, result);
+        }
+        return result;
+    }
+
+    public int size() {
+        return byRoleSet.size();
+    }
+
+    private SerializedResult build(Collection<String> roles) {
+        List<MenuResponse> tree = filter(menus, roles);
+        try {
+            return SerializedResult.of(Result.success(tree.toArray(MenuResponse[]::new)), objectMapper);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize menu tree", e);
+        }
+    }
+
+    private static List<MenuResponse> filter(List<MenuResponse> menus, Collection<String> roles) {
+        List<MenuResponse> visible = new ArrayList<>(menus.size());
+        for (MenuResponse menu : menus) {
+            if (!isVisible(menu.getMeta(), roles)) {
+                continue;
+            }
+            MenuResponse copy = new MenuResponse();
+            copy.setId(menu.getId());
+            copy.setPath(menu.getPath());
+            copy.setName(menu.getName());
+            copy.setComponent(menu.getComponent());
+            copy.setMeta(menu.getMeta());
+            if (menu.getChildren() != null) {
+                copy.setChildren(filter(menu.getChildren(), roles));
+            }
+            visible.add(copy);
+        }
+        return visible;
+    }
+
+    private static boolean isVisible(MenuMeta meta, Collection<String> roles) {
+        if (meta == null || meta.getRoles() == null || meta.getRoles().isEmpty()) {
+            return true;
+        }
+        for (String role : meta.getRoles()) {
+            if (roles.contains(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static TreeSet<String> parseRoles(String roles) {
+        TreeSet<String> roleSet = new TreeSet<>();
+        for (String role : roles.split(",")) {
+            String trimmed = role.trim();
+            if (!trimmed.isEmpty()) {
+                roleSet.add(trimmed);
+            }
+        }
+        return roleSet;
+    }
+}
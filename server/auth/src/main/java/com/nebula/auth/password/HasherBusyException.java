@@ -0,0 +1,12 @@
+package com.nebula.auth.password;
+
+/**
+ * Hasher Busy Exception
+ * The password hasher is saturated and the request was shed; callers should retry later
+ */
+public class HasherBusyException extends RuntimeException {
+
+    public HasherBusyException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,83 @@
+package com.nebula.auth.password;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Password Hash
+ * PBKDF2-HMAC-SHA256 hashes stored as {@code pbkdf2-sha256$<iterations>$<salt>$<hash>}
+ * with base64url salt and hash. The iteration count travels with each hash, so it can be
+ * raised for new hashes without invalidating old ones.
+ */
+public record PasswordHash(int iterations, byte[] salt, byte[] hash) {
+
+    static final String SCHEME = "pbkdf2-sha256";
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+
+    private static final int SALT_LENGTH = 16;
+
+    private static final int HASH_LENGTH = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Hash a password with a fresh random salt
+     */
+    public static PasswordHash create(String password, int iterations) {
+        byte[] salt = new byte[SALT_LENGTH];
+        RANDOM.nextBytes(salt);
+        return new PasswordHash(iterations, salt, derive(password, salt, iterations, HASH_LENGTH));
+    }
+
+    /**
+     * @return the decoded hash, or null if the value is not in this scheme's format
+     */
+    public static PasswordHash parse(String encoded) {
+        if (encoded == null || !encoded.startsWith(SCHEME + "$")) {
+            return null;
+        }
+        String[] parts = encoded.split("\\$");
+        if (parts.length != 4) {
+            return null;
+        }
+        try {
+            int iterations = Integer.parseInt(parts[1]);
+            byte[] salt = DECODER.decode(parts[2]);
+            byte[] hash = DECODER.decode(parts[3]);
+            if (iterations <= 0 || salt.length == 0 || hash.length == 0) {
+                return null;
+            }
+            return new PasswordHash(iterations, salt, hash);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public boolean matches(String password) {
+        return MessageDigest.isEqual(hash, derive(password, salt, iterations, hash.length));
+    }
+
+    public String encode() {
+        return SCHEME + "$" + iterations + "$" + ENCODER.encodeToString(salt) + "$" + ENCODER.encodeToString(hash);
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations, int length) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, length * 8);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
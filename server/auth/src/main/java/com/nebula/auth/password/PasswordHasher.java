@@ -0,0 +1,244 @@
+package com.nebula.auth.password;
+
+import com.nebula.auth.config.PasswordProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Password Hasher
+ * Runs password hashing on its own small, bounded pool so a burst of logins cannot take
+ * the CPU or the servlet threads that every other endpoint needs. Work that cannot be
+ * queued is rejected at once, and work that waited longer than the caller is likely to
+ * wait is dropped unhashed; both surface as {@link HasherBusyException} (HTTP 503).
+ *
+ * <p>The iteration count for new hashes follows the measured CPU cost per iteration, so a
+ * hash takes about the configured target time on this hardware. CPU time rather than wall
+ * time is measured, so contention during a storm does not drag the target down. Stored
+ * hashes below the target are upgraded on login when the pool has headroom.
+ */
+@Slf4j
+public class PasswordHasher implements AutoCloseable {
+
+    /**
+     * Weight of the newest sample in the cost-per-iteration average
+     */
+    private static final double ALPHA = 0.1;
+
+    private static final int ITERATION_STEP = 10_000;
+
+    private final PasswordProperties properties;
+
+    private final int queueCapacity;
+
+    private final long maxQueueWaitNanos;
+
+    private final ThreadPoolExecutor executor;
+
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    private final boolean cpuTimeSupported;
+
+    private final Timer verifyTimer;
+
+    private final Timer createTimer;
+
+    private final Timer queueWait;
+
+    private final LongAdder saturated = new LongAdder();
+
+    private final LongAdder expired = new LongAdder();
+
+    private volatile double nanosPerIteration;
+
+    private volatile int targetIterations;
+
+    /**
+     * Checked in place of a missing hash, so unknown user names take as long as known ones
+     */
+    private final byte[] decoySalt = new byte[16];
+
+    /**
+     * Cost of the decoy check: the iteration count of the last stored hash verified, which is
+     * what a known user name costs, rather than the target for new hashes
+     */
+    private volatile int decoyIterations;
+
+    private final byte[] decoyHash = new byte[32];
+
+    public PasswordHasher(PasswordProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        int threads = properties.getThreads() > 0
+                ? properties.getThreads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.queueCapacity = properties.getQueueCapacity();
+        this.maxQueueWaitNanos = properties.getMaxQueueWait().toNanos();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hash-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+        this.cpuTimeSupported = threadBean.isCurrentThreadCpuTimeSupported() && threadBean.isThreadCpuTimeEnabled();
+
+        this.verifyTimer = hashTimer(registry, "verify");
+        this.createTimer = hashTimer(registry, "create");
+        this.queueWait = Timer.builder("auth.password.queue.wait")
+                .description("Time a hashing task waited for a thread")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Gauge.builder("auth.password.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Hashing tasks waiting for a thread")
+                .register(registry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing threads busy")
+                .register(registry);
+        Gauge.builder("auth.password.iterations", this, hasher -> hasher.targetIterations)
+                .description("PBKDF2 iterations used for new hashes")
+                .register(registry);
+        FunctionCounter.builder("auth.password.rejected", saturated, LongAdder::sum)
+                .tag("reason", "saturated")
+                .register(registry);
+        FunctionCounter.builder("auth.password.rejected", expired, LongAdder::sum)
+                .tag("reason", "expired")
+                .register(registry);
+
+        // One hash at the floor calibrates the cost before the first request
+        this.targetIterations = properties.getMinIterations();
+        this.decoyIterations = properties.getMinIterations();
+        PasswordHash calibration = timed(createTimer, properties.getMinIterations(),
+                () -> PasswordHash.create("calibration", properties.getMinIterations()));
+        System.arraycopy(calibration.salt(), 0, decoySalt, 0, decoySalt.length);
+        System.arraycopy(calibration.hash(), 0, decoyHash, 0, decoyHash.length);
+        log.info("Password hasher: {} threads, queue {}, {} iterations for new hashes",
+                threads, queueCapacity, targetIterations);
+    }
+
+    /**
+     * Check a password against a stored hash. A missing or unreadable hash never matches,
+     * but costs the same as a real check.
+     */
+    public CompletableFuture<Boolean> verify(String password, String encoded) {
+        PasswordHash stored = PasswordHash.parse(encoded);
+        PasswordHash hash;
+        if (stored != null) {
+            trackStoredIterations(stored.iterations());
+            hash = stored;
+        } else {
+            hash = new PasswordHash(decoyIterations, decoySalt, decoyHash);
+        }
+        return submit(() -> timed(verifyTimer, hash.iterations(), () -> hash.matches(password)) && stored != null);
+    }
+
+    private void trackStoredIterations(int iterations) {
+        int clamped = Math.max(properties.getMinIterations(), Math.min(properties.getMaxIterations(), iterations));
+        if (clamped != decoyIterations) {
+            decoyIterations = clamped;
+        }
+    }
+
+    /**
+     * Hash a new password with the current target iteration count
+     */
+    public CompletableFuture<String> hash(String password) {
+        return submit(() -> {
+            int iterations = targetIterations;
+            return timed(createTimer, iterations, () -> PasswordHash.create(password, iterations)).encode();
+        });
+    }
+
+    /**
+     * Whether a stored hash is weaker than the current target and the pool is quiet enough
+     * to re-hash it now
+     */
+    public boolean shouldUpgrade(String encoded) {
+        if (!properties.isUpgradeOnLogin() || executor.getQueue().size() > queueCapacity / 4) {
+            return false;
+        }
+        PasswordHash stored = PasswordHash.parse(encoded);
+        int target = targetIterations;
+        return stored != null && stored.iterations() < target - target / 10;
+    }
+
+    public int getTargetIterations() {
+        return targetIterations;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long waited = System.nanoTime() - enqueuedAt;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxQueueWaitNanos) {
+                    expired.increment();
+                    future.completeExceptionally(new HasherBusyException("Login service busy, please retry"));
+                    return;
+                }
+                try {
+                    future.complete(work.get());
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            saturated.increment();
+            future.completeExceptionally(new HasherBusyException("Login service busy, please retry"));
+        }
+        return future;
+    }
+
+    private <T> T timed(Timer timer, int iterations, Supplier<T> work) {
+        long cpuStart = cpuTimeSupported ? threadBean.getCurrentThreadCpuTime() : 0;
+        long start = System.nanoTime();
+        T result = work.get();
+        long elapsed = System.nanoTime() - start;
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+        calibrate(iterations, cpuTimeSupported ? threadBean.getCurrentThreadCpuTime() - cpuStart : elapsed);
+        return result;
+    }
+
+    /**
+     * Fold a measurement into the cost estimate and recompute the target. Concurrent updates
+     * may lose a sample, which only slows the average down.
+     */
+    private void calibrate(int iterations, long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        double sample = (double) nanos / iterations;
+        double current = nanosPerIteration;
+        double updated = current == 0 ? sample : current + ALPHA * (sample - current);
+        nanosPerIteration = updated;
+
+        long ideal = (long) (properties.getTargetHashTime().toNanos() / updated);
+        long rounded = Math.round((double) ideal / ITERATION_STEP) * ITERATION_STEP;
+        targetIterations = (int) Math.max(properties.getMinIterations(),
+                Math.min(properties.getMaxIterations(), rounded));
+    }
+
+    private static Timer hashTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("auth.password.hash")
+                .description("Wall time of one password hash")
+                .tag("operation", operation)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,70 @@
+package com.nebula.auth.permission;
+
+import com.nebula.auth.config.PermissionProperties;
+import com.nebula.auth.dto.response.MenuMeta;
+import com.nebula.auth.dto.response.MenuResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Permission Engine
+ * Owns the {@link PermissionTable}. A role's grants are the union of the button codes
+ * ({@code meta.authList}) of menus whose {@code meta.roles} include it and the grants in
+ * {@code nebula.permission.grants}. Both are fixed at startup, as the menus are (see
+ * MenuTreeCache), so the table is compiled once. Changing a user's roles needs no recompile:
+ * the gateway forwards the new role list, which the table resolves like any other.
+ *
+ * <p>A menu without roles inherits its parent's; button codes on menus without roles anywhere
+ * up the tree are not granted to anyone by the menu.
+ */
+@Slf4j
+public class PermissionEngine {
+
+    private final PermissionTable table;
+
+    public PermissionEngine(PermissionProperties properties, List<MenuResponse> menus) {
+        this.table = compile(properties, menus);
+    }
+
+    public PermissionTable current() {
+        return table;
+    }
+
+    private static PermissionTable compile(PermissionProperties properties, List<MenuResponse> menus) {
+        Map<String, Set<String>> grants = new HashMap<>();
+        collectMenuGrants(menus, List.of(), grants);
+        properties.getGrants().forEach((role, codes) ->
+                grants.computeIfAbsent(role, key -> new LinkedHashSet<>()).addAll(codes));
+        PermissionTable compiled = PermissionTable.compile(grants, properties.getSuperRoles());
+        log.info("Permission table: {} permissions across {} roles", compiled.size(), grants.size());
+        return compiled;
+    }
+
+    private static void collectMenuGrants(List<MenuResponse> menus, List<String> inheritedRoles,
+                                          Map<String, Set<String>> grants) {
+        for (MenuResponse menu : menus) {
+            MenuMeta meta = menu.getMeta();
+            List<String> roles = meta != null && meta.getRoles() != null && !meta.getRoles().isEmpty()
+                    ? meta.getRoles()
+                    : inheritedRoles;
+            if (meta != null && meta.getAuthList() != null) {
+                for (String role : roles) {
+                    Set<String> codes = grants.computeIfAbsent(role, key -> new LinkedHashSet<>());
+                    for (MenuMeta.AuthButton button : meta.getAuthList()) {
+                        if (button.getAuthMark() != null) {
+                            codes.add(button.getAuthMark());
+                        }
+                    }
+                }
+            }
+            if (menu.getChildren() != null) {
+                collectMenuGrants(menu.getChildren(), roles, grants);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.nebula.auth.permission;
+
+import com.nebula.auth.exception.PermissionDeniedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Permission Interceptor
+ * Enforces {@link RequiresPermission} on handler methods. The caller's roles come from the
+ * gateway's X-User-Roles header (set from the verified token), so the check is a cached
+ * table lookup plus one bit test per required code. Required codes are translated to ids
+ * once per handler.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class PermissionInterceptor implements HandlerInterceptor {
+
+    static final String ROLES_HEADER = "X-User-Roles";
+
+    private static final Requirement NONE = new Requirement(new String[0], new int[0]);
+
+    private final PermissionEngine permissionEngine;
+
+    private final Map<Method, Requirement> requirements = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Requirement requirement = requirements.computeIfAbsent(handlerMethod.getMethod(),
+                method -> requirementOf(handlerMethod));
+        if (requirement == NONE) {
+            return true;
+        }
+
+        PermissionSet granted = permissionEngine.current().resolve(request.getHeader(ROLES_HEADER));
+        if (!granted.hasAll(requirement.ids)) {
+            log.debug("Denied {} {}: requires {}", request.getMethod(), request.getRequestURI(),
+                    String.join(",", requirement.codes));
+            throw new PermissionDeniedException(requirement.codes);
+        }
+        return true;
+    }
+
+    private Requirement requirementOf(HandlerMethod handlerMethod) {
+        RequiresPermission annotation = handlerMethod.getMethodAnnotation(RequiresPermission.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), RequiresPermission.class);
+        }
+        if (annotation == null || annotation.value().length == 0) {
+            return NONE;
+        }
+        return new Requirement(annotation.value(), permissionEngine.current().permissionIds(annotation.value()));
+    }
+
+    private record Requirement(String[] codes, int[] ids) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.nebula.auth.permission;
+
+/**
+ * Permission Set
+ * A principal's effective permissions as a bitset over the permission ids of one
+ * {@link PermissionTable}. Immutable; super roles hold every permission, including codes
+ * no role was granted.
+ */
+public final class PermissionSet {
+
+    static final PermissionSet NONE = new PermissionSet(new long[0], false);
+
+    static final PermissionSet ALL = new PermissionSet(new long[0], true);
+
+    private final long[] words;
+
+    private final boolean all;
+
+    PermissionSet(long[] words, boolean all) {
+        this.words = words;
+        this.all = all;
+    }
+
+    /**
+     * @param id a permission id from the same table; negative for a code the table doesn't know
+     */
+    public boolean has(int id) {
+        if (all) {
+            return true;
+        }
+        int word = id >>> 6;
+        return id >= 0 && word < words.length && (words[word] & (1L << id)) != 0;
+    }
+
+    public boolean hasAll(int[] ids) {
+        for (int id : ids) {
+            if (!has(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,132 @@
+package com.nebula.auth.permission;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Permission Table
+ * Role grants compiled to dense integers: every button code gets a permission id (in code
+ * order) and every role a bitset of the ids it grants. A principal's effective set is the OR
+ * of its roles' bitsets, resolved once per distinct role list and kept with the table, so
+ * a request costs one map lookup plus a bit test per required code.
+ *
+ * <p>Immutable; {@link PermissionEngine} compiles the one table at startup.
+ */
+public final class PermissionTable {
+
+    /**
+     * Distinct role header values remembered per table; beyond this they are resolved per request
+     */
+    private static final int MAX_ROLE_SETS = 1024;
+
+    private final Map<String, Integer> permissionIds;
+
+    private final List<String> codes;
+
+    private final Map<String, long[]> roleBits;
+
+    private final Set<String> superRoles;
+
+    private final Map<String, PermissionSet> byRoles = new ConcurrentHashMap<>();
+
+    private PermissionTable(List<String> codes, Map<String, Integer> permissionIds,
+                            Map<String, long[]> roleBits, Set<String> superRoles) {
+        this.codes = codes;
+        this.permissionIds = permissionIds;
+        this.roleBits = roleBits;
+        this.superRoles = superRoles;
+    }
+
+    /**
+     * @param grants     role → button codes it grants
+     * @param superRoles roles that hold every permission
+     */
+    static PermissionTable compile(Map<String, ? extends Collection<String>> grants, Collection<String> superRoles) {
+        TreeSet<String> allCodes = new TreeSet<>();
+        grants.values().forEach(allCodes::addAll);
+        List<String> codes = List.copyOf(allCodes);
+        Map<String, Integer> ids = new HashMap<>(codes.size() * 2);
+        for (int i = 0; i < codes.size(); i++) {
+            ids.put(codes.get(i), i);
+        }
+
+        int wordCount = (codes.size() + 63) >>> 6;
+        Map<String, long[]> roleBits = new HashMap<>(grants.size() * 2);
+        grants.forEach((role, granted) -> {
+            long[] words = new long[wordCount];
+            for (String code : granted) {
+                int id = ids.get(code);
+                words[id >>> 6] |= 1L << id;
+            }
+            roleBits.put(role, words);
+        });
+        return new PermissionTable(codes, ids, roleBits, Set.copyOf(superRoles));
+    }
+
+    /**
+     * @return the code's id, or -1 if no role grants it (only super roles pass)
+     */
+    public int permissionId(String code) {
+        Integer id = permissionIds.get(code);
+        return id == null ? -1 : id;
+    }
+
+    public int[] permissionIds(String[] codes) {
+        int[] ids = new int[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            ids[i] = permissionId(codes[i]);
+        }
+        return ids;
+    }
+
+    /**
+     * Effective permissions for a comma-separated role list, as forwarded by the gateway in
+     * X-User-Roles; null or blank means no roles
+     */
+    public PermissionSet resolve(String roles) {
+        String key = roles == null ? "" : roles;
+        PermissionSet cached = byRoles.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        PermissionSet resolved = compute(key);
+        if (byRoles.size() < MAX_ROLE_SETS) {
+            byRoles.putIfAbsent(key, resolved);
+        }
+        return resolved;
+    }
+
+    public int size() {
+        return codes.size();
+    }
+
+    private PermissionSet compute(String roles) {
+        long[] words = null;
+        for (String role : roles.split(",")) {
+            String trimmed = role.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (superRoles.contains(trimmed)) {
+                return PermissionSet.ALL;
+            }
+            long[] granted = roleBits.get(trimmed);
+            if (granted == null) {
+                continue;
+            }
+            if (words == null) {
+                words = granted.clone();
+            } else {
+                for (int i = 0; i < words.length; i++) {
+                    words[i] |= granted[i];
+                }
+            }
+        }
+        return words == null ? PermissionSet.NONE : new PermissionSet(words, false);
+    }
+}
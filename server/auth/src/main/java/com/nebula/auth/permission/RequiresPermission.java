@@ -0,0 +1,21 @@
+package com.nebula.auth.permission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requires Permission
+ * Button codes (as in {@code MenuMeta.AuthButton.authMark}) the caller's roles must grant
+ * before the handler runs; all listed codes are required. On a controller class it applies
+ * to every handler without its own annotation. Enforced by {@link PermissionInterceptor}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface RequiresPermission {
+
+    String[] value();
+}
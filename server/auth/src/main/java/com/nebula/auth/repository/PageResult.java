@@ -0,0 +1,10 @@
+package com.nebula.auth.repository;
+
+import java.util.List;
+
+/**
+ * Page Result
+ * One page of a repository query and the total number of matches
+ */
+public record PageResult<T>(List<T> records, int current, int size, int total) {
+}
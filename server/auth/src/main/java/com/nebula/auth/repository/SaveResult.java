@@ -0,0 +1,26 @@
+package com.nebula.auth.repository;
+
+import com.nebula.auth.entity.User;
+
+/**
+ * Save Result
+ * Outcome of one write in a batch: the stored user, or why nothing was stored
+ */
+public record SaveResult(User user, boolean notFound, String error) {
+
+    public static SaveResult saved(User user) {
+        return new SaveResult(user, false, null);
+    }
+
+    public static SaveResult missing(int id) {
+        return new SaveResult(null, true, "User not found: " + id);
+    }
+
+    public static SaveResult rejected(String error) {
+        return new SaveResult(null, false, error);
+    }
+
+    public boolean isSaved() {
+        return user != null;
+    }
+}
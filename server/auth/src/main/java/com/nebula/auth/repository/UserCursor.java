@@ -0,0 +1,20 @@
+package com.nebula.auth.repository;
+
+import com.nebula.auth.entity.User;
+
+import java.util.List;
+
+/**
+ * User Cursor
+ * Forward-only scan over the users matching a query's filters, newest first, fetched a
+ * chunk at a time. Each chunk is read under its own lock acquisition and resumes after the
+ * last user returned, so writers are not held off for a whole scan and no user is returned
+ * twice; users created or re-timed during the scan may be missed.
+ */
+public interface UserCursor {
+
+    /**
+     * Up to {@code max} more users; empty once the scan is exhausted
+     */
+    List<User> next(int max);
+}
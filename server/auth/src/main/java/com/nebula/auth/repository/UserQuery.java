@@ -0,0 +1,140 @@
+package com.nebula.auth.repository;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * User Query
+ * Typed form of the /api/user/list request parameters. Blank values mean "no filter";
+ * malformed values are rejected with IllegalArgumentException. The text filters are search
+ * terms: userName and userEmail match by case-insensitive prefix, userPhone (by digits) and
+ * nickName by substring, and keyword by any of these.
+ */
+@Getter
+public final class UserQuery {
+
+    public static final int DEFAULT_SIZE = 10;
+
+    public static final int MAX_SIZE = 100;
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private int current = 1;
+
+    private int size = DEFAULT_SIZE;
+
+    private String status;
+
+    private String userGender;
+
+    private String roleCode;
+
+    private String userName;
+
+    private String userPhone;
+
+    private String userEmail;
+
+    private String nickName;
+
+    /**
+     * The search box: matches user name, email, phone or nick name
+     */
+    private String keyword;
+
+    /**
+     * Inclusive lower bound on createTime, epoch millis; null if unbounded
+     */
+    private Long createTimeFrom;
+
+    /**
+     * Inclusive upper bound on createTime, epoch millis; null if unbounded
+     */
+    private Long createTimeTo;
+
+    private UserQuery() {
+    }
+
+    public static UserQuery from(Map<String, ?> params) {
+        UserQuery query = new UserQuery();
+        query.current = intParam(params, "current", 1, 1, Integer.MAX_VALUE);
+        query.size = intParam(params, "size", DEFAULT_SIZE, 1, MAX_SIZE);
+        query.status = text(params, "status");
+        query.userGender = text(params, "userGender");
+        query.roleCode = firstText(params, "roleCode", "userRole");
+        query.userName = text(params, "userName");
+        query.userPhone = text(params, "userPhone");
+        String email = text(params, "userEmail");
+        query.userEmail = email == null ? null : email.toLowerCase();
+        query.nickName = text(params, "nickName");
+        query.keyword = text(params, "keyword");
+        query.createTimeFrom = timeParam(params, "createTimeStart", false);
+        query.createTimeTo = timeParam(params, "createTimeEnd", true);
+        return query;
+    }
+
+    public int offset() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) (current - 1) * size);
+    }
+
+    private static String text(Map<String, ?> params, String name) {
+        Object value = params.get(name);
+        if (value == null) {
+            return null;
+        }
+        String text = value.toString().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static String firstText(Map<String, ?> params, String... names) {
+        for (String name : names) {
+            String text = text(params, name);
+            if (text != null) {
+                return text;
+            }
+        }
+        return null;
+    }
+
+    private static int intParam(Map<String, ?> params, String name, int defaultValue, int min, int max) {
+        String text = text(params, name);
+        if (text == null) {
+            return defaultValue;
+        }
+        int value;
+        try {
+            value = Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + text);
+        }
+        if (value < min) {
+            throw new IllegalArgumentException(name + " must be at least " + min);
+        }
+        return Math.min(value, max);
+    }
+
+    /**
+     * Accepts "yyyy-MM-dd HH:mm:ss" or "yyyy-MM-dd"; a bare end date covers the whole day
+     */
+    private static Long timeParam(Map<String, ?> params, String name, boolean endOfDay) {
+        String text = text(params, name);
+        if (text == null) {
+            return null;
+        }
+        try {
+            LocalDateTime time = text.length() == 10
+                    ? (endOfDay ? LocalDate.parse(text).plusDays(1).atStartOfDay().minusNanos(1_000_000)
+                    : LocalDate.parse(text).atStartOfDay())
+                    : LocalDateTime.parse(text, DATE_TIME);
+            return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + text);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.nebula.auth.repository;
+
+import com.nebula.auth.entity.User;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * User Repository
+ * User storage. Returned users are detached copies; changes go through {@link #save}.
+ */
+public interface UserRepository {
+
+    Optional<User> findById(int id);
+
+    Optional<User> findByUserName(String userName);
+
+    /**
+     * Users in the order of {@code ids}, null where an id is unknown
+     */
+    List<User> findAllById(List<Integer> ids);
+
+    /**
+     * Users matching every filter of the query, newest first
+     */
+    PageResult<User> query(UserQuery query);
+
+    /**
+     * Cursor over every user matching the query's filters, newest first; paging is ignored
+     */
+    UserCursor cursor(UserQuery query);
+
+    /**
+     * Insert (id null: a new id is assigned) or replace the user with the same id
+     *
+     * @throws IllegalArgumentException if the user name belongs to another user, or the id
+     *                                  was never assigned by this repository
+     */
+    User save(User user);
+
+    /**
+     * {@link #save} every user under one lock acquisition; a rejected user doesn't stop the batch
+     */
+    List<SaveResult> saveAll(List<User> users);
+
+    /**
+     * Apply each change to a copy of the stored user and save it, all under one lock
+     * acquisition, so no concurrent write lands between read and save
+     */
+    List<SaveResult> updateAll(List<UserUpdate> updates);
+
+    boolean deleteById(int id);
+
+    int count();
+}
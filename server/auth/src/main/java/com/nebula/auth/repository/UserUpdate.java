@@ -0,0 +1,12 @@
+package com.nebula.auth.repository;
+
+import com.nebula.auth.entity.User;
+
+import java.util.function.Consumer;
+
+/**
+ * User Update
+ * A change to apply to the stored user with the given id, as part of a batch
+ */
+public record UserUpdate(int id, Consumer<User> change) {
+}
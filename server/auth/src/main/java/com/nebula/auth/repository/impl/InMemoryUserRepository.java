@@ -0,0 +1,693 @@
+package com.nebula.auth.repository.impl;
+
+import com.nebula.auth.entity.User;
+import com.nebula.auth.repository.PageResult;
+import com.nebula.auth.repository.SaveResult;
+import com.nebula.auth.repository.UserCursor;
+import com.nebula.auth.repository.UserQuery;
+import com.nebula.auth.repository.UserRepository;
+import com.nebula.auth.repository.UserUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-Memory User Repository
+ * Users live in arrays indexed by id ("slot"). Low-cardinality fields (status, gender,
+ * role) have one bitmap per value; user name, email, phone and nick name are searchable
+ * through a {@link UserSearchIndex}; and a slot array sorted by createTime serves ordering
+ * and time-range filters.
+ *
+ * <p>Query plan: text filters are looked up in the search index (without the lock) and the
+ * candidates checked against the bitmaps and the stored users. Otherwise the bitmap
+ * intersection is counted word by word; a selective result is collected and sorted, a
+ * broad one is paged by walking the createTime order and testing bits, so a page costs
+ * roughly offset + size probes.
+ */
+@Slf4j
+@Repository
+public class InMemoryUserRepository implements UserRepository {
+
+    /**
+     * Intersections up to this size are collected and sorted instead of walked in time order
+     */
+    private static final int COLLECT_THRESHOLD = 4096;
+
+    private static final SlotBitmap EMPTY = new SlotBitmap();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private User[] users = new User[1024];
+
+    private long[] createMillis = new long[1024];
+
+    private final SlotBitmap live = new SlotBitmap();
+
+    private final Map<String, SlotBitmap> byStatus = new HashMap<>();
+
+    private final Map<String, SlotBitmap> byGender = new HashMap<>();
+
+    private final Map<String, SlotBitmap> byRole = new HashMap<>();
+
+    private final Map<String, Integer> byUserName = new HashMap<>();
+
+    private final UserSearchIndex search = new UserSearchIndex(this::slot);
+
+    /**
+     * Live slots ordered by (createTime, id) ascending
+     */
+    private int[] timeOrder = new int[1024];
+
+    private int count;
+
+    private int nextId = 1;
+
+    public InMemoryUserRepository() {
+        seedDemoUsers();
+    }
+
+    @Override
+    public Optional<User> findById(int id) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(slot(id)).map(User::copy);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<User> findByUserName(String userName) {
+        lock.readLock().lock();
+        try {
+            Integer slot = byUserName.get(userName);
+            return slot == null ? Optional.empty() : Optional.of(users[slot].copy());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int count() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public PageResult<User> query(UserQuery query) {
+        boolean text = UserSearchIndex.hasText(query);
+        // The search index is read without the lock; candidates are re-checked under it
+        int[] candidates = text ? search.candidates(query) : null;
+        lock.readLock().lock();
+        try {
+            SlotBitmap[] filters = new SlotBitmap[4];
+            int filterCount = filters(query, filters);
+            if (filterCount < 0) {
+                return empty(query);
+            }
+            long from = query.getCreateTimeFrom() == null ? Long.MIN_VALUE : query.getCreateTimeFrom();
+            long to = query.getCreateTimeTo() == null ? Long.MAX_VALUE : query.getCreateTimeTo();
+
+            if (candidates != null) {
+                return collected(query, candidates, candidates.length, filters, filterCount, from, to, text);
+            }
+            int cardinality = SlotBitmap.andCardinality(filters, filterCount);
+            // Walking costs about (offset + size) * live / cardinality probes; deep pages of a
+            // mid-sized result are cheaper to collect and sort. Text filters the index can't
+            // narrow are checked slot by slot, so the total needs a full pass anyway.
+            long walkProbes = (long) (query.offset() + query.getSize()) * count / Math.max(1, cardinality);
+            if (text || cardinality <= COLLECT_THRESHOLD || walkProbes > (long) cardinality * 16) {
+                int[] slots = new int[cardinality];
+                int n = 0;
+                for (int slot = SlotBitmap.andNextSetBit(filters, filterCount, 0); slot >= 0;
+                     slot = SlotBitmap.andNextSetBit(filters, filterCount, slot + 1)) {
+                    slots[n++] = slot;
+                }
+                return collected(query, slots, n, filters, filterCount, from, to, text);
+            }
+            return walked(query, filters, filterCount, cardinality, from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fill {@code filters} with the live bitmap and the query's value bitmaps
+     *
+     * @return the number of filters, or -1 if a filtered value has no users
+     */
+    private int filters(UserQuery query, SlotBitmap[] filters) {
+        int filterCount = 0;
+        filters[filterCount++] = live;
+        for (SlotBitmap filter : new SlotBitmap[] {
+                bitmap(byStatus, query.getStatus()),
+                bitmap(byGender, query.getUserGender()),
+                bitmap(byRole, query.getRoleCode())}) {
+            if (filter == EMPTY) {
+                return -1;
+            }
+            if (filter != null) {
+                filters[filterCount++] = filter;
+            }
+        }
+        return filterCount;
+    }
+
+    @Override
+    public UserCursor cursor(UserQuery query) {
+        return new ScanCursor(query);
+    }
+
+    /**
+     * Resumes below the (createTime, id) of the last user returned, so each chunk is a
+     * binary search plus a walk down timeOrder; a whole scan probes every slot at most once
+     */
+    private final class ScanCursor implements UserCursor {
+
+        private final UserQuery query;
+
+        private long lastMillis = Long.MAX_VALUE;
+
+        private int lastSlot = Integer.MAX_VALUE;
+
+        private boolean done;
+
+        private final boolean text;
+
+        /**
+         * Search candidates, looked up once on the first chunk; null if every slot is a candidate
+         */
+        private int[] candidates;
+
+        private boolean searched;
+
+        private ScanCursor(UserQuery query) {
+            this.query = query;
+            this.text = UserSearchIndex.hasText(query);
+        }
+
+        @Override
+        public List<User> next(int max) {
+            if (done || max <= 0) {
+                return Collections.emptyList();
+            }
+            if (text && !searched) {
+                candidates = search.candidates(query);
+                searched = true;
+            }
+            List<User> records = new ArrayList<>(Math.min(max, 1024));
+            lock.readLock().lock();
+            try {
+                SlotBitmap[] filters = new SlotBitmap[4];
+                int filterCount = filters(query, filters);
+                if (filterCount >= 0) {
+                    long from = query.getCreateTimeFrom() == null ? Long.MIN_VALUE : query.getCreateTimeFrom();
+                    long to = query.getCreateTimeTo() == null ? Long.MAX_VALUE : query.getCreateTimeTo();
+                    if (candidates != null) {
+                        scanCandidates(filters, filterCount, from, to, max, records);
+                    } else {
+                        int lo = lowerBound(from);
+                        for (int i = Math.min(positionBefore(lastMillis, lastSlot), upperBound(to)) - 1;
+                             i >= lo && records.size() < max; i--) {
+                            int slot = timeOrder[i];
+                            if (SlotBitmap.allContain(filters, filterCount, slot)
+                                    && (!text || UserSearchIndex.matches(users[slot], query))) {
+                                records.add(users[slot].copy());
+                            }
+                        }
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (records.size() < max) {
+                done = true;
+            }
+            if (!records.isEmpty()) {
+                User last = records.get(records.size() - 1);
+                lastSlot = last.getId();
+                lastMillis = last.getCreateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            }
+            return records;
+        }
+
+        private void scanCandidates(SlotBitmap[] filters, int filterCount, long from, long to,
+                                    int max, List<User> records) {
+            int[] slots = new int[candidates.length];
+            int n = 0;
+            for (int slot : candidates) {
+                long created = createMillis[slot];
+                boolean older = created < lastMillis || (created == lastMillis && slot < lastSlot);
+                if (older && accepts(slot, query, filters, filterCount, from, to, true)) {
+                    slots[n++] = slot;
+                }
+            }
+            sortNewestFirst(slots, 0, n);
+            for (int i = 0; i < n && records.size() < max; i++) {
+                records.add(users[slots[i]].copy());
+            }
+        }
+    }
+
+    /**
+     * Check candidate slots against all filters, then sort newest first and cut the page
+     */
+    private PageResult<User> collected(UserQuery query, int[] candidates, int length,
+                                       SlotBitmap[] filters, int filterCount, long from, long to, boolean text) {
+        int matches = 0;
+        for (int i = 0; i < length; i++) {
+            int slot = candidates[i];
+            if (accepts(slot, query, filters, filterCount, from, to, text)) {
+                candidates[matches++] = slot;
+            }
+        }
+        sortNewestFirst(candidates, 0, matches);
+        int offset = query.offset();
+        List<User> records = new ArrayList<>(query.getSize());
+        for (int i = offset; i < matches && records.size() < query.getSize(); i++) {
+            records.add(users[candidates[i]].copy());
+        }
+        return new PageResult<>(records, query.getCurrent(), query.getSize(), matches);
+    }
+
+    /**
+     * Page a broad intersection by walking the createTime order from the newest end
+     */
+    private PageResult<User> walked(UserQuery query, SlotBitmap[] filters, int filterCount,
+                                    int cardinality, long from, long to) {
+        int lo = lowerBound(from);
+        int hi = upperBound(to);
+        int total = cardinality;
+        if (lo > 0 || hi < count) {
+            // Count whichever side of the time range is shorter
+            if (hi - lo <= count - (hi - lo)) {
+                total = countMatches(filters, filterCount, lo, hi);
+            } else {
+                total = cardinality - countMatches(filters, filterCount, 0, lo)
+                        - countMatches(filters, filterCount, hi, count);
+            }
+        }
+
+        int skip = query.offset();
+        List<User> records = new ArrayList<>(query.getSize());
+        for (int i = hi - 1; i >= lo && records.size() < query.getSize(); i--) {
+            int slot = timeOrder[i];
+            if (SlotBitmap.allContain(filters, filterCount, slot)) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    records.add(users[slot].copy());
+                }
+            }
+        }
+        return new PageResult<>(records, query.getCurrent(), query.getSize(), total);
+    }
+
+    /**
+     * Whether a slot holds a user passing every filter; the bitmaps go first since search
+     * candidates may be stale
+     */
+    private boolean accepts(int slot, UserQuery query, SlotBitmap[] filters, int filterCount,
+                            long from, long to, boolean text) {
+        long created = createMillis[slot];
+        return created >= from && created <= to && SlotBitmap.allContain(filters, filterCount, slot)
+                && (!text || UserSearchIndex.matches(users[slot], query));
+    }
+
+    private int countMatches(SlotBitmap[] filters, int filterCount, int fromIndex, int toIndex) {
+        int matches = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            if (SlotBitmap.allContain(filters, filterCount, timeOrder[i])) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Null if the field is not filtered, EMPTY if no user has the requested value
+     */
+    private static SlotBitmap bitmap(Map<String, SlotBitmap> index, String value) {
+        if (value == null) {
+            return null;
+        }
+        SlotBitmap bitmap = index.get(value);
+        return bitmap == null || bitmap.isEmpty() ? EMPTY : bitmap;
+    }
+
+    private static PageResult<User> empty(UserQuery query) {
+        return new PageResult<>(Collections.emptyList(), query.getCurrent(), query.getSize(), 0);
+    }
+
+    @Override
+    public List<User> findAllById(List<Integer> ids) {
+        List<User> found = new ArrayList<>(ids.size());
+        lock.readLock().lock();
+        try {
+            for (Integer id : ids) {
+                User user = id == null ? null : slot(id);
+                found.add(user == null ? null : user.copy());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return found;
+    }
+
+    @Override
+    public User save(User user) {
+        User stored = user.copy();
+        lock.writeLock().lock();
+        try {
+            return saveLocked(stored).copy();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<SaveResult> saveAll(List<User> users) {
+        List<SaveResult> results = new ArrayList<>(users.size());
+        lock.writeLock().lock();
+        try {
+            for (User user : users) {
+                try {
+                    results.add(SaveResult.saved(saveLocked(user.copy()).copy()));
+                } catch (IllegalArgumentException e) {
+                    results.add(SaveResult.rejected(e.getMessage()));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return results;
+    }
+
+    @Override
+    public List<SaveResult> updateAll(List<UserUpdate> updates) {
+        List<SaveResult> results = new ArrayList<>(updates.size());
+        lock.writeLock().lock();
+        try {
+            for (UserUpdate update : updates) {
+                User current = slot(update.id());
+                if (current == null) {
+                    results.add(SaveResult.missing(update.id()));
+                    continue;
+                }
+                User changed = current.copy();
+                try {
+                    update.change().accept(changed);
+                    changed.setId(update.id());
+                    results.add(SaveResult.saved(saveLocked(changed).copy()));
+                } catch (IllegalArgumentException e) {
+                    results.add(SaveResult.rejected(e.getMessage()));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return results;
+    }
+
+    /**
+     * Called with the write lock held; {@code stored} must be a private copy
+     */
+    private User saveLocked(User stored) {
+        if (stored.getId() == null) {
+            stored.setId(nextId);
+        } else if (stored.getId() <= 0 || stored.getId() > nextId) {
+            // Ids index the slot arrays; one far past the counter would allocate them at that size
+            throw new IllegalArgumentException("Invalid user id: " + stored.getId());
+        }
+        Integer owner = stored.getUserName() == null ? null : byUserName.get(stored.getUserName());
+        if (owner != null && owner.intValue() != stored.getId()) {
+            throw new IllegalArgumentException("User name already exists: " + stored.getUserName());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (stored.getCreateTime() == null) {
+            stored.setCreateTime(now);
+        }
+        if (stored.getUpdateTime() == null) {
+            stored.setUpdateTime(stored.getCreateTime());
+        }
+
+        int slot = stored.getId();
+        nextId = Math.max(nextId, slot + 1);
+        User previous = slot(slot);
+        // An update that keeps createTime keeps its place in timeOrder, avoiding two array shifts
+        boolean reorder = previous == null || !previous.getCreateTime().equals(stored.getCreateTime());
+        if (previous != null) {
+            unindex(slot, previous, reorder);
+        }
+        ensureCapacity(slot);
+        users[slot] = stored;
+        index(slot, stored, reorder);
+        search.update(slot, previous, stored);
+        return stored;
+    }
+
+    @Override
+    public boolean deleteById(int id) {
+        lock.writeLock().lock();
+        try {
+            User previous = slot(id);
+            if (previous == null) {
+                return false;
+            }
+            unindex(id, previous, true);
+            users[id] = null;
+            search.update(id, previous, null);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private User slot(int id) {
+        return id > 0 && id < users.length ? users[id] : null;
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot >= users.length) {
+            int capacity = Math.max(slot + 1, users.length * 2);
+            users = Arrays.copyOf(users, capacity);
+            createMillis = Arrays.copyOf(createMillis, capacity);
+        }
+        if (count == timeOrder.length) {
+            timeOrder = Arrays.copyOf(timeOrder, timeOrder.length * 2);
+        }
+    }
+
+    private void index(int slot, User user, boolean reorder) {
+        live.set(slot);
+        add(byStatus, user.getStatus(), slot);
+        add(byGender, user.getUserGender(), slot);
+        for (String role : user.getUserRoles()) {
+            add(byRole, role, slot);
+        }
+        if (user.getUserName() != null) {
+            byUserName.put(user.getUserName(), slot);
+        }
+
+        if (!reorder) {
+            return;
+        }
+        createMillis[slot] = user.getCreateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        // New users are usually the newest, so this is an append in the common case
+        int position = count;
+        while (position > 0 && compareOldestFirst(timeOrder[position - 1], slot) > 0) {
+            position--;
+        }
+        System.arraycopy(timeOrder, position, timeOrder, position + 1, count - position);
+        timeOrder[position] = slot;
+        count++;
+    }
+
+    private void unindex(int slot, User user, boolean reorder) {
+        live.clear(slot);
+        remove(byStatus, user.getStatus(), slot);
+        remove(byGender, user.getUserGender(), slot);
+        for (String role : user.getUserRoles()) {
+            remove(byRole, role, slot);
+        }
+        if (user.getUserName() != null) {
+            byUserName.remove(user.getUserName(), slot);
+        }
+
+        if (!reorder) {
+            return;
+        }
+        int position = lowerBound(createMillis[slot]);
+        while (timeOrder[position] != slot) {
+            position++;
+        }
+        System.arraycopy(timeOrder, position + 1, timeOrder, position, count - position - 1);
+        count--;
+    }
+
+    private static void add(Map<String, SlotBitmap> index, String value, int slot) {
+        if (value != null) {
+            index.computeIfAbsent(value, key -> new SlotBitmap()).set(slot);
+        }
+    }
+
+    private static void remove(Map<String, SlotBitmap> index, String value, int slot) {
+        SlotBitmap bitmap = value == null ? null : index.get(value);
+        if (bitmap != null) {
+            bitmap.clear(slot);
+        }
+    }
+
+    /**
+     * First position in timeOrder whose createTime is >= millis
+     */
+    private int lowerBound(long millis) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (createMillis[timeOrder[mid]] < millis) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * First position in timeOrder whose createTime is > millis
+     */
+    private int upperBound(long millis) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (createMillis[timeOrder[mid]] <= millis) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * First position in timeOrder at or after (millis, slot); everything before it is older
+     */
+    private int positionBefore(long millis, int slot) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int other = timeOrder[mid];
+            if (createMillis[other] < millis || (createMillis[other] == millis && other < slot)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int compareOldestFirst(int a, int b) {
+        int byTime = Long.compare(createMillis[a], createMillis[b]);
+        return byTime != 0 ? byTime : Integer.compare(a, b);
+    }
+
+    /**
+     * Quicksort of slots by (createTime, id) descending, without boxing
+     */
+    private void sortNewestFirst(int[] slots, int from, int to) {
+        while (to - from > 16) {
+            int mid = (from + to) >>> 1;
+            int pivot = slots[mid];
+            int i = from;
+            int j = to - 1;
+            while (i <= j) {
+                while (compareOldestFirst(pivot, slots[i]) < 0) {
+                    i++;
+                }
+                while (compareOldestFirst(slots[j], pivot) < 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    int tmp = slots[i];
+                    slots[i++] = slots[j];
+                    slots[j--] = tmp;
+                }
+            }
+            // Recurse into the smaller half, loop on the larger
+            if (j + 1 - from < to - i) {
+                sortNewestFirst(slots, from, j + 1);
+                from = i;
+            } else {
+                sortNewestFirst(slots, i, to);
+                to = j + 1;
+            }
+        }
+        for (int i = from + 1; i < to; i++) {
+            int slot = slots[i];
+            int j = i - 1;
+            while (j >= from && compareOldestFirst(slots[j], slot) < 0) {
+                slots[j + 1] = slots[j];
+                j--;
+            }
+            slots[j + 1] = slot;
+        }
+    }
+
+    /**
+     * Demo accounts; every password is 123456
+     */
+    private void seedDemoUsers() {
+        save(demoUser(1, "admin", "超级管理员", "1", "1", "13800138000", "admin@nebula.com",
+                List.of("R_SUPER", "R_ADMIN"), "system", "2024-01-01T10:00:00", "2024-01-15T10:00:00",
+                "https://ui-avatars.com/api/?name=John+Doe&background=0D8ABC&color=fff",
+                "pbkdf2-sha256$310000$P4kQzilfy0qRVKdKynZZtg$eVtkh9bmCdtxsTfxeQo_s0wFv61yyKGP2_zm8pZfeoY"));
+        save(demoUser(2, "jane.smith", "普通用户", "1", "2", "13800138001", "jane@nebula.com",
+                List.of("R_USER"), "admin", "2024-01-05T10:00:00", "2024-01-10T10:00:00",
+                "https://ui-avatars.com/api/?name=Jane+Smith&background=FF6B6B&color=fff",
+                "pbkdf2-sha256$310000$Ev0D10ZOskodRniTypn3Lg$OmkXoJ5Sg9NLOSDJdY1tc0e-dbPGUjxn-jYdjZ50M00"));
+        save(demoUser(3, "bob.johnson", "测试用户", "2", "1", "13800138002", "bob@nebula.com",
+                List.of("R_USER"), "admin", "2024-01-08T10:00:00", "2024-01-12T10:00:00",
+                "https://ui-avatars.com/api/?name=Bob+Johnson&background=4ECDC4&color=fff",
+                "pbkdf2-sha256$310000$j2iMWoa10aOubVzoWdB8tw$T81qNLwEhwnMWT9XsrESyGDb0yczRAIUcWPYcQW4_AM"));
+    }
+
+    private static User demoUser(int id, String userName, String nickName, String status, String gender,
+                                 String phone, String email, List<String> roles, String createBy,
+                                 String createTime, String updateTime, String avatar, String passwordHash) {
+        User user = new User();
+        user.setId(id);
+        user.setUserName(userName);
+        user.setNickName(nickName);
+        user.setStatus(status);
+        user.setUserGender(gender);
+        user.setUserPhone(phone);
+        user.setUserEmail(email);
+        user.setUserRoles(roles);
+        user.setCreateBy(createBy);
+        user.setCreateTime(LocalDateTime.parse(createTime));
+        user.setUpdateBy("admin");
+        user.setUpdateTime(LocalDateTime.parse(updateTime));
+        user.setAvatar(avatar);
+        user.setPasswordHash(passwordHash);
+        return user;
+    }
+}
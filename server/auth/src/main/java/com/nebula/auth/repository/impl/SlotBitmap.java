@@ -0,0 +1,104 @@
+package com.nebula.auth.repository.impl;
+
+import java.util.Arrays;
+
+/**
+ * Slot Bitmap
+ * Growable bitmap over user slots with allocation-free AND operations across several
+ * bitmaps, so multi-filter queries never materialize an intersection.
+ */
+final class SlotBitmap {
+
+    private long[] words = new long[16];
+
+    void set(int slot) {
+        int word = slot >>> 6;
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+        }
+        words[word] |= 1L << slot;
+    }
+
+    void clear(int slot) {
+        int word = slot >>> 6;
+        if (word < words.length) {
+            words[word] &= ~(1L << slot);
+        }
+    }
+
+    boolean get(int slot) {
+        int word = slot >>> 6;
+        return word < words.length && (words[word] & (1L << slot)) != 0;
+    }
+
+    boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean allContain(SlotBitmap[] maps, int count, int slot) {
+        for (int i = 0; i < count; i++) {
+            if (!maps[i].get(slot)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of slots set in all of the first {@code count} bitmaps
+     */
+    static int andCardinality(SlotBitmap[] maps, int count) {
+        int length = minLength(maps, count);
+        int cardinality = 0;
+        for (int w = 0; w < length; w++) {
+            long word = maps[0].words[w];
+            for (int i = 1; i < count && word != 0; i++) {
+                word &= maps[i].words[w];
+            }
+            cardinality += Long.bitCount(word);
+        }
+        return cardinality;
+    }
+
+    /**
+     * First slot at or after {@code from} set in all of the first {@code count} bitmaps, or -1
+     */
+    static int andNextSetBit(SlotBitmap[] maps, int count, int from) {
+        int length = minLength(maps, count);
+        int w = from >>> 6;
+        if (w >= length) {
+            return -1;
+        }
+        long word = and(maps, count, w) & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == length) {
+                return -1;
+            }
+            word = and(maps, count, w);
+        }
+    }
+
+    private static long and(SlotBitmap[] maps, int count, int w) {
+        long word = maps[0].words[w];
+        for (int i = 1; i < count && word != 0; i++) {
+            word &= maps[i].words[w];
+        }
+        return word;
+    }
+
+    private static int minLength(SlotBitmap[] maps, int count) {
+        int length = maps[0].words.length;
+        for (int i = 1; i < count; i++) {
+            length = Math.min(length, maps[i].words.length);
+        }
+        return length;
+    }
+}
@@ -0,0 +1,452 @@
+package com.nebula.auth.repository.impl;
+
+import com.nebula.auth.entity.User;
+import com.nebula.auth.repository.UserQuery;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * User Search Index
+ * Text search for the user list. User name and email are matched by prefix through a trie
+ * kept flat: every lowercased prefix of up to {@value #MAX_PREFIX} characters maps to the
+ * slots under that node. Phone numbers are indexed by digit trigrams and nick names by
+ * character unigrams and bigrams (CJK nick names are short and unsegmented), so a substring
+ * is looked up through its rarest gram.
+ *
+ * <p>Posting lists are candidates, not answers: callers check every candidate with
+ * {@link #matches}, which also drops entries left behind by renames and deletes. Those are
+ * only counted on write and compacted away once they make up half a list.
+ *
+ * <p>Writes come from the repository's write lock, so there is a single writer. Readers take
+ * no lock: a posting list is an (array, size) view published through a volatile field, and
+ * appends only write array cells past every size published so far.
+ */
+final class UserSearchIndex {
+
+    static final int MAX_PREFIX = 24;
+
+    private static final int PHONE_GRAM = 3;
+
+    private static final int[] NO_SLOTS = new int[0];
+
+    private final Field userNames = new Field(user -> lower(user.getUserName()), UserSearchIndex::prefixes,
+            String::startsWith);
+
+    private final Field emails = new Field(user -> lower(user.getUserEmail()), UserSearchIndex::prefixes,
+            String::startsWith);
+
+    private final Field phones = new Field(user -> digits(user.getUserPhone()), UserSearchIndex::phoneGrams,
+            String::contains);
+
+    private final Field nickNames = new Field(user -> lower(user.getNickName()), UserSearchIndex::nickGrams,
+            String::contains);
+
+    private final IntFunction<User> users;
+
+    /**
+     * @param users stored user by slot, used to compact posting lists; only called by the writer
+     */
+    UserSearchIndex(IntFunction<User> users) {
+        this.users = users;
+    }
+
+    /**
+     * Move a slot from the terms of {@code previous} to those of {@code current}; either may be null
+     */
+    void update(int slot, User previous, User current) {
+        userNames.update(slot, previous, current);
+        emails.update(slot, previous, current);
+        phones.update(slot, previous, current);
+        nickNames.update(slot, previous, current);
+    }
+
+    static boolean hasText(UserQuery query) {
+        return query.getUserName() != null || query.getUserEmail() != null || query.getUserPhone() != null
+                || query.getNickName() != null || query.getKeyword() != null;
+    }
+
+    /**
+     * Candidate slots for the query's text filters, sorted and distinct, or null if none of them
+     * can be narrowed through the index (e.g. a one-digit phone filter) and every slot is a
+     * candidate. Lock-free.
+     */
+    int[] candidates(UserQuery query) {
+        int[] best = null;
+        best = smaller(best, prefixCandidates(userNames, query.getUserName()));
+        best = smaller(best, prefixCandidates(emails, query.getUserEmail()));
+        best = smaller(best, phoneCandidates(query.getUserPhone()));
+        best = smaller(best, nickCandidates(query.getNickName()));
+        String keyword = query.getKeyword();
+        if (keyword != null && (best == null || best.length > 0)) {
+            best = smaller(best, union(prefixCandidates(userNames, keyword), prefixCandidates(emails, keyword),
+                    hasLetters(keyword) ? NO_SLOTS : phoneCandidates(keyword), nickCandidates(keyword)));
+        }
+        return best == null ? null : distinct(best);
+    }
+
+    /**
+     * Whether the user passes every text filter of the query: user name and email by
+     * case-insensitive prefix, phone digits and nick name by substring, keyword by any of these
+     */
+    static boolean matches(User user, UserQuery query) {
+        if (query.getUserName() != null && !startsWith(user.getUserName(), query.getUserName())) {
+            return false;
+        }
+        if (query.getUserEmail() != null && !startsWith(user.getUserEmail(), query.getUserEmail())) {
+            return false;
+        }
+        if (query.getUserPhone() != null && !phoneContains(user.getUserPhone(), query.getUserPhone())) {
+            return false;
+        }
+        if (query.getNickName() != null && !contains(user.getNickName(), query.getNickName())) {
+            return false;
+        }
+        String keyword = query.getKeyword();
+        return keyword == null
+                || startsWith(user.getUserName(), keyword)
+                || startsWith(user.getUserEmail(), keyword)
+                || (!hasLetters(keyword) && phoneContains(user.getUserPhone(), keyword))
+                || contains(user.getNickName(), keyword);
+    }
+
+    private static int[] prefixCandidates(Field field, String prefix) {
+        if (prefix == null) {
+            return null;
+        }
+        String key = lower(prefix);
+        return field.slots(key.length() > MAX_PREFIX ? key.substring(0, MAX_PREFIX) : key);
+    }
+
+    /**
+     * Through the rarest digit trigram; null if the filter has fewer than three digits
+     */
+    private int[] phoneCandidates(String text) {
+        String digits = text == null ? "" : digits(text);
+        return digits.length() < PHONE_GRAM ? null : rarest(phones, phoneGrams(digits));
+    }
+
+    /**
+     * Through the single character, or the rarest bigram of longer filters
+     */
+    private int[] nickCandidates(String text) {
+        if (text == null) {
+            return null;
+        }
+        String key = lower(text);
+        return key.length() == 1 ? nickNames.slots(key) : rarest(nickNames, bigrams(key));
+    }
+
+    /**
+     * Slots of the rarest term, intersected with the second rarest when that is not much
+     * longer (sorting it would cost more than checking the extra candidates)
+     */
+    private static int[] rarest(Field field, Set<String> terms) {
+        String rarest = null;
+        String second = null;
+        int rarestSize = Integer.MAX_VALUE;
+        int secondSize = Integer.MAX_VALUE;
+        for (String term : terms) {
+            int size = field.size(term);
+            if (size == 0) {
+                return NO_SLOTS;
+            }
+            if (size < rarestSize) {
+                second = rarest;
+                secondSize = rarestSize;
+                rarest = term;
+                rarestSize = size;
+            } else if (size < secondSize) {
+                second = term;
+                secondSize = size;
+            }
+        }
+        int[] slots = field.slots(rarest);
+        if (second == null || secondSize > rarestSize * 4L) {
+            return slots;
+        }
+        return intersect(distinct(slots), distinct(field.slots(second)));
+    }
+
+    /**
+     * Merge of two sorted, distinct slot arrays
+     */
+    private static int[] intersect(int[] a, int[] b) {
+        int[] both = new int[Math.min(a.length, b.length)];
+        int n = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                both[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(both, n);
+    }
+
+    /**
+     * The smaller candidate set; null stands for every slot
+     */
+    private static int[] smaller(int[] a, int[] b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.length <= b.length ? a : b;
+    }
+
+    /**
+     * Union of candidate sets; null (every slot) if any of them is
+     */
+    private static int[] union(int[]... sets) {
+        int length = 0;
+        for (int[] set : sets) {
+            if (set == null) {
+                return null;
+            }
+            length += set.length;
+        }
+        int[] all = new int[length];
+        int offset = 0;
+        for (int[] set : sets) {
+            System.arraycopy(set, 0, all, offset, set.length);
+            offset += set.length;
+        }
+        return all;
+    }
+
+    private static int[] distinct(int[] slots) {
+        if (slots.length < 2) {
+            return slots;
+        }
+        int[] sorted = slots.clone();
+        Arrays.sort(sorted);
+        int n = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[n - 1]) {
+                sorted[n++] = sorted[i];
+            }
+        }
+        return n == sorted.length ? sorted : Arrays.copyOf(sorted, n);
+    }
+
+    private static Set<String> prefixes(String text) {
+        Set<String> terms = new HashSet<>();
+        for (int length = 1; length <= Math.min(MAX_PREFIX, text.length()); length++) {
+            terms.add(text.substring(0, length));
+        }
+        return terms;
+    }
+
+    private static Set<String> phoneGrams(String digits) {
+        Set<String> terms = new HashSet<>();
+        for (int i = 0; i + PHONE_GRAM <= digits.length(); i++) {
+            terms.add(digits.substring(i, i + PHONE_GRAM));
+        }
+        return terms;
+    }
+
+    private static Set<String> bigrams(String text) {
+        Set<String> terms = new HashSet<>();
+        for (int i = 0; i + 2 <= text.length(); i++) {
+            terms.add(text.substring(i, i + 2));
+        }
+        return terms;
+    }
+
+    private static Set<String> nickGrams(String text) {
+        Set<String> terms = new HashSet<>();
+        for (int i = 0; i < text.length(); i++) {
+            terms.add(text.substring(i, i + 1));
+            if (i + 2 <= text.length()) {
+                terms.add(text.substring(i, i + 2));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Case-insensitive; runs for every candidate, so the prefix is compared in place
+     */
+    private static boolean startsWith(String value, String prefix) {
+        return value != null && value.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    /**
+     * toLowerCase returns the string itself when nothing changes, as for CJK nick names
+     */
+    private static boolean contains(String value, String part) {
+        return value != null && lower(value).contains(lower(part));
+    }
+
+    private static boolean phoneContains(String phone, String part) {
+        if (phone == null) {
+            return false;
+        }
+        String digits = digits(part);
+        return digits.isEmpty() ? phone.contains(part) : digits(phone).contains(digits);
+    }
+
+    private static boolean hasLetters(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLetter(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String lower(String text) {
+        return text == null ? null : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static String digits(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    /**
+     * Posting lists of one user field
+     */
+    private final class Field {
+
+        private final Map<String, Postings> postings = new ConcurrentHashMap<>();
+
+        private final Function<User, String> value;
+
+        private final Function<String, Set<String>> terms;
+
+        /**
+         * Whether a normalized field value still carries a term, for compaction
+         */
+        private final BiPredicate<String, String> carries;
+
+        private Field(Function<User, String> value, Function<String, Set<String>> terms,
+                      BiPredicate<String, String> carries) {
+            this.value = value;
+            this.terms = terms;
+            this.carries = carries;
+        }
+
+        void update(int slot, User previous, User current) {
+            String before = previous == null ? null : value.apply(previous);
+            String after = current == null ? null : value.apply(current);
+            if (before != null && before.equals(after)) {
+                return;
+            }
+            Set<String> removed = before == null || before.isEmpty() ? Set.of() : terms.apply(before);
+            Set<String> added = after == null || after.isEmpty() ? Set.of() : terms.apply(after);
+            for (String term : added) {
+                if (!removed.contains(term)) {
+                    postings.computeIfAbsent(term, key -> new Postings()).add(slot);
+                }
+            }
+            for (String term : removed) {
+                if (!added.contains(term)) {
+                    Postings list = postings.get(term);
+                    if (list != null && list.markStale()) {
+                        compact(term, list);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Slots listed under the term, possibly stale or repeated; empty if the term is unknown
+         */
+        int[] slots(String term) {
+            Postings list = postings.get(term);
+            return list == null ? NO_SLOTS : list.snapshot();
+        }
+
+        int size(String term) {
+            Postings list = postings.get(term);
+            return list == null ? 0 : list.view.size();
+        }
+
+        private void compact(String term, Postings list) {
+            list.retain(slot -> {
+                User user = users.apply(slot);
+                String current = user == null ? null : value.apply(user);
+                return current != null && carries.test(current, term);
+            });
+            if (list.view.size() == 0) {
+                postings.remove(term, list);
+            }
+        }
+    }
+
+    /**
+     * Append-only slot list with lazy removal; see the class comment for the publication rules
+     */
+    private static final class Postings {
+
+        private record View(int[] slots, int size) {
+        }
+
+        private volatile View view = new View(new int[2], 0);
+
+        /**
+         * Entries whose user no longer carries the term; writer only
+         */
+        private int stale;
+
+        void add(int slot) {
+            View current = view;
+            int[] slots = current.slots();
+            if (current.size() == slots.length) {
+                slots = Arrays.copyOf(slots, slots.length * 2);
+            }
+            slots[current.size()] = slot;
+            view = new View(slots, current.size() + 1);
+        }
+
+        /**
+         * @return true if the list should be compacted
+         */
+        boolean markStale() {
+            stale++;
+            return stale > 16 && stale * 2 > view.size();
+        }
+
+        /**
+         * Replace the list with its distinct slots that pass {@code keep}, in a new array
+         */
+        void retain(IntPredicate keep) {
+            int[] kept = distinct(snapshot());
+            int n = 0;
+            for (int slot : kept) {
+                if (keep.test(slot)) {
+                    kept[n++] = slot;
+                }
+            }
+            view = new View(n < 2 ? Arrays.copyOf(kept, 2) : Arrays.copyOf(kept, n), n);
+            stale = 0;
+        }
+
+        int[] snapshot() {
+            View current = view;
+            return Arrays.copyOf(current.slots(), current.size());
+        }
+    }
+}
@@ -1,12 +1,40 @@
 package com.nebula.auth.service;
 
 import com.nebula.auth.dto.request.LoginRequest;
+import com.nebula.auth.dto.response.IntrospectionResponse;
 import com.nebula.auth.dto.response.LoginResponse;
+import com.nebula.auth.dto.response.RevocationsResponse;
 import com.nebula.auth.dto.response.UserInfoResponse;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AuthService {
 
-    LoginResponse login(LoginRequest request);
+    /**
+     * Verify the password on the hashing pool and issue a session; completes exceptionally
+     * with InvalidCredentialsException, or HasherBusyException when the pool is saturated
+     */
+    CompletableFuture<LoginResponse> login(LoginRequest request);
+
+    /**
+     * Rotate a refresh token into a new access/refresh token pair
+     */
+    LoginResponse refresh(String refreshToken);
+
+    /**
+     * End the session behind an access token (its jti)
+     */
+    void logout(String tokenId);
+
+    /**
+     * Report whether an access token (a JWT or an opaque access token) belongs to an active session
+     */
+    IntrospectionResponse introspect(String token);
+
+    /**
+     * Revocations after {@code sequence} of {@code epoch}, for the gateway's local token checks
+     */
+    RevocationsResponse revocations(long epoch, long sequence);
 
     UserInfoResponse getUserInfo();
 }
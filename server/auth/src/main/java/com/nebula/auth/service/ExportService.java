@@ -0,0 +1,21 @@
+package com.nebula.auth.service;
+
+import com.nebula.auth.export.ExportFormat;
+import com.nebula.auth.export.StreamingExport;
+
+import java.util.Map;
+
+/**
+ * Export Service
+ * Full dumps of users and roles. Parameters are validated when the export is created, so
+ * a bad filter is still reported as an error response; rows are read while writing.
+ */
+public interface ExportService {
+
+    /**
+     * @param params the same filters as /api/user/list; paging is ignored
+     */
+    StreamingExport exportUsers(Map<String, Object> params, ExportFormat format);
+
+    StreamingExport exportRoles(Map<String, Object> params, ExportFormat format);
+}
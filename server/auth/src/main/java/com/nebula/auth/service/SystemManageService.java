@@ -1,9 +1,9 @@
 package com.nebula.auth.service;
 
-import com.nebula.auth.dto.response.MenuResponse;
 import com.nebula.auth.dto.response.PaginatedResponse;
 import com.nebula.auth.dto.response.RoleItem;
 import com.nebula.auth.dto.response.UserItem;
+import com.nebula.common.result.SerializedResult;
 
 import java.util.Map;
 
@@ -13,5 +13,8 @@ public interface SystemManageService {
 
     PaginatedResponse<RoleItem> getRoleList(Map<String, Object> params);
 
-    MenuResponse[] getMenuList();
+    /**
+     * Menu tree visible to the given comma-separated roles, already serialized
+     */
+    SerializedResult getMenuList(String roles);
 }
@@ -0,0 +1,28 @@
+package com.nebula.auth.service;
+
+import com.nebula.auth.bulk.BulkItem;
+import com.nebula.auth.dto.request.RoleAssignment;
+import com.nebula.auth.dto.request.UserBatchItem;
+import com.nebula.auth.dto.response.BatchItemResult;
+
+import java.util.List;
+
+/**
+ * User Bulk Service
+ * One batch of a bulk request at a time; every method returns one result per item, in order
+ */
+public interface UserBulkService {
+
+    List<BatchItemResult> getUsers(List<BulkItem<Integer>> ids);
+
+    List<BatchItemResult> createUsers(List<BulkItem<UserBatchItem>> items, String operator);
+
+    /**
+     * Apply the non-null fields of each item to the user with its id
+     */
+    List<BatchItemResult> updateUsers(List<BulkItem<UserBatchItem>> items, String operator);
+
+    List<BatchItemResult> disableUsers(List<BulkItem<Integer>> ids, String operator);
+
+    List<BatchItemResult> assignRoles(List<BulkItem<RoleAssignment>> assignments, String operator);
+}
@@ -1,28 +1,235 @@
 package com.nebula.auth.service.impl;
 
+import com.nebula.auth.config.JwtProperties;
+import com.nebula.auth.config.TokenProperties;
 import com.nebula.auth.dto.request.LoginRequest;
+import com.nebula.auth.dto.response.IntrospectionResponse;
 import com.nebula.auth.dto.response.LoginResponse;
+import com.nebula.auth.dto.response.RevocationsResponse;
 import com.nebula.auth.dto.response.UserInfoResponse;
+import com.nebula.auth.entity.User;
+import com.nebula.auth.exception.InvalidCredentialsException;
+import com.nebula.auth.password.PasswordHasher;
+import com.nebula.auth.repository.UserRepository;
+import com.nebula.auth.repository.UserUpdate;
 import com.nebula.auth.service.AuthService;
+import com.nebula.auth.token.AccessToken;
+import com.nebula.auth.token.IssuedSession;
+import com.nebula.auth.token.RevocationFeed;
+import com.nebula.auth.token.Session;
+import com.nebula.auth.token.TokenException;
+import com.nebula.auth.token.TokenRegistry;
+import com.nebula.common.jwt.JwtClaims;
+import com.nebula.common.jwt.JwtCodec;
+import com.nebula.common.jwt.JwtException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.UUID;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
+    private static final String DISABLED = "2";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtCodec jwtCodec;
+
+    private final JwtProperties jwtProperties;
+
+    private final TokenRegistry tokenRegistry;
+
+    private final UserRepository userRepository;
+
+    private final PasswordHasher passwordHasher;
+
+    private final RevocationFeed revocationFeed;
+
+    private final TokenProperties tokenProperties;
+
     @Override
-    public LoginResponse login(LoginRequest request) {
+    public CompletableFuture<LoginResponse> login(LoginRequest request) {
         log.debug("Processing login request for user: {}", request.getUserName());
 
-        String token = "Bearer " + UUID.randomUUID().toString().replace("-", "");
-        String refreshToken = "Refresh-" + UUID.randomUUID().toString().replace("-", "");
+        Optional<User> found = userRepository.findByUserName(request.getUserName());
+        String storedHash = found.map(User::getPasswordHash).orElse(null);
+        return passwordHasher.verify(request.getPassword(), storedHash).thenApply(matched -> {
+            if (!matched) {
+                log.debug("Login rejected for user: {}", request.getUserName());
+                throw new InvalidCredentialsException();
+            }
+            User user = found.get();
+            if (DISABLED.equals(user.getStatus())) {
+                log.debug("Login rejected for disabled user: {}", request.getUserName());
+                throw new InvalidCredentialsException();
+            }
+            if (passwordHasher.shouldUpgrade(storedHash)) {
+                upgradePassword(user.getId(), storedHash, request.getPassword());
+            }
+            IssuedSession issued = tokenRegistry.issue(user.getId(), user.getUserName());
+            LoginResponse response = toLoginResponse(issued, user.getUserRoles());
+
+            log.debug("Login successful for user: {}", request.getUserName());
+            return response;
+        });
+    }
+
+    /**
+     * Re-hash with the current iteration count in the background; skipped if the pool is busy
+     * or the password changed in the meantime. Only the hash is written, compared and set under
+     * the repository lock, so a concurrent admin change to the user is never overwritten.
+     */
+    private void upgradePassword(int userId, String oldHash, String password) {
+        passwordHasher.hash(password).whenComplete((newHash, error) -> {
+            if (error != null) {
+                log.debug("Password upgrade for user {} skipped: {}", userId, error.getMessage());
+                return;
+            }
+            boolean[] upgraded = new boolean[1];
+            userRepository.updateAll(List.of(new UserUpdate(userId, user -> {
+                if (oldHash.equals(user.getPasswordHash())) {
+                    user.setPasswordHash(newHash);
+                    upgraded[0] = true;
+                }
+            })));
+            if (upgraded[0]) {
+                log.debug("Upgraded password hash of user {}", userId);
+            }
+        });
+    }
+
+    /**
+     * Roles come from the session's user by id, as names can be changed and reused; a session
+     * whose user is gone or disabled is revoked instead of refreshed
+     */
+    @Override
+    public LoginResponse refresh(String refreshToken) {
+        IssuedSession issued = tokenRegistry.refresh(refreshToken);
+        Session session = issued.session();
+        Optional<User> user = activeUser(session);
+        if (user.isEmpty()) {
+            tokenRegistry.revoke(session.getId());
+            log.debug("Refresh rejected: user {} is gone or disabled", session.getUserId());
+            throw new TokenException(TokenException.Reason.EXPIRED, "Session expired");
+        }
+        return toLoginResponse(issued, user.get().getUserRoles());
+    }
+
+    private Optional<User> activeUser(Session session) {
+        return userRepository.findById(session.getUserId())
+                .filter(user -> !DISABLED.equals(user.getStatus()));
+    }
+
+    @Override
+    public void logout(String tokenId) {
+        if (tokenId != null && tokenRegistry.revoke(tokenId)) {
+            log.debug("Session {} revoked", tokenId);
+        }
+    }
+
+    /**
+     * JWTs must verify and name a live session in their jti (validating slides the session's
+     * idle timeout); any other token must be an opaque access token this service issued, whose
+     * user (looked up by id) still exists and is enabled. A bare session id is not a credential
+     * and is reported inactive.
+     */
+    @Override
+    public IntrospectionResponse introspect(String token) {
+        if (token.startsWith(BEARER_PREFIX)) {
+            token = token.substring(BEARER_PREFIX.length());
+        }
+        if (token.indexOf('.') < 0) {
+            AccessToken accessToken = tokenRegistry.findAccessToken(token);
+            if (accessToken == null) {
+                return IntrospectionResponse.inactive();
+            }
+            Session session = accessToken.getSession();
+            Optional<User> user = activeUser(session);
+            if (user.isEmpty()) {
+                return IntrospectionResponse.inactive();
+            }
+            return toIntrospection(session, user.get().getUserRoles(), accessToken.getExpiresAtMillis() / 1000);
+        }
+
+        JwtClaims claims;
+        try {
+            claims = jwtCodec.decode(token);
+        } catch (JwtException e) {
+            log.debug("Introspection of invalid token: {}", e.getMessage());
+            return IntrospectionResponse.inactive();
+        }
+        if (claims.isExpired(Instant.now().getEpochSecond(), 0) || claims.getJti() == null
+                || !jwtProperties.getIssuer().equals(claims.getIss())) {
+            return IntrospectionResponse.inactive();
+        }
+        Session session = tokenRegistry.validate(claims.getJti());
+        if (session == null) {
+            return IntrospectionResponse.inactive();
+        }
+        return toIntrospection(session, claims.getRoles(),
+                Math.min(claims.getExp(), session.getExpiresAtMillis() / 1000));
+    }
+
+    private static IntrospectionResponse toIntrospection(Session session, List<String> roles, long exp) {
+        IntrospectionResponse response = new IntrospectionResponse();
+        response.setActive(true);
+        response.setSub(session.getUserName());
+        response.setUid(session.getUserId());
+        response.setJti(session.getId());
+        response.setRoles(roles);
+        response.setExp(exp);
+        return response;
+    }
+
+    @Override
+    public RevocationsResponse revocations(long epoch, long sequence) {
+        RevocationFeed.Changes changes = revocationFeed.since(epoch, sequence, System.currentTimeMillis());
+        List<RevocationsResponse.Entry> entries = new ArrayList<>(changes.revocations().size());
+        for (RevocationFeed.Revocation revocation : changes.revocations()) {
+            entries.add(new RevocationsResponse.Entry(revocation.sessionId(), revocation.userId(),
+                    revocation.atMillis() / 1000));
+        }
+        RevocationsResponse response = new RevocationsResponse();
+        response.setEpoch(changes.epoch());
+        response.setSequence(changes.sequence());
+        response.setReset(changes.reset());
+        response.setRetentionSeconds(revocationFeed.getRetention().toSeconds());
+        response.setRevocations(entries);
+        return response;
+    }
+
+    /**
+     * Sign an access token for the session; its jti is the session id, so it can be revoked.
+     * With opaque access tokens on, mint one of those instead.
+     */
+    private LoginResponse toLoginResponse(IssuedSession issued, List<String> roles) {
+        Session session = issued.session();
+        if (tokenProperties.isOpaqueAccessTokens()) {
+            AccessToken accessToken = tokenRegistry.issueAccessToken(session);
+            return new LoginResponse(BEARER_PREFIX + accessToken.getToken(), issued.refreshToken());
+        }
+        long now = Instant.now().getEpochSecond();
+        JwtClaims claims = new JwtClaims();
+        claims.setIss(jwtProperties.getIssuer());
+        claims.setSub(session.getUserName());
+        claims.setUid(session.getUserId());
+        claims.setRoles(roles);
+        claims.setJti(session.getId());
+        claims.setIat(now);
+        claims.setExp(Math.min(now + jwtProperties.getAccessTokenTtl().toSeconds(),
+                session.getExpiresAtMillis() / 1000));
 
-        log.debug("Login successful for user: {}", request.getUserName());
-        return new LoginResponse(token, refreshToken);
+        String token = BEARER_PREFIX + jwtCodec.encode(claims);
+        return new LoginResponse(token, issued.refreshToken());
     }
 
     @Override
@@ -0,0 +1,98 @@
+package com.nebula.auth.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nebula.auth.config.ExportProperties;
+import com.nebula.auth.dto.response.RoleItem;
+import com.nebula.auth.dto.response.UserItem;
+import com.nebula.auth.entity.User;
+import com.nebula.auth.export.ExportColumn;
+import com.nebula.auth.export.ExportFormat;
+import com.nebula.auth.export.ExportWriter;
+import com.nebula.auth.export.StreamingExport;
+import com.nebula.auth.repository.UserCursor;
+import com.nebula.auth.repository.UserQuery;
+import com.nebula.auth.repository.UserRepository;
+import com.nebula.auth.service.ExportService;
+import com.nebula.auth.service.SystemManageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Export Service Implementation
+ * Users are read through a {@link UserCursor} one chunk at a time and each chunk is flushed
+ * before the next is read, so heap use depends on the chunk size, not the row count.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private static final List<ExportColumn<UserItem>> USER_COLUMNS = List.of(
+            new ExportColumn<>("id", UserItem::getId),
+            new ExportColumn<>("userName", UserItem::getUserName),
+            new ExportColumn<>("nickName", UserItem::getNickName),
+            new ExportColumn<>("userGender", UserItem::getUserGender),
+            new ExportColumn<>("userPhone", UserItem::getUserPhone),
+            new ExportColumn<>("userEmail", UserItem::getUserEmail),
+            new ExportColumn<>("status", UserItem::getStatus),
+            new ExportColumn<>("userRoles", UserItem::getUserRoles),
+            new ExportColumn<>("avatar", UserItem::getAvatar),
+            new ExportColumn<>("createBy", UserItem::getCreateBy),
+            new ExportColumn<>("createTime", UserItem::getCreateTime),
+            new ExportColumn<>("updateBy", UserItem::getUpdateBy),
+            new ExportColumn<>("updateTime", UserItem::getUpdateTime));
+
+    private static final List<ExportColumn<RoleItem>> ROLE_COLUMNS = List.of(
+            new ExportColumn<>("roleId", RoleItem::getRoleId),
+            new ExportColumn<>("roleName", RoleItem::getRoleName),
+            new ExportColumn<>("roleCode", RoleItem::getRoleCode),
+            new ExportColumn<>("description", RoleItem::getDescription),
+            new ExportColumn<>("enabled", RoleItem::getEnabled),
+            new ExportColumn<>("createTime", RoleItem::getCreateTime));
+
+    private final UserRepository userRepository;
+
+    private final SystemManageService systemManageService;
+
+    private final ObjectMapper objectMapper;
+
+    private final ExportProperties properties;
+
+    @Override
+    public StreamingExport exportUsers(Map<String, Object> params, ExportFormat format) {
+        UserQuery query = UserQuery.from(params);
+        return out -> {
+            UserCursor cursor = userRepository.cursor(query);
+            try (ExportWriter<UserItem> writer = new ExportWriter<>(format, out, properties.getBufferSize(),
+                    objectMapper, UserItem.class, USER_COLUMNS)) {
+                List<User> chunk;
+                while (!(chunk = cursor.next(properties.getChunkSize())).isEmpty()) {
+                    for (User user : chunk) {
+                        writer.write(SystemManageServiceImpl.toUserItem(user));
+                    }
+                    writer.flush();
+                }
+                return writer.getRows();
+            }
+        };
+    }
+
+    /**
+     * Roles are a small fixed set, so they come from the role list rather than a cursor
+     */
+    @Override
+    public StreamingExport exportRoles(Map<String, Object> params, ExportFormat format) {
+        List<RoleItem> roles = systemManageService.getRoleList(params).getRecords();
+        return out -> {
+            try (ExportWriter<RoleItem> writer = new ExportWriter<>(format, out, properties.getBufferSize(),
+                    objectMapper, RoleItem.class, ROLE_COLUMNS)) {
+                for (RoleItem role : roles) {
+                    writer.write(role);
+                }
+                return writer.getRows();
+            }
+        };
+    }
+}
@@ -0,0 +1,299 @@
+package com.nebula.auth.service.impl;
+
+import com.nebula.auth.bulk.BulkItem;
+import com.nebula.auth.dto.request.RoleAssignment;
+import com.nebula.auth.dto.request.UserBatchItem;
+import com.nebula.auth.dto.response.BatchItemResult;
+import com.nebula.auth.entity.User;
+import com.nebula.auth.repository.SaveResult;
+import com.nebula.auth.repository.UserRepository;
+import com.nebula.auth.repository.UserUpdate;
+import com.nebula.auth.service.UserBulkService;
+import com.nebula.auth.token.TokenRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * User Bulk Service Implementation
+ * Items are validated first; the valid ones of a batch are written with a single repository
+ * call (one lock acquisition). Users who were disabled, renamed or had their roles changed
+ * lose their sessions; the gateway picks the revocation up from the revocation feed within
+ * its poll interval (5s by default) rather than at token expiry.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserBulkServiceImpl implements UserBulkService {
+
+    private static final Pattern ROLE_CODE = Pattern.compile("R_[A-Z0-9_]{1,32}");
+
+    private static final int MAX_ROLES = 16;
+
+    private static final String ENABLED = "1";
+
+    private static final String DISABLED = "2";
+
+    private final UserRepository userRepository;
+
+    private final TokenRegistry tokenRegistry;
+
+    @Override
+    public List<BatchItemResult> getUsers(List<BulkItem<Integer>> ids) {
+        List<Integer> values = new ArrayList<>(ids.size());
+        for (BulkItem<Integer> item : ids) {
+            values.add(item.value());
+        }
+        List<User> users = userRepository.findAllById(values);
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            BulkItem<Integer> item = ids.get(i);
+            User user = users.get(i);
+            results.add(user == null
+                    ? new BatchItemResult(item.index(), item.value(), "not_found", "User not found", null)
+                    : new BatchItemResult(item.index(), item.value(), "ok", null,
+                            SystemManageServiceImpl.toUserItem(user)));
+        }
+        return results;
+    }
+
+    @Override
+    public List<BatchItemResult> createUsers(List<BulkItem<UserBatchItem>> items, String operator) {
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+        List<User> users = new ArrayList<>(items.size());
+        List<Integer> positions = new ArrayList<>(items.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < items.size(); i++) {
+            BulkItem<UserBatchItem> item = items.get(i);
+            UserBatchItem request = item.value();
+            String error = request.getUserName() == null ? "userName is required" : validate(request);
+            if (error != null) {
+                results[i] = new BatchItemResult(item.index(), null, "invalid", error, null);
+                continue;
+            }
+            User user = new User();
+            apply(request, user);
+            if (user.getStatus() == null) {
+                user.setStatus(ENABLED);
+            }
+            user.setCreateBy(operator);
+            user.setCreateTime(now);
+            users.add(user);
+            positions.add(i);
+        }
+
+        List<SaveResult> saved = users.isEmpty() ? List.of() : userRepository.saveAll(users);
+        for (int j = 0; j < saved.size(); j++) {
+            int i = positions.get(j);
+            results[i] = toResult(items.get(i).index(), null, saved.get(j), "created");
+        }
+        return List.of(results);
+    }
+
+    @Override
+    public List<BatchItemResult> updateUsers(List<BulkItem<UserBatchItem>> items, String operator) {
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+        List<UserUpdate> updates = new ArrayList<>(items.size());
+        List<Integer> positions = new ArrayList<>(items.size());
+        Integer[] revoke = new Integer[items.size()];
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < items.size(); i++) {
+            BulkItem<UserBatchItem> item = items.get(i);
+            UserBatchItem request = item.value();
+            String error = request.getId() == null ? "id is required" : validate(request);
+            if (error != null) {
+                results[i] = new BatchItemResult(item.index(), request.getId(), "invalid", error, null);
+                continue;
+            }
+            boolean affectsSessions = request.getUserName() != null
+                    || (request.getStatus() != null && !ENABLED.equals(request.getStatus()));
+            int position = i;
+            updates.add(new UserUpdate(request.getId(), user -> {
+                if (affectsSessions) {
+                    revoke[position] = user.getId();
+                }
+                apply(request, user);
+                user.setUpdateBy(operator);
+                user.setUpdateTime(now);
+            }));
+            positions.add(i);
+        }
+        return complete(items, results, updates, positions, revoke, UserBatchItem::getId);
+    }
+
+    @Override
+    public List<BatchItemResult> disableUsers(List<BulkItem<Integer>> ids, String operator) {
+        List<UserUpdate> updates = new ArrayList<>(ids.size());
+        List<Integer> positions = new ArrayList<>(ids.size());
+        Integer[] revoke = new Integer[ids.size()];
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ids.size(); i++) {
+            int position = i;
+            updates.add(new UserUpdate(ids.get(i).value(), user -> {
+                revoke[position] = user.getId();
+                user.setStatus(DISABLED);
+                user.setUpdateBy(operator);
+                user.setUpdateTime(now);
+            }));
+            positions.add(i);
+        }
+        return complete(ids, new BatchItemResult[ids.size()], updates, positions, revoke, id -> id);
+    }
+
+    @Override
+    public List<BatchItemResult> assignRoles(List<BulkItem<RoleAssignment>> assignments, String operator) {
+        BatchItemResult[] results = new BatchItemResult[assignments.size()];
+        List<UserUpdate> updates = new ArrayList<>(assignments.size());
+        List<Integer> positions = new ArrayList<>(assignments.size());
+        Integer[] revoke = new Integer[assignments.size()];
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < assignments.size(); i++) {
+            BulkItem<RoleAssignment> item = assignments.get(i);
+            RoleAssignment assignment = item.value();
+            String mode = assignment.getMode() == null ? "replace" : assignment.getMode();
+            String error = assignment.getUserId() == null ? "userId is required"
+                    : assignment.getRoles() == null ? "roles is required"
+                    : !List.of("replace", "add", "remove").contains(mode) ? "mode must be replace, add or remove"
+                    : validateRoles(assignment.getRoles());
+            if (error != null) {
+                results[i] = new BatchItemResult(item.index(), assignment.getUserId(), "invalid", error, null);
+                continue;
+            }
+            int position = i;
+            updates.add(new UserUpdate(assignment.getUserId(), user -> {
+                Set<String> roles = new LinkedHashSet<>(user.getUserRoles());
+                switch (mode) {
+                    case "add" -> roles.addAll(assignment.getRoles());
+                    case "remove" -> assignment.getRoles().forEach(roles::remove);
+                    default -> {
+                        roles.clear();
+                        roles.addAll(assignment.getRoles());
+                    }
+                }
+                if (roles.size() > MAX_ROLES) {
+                    throw new IllegalArgumentException("At most " + MAX_ROLES + " roles per user");
+                }
+                if (!roles.equals(new LinkedHashSet<>(user.getUserRoles()))) {
+                    revoke[position] = user.getId();
+                }
+                user.setUserRoles(new ArrayList<>(roles));
+                user.setUpdateBy(operator);
+                user.setUpdateTime(now);
+            }));
+            positions.add(i);
+        }
+        return complete(assignments, results, updates, positions, revoke, RoleAssignment::getUserId);
+    }
+
+    /**
+     * Run the updates, fill in their results and revoke the sessions they invalidated
+     */
+    private <T> List<BatchItemResult> complete(List<BulkItem<T>> items, BatchItemResult[] results,
+                                               List<UserUpdate> updates, List<Integer> positions, Integer[] revoke,
+                                               Function<T, Integer> idOf) {
+        List<SaveResult> saved = updates.isEmpty() ? List.of() : userRepository.updateAll(updates);
+        int revoked = 0;
+        for (int j = 0; j < saved.size(); j++) {
+            int i = positions.get(j);
+            BulkItem<T> item = items.get(i);
+            SaveResult result = saved.get(j);
+            results[i] = toResult(item.index(), idOf.apply(item.value()), result, "updated");
+            if (result.isSaved() && revoke[i] != null) {
+                tokenRegistry.revokeUser(revoke[i]);
+                revoked++;
+            }
+        }
+        if (revoked > 0) {
+            log.debug("Revoked the sessions of {} changed users", revoked);
+        }
+        return List.of(results);
+    }
+
+    private static BatchItemResult toResult(int index, Integer id, SaveResult result, String success) {
+        if (result.isSaved()) {
+            return new BatchItemResult(index, result.user().getId(), success, null, null);
+        }
+        return new BatchItemResult(index, id, result.notFound() ? "not_found" : "conflict", result.error(), null);
+    }
+
+    /**
+     * Copy the non-null fields of the request onto the user
+     */
+    private static void apply(UserBatchItem request, User user) {
+        if (request.getUserName() != null) {
+            user.setUserName(request.getUserName());
+        }
+        if (request.getNickName() != null) {
+            user.setNickName(request.getNickName());
+        }
+        if (request.getUserGender() != null) {
+            user.setUserGender(request.getUserGender());
+        }
+        if (request.getUserPhone() != null) {
+            user.setUserPhone(request.getUserPhone());
+        }
+        if (request.getUserEmail() != null) {
+            user.setUserEmail(request.getUserEmail());
+        }
+        if (request.getStatus() != null) {
+            user.setStatus(request.getStatus());
+        }
+        if (request.getAvatar() != null) {
+            user.setAvatar(request.getAvatar());
+        }
+    }
+
+    /**
+     * Checks the fields that are present; null means valid. Roles are refused here so that
+     * "add" and "edit" cannot grant them: every role change goes through assignRoles.
+     */
+    private static String validate(UserBatchItem request) {
+        if (request.getUserRoles() != null) {
+            return "userRoles cannot be set here; use /role/batch/assign";
+        }
+        String userName = request.getUserName();
+        if (userName != null && (userName.isBlank() || userName.length() > 64 || !userName.strip().equals(userName))) {
+            return "userName must be 1-64 characters without surrounding spaces";
+        }
+        if (request.getNickName() != null && request.getNickName().length() > 64) {
+            return "nickName must be at most 64 characters";
+        }
+        if (request.getUserGender() != null && !List.of("1", "2").contains(request.getUserGender())) {
+            return "userGender must be 1 or 2";
+        }
+        if (request.getStatus() != null && !List.of(ENABLED, DISABLED).contains(request.getStatus())) {
+            return "status must be 1 or 2";
+        }
+        if (request.getUserPhone() != null && request.getUserPhone().length() > 32) {
+            return "userPhone must be at most 32 characters";
+        }
+        String email = request.getUserEmail();
+        if (email != null && (email.length() > 128 || email.indexOf('@') <= 0)) {
+            return "userEmail is not a valid address";
+        }
+        if (request.getAvatar() != null && request.getAvatar().length() > 512) {
+            return "avatar must be at most 512 characters";
+        }
+        return null;
+    }
+
+    private static String validateRoles(List<String> roles) {
+        if (roles.size() > MAX_ROLES) {
+            return "At most " + MAX_ROLES + " roles per user";
+        }
+        for (String role : roles) {
+            if (role == null || !ROLE_CODE.matcher(role).matches()) {
+                return "Invalid role code: " + role;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.nebula.auth.token;
+
+/**
+ * Access Token
+ * An opaque access token: random text mapped to its session, with a short expiry of its
+ * own. It is only good while both the token and its session are.
+ */
+public final class AccessToken extends TimingWheel.Node {
+
+    private final String token;
+
+    private final Session session;
+
+    private final long expiresAtMillis;
+
+    AccessToken(String token, Session session, long expiresAtMillis) {
+        this.token = token;
+        this.session = session;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public Session getSession() {
+        return session;
+    }
+
+    /**
+     * The earlier of the token's own expiry and its session's
+     */
+    public long getExpiresAtMillis() {
+        return Math.min(expiresAtMillis, session.getExpiresAtMillis());
+    }
+
+    @Override
+    long deadlineMillis() {
+        return expiresAtMillis;
+    }
+}
@@ -0,0 +1,194 @@
+package com.nebula.auth.token;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Buffered Token Minter
+ * Striped, buffered CSPRNG output. Each stripe owns a SecureRandom (DRBG where available, so
+ * stripes never share the platform's single NativePRNG lock), a buffer of its output refilled
+ * {@value #BUFFER_SIZE} bytes at a time, and scratch arrays to encode into. A thread takes the
+ * stripe its id hashes to, as in MacPool, so concurrent logins rarely meet and virtual
+ * threads need no per-thread state. Consumed buffer bytes are zeroed.
+ *
+ * <p>Stripes are created the first time their slot is used. If the slot's stripe is busy the
+ * next {@value #PROBES} slots are tried, and if all are busy the bytes come unbuffered from
+ * a shared generator seeded at construction, so a collision never instantiates a DRBG.
+ */
+@Slf4j
+public final class BufferedTokenMinter implements TokenMinter {
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private static final int PROBES = 4;
+
+    /**
+     * Parked in a slot while its stripe is in use
+     */
+    private static final Stripe BUSY = new Stripe(-1, null);
+
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Supplier<SecureRandom> randoms;
+
+    /**
+     * Null until a slot's stripe is first created
+     */
+    private final AtomicReferenceArray<Stripe> stripes;
+
+    private final SecureRandom shared;
+
+    private final int mask;
+
+    public BufferedTokenMinter() {
+        this(BufferedTokenMinter::defaultRandom);
+    }
+
+    /**
+     * @param randoms creates the generator of a new stripe
+     */
+    public BufferedTokenMinter(Supplier<SecureRandom> randoms) {
+        this.randoms = randoms;
+        int size = Integer.highestOneBit(Math.max(2, Runtime.getRuntime().availableProcessors() * 4 - 1)) << 1;
+        this.stripes = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        stripes.set(0, new Stripe(0, randoms.get()));
+        this.shared = randoms.get();
+        // Draw once so the shared generator is seeded before the first collision needs it
+        shared.nextBytes(new byte[1]);
+    }
+
+    @Override
+    public long nextLong() {
+        Stripe stripe = acquire();
+        if (stripe == null) {
+            return shared.nextLong();
+        }
+        long value = stripe.nextLong();
+        release(stripe);
+        return value;
+    }
+
+    @Override
+    public String mint(int byteCount, TokenEncoding encoding) {
+        if (byteCount < 1 || byteCount > MAX_BYTES) {
+            throw new IllegalArgumentException("Token length must be between 1 and " + MAX_BYTES + " bytes");
+        }
+        Stripe stripe = acquire();
+        if (stripe == null) {
+            return mintShared(byteCount, encoding);
+        }
+        try {
+            int offset = stripe.take(byteCount);
+            int length = encoding.encode(stripe.buffer, offset, byteCount, stripe.chars, 0);
+            Arrays.fill(stripe.buffer, offset, offset + byteCount, (byte) 0);
+            return new String(stripe.chars, 0, length);
+        } finally {
+            release(stripe);
+        }
+    }
+
+    private String mintShared(int byteCount, TokenEncoding encoding) {
+        byte[] bytes = new byte[byteCount];
+        shared.nextBytes(bytes);
+        char[] chars = new char[encoding.encodedLength(byteCount)];
+        int length = encoding.encode(bytes, 0, byteCount, chars, 0);
+        Arrays.fill(bytes, (byte) 0);
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * Take the stripe of this thread's slot or of one of the next few, creating it on first use
+     *
+     * @return null if they are all busy
+     */
+    private Stripe acquire() {
+        int first = slot();
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (first + i) & mask;
+            Stripe stripe = stripes.get(slot);
+            if (stripe == null) {
+                if (stripes.compareAndSet(slot, null, BUSY)) {
+                    try {
+                        return new Stripe(slot, randoms.get());
+                    } catch (RuntimeException e) {
+                        stripes.set(slot, null);
+                        throw e;
+                    }
+                }
+            } else if (stripe != BUSY && stripes.compareAndSet(slot, stripe, BUSY)) {
+                return stripe;
+            }
+        }
+        return null;
+    }
+
+    private void release(Stripe stripe) {
+        stripes.set(stripe.slot, stripe);
+    }
+
+    private int slot() {
+        long id = Thread.currentThread().threadId();
+        return (int) (id ^ (id >>> 17)) & mask;
+    }
+
+    private static SecureRandom defaultRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            log.debug("DRBG unavailable, falling back to the default SecureRandom");
+            return new SecureRandom();
+        }
+    }
+
+    /**
+     * Used by one thread at a time
+     */
+    private static final class Stripe {
+
+        private final int slot;
+
+        private final SecureRandom random;
+
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        private final char[] chars = new char[TokenEncoding.HEX.encodedLength(MAX_BYTES)];
+
+        private int position = BUFFER_SIZE;
+
+        private Stripe(int slot, SecureRandom random) {
+            this.slot = slot;
+            this.random = random;
+        }
+
+        /**
+         * Reserve {@code count} unused random bytes, refilling the buffer if needed
+         *
+         * @return their offset in the buffer
+         */
+        int take(int count) {
+            if (position + count > BUFFER_SIZE) {
+                random.nextBytes(buffer);
+                position = 0;
+            }
+            int offset = position;
+            position += count;
+            return offset;
+        }
+
+        long nextLong() {
+            int offset = take(Long.BYTES);
+            long value = (long) LONG_VIEW.get(buffer, offset);
+            LONG_VIEW.set(buffer, offset, 0L);
+            return value;
+        }
+    }
+}
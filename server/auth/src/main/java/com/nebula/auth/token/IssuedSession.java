@@ -0,0 +1,8 @@
+package com.nebula.auth.token;
+
+/**
+ * Issued Session
+ * A session together with the refresh token that may currently be redeemed for it
+ */
+public record IssuedSession(Session session, String refreshToken) {
+}
@@ -0,0 +1,99 @@
+package com.nebula.auth.token;
+
+import com.nebula.common.crypto.MacPool;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Refresh Token Codec
+ * Refresh tokens are {@code Refresh-} + base64url(session key | rotation counter | tag), where
+ * the tag is a truncated HMAC-SHA256 over key and counter. Any token can be verified without
+ * storing it, and a genuine token with an old counter proves reuse. Encoding writes the
+ * prefix and base64url text into one char array.
+ */
+final class RefreshTokenCodec {
+
+    static final String PREFIX = "Refresh-";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final int TAG_LENGTH = 16;
+
+    private static final int LENGTH = Long.BYTES + Integer.BYTES + TAG_LENGTH;
+
+    private static final int ENCODED_LENGTH = PREFIX.length() + TokenEncoding.BASE64URL.encodedLength(LENGTH);
+
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final VarHandle INT_VIEW = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final MacPool macs;
+
+    RefreshTokenCodec(String secret) {
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (secretBytes.length < 32) {
+            throw new IllegalArgumentException("Refresh token secret must be at least 256 bits");
+        }
+        this.macs = new MacPool(ALGORITHM, new SecretKeySpec(secretBytes, ALGORITHM));
+    }
+
+    String encode(long sessionKey, int counter) {
+        byte[] bytes = new byte[LENGTH];
+        LONG_VIEW.set(bytes, 0, sessionKey);
+        INT_VIEW.set(bytes, Long.BYTES, counter);
+        byte[] full = macs.doFinal(Arrays.copyOf(bytes, Long.BYTES + Integer.BYTES));
+        System.arraycopy(full, 0, bytes, Long.BYTES + Integer.BYTES, TAG_LENGTH);
+        char[] chars = new char[ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        TokenEncoding.BASE64URL.encode(bytes, 0, LENGTH, chars, PREFIX.length());
+        return new String(chars);
+    }
+
+    /**
+     * @return the verified (session key, counter), or null if the token is malformed or forged
+     */
+    Decoded decode(String token) {
+        if (token == null || !token.startsWith(PREFIX)) {
+            return null;
+        }
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(token.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (bytes.length != LENGTH) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long sessionKey = buffer.getLong();
+        int counter = buffer.getInt();
+        byte[] presented = new byte[TAG_LENGTH];
+        buffer.get(presented);
+        if (!MessageDigest.isEqual(presented, tag(sessionKey, counter))) {
+            return null;
+        }
+        return new Decoded(sessionKey, counter);
+    }
+
+    private byte[] tag(long sessionKey, int counter) {
+        byte[] input = ByteBuffer.allocate(Long.BYTES + Integer.BYTES).putLong(sessionKey).putInt(counter).array();
+        byte[] full = macs.doFinal(input);
+        byte[] tag = new byte[TAG_LENGTH];
+        System.arraycopy(full, 0, tag, 0, TAG_LENGTH);
+        return tag;
+    }
+
+    record Decoded(long sessionKey, int counter) {
+    }
+}
@@ -0,0 +1,132 @@
+package com.nebula.auth.token;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revocation Feed
+ * Recent session and per-user revocations, polled by the gateway, which verifies access
+ * tokens locally and would otherwise accept a revoked one until it expires. An entry is
+ * kept for the retention (the access token lifetime): after that no token it applies to
+ * can still be valid. Readers pass the last sequence they saw and get what followed.
+ *
+ * <p>The epoch is random per process, so a reader notices a restart; it also resets when
+ * the feed overflowed past its sequence, since entries were lost in between.
+ */
+public final class RevocationFeed {
+
+    private final long epoch = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+
+    private final long retentionMillis;
+
+    private final int maxEntries;
+
+    /**
+     * A lock rather than a monitor: revocations happen on virtual threads
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final ArrayDeque<Revocation> entries = new ArrayDeque<>();
+
+    private long sequence;
+
+    /**
+     * Highest sequence dropped for space before its retention ran out
+     */
+    private long overflowSequence;
+
+    public RevocationFeed(Duration retention, int maxEntries) {
+        this.retentionMillis = retention.toMillis();
+        this.maxEntries = maxEntries;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public Duration getRetention() {
+        return Duration.ofMillis(retentionMillis);
+    }
+
+    void sessionRevoked(String sessionId, long nowMillis) {
+        append(sessionId, null, nowMillis);
+    }
+
+    void userRevoked(Integer userId, long nowMillis) {
+        append(null, userId, nowMillis);
+    }
+
+    private void append(String sessionId, Integer userId, long nowMillis) {
+        lock.lock();
+        try {
+            prune(nowMillis);
+            if (entries.size() >= maxEntries) {
+                Revocation dropped = entries.pollFirst();
+                if (dropped != null) {
+                    overflowSequence = dropped.sequence();
+                }
+            }
+            entries.addLast(new Revocation(++sequence, sessionId, userId, nowMillis));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Entries after {@code sequence}; all retained entries, flagged as a reset, if the reader
+     * is from another epoch or missed entries
+     */
+    public Changes since(long epoch, long sequence, long nowMillis) {
+        lock.lock();
+        try {
+            prune(nowMillis);
+            boolean reset = epoch != this.epoch || sequence < overflowSequence || sequence > this.sequence;
+            List<Revocation> changes = new ArrayList<>();
+            Iterator<Revocation> newestFirst = entries.descendingIterator();
+            while (newestFirst.hasNext()) {
+                Revocation entry = newestFirst.next();
+                if (!reset && entry.sequence() <= sequence) {
+                    break;
+                }
+                changes.add(entry);
+            }
+            return new Changes(this.epoch, this.sequence, reset, changes.reversed());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void prune(long nowMillis) {
+        long cutoff = nowMillis - retentionMillis;
+        while (!entries.isEmpty() && entries.peekFirst().atMillis() < cutoff) {
+            entries.pollFirst();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * One revocation: a session (by id) or every session a user had at {@code atMillis}
+     */
+    public record Revocation(long sequence, String sessionId, Integer userId, long atMillis) {
+    }
+
+    /**
+     * @param sequence latest sequence, to pass to the next call
+     * @param reset    whether the reader must drop what it has and take {@code revocations} as the full set
+     */
+    public record Changes(long epoch, long sequence, boolean reset, List<Revocation> revocations) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.nebula.auth.token;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Session
+ * One login: identified by a random 64-bit key that is the access token's jti and the
+ * lookup part of its refresh tokens. Kept small because millions may be live.
+ */
+public final class Session extends TimingWheel.Node {
+
+    private static final VarHandle REFRESH_COUNTER;
+
+    static {
+        try {
+            REFRESH_COUNTER = MethodHandles.lookup().findVarHandle(Session.class, "refreshCounter", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long key;
+
+    private final UserSessions user;
+
+    private final String userName;
+
+    /**
+     * User's revocation generation when the session was created
+     */
+    private final int generation;
+
+    private final long absoluteExpiryMillis;
+
+    private volatile long idleExpiryMillis;
+
+    private volatile boolean revoked;
+
+    /**
+     * Counter of the only refresh token that may still be redeemed; advanced by CAS
+     */
+    private volatile int refreshCounter;
+
+    Session(long key, UserSessions user, String userName, long absoluteExpiryMillis, long idleExpiryMillis) {
+        this.key = key;
+        this.user = user;
+        this.userName = userName;
+        this.generation = user.generation();
+        this.absoluteExpiryMillis = absoluteExpiryMillis;
+        this.idleExpiryMillis = Math.min(idleExpiryMillis, absoluteExpiryMillis);
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * Session id as carried in the access token's jti
+     */
+    public String getId() {
+        return TokenRegistry.formatId(key);
+    }
+
+    public Integer getUserId() {
+        return user.userId();
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    UserSessions user() {
+        return user;
+    }
+
+    public long getExpiresAtMillis() {
+        return deadlineMillis();
+    }
+
+    boolean isActive(long nowMillis) {
+        return !revoked && generation == user.generation() && nowMillis < deadlineMillis();
+    }
+
+    /**
+     * Slide the idle deadline; writes are skipped unless it moves by more than {@code granularityMillis}
+     */
+    void touch(long nowMillis, long idleTimeoutMillis, long granularityMillis) {
+        long next = Math.min(nowMillis + idleTimeoutMillis, absoluteExpiryMillis);
+        if (next - idleExpiryMillis > granularityMillis) {
+            idleExpiryMillis = next;
+        }
+    }
+
+    void revoke() {
+        revoked = true;
+    }
+
+    int refreshCounter() {
+        return refreshCounter;
+    }
+
+    /**
+     * Redeem the refresh token with this counter; false if it is not (or no longer) the current one
+     */
+    boolean rotate(int counter) {
+        return REFRESH_COUNTER.compareAndSet(this, counter, counter + 1);
+    }
+
+    @Override
+    long deadlineMillis() {
+        return revoked ? Long.MIN_VALUE : Math.min(idleExpiryMillis, absoluteExpiryMillis);
+    }
+}
@@ -0,0 +1,139 @@
+package com.nebula.auth.token;
+
+import java.util.function.Consumer;
+
+/**
+ * Timing Wheel
+ * Hierarchical timing wheel (4 levels of 64 slots) over intrusive nodes: scheduling,
+ * cancelling and firing are O(1) per node, with no per-entry task and no full scan.
+ * With a 1s tick the levels span ~1 minute, ~68 minutes, ~3 days and ~194 days;
+ * later deadlines are parked in the top level and re-placed when it comes round.
+ *
+ * <p>A fired node whose deadline has moved into the future (sliding expiry) is
+ * rescheduled instead of expired, so extending a deadline never touches the wheel.
+ * Not thread-safe; callers serialize access.
+ */
+final class TimingWheel<N extends TimingWheel.Node> {
+
+    private static final int LEVELS = 4;
+
+    private static final int SLOT_BITS = 6;
+
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+
+    /**
+     * Sentinel heads of the circular bucket lists, [level * SLOTS + slot]
+     */
+    private final Node[] buckets = new Node[LEVELS * SLOTS];
+
+    private long currentTick;
+
+    TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (int i = 0; i < buckets.length; i++) {
+            Node head = new Node();
+            head.prev = head;
+            head.next = head;
+            buckets[i] = head;
+        }
+    }
+
+    void schedule(N node) {
+        long deadlineMillis = node.deadlineMillis();
+        long deadlineTick = deadlineMillis <= currentTick * tickMillis
+                ? currentTick + 1 : Math.max(currentTick + 1, ceilDiv(deadlineMillis, tickMillis));
+        long delta = deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        long maxDelta = 1L << (SLOT_BITS * LEVELS);
+        if (delta >= maxDelta) {
+            // Beyond the wheel's horizon: park in the furthest top-level slot
+            deadlineTick = currentTick + maxDelta - (1L << (SLOT_BITS * (LEVELS - 1)));
+        }
+        int slot = (int) (deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK;
+        link(buckets[level * SLOTS + slot], node);
+    }
+
+    void cancel(N node) {
+        if (node.next != null) {
+            unlink(node);
+        }
+    }
+
+    /**
+     * Advance to the tick containing {@code nowMillis}, handing every node whose
+     * deadline has passed to {@code expired}
+     */
+    @SuppressWarnings("unchecked")
+    void advance(long nowMillis, Consumer<N> expired) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            long tick = ++currentTick;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((tick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    int slot = (int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK;
+                    drain(buckets[level * SLOTS + slot], node -> schedule((N) node));
+                }
+            }
+            drain(buckets[(int) (tick & SLOT_MASK)], node -> {
+                if (node.deadlineMillis() <= nowMillis) {
+                    expired.accept((N) node);
+                } else {
+                    schedule((N) node);
+                }
+            });
+        }
+    }
+
+    private static void drain(Node head, Consumer<Node> action) {
+        Node node = head.next;
+        head.next = head;
+        head.prev = head;
+        while (node != head) {
+            Node next = node.next;
+            node.prev = null;
+            node.next = null;
+            action.accept(node);
+            node = next;
+        }
+    }
+
+    private static void link(Node head, Node node) {
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+    }
+
+    private static void unlink(Node node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    /**
+     * Intrusive list links; subclasses report the deadline the node should fire at
+     */
+    static class Node {
+
+        Node prev;
+
+        Node next;
+
+        long deadlineMillis() {
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.nebula.auth.token;
+
+/**
+ * Token Encoding
+ * Text encodings for random and signed token bytes. Both write straight into a caller's
+ * char array, so a token costs one String and no intermediate byte or char copies.
+ */
+public enum TokenEncoding {
+
+    /**
+     * RFC 4648 base64url without padding: 4 chars per 3 bytes, safe in URLs and headers
+     */
+    BASE64URL {
+        @Override
+        public int encodedLength(int byteCount) {
+            return (byteCount * 4 + 2) / 3;
+        }
+
+        @Override
+        public int encode(byte[] src, int offset, int length, char[] dst, int dstOffset) {
+            int out = dstOffset;
+            int end = offset + length;
+            int i = offset;
+            for (; i + 3 <= end; i += 3) {
+                int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+                dst[out++] = BASE64URL_DIGITS[bits >>> 18];
+                dst[out++] = BASE64URL_DIGITS[(bits >>> 12) & 0x3f];
+                dst[out++] = BASE64URL_DIGITS[(bits >>> 6) & 0x3f];
+                dst[out++] = BASE64URL_DIGITS[bits & 0x3f];
+            }
+            if (end - i == 1) {
+                int bits = (src[i] & 0xff) << 16;
+                dst[out++] = BASE64URL_DIGITS[bits >>> 18];
+                dst[out++] = BASE64URL_DIGITS[(bits >>> 12) & 0x3f];
+            } else if (end - i == 2) {
+                int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8;
+                dst[out++] = BASE64URL_DIGITS[bits >>> 18];
+                dst[out++] = BASE64URL_DIGITS[(bits >>> 12) & 0x3f];
+                dst[out++] = BASE64URL_DIGITS[(bits >>> 6) & 0x3f];
+            }
+            return out - dstOffset;
+        }
+    },
+
+    /**
+     * Lowercase hex: 2 chars per byte
+     */
+    HEX {
+        @Override
+        public int encodedLength(int byteCount) {
+            return byteCount * 2;
+        }
+
+        @Override
+        public int encode(byte[] src, int offset, int length, char[] dst, int dstOffset) {
+            int out = dstOffset;
+            for (int i = offset; i < offset + length; i++) {
+                dst[out++] = HEX_DIGITS[(src[i] >>> 4) & 0xf];
+                dst[out++] = HEX_DIGITS[src[i] & 0xf];
+            }
+            return out - dstOffset;
+        }
+    };
+
+    private static final char[] BASE64URL_DIGITS =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    public abstract int encodedLength(int byteCount);
+
+    /**
+     * Encode {@code length} bytes of {@code src} into {@code dst}, which must have
+     * {@link #encodedLength} chars free at {@code dstOffset}
+     *
+     * @return chars written
+     */
+    public abstract int encode(byte[] src, int offset, int length, char[] dst, int dstOffset);
+
+    /**
+     * Fixed-width lowercase hex of a long, as used for session ids
+     */
+    static String hex(long value) {
+        char[] chars = new char[16];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX_DIGITS[(int) value & 0xf];
+            value >>>= 4;
+        }
+        return new String(chars);
+    }
+}
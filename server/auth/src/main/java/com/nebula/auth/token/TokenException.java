@@ -0,0 +1,28 @@
+package com.nebula.auth.token;
+
+/**
+ * Token Exception
+ * A refresh or session token was rejected
+ */
+public class TokenException extends RuntimeException {
+
+    public enum Reason {
+        INVALID,
+        EXPIRED,
+        /**
+         * An already rotated refresh token was presented; the session has been revoked
+         */
+        REUSED
+    }
+
+    private final Reason reason;
+
+    public TokenException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,27 @@
+package com.nebula.auth.token;
+
+/**
+ * Token Minter
+ * Source of unguessable identifiers for sessions and opaque tokens. The default is
+ * {@link BufferedTokenMinter}; declare another TokenMinter bean to replace it (e.g. an
+ * HSM-backed or deterministic one for tests).
+ */
+public interface TokenMinter {
+
+    /**
+     * Longest token {@link #mint} accepts, in random bytes
+     */
+    int MAX_BYTES = 64;
+
+    /**
+     * 64 random bits, e.g. a session key
+     */
+    long nextLong();
+
+    /**
+     * A token of {@code byteCount} random bytes (16 or more for anything guessable online)
+     *
+     * @throws IllegalArgumentException if byteCount is not between 1 and {@link #MAX_BYTES}
+     */
+    String mint(int byteCount, TokenEncoding encoding);
+}
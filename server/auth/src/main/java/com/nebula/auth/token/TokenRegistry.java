@@ -0,0 +1,392 @@
+package com.nebula.auth.token;
+
+import com.nebula.auth.config.TokenProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token Registry
+ * Server-side sessions behind issued tokens. Each session has an absolute lifetime and a
+ * sliding idle timeout; a hierarchical timing wheel, advanced once per tick, removes
+ * sessions as they expire. Validation is a map lookup plus a few volatile reads and never
+ * takes a lock.
+ *
+ * <p>Refresh tokens rotate: redeeming one issues its successor and invalidates it. If an
+ * already redeemed token is presented again, the token has leaked, so the whole session is
+ * revoked. Revoking all sessions of a user bumps that user's generation, which is O(1)
+ * regardless of how many sessions the user has; those sessions are dropped from memory
+ * when their idle timeout passes. Per-user state is keyed by user id and dropped with the
+ * user's last session.
+ *
+ * <p>Opaque access tokens are minted per session with their own, shorter expiry and are
+ * dropped by a second wheel when it passes; a session id on its own is never a credential.
+ */
+@Slf4j
+public class TokenRegistry implements SmartLifecycle, MeterBinder {
+
+    /**
+     * 256 random bits per opaque access token
+     */
+    private static final int ACCESS_TOKEN_BYTES = 32;
+
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+
+    private final Map<Integer, UserSessions> users = new ConcurrentHashMap<>();
+
+    private final Map<String, AccessToken> accessTokens = new ConcurrentHashMap<>();
+
+    private final ReentrantLock wheelLock = new ReentrantLock();
+
+    private final TimingWheel<Session> wheel;
+
+    /**
+     * Access token expiry; guarded by the same lock as the session wheel
+     */
+    private final TimingWheel<AccessToken> accessTokenWheel;
+
+    private final RefreshTokenCodec refreshTokens;
+
+    private final TokenMinter minter;
+
+    /**
+     * Where revocations are published for the gateway; null if they are not
+     */
+    private final RevocationFeed revocationFeed;
+
+    private final long idleTimeoutMillis;
+
+    private final long absoluteTimeoutMillis;
+
+    private final long accessTokenTtlMillis;
+
+    private final long tickMillis;
+
+    private final LongAdder issued = new LongAdder();
+
+    private final LongAdder expired = new LongAdder();
+
+    private final LongAdder revoked = new LongAdder();
+
+    private final LongAdder rotated = new LongAdder();
+
+    private final LongAdder reused = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private ScheduledExecutorService ticker;
+
+    public TokenRegistry(TokenProperties properties) {
+        this(properties, new BufferedTokenMinter());
+    }
+
+    public TokenRegistry(TokenProperties properties, TokenMinter minter) {
+        this(properties, minter, System.currentTimeMillis());
+    }
+
+    public TokenRegistry(TokenProperties properties, long startMillis) {
+        this(properties, new BufferedTokenMinter(), startMillis);
+    }
+
+    public TokenRegistry(TokenProperties properties, TokenMinter minter, long startMillis) {
+        this(properties, minter, null, startMillis);
+    }
+
+    public TokenRegistry(TokenProperties properties, TokenMinter minter, RevocationFeed revocationFeed) {
+        this(properties, minter, revocationFeed, System.currentTimeMillis());
+    }
+
+    public TokenRegistry(TokenProperties properties, TokenMinter minter, RevocationFeed revocationFeed,
+                         long startMillis) {
+        this.minter = minter;
+        this.revocationFeed = revocationFeed;
+        this.idleTimeoutMillis = properties.getIdleTimeout().toMillis();
+        this.absoluteTimeoutMillis = properties.getAbsoluteTimeout().toMillis();
+        this.accessTokenTtlMillis = properties.getOpaqueTokenTtl().toMillis();
+        this.tickMillis = properties.getWheelTick().toMillis();
+        this.wheel = new TimingWheel<>(tickMillis, startMillis);
+        this.accessTokenWheel = new TimingWheel<>(tickMillis, startMillis);
+        this.refreshTokens = new RefreshTokenCodec(properties.getRefreshSecret());
+    }
+
+    public IssuedSession issue(Integer userId, String userName) {
+        return issue(userId, userName, System.currentTimeMillis());
+    }
+
+    public IssuedSession issue(Integer userId, String userName, long nowMillis) {
+        // Counted before the session is visible, so release() can never see the count hit zero early
+        UserSessions user = users.compute(userId, (id, current) -> (current == null ? new UserSessions(id) : current).attach());
+        Session session;
+        do {
+            session = new Session(minter.nextLong(), user, userName,
+                    nowMillis + absoluteTimeoutMillis, nowMillis + idleTimeoutMillis);
+        } while (sessions.putIfAbsent(session.getKey(), session) != null);
+
+        wheelLock.lock();
+        try {
+            wheel.schedule(session);
+        } finally {
+            wheelLock.unlock();
+        }
+        issued.increment();
+        return new IssuedSession(session, refreshTokens.encode(session.getKey(), 0));
+    }
+
+    /**
+     * Look up an active session by id (the access token's jti) and slide its idle timeout
+     *
+     * @return the session, or null if unknown, expired or revoked
+     */
+    public Session validate(String sessionId) {
+        return validate(sessionId, System.currentTimeMillis());
+    }
+
+    public Session validate(String sessionId, long nowMillis) {
+        long key = parseId(sessionId);
+        return key == 0 ? null : validate(key, nowMillis);
+    }
+
+    public Session validate(long key, long nowMillis) {
+        Session session = sessions.get(key);
+        if (session == null || !session.isActive(nowMillis)) {
+            return null;
+        }
+        session.touch(nowMillis, idleTimeoutMillis, tickMillis);
+        return session;
+    }
+
+    /**
+     * Mint an opaque access token for the session, valid for {@code nebula.token.opaque-token-ttl}
+     */
+    public AccessToken issueAccessToken(Session session) {
+        return issueAccessToken(session, System.currentTimeMillis());
+    }
+
+    public AccessToken issueAccessToken(Session session, long nowMillis) {
+        long expiresAtMillis = Math.min(nowMillis + accessTokenTtlMillis, session.getExpiresAtMillis());
+        AccessToken accessToken;
+        do {
+            accessToken = new AccessToken(minter.mint(ACCESS_TOKEN_BYTES, TokenEncoding.BASE64URL),
+                    session, expiresAtMillis);
+        } while (accessTokens.putIfAbsent(accessToken.getToken(), accessToken) != null);
+
+        wheelLock.lock();
+        try {
+            accessTokenWheel.schedule(accessToken);
+        } finally {
+            wheelLock.unlock();
+        }
+        return accessToken;
+    }
+
+    /**
+     * Look up an opaque access token. Read-only: the session's idle timeout is slid by
+     * refreshing, which a holder of these short-lived tokens has to do anyway.
+     *
+     * @return the token, or null if unknown or expired, or if its session is no longer active
+     */
+    public AccessToken findAccessToken(String token) {
+        return findAccessToken(token, System.currentTimeMillis());
+    }
+
+    public AccessToken findAccessToken(String token, long nowMillis) {
+        AccessToken accessToken = accessTokens.get(token);
+        if (accessToken == null || nowMillis >= accessToken.deadlineMillis()
+                || !accessToken.getSession().isActive(nowMillis)) {
+            return null;
+        }
+        return accessToken;
+    }
+
+    /**
+     * Redeem a refresh token for its successor
+     *
+     * @throws TokenException if the token is invalid or expired, or was already redeemed (the session is then revoked)
+     */
+    public IssuedSession refresh(String refreshToken) {
+        return refresh(refreshToken, System.currentTimeMillis());
+    }
+
+    public IssuedSession refresh(String refreshToken, long nowMillis) {
+        RefreshTokenCodec.Decoded decoded = refreshTokens.decode(refreshToken);
+        if (decoded == null) {
+            rejected.increment();
+            throw new TokenException(TokenException.Reason.INVALID, "Invalid refresh token");
+        }
+        Session session = sessions.get(decoded.sessionKey());
+        if (session == null || !session.isActive(nowMillis)) {
+            rejected.increment();
+            throw new TokenException(TokenException.Reason.EXPIRED, "Session expired");
+        }
+        // CAS rather than a monitor: revoke() blocks on the wheel lock, which would pin a virtual thread
+        if (!session.rotate(decoded.counter())) {
+            if (decoded.counter() < session.refreshCounter()) {
+                reused.increment();
+                log.warn("Refresh token reuse for user {}; revoking session {}",
+                        session.getUserName(), session.getId());
+                revoke(session);
+                throw new TokenException(TokenException.Reason.REUSED, "Refresh token already used");
+            }
+            rejected.increment();
+            throw new TokenException(TokenException.Reason.INVALID, "Invalid refresh token");
+        }
+        int next = decoded.counter() + 1;
+        session.touch(nowMillis, idleTimeoutMillis, tickMillis);
+        rotated.increment();
+        return new IssuedSession(session, refreshTokens.encode(session.getKey(), next));
+    }
+
+    public boolean revoke(String sessionId) {
+        Session session = sessions.get(parseId(sessionId));
+        if (session == null) {
+            return false;
+        }
+        revoke(session);
+        return true;
+    }
+
+    private void revoke(Session session) {
+        session.revoke();
+        wheelLock.lock();
+        try {
+            wheel.cancel(session);
+        } finally {
+            wheelLock.unlock();
+        }
+        if (sessions.remove(session.getKey(), session)) {
+            release(session);
+            revoked.increment();
+            if (revocationFeed != null) {
+                revocationFeed.sessionRevoked(session.getId(), System.currentTimeMillis());
+            }
+        }
+    }
+
+    /**
+     * Called once per session leaving the map; drops the user's state with their last session
+     */
+    private void release(Session session) {
+        UserSessions user = session.user();
+        users.computeIfPresent(user.userId(), (id, current) -> current != user || current.detach() ? current : null);
+    }
+
+    /**
+     * Invalidate every current session of a user
+     */
+    public void revokeUser(Integer userId) {
+        UserSessions user = users.get(userId);
+        if (user != null) {
+            user.revokeAll();
+            revoked.increment();
+            if (revocationFeed != null) {
+                revocationFeed.userRevoked(userId, System.currentTimeMillis());
+            }
+        }
+    }
+
+    /**
+     * Advance the timing wheels and drop expired sessions and access tokens
+     *
+     * @return number of sessions removed
+     */
+    public int expire(long nowMillis) {
+        int[] removed = new int[1];
+        wheelLock.lock();
+        try {
+            wheel.advance(nowMillis, session -> {
+                if (sessions.remove(session.getKey(), session)) {
+                    release(session);
+                    removed[0]++;
+                }
+            });
+            accessTokenWheel.advance(nowMillis, accessToken -> accessTokens.remove(accessToken.getToken(), accessToken));
+        } finally {
+            wheelLock.unlock();
+        }
+        expired.add(removed[0]);
+        return removed[0];
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    static String formatId(long key) {
+        return TokenEncoding.hex(key);
+    }
+
+    private static long parseId(String sessionId) {
+        if (sessionId == null || sessionId.length() != 16) {
+            return 0;
+        }
+        try {
+            return Long.parseUnsignedLong(sessionId, 16);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(
+                runnable -> Thread.ofPlatform().name("token-wheel").daemon(true).unstarted(runnable));
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                expire(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                log.error("Token expiry tick failed", e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return ticker != null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.token.sessions", sessions, Map::size)
+                .description("Sessions held by the token registry")
+                .register(registry);
+        Gauge.builder("auth.token.access", accessTokens, Map::size)
+                .description("Unexpired opaque access tokens")
+                .register(registry);
+        FunctionCounter.builder("auth.token.issued", issued, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("auth.token.expired", expired, LongAdder::sum)
+                .description("Sessions removed by the timing wheel")
+                .register(registry);
+        FunctionCounter.builder("auth.token.revoked", revoked, LongAdder::sum)
+                .description("Session and per-user revocations")
+                .register(registry);
+        FunctionCounter.builder("auth.token.refresh", rotated, LongAdder::sum)
+                .tag("result", "rotated")
+                .register(registry);
+        FunctionCounter.builder("auth.token.refresh", reused, LongAdder::sum)
+                .tag("result", "reused")
+                .register(registry);
+        FunctionCounter.builder("auth.token.refresh", rejected, LongAdder::sum)
+                .tag("result", "rejected")
+                .register(registry);
+    }
+}
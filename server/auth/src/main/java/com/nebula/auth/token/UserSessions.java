@@ -0,0 +1,53 @@
+package com.nebula.auth.token;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * User Sessions
+ * Per-user state shared by all of a user's sessions. Bumping the generation
+ * invalidates every session created before it, which makes "revoke all" O(1).
+ * Keyed by user id, so a renamed user keeps it and a new user reusing the old
+ * name starts fresh.
+ */
+final class UserSessions {
+
+    private static final AtomicIntegerFieldUpdater<UserSessions> GENERATION =
+            AtomicIntegerFieldUpdater.newUpdater(UserSessions.class, "generation");
+
+    private final Integer userId;
+
+    private volatile int generation;
+
+    /**
+     * Sessions in the registry that point here; only changed inside a map compute for this user's key
+     */
+    private int sessions;
+
+    UserSessions(Integer userId) {
+        this.userId = userId;
+    }
+
+    Integer userId() {
+        return userId;
+    }
+
+    int generation() {
+        return generation;
+    }
+
+    void revokeAll() {
+        GENERATION.incrementAndGet(this);
+    }
+
+    UserSessions attach() {
+        sessions++;
+        return this;
+    }
+
+    /**
+     * @return whether sessions are left
+     */
+    boolean detach() {
+        return --sessions > 0;
+    }
+}
@@ -0,0 +1,144 @@
+package com.nebula.auth.trace;
+
+import com.nebula.common.trace.SpanData;
+import com.nebula.common.trace.SpanExporter;
+import com.nebula.common.trace.TraceContext;
+import com.nebula.common.trace.TraceSampler;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Trace Context Filter
+ * Continues the caller's W3C trace (usually the gateway's upstream attempt) or starts a new
+ * one, keeps its trace id in the MDC for the request's log lines, and hands the finished
+ * server span to the tail sampler. Async requests (the streaming exports) finish their
+ * span when the async cycle completes.
+ */
+public class TraceContextFilter extends OncePerRequestFilter {
+
+    private static final String CONTEXT_ATTR = TraceContextFilter.class.getName() + ".context";
+
+    private final TraceSampler sampler;
+
+    private final SpanExporter exporter;
+
+    public TraceContextFilter(TraceSampler sampler, SpanExporter exporter) {
+        this.sampler = sampler;
+        this.exporter = exporter;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            // The span is already open; only the MDC of this dispatch thread needs the trace id
+            TraceContext context = (TraceContext) request.getAttribute(CONTEXT_ATTR);
+            traced(context, request, response, chain);
+            return;
+        }
+        TraceContext context = sampler.start(TraceContext.parse(request.getHeader(TraceContext.TRACEPARENT)));
+        request.setAttribute(CONTEXT_ATTR, context);
+        long startEpochMillis = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        boolean failed = true;
+        try {
+            traced(context, request, response, chain);
+            failed = false;
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new SpanListener(context, startEpochMillis, startNanos));
+            } else {
+                finish(context, request, response, startEpochMillis, startNanos, failed);
+            }
+        }
+    }
+
+    private static void traced(TraceContext context, HttpServletRequest request, HttpServletResponse response,
+                               FilterChain chain) throws ServletException, IOException {
+        if (context == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String previous = MDC.get(TraceContext.MDC_KEY);
+        MDC.put(TraceContext.MDC_KEY, context.traceId());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (previous == null) {
+                MDC.remove(TraceContext.MDC_KEY);
+            } else {
+                MDC.put(TraceContext.MDC_KEY, previous);
+            }
+        }
+    }
+
+    private void finish(TraceContext context, HttpServletRequest request, HttpServletResponse response,
+                        long startEpochMillis, long startNanos, boolean failed) {
+        long durationNanos = System.nanoTime() - startNanos;
+        int status = response.getStatus();
+        boolean error = failed || status >= 500;
+        if (!sampler.keep(context, durationNanos, error)) {
+            return;
+        }
+        // Only kept spans pay for the name: the matched pattern keeps ids out of it
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        exporter.export(new SpanData(context, "server", method + " " + (pattern == null ? path : pattern),
+                startEpochMillis, durationNanos, status, error ? SpanData.Outcome.ERROR : SpanData.Outcome.OK,
+                method, path, null));
+    }
+
+    private final class SpanListener implements AsyncListener {
+
+        private final TraceContext context;
+
+        private final long startEpochMillis;
+
+        private final long startNanos;
+
+        private boolean failed;
+
+        private SpanListener(TraceContext context, long startEpochMillis, long startNanos) {
+            this.context = context;
+            this.startEpochMillis = startEpochMillis;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finish(context, (HttpServletRequest) event.getSuppliedRequest(),
+                    (HttpServletResponse) event.getSuppliedResponse(), startEpochMillis, startNanos, failed);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register for the next async cycle of the same request
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.nebula.benchmark.auth;
+
+import com.nebula.auth.service.HelloService;
+import com.nebula.auth.service.impl.HelloServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hello Service Benchmark
+ * The greeting endpoints: a timestamp formatted per call and a {@code String.format}
+ * of the message, with debug logging off as in production.
+ *
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar HelloServiceBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HelloServiceBenchmark {
+
+    private final HelloService helloService = new HelloServiceImpl();
+
+    private final String name = "Nebula";
+
+    @Benchmark
+    public String greeting() {
+        return helloService.getGreeting();
+    }
+
+    @Benchmark
+    public String personalizedGreeting() {
+        return helloService.getPersonalizedGreeting(name);
+    }
+}
@@ -0,0 +1,130 @@
+package com.nebula.benchmark.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nebula.auth.config.JwtProperties;
+import com.nebula.auth.config.PasswordProperties;
+import com.nebula.auth.config.TokenProperties;
+import com.nebula.auth.dto.request.LoginRequest;
+import com.nebula.auth.dto.response.LoginResponse;
+import com.nebula.auth.entity.User;
+import com.nebula.auth.password.PasswordHash;
+import com.nebula.auth.password.PasswordHasher;
+import com.nebula.auth.repository.impl.InMemoryUserRepository;
+import com.nebula.auth.service.impl.AuthServiceImpl;
+import com.nebula.auth.token.BufferedTokenMinter;
+import com.nebula.auth.token.RevocationFeed;
+import com.nebula.auth.token.TokenRegistry;
+import com.nebula.common.jwt.JwtCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login Benchmark
+ * Token minting in {@link AuthServiceImpl}: session id and refresh token generation,
+ * registry insert and JWT signing. The user's hash is a single PBKDF2 iteration so
+ * {@code login} measures the request path around the hashing pool (one hand-off to it
+ * and back) rather than the hash itself; {@code refresh} mints without the pool.
+ *
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar LoginBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LoginBenchmark {
+
+    private static final String USER_NAME = "bench.user";
+
+    private static final String PASSWORD = "bench-password";
+
+    private InMemoryUserRepository userRepository;
+
+    private JwtCodec jwtCodec;
+
+    private JwtProperties jwtProperties;
+
+    private PasswordHasher passwordHasher;
+
+    private AuthServiceImpl authService;
+
+    private LoginRequest request;
+
+    private String refreshToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        userRepository = new InMemoryUserRepository();
+        User user = new User();
+        user.setUserName(USER_NAME);
+        user.setStatus("1");
+        user.setUserRoles(List.of("R_SUPER", "R_ADMIN"));
+        user.setPasswordHash(PasswordHash.create(PASSWORD, 1).encode());
+        userRepository.save(user);
+
+        jwtProperties = new JwtProperties();
+        jwtProperties.setKeys(Map.of("default", "benchmark-jwt-secret-0123456789abcdef"));
+        jwtCodec = new JwtCodec(jwtProperties.getKeys(), jwtProperties.getActiveKeyId(), new ObjectMapper());
+
+        PasswordProperties passwordProperties = new PasswordProperties();
+        passwordProperties.setThreads(1);
+        passwordProperties.setMinIterations(1);
+        passwordProperties.setMaxIterations(1);
+        passwordProperties.setUpgradeOnLogin(false);
+        passwordHasher = new PasswordHasher(passwordProperties, new SimpleMeterRegistry());
+
+        request = new LoginRequest();
+        request.setUserName(USER_NAME);
+        request.setPassword(PASSWORD);
+    }
+
+    /**
+     * A fresh registry per iteration, so sessions minted earlier don't pile up
+     */
+    @Setup(Level.Iteration)
+    public void newRegistry() {
+        TokenProperties tokenProperties = new TokenProperties();
+        tokenProperties.setRefreshSecret("benchmark-refresh-secret-0123456789abcdef");
+        RevocationFeed revocationFeed = new RevocationFeed(jwtProperties.getAccessTokenTtl(),
+                tokenProperties.getRevocationFeedSize());
+        authService = new AuthServiceImpl(jwtCodec, jwtProperties,
+                new TokenRegistry(tokenProperties, new BufferedTokenMinter(), revocationFeed),
+                userRepository, passwordHasher, revocationFeed, tokenProperties);
+        refreshToken = authService.login(request).join().getRefreshToken();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordHasher.close();
+    }
+
+    @Benchmark
+    public LoginResponse login() {
+        return authService.login(request).join();
+    }
+
+    @Benchmark
+    public LoginResponse refresh() {
+        LoginResponse response = authService.refresh(refreshToken);
+        refreshToken = response.getRefreshToken();
+        return response;
+    }
+}
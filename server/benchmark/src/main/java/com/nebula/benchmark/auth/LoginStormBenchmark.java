@@ -0,0 +1,119 @@
+package com.nebula.benchmark.auth;
+
+import com.nebula.auth.AuthApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login Storm Benchmark
+ * Load test for auth-service over real HTTP: p99 of GET /api/user/info alone
+ * ({@code baseline}) against the same request while 32 clients hammer POST /api/auth/login
+ * ({@code storm}). With password hashing on its own bounded pool, storm:userInfo should
+ * stay close to baseline; excess logins come back as fast 503s (see the
+ * auth.password.* metrics).
+ *
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar LoginStormBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class LoginStormBenchmark {
+
+    private static final String LOGIN_BODY = "{\"userName\":\"admin\",\"password\":\"123456\"}";
+
+    @State(Scope.Benchmark)
+    public static class AuthServer {
+
+        ConfigurableApplicationContext context;
+
+        HttpClient client;
+
+        HttpRequest userInfo;
+
+        HttpRequest login;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = new SpringApplicationBuilder(AuthApplication.class)
+                    .web(WebApplicationType.SERVLET)
+                    .properties(
+                            // The shaded jar holds the gateway's application.yml too; configure inline instead
+                            "spring.config.name=login-storm",
+                            "spring.cloud.gateway.enabled=false",
+                            "server.port=0",
+                            "logging.level.root=WARN",
+                            "nebula.jwt.keys.default=benchmark-jwt-secret-0123456789abcdef",
+                            "nebula.token.refresh-secret=benchmark-refresh-secret-0123456789abcdef")
+                    .run();
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            userInfo = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/user/info"))
+                    .GET()
+                    .build();
+            login = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY))
+                    .build();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+
+        int send(HttpRequest request) throws IOException, InterruptedException {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+    }
+
+    @Benchmark
+    @Group("baseline")
+    @GroupThreads(4)
+    public int baselineUserInfo(AuthServer server) throws IOException, InterruptedException {
+        return server.send(server.userInfo);
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(4)
+    public int userInfo(AuthServer server) throws IOException, InterruptedException {
+        return server.send(server.userInfo);
+    }
+
+    /**
+     * 200 when the login got a hashing slot, 503 when it was shed
+     */
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(32)
+    public int login(AuthServer server) throws IOException, InterruptedException {
+        return server.send(server.login);
+    }
+}
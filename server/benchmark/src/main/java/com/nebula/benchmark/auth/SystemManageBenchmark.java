@@ -0,0 +1,118 @@
+package com.nebula.benchmark.auth;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nebula.auth.entity.User;
+import com.nebula.auth.menu.DefaultMenus;
+import com.nebula.auth.menu.MenuTreeCache;
+import com.nebula.auth.repository.impl.InMemoryUserRepository;
+import com.nebula.auth.service.impl.SystemManageServiceImpl;
+import com.nebula.common.result.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * System Manage Benchmark
+ * The two list endpoints behind the admin UI, service call plus serialization of the
+ * response body: the per-role menu tree and a page of the user list, unfiltered and
+ * filtered by status and role.
+ *
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar SystemManageBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SystemManageBenchmark {
+
+    private static final String[] ROLES = {"R_SUPER", "R_ADMIN", "R_USER"};
+
+    @Param({"1000", "100000"})
+    private int userCount;
+
+    private ObjectMapper objectMapper;
+
+    private SystemManageServiceImpl service;
+
+    private ByteArrayOutputStream out;
+
+    private Map<String, Object> firstPage;
+
+    private Map<String, Object> filteredPage;
+
+    private Map<String, Object> searchPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        InMemoryUserRepository repository = new InMemoryUserRepository();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = repository.count(); i < userCount; i++) {
+            User user = new User();
+            user.setUserName("user" + i);
+            user.setNickName("用户" + i);
+            user.setStatus(i % 10 == 0 ? "2" : "1");
+            user.setUserGender(i % 2 == 0 ? "1" : "2");
+            user.setUserPhone(String.valueOf(13_900_000_000L + i));
+            user.setUserEmail("user" + i + "@nebula.com");
+            user.setUserRoles(List.of(ROLES[i % ROLES.length]));
+            user.setCreateBy("admin");
+            user.setCreateTime(start.plusMinutes(i));
+            repository.save(user);
+        }
+        service = new SystemManageServiceImpl(repository, new MenuTreeCache(objectMapper, DefaultMenus.create()));
+        out = new ByteArrayOutputStream(64 * 1024);
+        firstPage = Map.of("current", "1", "size", "20");
+        filteredPage = Map.of("current", "3", "size", "20", "status", "1", "roleCode", "R_ADMIN");
+        searchPage = Map.of("current", "1", "size", "20", "status", "1", "keyword", "用户12");
+    }
+
+    /**
+     * Cache hit for the header the gateway forwards for an admin
+     */
+    @Benchmark
+    public int menuList() throws IOException {
+        out.reset();
+        service.getMenuList("R_SUPER,R_ADMIN").writeTo(out);
+        return out.size();
+    }
+
+    @Benchmark
+    public byte[] userList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Result.success(service.getUserList(firstPage)));
+    }
+
+    @Benchmark
+    public byte[] userListFiltered() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Result.success(service.getUserList(filteredPage)));
+    }
+
+    /**
+     * Search box input: nick name bigrams through the search index, then the status bitmap
+     */
+    @Benchmark
+    public byte[] userListSearch() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Result.success(service.getUserList(searchPage)));
+    }
+}
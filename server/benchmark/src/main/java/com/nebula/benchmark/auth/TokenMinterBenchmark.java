@@ -0,0 +1,86 @@
+package com.nebula.benchmark.auth;
+
+import com.nebula.auth.token.BufferedTokenMinter;
+import com.nebula.auth.token.TokenEncoding;
+import com.nebula.auth.token.TokenMinter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token Minter Benchmark
+ * Random id generation shared by all benchmark threads, at 1, 8 and 32 threads (one nested
+ * class each): UUID strings as login used to mint them, the registry's former shared
+ * SecureRandom, and {@link BufferedTokenMinter}. Per-op time growing with the thread count
+ * beyond the core count is contention.
+ *
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar TokenMinterBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public abstract class TokenMinterBenchmark {
+
+    private final SecureRandom sharedRandom = new SecureRandom();
+
+    private final TokenMinter minter = new BufferedTokenMinter();
+
+    /**
+     * Session id plus refresh token, as login minted them before the registry
+     */
+    @Benchmark
+    public String uuidPair() {
+        return UUID.randomUUID().toString().replace("-", "") + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    @Benchmark
+    public long sharedSecureRandomLong() {
+        return sharedRandom.nextLong();
+    }
+
+    @Benchmark
+    public long minterLong() {
+        return minter.nextLong();
+    }
+
+    /**
+     * 128-bit opaque token
+     */
+    @Benchmark
+    public String minterBase64Url() {
+        return minter.mint(16, TokenEncoding.BASE64URL);
+    }
+
+    @Benchmark
+    public String minterHex() {
+        return minter.mint(16, TokenEncoding.HEX);
+    }
+
+    @Threads(1)
+    public static class OneThread extends TokenMinterBenchmark {
+    }
+
+    @Threads(8)
+    public static class EightThreads extends TokenMinterBenchmark {
+    }
+
+    @Threads(32)
+    public static class ThirtyTwoThreads extends TokenMinterBenchmark {
+    }
+}
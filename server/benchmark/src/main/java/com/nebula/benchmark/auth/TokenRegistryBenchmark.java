@@ -0,0 +1,116 @@
+package com.nebula.benchmark.auth;
+
+import com.nebula.auth.config.TokenProperties;
+import com.nebula.auth.token.IssuedSession;
+import com.nebula.auth.token.TokenRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token Registry Benchmark
+ * Session validation latency with millions of live sessions, and how fast the timing
+ * wheel drains a full population of expiring sessions.
+ *
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar TokenRegistryBenchmark -jvmArgs -Xmx4g
+ * </pre>
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TokenRegistryBenchmark {
+
+    private static final long START_MILLIS = 1_700_000_000_000L;
+
+    private static TokenProperties properties() {
+        TokenProperties properties = new TokenProperties();
+        properties.setIdleTimeout(Duration.ofMinutes(30));
+        properties.setAbsoluteTimeout(Duration.ofDays(7));
+        properties.setRefreshSecret("benchmark-refresh-secret-0123456789abcdef");
+        properties.setWheelTick(Duration.ofSeconds(1));
+        return properties;
+    }
+
+    @State(Scope.Benchmark)
+    public static class LiveSessions {
+
+        @Param({"100000", "2000000"})
+        int sessionCount;
+
+        TokenRegistry registry;
+
+        String[] sessionIds;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            registry = new TokenRegistry(properties(), START_MILLIS);
+            sessionIds = new String[sessionCount];
+            for (int i = 0; i < sessionCount; i++) {
+                IssuedSession issued = registry.issue(i, "user" + (i % 100_000), START_MILLIS);
+                sessionIds[i] = issued.session().getId();
+            }
+        }
+    }
+
+    /**
+     * Access token check: lookup by jti, liveness check and sliding the idle timeout
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Threads(8)
+    public Object validate(LiveSessions state) {
+        String id = state.sessionIds[ThreadLocalRandom.current().nextInt(state.sessionCount)];
+        return state.registry.validate(id, START_MILLIS + 60_000);
+    }
+
+    @State(Scope.Thread)
+    public static class ExpiringSessions {
+
+        @Param({"1000000"})
+        int sessionCount;
+
+        TokenRegistry registry;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            registry = new TokenRegistry(properties(), START_MILLIS);
+            // Logins spread over ten minutes, so expiry is spread over as many wheel slots
+            for (int i = 0; i < sessionCount; i++) {
+                registry.issue(i, "user" + (i % 100_000), START_MILLIS + (i % 600_000));
+            }
+        }
+    }
+
+    /**
+     * Advance the wheel tick by tick until every session has idled out; expiries/s = sessionCount / time
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public int expireAll(ExpiringSessions state) {
+        int expired = 0;
+        long end = START_MILLIS + Duration.ofMinutes(41).toMillis();
+        for (long now = START_MILLIS; now <= end; now += 1000) {
+            expired += state.registry.expire(now);
+        }
+        return expired;
+    }
+}
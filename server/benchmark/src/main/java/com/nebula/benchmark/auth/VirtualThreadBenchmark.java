@@ -0,0 +1,187 @@
+package com.nebula.benchmark.auth;
+
+import com.nebula.auth.AuthApplication;
+import com.nebula.auth.entity.User;
+import com.nebula.auth.password.PasswordHash;
+import com.nebula.auth.repository.UserRepository;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Virtual Thread Benchmark
+ * auth-service on platform threads (Tomcat's default 200-thread pool) against virtual
+ * threads, with every request first blocking on a simulated dependency for
+ * {@code blockingMillis}. Each operation is a burst of {@code concurrency} concurrent
+ * requests to one endpoint, so requests/s = concurrency / score. Platform threads should
+ * flatten out once concurrency passes the pool size, while virtual threads keep scaling
+ * until the dependency or CPU becomes the limit.
+ *
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar VirtualThreadBenchmark
+ * java -jar benchmark/target/benchmarks.jar VirtualThreadBenchmark -p endpoint=login -p concurrency=100,400,1600
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+
+    private static final String USER_NAME = "bench.user";
+
+    private static final String PASSWORD = "bench-password";
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"info", "userList", "login"})
+    private String endpoint;
+
+    @Param({"50", "200", "800"})
+    private int concurrency;
+
+    @Param({"20"})
+    private int blockingMillis;
+
+    private ConfigurableApplicationContext context;
+
+    private ExecutorService clientExecutor;
+
+    private HttpClient client;
+
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(AuthApplication.class, BlockingDependency.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(
+                        // The shaded jar holds the gateway's application.yml too; configure inline instead
+                        "spring.config.name=virtual-thread-benchmark",
+                        "spring.cloud.gateway.enabled=false",
+                        "spring.threads.virtual.enabled=" + "virtual".equals(threads),
+                        "server.port=0",
+                        "server.tomcat.threads.max=200",
+                        "server.tomcat.max-connections=10000",
+                        "server.tomcat.accept-count=2000",
+                        "logging.level.root=WARN",
+                        "nebula.jwt.keys.default=benchmark-jwt-secret-0123456789abcdef",
+                        "nebula.token.refresh-secret=benchmark-refresh-secret-0123456789abcdef",
+                        // Measure thread handling, not hashing: no shedding, no re-hash on login
+                        "nebula.password.queue-capacity=100000",
+                        "nebula.password.max-queue-wait=1m",
+                        "nebula.password.upgrade-on-login=false",
+                        "benchmark.blocking-millis=" + blockingMillis)
+                .run();
+
+        // A cheap hash so login cost is the request path, not PBKDF2
+        User user = new User();
+        user.setUserName(USER_NAME);
+        user.setStatus("1");
+        user.setUserRoles(List.of("R_USER"));
+        user.setPasswordHash(PasswordHash.create(PASSWORD, 1_000).encode());
+        context.getBean(UserRepository.class).save(user);
+
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        String base = "http://localhost:" + port;
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+        request = switch (endpoint) {
+            case "info" -> HttpRequest.newBuilder(URI.create(base + "/api/user/info")).GET().build();
+            case "userList" -> HttpRequest.newBuilder(URI.create(base + "/api/user/list?current=1&size=20")).GET().build();
+            case "login" -> HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"userName\":\"" + USER_NAME + "\",\"password\":\"" + PASSWORD + "\"}"))
+                    .build();
+            default -> throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+        clientExecutor.shutdownNow();
+    }
+
+    /**
+     * @return requests answered with 200
+     */
+    @Benchmark
+    public int burst() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        }
+        int ok = 0;
+        for (CompletableFuture<?> response : responses) {
+            if (((HttpResponse<?>) response.join()).statusCode() == 200) {
+                ok++;
+            }
+        }
+        return ok;
+    }
+
+    /**
+     * Simulated blocking dependency (database, remote call) in front of every handler
+     */
+    @Configuration
+    public static class BlockingDependency implements WebMvcConfigurer {
+
+        @Value("${benchmark.blocking-millis}")
+        private long blockingMillis;
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(new HandlerInterceptor() {
+                @Override
+                public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+                        throws InterruptedException {
+                    // Not again when an async login is dispatched back
+                    if (request.getDispatcherType() == DispatcherType.REQUEST) {
+                        Thread.sleep(blockingMillis);
+                    }
+                    return true;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.nebula.benchmark.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.nebula.common.result.Result;
+import com.nebula.common.result.ResultClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result Benchmark
+ * The Result envelope before and after the fast path: timestamp formatting per call
+ * against {@link ResultClock}, and Jackson's bean serializer against ResultSerializer.
+ * The {@code legacy*} methods reproduce the old code path.
+ *
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar ResultBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResultBenchmark {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * Mix-in that puts Result back on the bean serializer
+     */
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class BeanSerialized {
+    }
+
+    private ObjectMapper fastMapper;
+
+    private ObjectMapper beanMapper;
+
+    private Map<String, Object> data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fastMapper = new ObjectMapper();
+        beanMapper = new ObjectMapper().addMixIn(Result.class, BeanSerialized.class);
+        data = new LinkedHashMap<>();
+        data.put("userId", 1);
+        data.put("userName", "admin");
+        data.put("email", "admin@nebula.com");
+        data.put("roles", List.of("R_SUPER", "R_ADMIN"));
+        data.put("buttons", List.of("add", "edit", "delete"));
+    }
+
+    @Benchmark
+    public String legacyTimestamp() {
+        return LocalDateTime.now().format(FORMATTER);
+    }
+
+    @Benchmark
+    public String cachedTimestamp() {
+        return ResultClock.now();
+    }
+
+    /**
+     * Old Result.success plus bean serialization
+     */
+    @Benchmark
+    public byte[] legacySuccess() throws JsonProcessingException {
+        Result<Object> result = new Result<>(200, "Operation successful", data, LocalDateTime.now().format(FORMATTER));
+        return beanMapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public byte[] fastSuccess() throws JsonProcessingException {
+        return fastMapper.writeValueAsBytes(Result.success(data));
+    }
+
+    @Benchmark
+    public byte[] legacyError() throws JsonProcessingException {
+        Result<Object> result = new Result<>(503, "Upstream temporarily unavailable", null,
+                LocalDateTime.now().format(FORMATTER));
+        return beanMapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public byte[] fastError() throws JsonProcessingException {
+        return fastMapper.writeValueAsBytes(Result.error(503, "Upstream temporarily unavailable"));
+    }
+}
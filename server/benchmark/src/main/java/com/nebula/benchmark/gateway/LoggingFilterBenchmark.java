@@ -0,0 +1,117 @@
+package com.nebula.benchmark.gateway;
+
+import com.nebula.gateway.accesslog.AccessLogWriter;
+import com.nebula.gateway.config.AccessLogProperties;
+import com.nebula.gateway.config.LatencyProperties;
+import com.nebula.gateway.filter.LoggingFilter;
+import com.nebula.gateway.latency.LatencyRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging Filter Benchmark
+ * What the global {@link LoggingFilter} adds to every exchange: {@code direct} runs the
+ * rest of the chain on its own, {@code logged} runs it through the filter with the access
+ * log writer started, so the difference is the filter's overhead on the event loop.
+ * Sample rates below 1 exercise the sampling decision; {@code latency} switches the
+ * per-route latency histograms on.
+ *
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar LoggingFilterBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingFilterBenchmark {
+
+    @Param({"1.0", "0.01"})
+    private double sampleRate;
+
+    @Param({"false", "true"})
+    private boolean latency;
+
+    private Path logDir;
+
+    private AccessLogWriter accessLogWriter;
+
+    private LoggingFilter loggingFilter;
+
+    private MockServerWebExchange exchange;
+
+    /**
+     * The rest of the chain: routing and the upstream call are out of scope
+     */
+    private final GatewayFilterChain chain = filtered -> Mono.empty();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        logDir = Files.createTempDirectory("nebula-access-log");
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setFile(logDir.resolve("access.log").toString());
+        properties.setSampleRate(sampleRate);
+        accessLogWriter = new AccessLogWriter(properties);
+        accessLogWriter.start();
+        LatencyProperties latencyProperties = new LatencyProperties();
+        latencyProperties.setEnabled(latency);
+        loggingFilter = new LoggingFilter(accessLogWriter, new LatencyRegistry(latencyProperties, new SimpleMeterRegistry()));
+
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/user/list?current=1&size=20")
+                .remoteAddress(new InetSocketAddress("10.0.0.8", 52000)));
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("auth-service")
+                .uri("lb://auth-service")
+                .predicate(e -> true)
+                .build());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        accessLogWriter.stop();
+        try (var files = Files.list(logDir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(logDir);
+    }
+
+    @Benchmark
+    public Void direct() {
+        return chain.filter(exchange).block();
+    }
+
+    @Benchmark
+    public Void logged() {
+        return loggingFilter.filter(exchange, chain).block();
+    }
+}
@@ -0,0 +1,131 @@
+package com.nebula.benchmark.gateway;
+
+import com.nebula.gateway.ratelimit.StripedTokenBucketStore;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate Limiter Benchmark
+ * Per-request cost of the in-memory token buckets under contention.
+ * SampleTime mode reports the p99/p99.9 needed to check the microsecond budget.
+ * Allowed and denied calls are counted separately: a denied call only reads the bucket,
+ * so a run that is mostly denials says little about contended updates.
+ *
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar RateLimiterBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final long EMISSION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1) / 50;
+
+    private static final long CAPACITY_NANOS = EMISSION_INTERVAL_NANOS * 100;
+
+    /**
+     * One token per nanosecond refills faster than the threads can drain it, so every call
+     * on the hot key takes the CAS path
+     */
+    private static final long HOT_EMISSION_INTERVAL_NANOS = 1;
+
+    private static final long HOT_CAPACITY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Param({"50000", "500000"})
+    private int keyCount;
+
+    @Param({"64"})
+    private int stripes;
+
+    private StripedTokenBucketStore store;
+
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new StripedTokenBucketStore(stripes);
+        keys = new String[keyCount];
+        long now = System.nanoTime();
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = "user:" + i;
+            store.tryAcquire(keys[i], 1, EMISSION_INTERVAL_NANOS, CAPACITY_NANOS, now);
+        }
+    }
+
+    /**
+     * Many threads spread over all keys: the common case
+     */
+    @Benchmark
+    @Threads(16)
+    public long distinctKeys(Outcomes outcomes) {
+        String key = keys[ThreadLocalRandom.current().nextInt(keys.length)];
+        return outcomes.count(store.tryAcquire(key, 1, EMISSION_INTERVAL_NANOS, CAPACITY_NANOS, System.nanoTime()));
+    }
+
+    /**
+     * All threads hammer one key that stays under its limit: worst-case CAS contention on a
+     * single bucket
+     */
+    @Benchmark
+    @Threads(16)
+    public long hotKey(Outcomes outcomes) {
+        return outcomes.count(store.tryAcquire(keys[0], 1, HOT_EMISSION_INTERVAL_NANOS, HOT_CAPACITY_NANOS,
+                System.nanoTime()));
+    }
+
+    /**
+     * All threads hammer one drained key: after the first few calls every call is the
+     * read-only reject
+     */
+    @Benchmark
+    @Threads(16)
+    public long hotKeyOverLimit(Outcomes outcomes) {
+        return outcomes.count(store.tryAcquire(keys[1], 1, EMISSION_INTERVAL_NANOS, CAPACITY_NANOS, System.nanoTime()));
+    }
+
+    /**
+     * Per-thread call counts by decision, reported next to the timings
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+
+        public long allowed;
+
+        public long denied;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            allowed = 0;
+            denied = 0;
+        }
+
+        long count(long remaining) {
+            if (remaining < 0) {
+                denied++;
+            } else {
+                allowed++;
+            }
+            return remaining;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.nebula.benchmark.load;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+
+/**
+ * Load Report
+ * Machine-readable result of a {@link LoadTest} run: the settings, the machine, and per
+ * scenario and target the counts, throughput, latency percentiles and the full response
+ * time histogram (compressed HdrHistogram, base64) for later re-analysis. {@code overhead}
+ * is gateway minus direct at each percentile. {@link #compare} diffs two reports taken on
+ * the same machine.
+ */
+public record LoadReport(String createdAt,
+                         Map<String, Object> machine,
+                         Map<String, Object> config,
+                         List<Result> results,
+                         List<Overhead> overhead) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    /**
+     * Latency summary in microseconds
+     */
+    public record Percentiles(long p50, long p90, long p99, long p999, long max, double mean) {
+
+        public static Percentiles of(Histogram histogram) {
+            return new Percentiles(histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(90),
+                    histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9),
+                    histogram.getMaxValue(),
+                    histogram.getTotalCount() == 0 ? 0 : histogram.getMean());
+        }
+    }
+
+    public record Result(String scenario,
+                         String target,
+                         String url,
+                         int targetRate,
+                         double offeredRate,
+                         double throughput,
+                         long sent,
+                         long ok,
+                         long dropped,
+                         int unfinished,
+                         Map<String, Long> errors,
+                         Percentiles responseTimeMicros,
+                         Percentiles serviceTimeMicros,
+                         String responseTimeHistogram) {
+
+        public static Result of(String scenario, String target, String url, int targetRate,
+                                OpenLoadGenerator.Run run) {
+            return new Result(scenario, target, url, targetRate,
+                    round(run.getOfferedRate()),
+                    round(run.getThroughput()),
+                    run.getSent(),
+                    run.getOk(),
+                    run.getDropped(),
+                    run.getUnfinished(),
+                    run.getErrors(),
+                    Percentiles.of(run.getResponseTime()),
+                    Percentiles.of(run.getServiceTime()),
+                    encode(run.getResponseTime()));
+        }
+    }
+
+    /**
+     * What routing through the gateway adds to a scenario, in microseconds
+     */
+    public record Overhead(String scenario, long p50, long p90, long p99, long p999) {
+    }
+
+    public static List<Overhead> overheadOf(List<Result> results) {
+        Map<String, Result> direct = new LinkedHashMap<>();
+        for (Result result : results) {
+            if ("direct".equals(result.target())) {
+                direct.put(result.scenario(), result);
+            }
+        }
+        List<Overhead> overhead = new ArrayList<>();
+        for (Result result : results) {
+            Result baseline = direct.get(result.scenario());
+            if ("gateway".equals(result.target()) && baseline != null) {
+                Percentiles via = result.responseTimeMicros();
+                Percentiles base = baseline.responseTimeMicros();
+                overhead.add(new Overhead(result.scenario(), via.p50() - base.p50(), via.p90() - base.p90(),
+                        via.p99() - base.p99(), via.p999() - base.p999()));
+            }
+        }
+        return overhead;
+    }
+
+    public static Map<String, Object> describeMachine() {
+        Map<String, Object> machine = new LinkedHashMap<>();
+        machine.put("javaVersion", System.getProperty("java.version"));
+        machine.put("javaVm", System.getProperty("java.vm.name"));
+        machine.put("os", System.getProperty("os.name") + " " + System.getProperty("os.version"));
+        machine.put("arch", System.getProperty("os.arch"));
+        machine.put("processors", Runtime.getRuntime().availableProcessors());
+        machine.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        return machine;
+    }
+
+    public void write(Path file) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        MAPPER.writeValue(file.toFile(), this);
+    }
+
+    public static LoadReport read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), LoadReport.class);
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-10s %-8s %9s %9s %8s %8s %8s %8s %8s %8s%n",
+                "scenario", "target", "offered/s", "ok/s", "errors", "p50(us)", "p90(us)", "p99(us)", "p999(us)", "max(us)");
+        for (Result result : results) {
+            long errors = result.errors().values().stream().mapToLong(Long::longValue).sum() + result.dropped();
+            Percentiles latency = result.responseTimeMicros();
+            out.printf("%-10s %-8s %9.1f %9.1f %8d %8d %8d %8d %8d %8d%n",
+                    result.scenario(), result.target(), result.offeredRate(), result.throughput(), errors,
+                    latency.p50(), latency.p90(), latency.p99(), latency.p999(), latency.max());
+        }
+        for (Overhead added : overhead) {
+            out.printf("gateway overhead %-10s p50 %+d us, p90 %+d us, p99 %+d us, p999 %+d us%n",
+                    added.scenario(), added.p50(), added.p90(), added.p99(), added.p999());
+        }
+    }
+
+    /**
+     * Print the change from {@code baseline} to {@code current} for every scenario and target in both
+     */
+    public static void compare(LoadReport baseline, LoadReport current, PrintStream out) {
+        if (!baseline.machine().equals(current.machine())) {
+            out.println("warning: reports come from different machines or JVMs");
+        }
+        out.printf("%-10s %-8s %16s %16s %16s %16s%n", "scenario", "target", "ok/s", "p50(us)", "p99(us)", "p999(us)");
+        for (Result now : current.results()) {
+            for (Result before : baseline.results()) {
+                if (before.scenario().equals(now.scenario()) && before.target().equals(now.target())) {
+                    out.printf("%-10s %-8s %16s %16s %16s %16s%n", now.scenario(), now.target(),
+                            change(before.throughput(), now.throughput()),
+                            change(before.responseTimeMicros().p50(), now.responseTimeMicros().p50()),
+                            change(before.responseTimeMicros().p99(), now.responseTimeMicros().p99()),
+                            change(before.responseTimeMicros().p999(), now.responseTimeMicros().p999()));
+                }
+            }
+        }
+    }
+
+    private static String change(double before, double now) {
+        if (before == 0) {
+            return String.format("%.0f", now);
+        }
+        return String.format("%.0f (%+.1f%%)", now, (now - before) * 100 / before);
+    }
+
+    /**
+     * Decode a histogram written by a report, e.g. to merge runs or read other percentiles
+     */
+    public static Histogram decode(String encoded) throws DataFormatException {
+        return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(encoded)), 0);
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
@@ -0,0 +1,242 @@
+package com.nebula.benchmark.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nebula.auth.AuthApplication;
+import com.nebula.common.jwt.JwtClaims;
+import com.nebula.common.jwt.JwtCodec;
+import com.nebula.gateway.GatewayApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Load Test
+ * End-to-end load test of gateway + auth-service in one JVM, both on ephemeral ports. Each
+ * scenario is driven at a constant arrival rate ({@link OpenLoadGenerator}) once straight
+ * at the upstream ({@code direct}) and once through the gateway route ({@code gateway}),
+ * so the difference is what StripPrefix, Resilience, Retry, JWT validation and the access
+ * log add. With {@code upstream=stub} the gateway routes to a {@link StubUpstream} with
+ * injected latency and faults instead of auth-service.
+ *
+ * <p>The gateway runs the dev routes for auth-service, minus the response cache,
+ * compression and coalescing filters that would answer without the upstream. Upstream
+ * health checks and outlier ejection are off, since a single instance can't fail over.
+ * Results go to a JSON {@link LoadReport}; {@code compare} diffs two of them.
+ *
+ * <pre>
+ * java -cp benchmark/target/benchmarks.jar com.nebula.benchmark.load.LoadTest rate=2000 duration=60s
+ * java -cp benchmark/target/benchmarks.jar com.nebula.benchmark.load.LoadTest upstream=stub stub.latency=20ms stub.errorRate=0.01
+ * java -cp benchmark/target/benchmarks.jar com.nebula.benchmark.load.LoadTest compare before.json after.json
+ * </pre>
+ */
+public class LoadTest {
+
+    private static final String JWT_SECRET = "load-test-jwt-secret-0123456789abcdef";
+
+    private static final String REFRESH_SECRET = "load-test-refresh-secret-0123456789abcdef";
+
+    /**
+     * Scenario name → path through the gateway and the path it is routed to upstream
+     */
+    private static final Map<String, String[]> SCENARIOS = Map.of(
+            "hello", new String[]{"/api/auth/hello", "/hello"},
+            "userInfo", new String[]{"/api/user/info", "/api/user/info"},
+            "userList", new String[]{"/api/user/list?current=1&size=20", "/api/user/list?current=1&size=20"});
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && "compare".equals(args[0])) {
+            if (args.length != 3) {
+                throw new IllegalArgumentException("Usage: compare <baseline.json> <current.json>");
+            }
+            LoadReport.compare(LoadReport.read(Path.of(args[1])), LoadReport.read(Path.of(args[2])), System.out);
+            return;
+        }
+
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        for (String scenario : config.getScenarios()) {
+            if (!SCENARIOS.containsKey(scenario)) {
+                throw new IllegalArgumentException("Unknown scenario " + scenario + ", expected one of " + SCENARIOS.keySet());
+            }
+        }
+
+        List<AutoCloseable> resources = new ArrayList<>();
+        try {
+            int upstreamPort;
+            if (config.isStubUpstream()) {
+                StubUpstream stub = new StubUpstream(config.getStub());
+                resources.add(stub);
+                upstreamPort = stub.getPort();
+            } else {
+                ConfigurableApplicationContext auth = startAuth(config);
+                resources.add(auth);
+                upstreamPort = port(auth);
+            }
+            ConfigurableApplicationContext gateway = startGateway(config, upstreamPort);
+            resources.add(gateway);
+            int gatewayPort = port(gateway);
+
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            resources.add(executor::shutdownNow);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(config.getTimeout())
+                    .executor(executor)
+                    .build();
+            OpenLoadGenerator generator = new OpenLoadGenerator(client, config.getMaxInFlight());
+            String token = "Bearer " + accessToken();
+
+            List<LoadReport.Result> results = new ArrayList<>();
+            for (String scenario : config.getScenarios()) {
+                for (String target : config.getTargets()) {
+                    String url = switch (target) {
+                        case "direct" -> "http://localhost:" + upstreamPort + SCENARIOS.get(scenario)[1];
+                        case "gateway" -> "http://localhost:" + gatewayPort + SCENARIOS.get(scenario)[0];
+                        default -> throw new IllegalArgumentException("Unknown target " + target);
+                    };
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                            .header("Authorization", token)
+                            .header("X-User-Roles", "R_SUPER,R_ADMIN")
+                            .timeout(config.getTimeout())
+                            .GET()
+                            .build();
+                    Duration drain = config.getTimeout().plusSeconds(1);
+
+                    System.out.printf("%s/%s: warmup %ds, measure %ds at %d req/s%n", scenario, target,
+                            config.getWarmup().toSeconds(), config.getDuration().toSeconds(), config.getRate());
+                    if (!config.getWarmup().isZero()) {
+                        generator.run(request, config.getRate(), config.getWarmup(), drain);
+                    }
+                    OpenLoadGenerator.Run run = generator.run(request, config.getRate(), config.getDuration(), drain);
+                    results.add(LoadReport.Result.of(scenario, target, url, config.getRate(), run));
+                }
+            }
+
+            LoadReport report = new LoadReport(Instant.now().toString(), LoadReport.describeMachine(), config.describe(),
+                    results, LoadReport.overheadOf(results));
+            Path file = Path.of(config.getReport());
+            report.write(file);
+            System.out.println();
+            report.print(System.out);
+            System.out.println("Report written to " + file.toAbsolutePath());
+        } finally {
+            for (int i = resources.size() - 1; i >= 0; i--) {
+                try {
+                    resources.get(i).close();
+                } catch (Exception e) {
+                    System.err.println("Shutdown failed: " + e);
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startAuth(LoadTestConfig config) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        // The shaded jar holds both services' application.yml; configure inline instead
+        properties.put("spring.config.name", "load-test-auth");
+        properties.put("spring.cloud.gateway.enabled", "false");
+        properties.put("server.port", "0");
+        properties.put("server.http2.enabled", "true");
+        properties.put("nebula.jwt.keys.default", JWT_SECRET);
+        properties.put("nebula.token.refresh-secret", REFRESH_SECRET);
+        properties.putAll(config.getAuthProperties());
+        return new SpringApplicationBuilder(AuthApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(properties)
+                .run();
+    }
+
+    private static ConfigurableApplicationContext startGateway(LoadTestConfig config, int upstreamPort)
+            throws IOException {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.config.name", "load-test-gateway");
+        properties.put("spring.application.name", "gateway-service");
+        properties.put("server.port", "0");
+        properties.put("spring.cloud.gateway.global-filter.netty-routing.enabled", "false");
+
+        // auth-service route: StripPrefix + Resilience + Retry, as in application-dev.yml
+        String auth = "spring.cloud.gateway.routes[0].";
+        properties.put(auth + "id", "auth-service");
+        properties.put(auth + "uri", "lb://auth-service");
+        properties.put(auth + "predicates[0]", "Path=/api/auth/**");
+        properties.put(auth + "filters[0]", "StripPrefix=2");
+        properties.put(auth + "filters[1].name", "Resilience");
+        properties.put(auth + "filters[1].args.failure-rate-threshold", "50");
+        properties.put(auth + "filters[1].args.open-duration", "10s");
+        properties.put(auth + "filters[1].args.hedging-enabled", "false");
+        properties.put(auth + "filters[2].name", "Retry");
+        properties.put(auth + "filters[2].args.retries", "3");
+        properties.put(auth + "filters[2].args.statuses", "BAD_GATEWAY,SERVICE_UNAVAILABLE");
+        properties.put(auth + "filters[2].args.methods", "GET,POST");
+        properties.put(auth + "filters[2].args.backoff.firstBackoff", "10ms");
+        properties.put(auth + "filters[2].args.backoff.maxBackoff", "50ms");
+        properties.put(auth + "filters[2].args.backoff.factor", "2");
+        properties.put(auth + "filters[2].args.backoff.basedOnPreviousValue", "false");
+
+        // auth-service-api route with its Resilience filter; cache, compression and coalescing left out
+        String api = "spring.cloud.gateway.routes[1].";
+        properties.put(api + "id", "auth-service-api");
+        properties.put(api + "uri", "lb://auth-service");
+        properties.put(api + "predicates[0]", "Path=/api/user/**,/api/role/**,/api/v3/system/**");
+        properties.put(api + "filters[0].name", "Resilience");
+        properties.put(api + "filters[0].args.failure-rate-threshold", "50");
+        properties.put(api + "filters[0].args.slow-call-duration", "2s");
+        properties.put(api + "filters[0].args.open-duration", "10s");
+        properties.put(api + "filters[0].args.hedge-percentile", "0.95");
+        properties.put(api + "filters[0].args.min-hedge-delay", "10ms");
+        properties.put(api + "filters[0].args.max-hedge-delay", "500ms");
+        properties.put(api + "filters[0].args.hedge-budget-percent", "5");
+
+        properties.put("nebula.gateway.jwt.keys.default", JWT_SECRET);
+        properties.put("nebula.gateway.load-balancer.services.auth-service.instances[0]", "http://localhost:" + upstreamPort);
+        properties.put("nebula.gateway.load-balancer.health-check.enabled", "false");
+        properties.put("nebula.gateway.load-balancer.outlier-detection.enabled", "false");
+        properties.put("nebula.gateway.upstream.routes.auth-service.protocol", "h2c");
+        properties.put("nebula.gateway.upstream.routes.auth-service.max-connections", "4");
+        properties.put("nebula.gateway.upstream.routes.auth-service-api.protocol", "h2c");
+        properties.put("nebula.gateway.upstream.routes.auth-service-api.max-connections", "4");
+        properties.put("nebula.gateway.access-log.file",
+                Files.createTempDirectory("nebula-load-test").resolve("gateway-access.log").toString());
+        properties.putAll(config.getGatewayProperties());
+        return new SpringApplicationBuilder(GatewayApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties(properties)
+                .run();
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    /**
+     * An access token signed with the shared key, as auth-service would issue after login
+     */
+    private static String accessToken() {
+        JwtCodec codec = new JwtCodec(Map.of("default", JWT_SECRET), "default", new ObjectMapper());
+        long now = Instant.now().getEpochSecond();
+        JwtClaims claims = new JwtClaims();
+        claims.setIss("nebula-auth");
+        claims.setSub("admin");
+        claims.setUid(1);
+        claims.setRoles(List.of("R_SUPER", "R_ADMIN"));
+        claims.setJti("load-test");
+        claims.setIat(now);
+        claims.setExp(now + Duration.ofDays(1).toSeconds());
+        return codec.encode(claims);
+    }
+}
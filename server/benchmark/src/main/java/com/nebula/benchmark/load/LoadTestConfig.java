@@ -0,0 +1,204 @@
+package com.nebula.benchmark.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load Test Configuration
+ * Settings for one {@link LoadTest} run, given as {@code key=value} arguments. Keys prefixed
+ * with {@code gateway.} or {@code auth.} are passed through as properties of that service,
+ * e.g. {@code gateway.nebula.gateway.access-log.enabled=false}.
+ */
+public class LoadTestConfig {
+
+    /**
+     * Target arrival rate in requests per second, kept regardless of response times
+     */
+    private int rate = 500;
+
+    private Duration warmup = Duration.ofSeconds(10);
+
+    private Duration duration = Duration.ofSeconds(30);
+
+    /**
+     * Per-request timeout; a request that times out counts as an error
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+
+    /**
+     * Requests allowed in flight before new arrivals are dropped (and counted)
+     */
+    private int maxInFlight = 10_000;
+
+    /**
+     * What the gateway routes to: the real auth-service or the stub
+     */
+    private String upstream = "auth";
+
+    private List<String> scenarios = new ArrayList<>(List.of("hello", "userInfo", "userList"));
+
+    /**
+     * {@code direct} hits the upstream, {@code gateway} goes through the gateway route
+     */
+    private List<String> targets = new ArrayList<>(List.of("direct", "gateway"));
+
+    private String report = "target/load-report.json";
+
+    private StubUpstream.Settings stub = new StubUpstream.Settings(Duration.ofMillis(5), Duration.ZERO, 0.0, 503, 512);
+
+    private final Map<String, String> gatewayProperties = new LinkedHashMap<>();
+
+    private final Map<String, String> authProperties = new LinkedHashMap<>();
+
+    public static LoadTestConfig parse(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            config.set(arg.substring(0, eq).trim(), arg.substring(eq + 1).trim());
+        }
+        return config;
+    }
+
+    private void set(String key, String value) {
+        if (key.startsWith("gateway.")) {
+            gatewayProperties.put(key.substring("gateway.".length()), value);
+            return;
+        }
+        if (key.startsWith("auth.")) {
+            authProperties.put(key.substring("auth.".length()), value);
+            return;
+        }
+        switch (key) {
+            case "rate" -> rate = positive(key, Integer.parseInt(value));
+            case "warmup" -> warmup = DurationStyle.detectAndParse(value);
+            case "duration" -> duration = DurationStyle.detectAndParse(value);
+            case "timeout" -> timeout = DurationStyle.detectAndParse(value);
+            case "maxInFlight" -> maxInFlight = positive(key, Integer.parseInt(value));
+            case "upstream" -> upstream = oneOf(key, value, "auth", "stub");
+            case "scenarios" -> scenarios = list(value);
+            case "targets" -> targets = list(value);
+            case "report" -> report = value;
+            case "stub.latency" -> stub = new StubUpstream.Settings(DurationStyle.detectAndParse(value),
+                    stub.jitter(), stub.errorRate(), stub.errorStatus(), stub.bodyBytes());
+            case "stub.jitter" -> stub = new StubUpstream.Settings(stub.latency(),
+                    DurationStyle.detectAndParse(value), stub.errorRate(), stub.errorStatus(), stub.bodyBytes());
+            case "stub.errorRate" -> stub = new StubUpstream.Settings(stub.latency(), stub.jitter(),
+                    Double.parseDouble(value), stub.errorStatus(), stub.bodyBytes());
+            case "stub.errorStatus" -> stub = new StubUpstream.Settings(stub.latency(), stub.jitter(),
+                    stub.errorRate(), Integer.parseInt(value), stub.bodyBytes());
+            case "stub.bodyBytes" -> stub = new StubUpstream.Settings(stub.latency(), stub.jitter(),
+                    stub.errorRate(), stub.errorStatus(), Integer.parseInt(value));
+            default -> throw new IllegalArgumentException("Unknown option: " + key);
+        }
+    }
+
+    private static int positive(String key, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(key + " must be positive");
+        }
+        return value;
+    }
+
+    private static String oneOf(String key, String value, String... allowed) {
+        if (!Arrays.asList(allowed).contains(value)) {
+            throw new IllegalArgumentException(key + " must be one of " + Arrays.toString(allowed));
+        }
+        return value;
+    }
+
+    private static List<String> list(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.isBlank()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public String getUpstream() {
+        return upstream;
+    }
+
+    public boolean isStubUpstream() {
+        return "stub".equals(upstream);
+    }
+
+    public List<String> getScenarios() {
+        return scenarios;
+    }
+
+    public List<String> getTargets() {
+        return targets;
+    }
+
+    public String getReport() {
+        return report;
+    }
+
+    public StubUpstream.Settings getStub() {
+        return stub;
+    }
+
+    public Map<String, String> getGatewayProperties() {
+        return gatewayProperties;
+    }
+
+    public Map<String, String> getAuthProperties() {
+        return authProperties;
+    }
+
+    /**
+     * The settings as written into the report
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> described = new LinkedHashMap<>();
+        described.put("rate", rate);
+        described.put("warmupMillis", warmup.toMillis());
+        described.put("durationMillis", duration.toMillis());
+        described.put("timeoutMillis", timeout.toMillis());
+        described.put("maxInFlight", maxInFlight);
+        described.put("upstream", upstream);
+        if (isStubUpstream()) {
+            Map<String, Object> stubSettings = new LinkedHashMap<>();
+            stubSettings.put("latencyMicros", stub.latency().toNanos() / 1000);
+            stubSettings.put("jitterMicros", stub.jitter().toNanos() / 1000);
+            stubSettings.put("errorRate", stub.errorRate());
+            stubSettings.put("errorStatus", stub.errorStatus());
+            stubSettings.put("bodyBytes", stub.bodyBytes());
+            described.put("stub", stubSettings);
+        }
+        described.put("gatewayProperties", gatewayProperties);
+        described.put("authProperties", authProperties);
+        return described;
+    }
+}
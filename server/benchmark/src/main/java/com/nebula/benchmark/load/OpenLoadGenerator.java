@@ -0,0 +1,188 @@
+package com.nebula.benchmark.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open Load Generator
+ * Sends requests at a constant arrival rate whatever the response times, the way
+ * independent users do. Request {@code i} is due at {@code start + i / rate}; the pacing
+ * thread sends everything that is due, then parks until the next one.
+ *
+ * <p>Response time is measured from the <em>intended</em> send time, so a stall on either
+ * side shows up in the percentiles instead of silently lowering the rate (coordinated
+ * omission). Service time, from the actual send, is recorded alongside. Arrivals that find
+ * {@code maxInFlight} requests outstanding are dropped and counted.
+ */
+public class OpenLoadGenerator {
+
+    private final HttpClient client;
+
+    private final int maxInFlight;
+
+    public OpenLoadGenerator(HttpClient client, int maxInFlight) {
+        this.client = client;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Run {@code request} at {@code rate} per second for {@code duration}, then wait for
+     * stragglers up to {@code drainTimeout}
+     */
+    public Run run(HttpRequest request, int rate, Duration duration, Duration drainTimeout) {
+        Run run = new Run();
+        AtomicInteger inFlight = new AtomicInteger();
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / (double) rate;
+        long total = Math.max(1, (long) (duration.toNanos() / intervalNanos));
+        long start = System.nanoTime();
+
+        for (long i = 0; i < total; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                run.dropped.increment();
+                continue;
+            }
+            long sent = System.nanoTime();
+            run.sent.increment();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                long now = System.nanoTime();
+                inFlight.decrementAndGet();
+                run.completed(intended, sent, now, response, error);
+            });
+        }
+        long paced = System.nanoTime();
+
+        long deadline = paced + drainTimeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        run.finish(start, paced, inFlight.get());
+        return run;
+    }
+
+    /**
+     * Outcome of one run; histograms are in microseconds
+     */
+    public static final class Run {
+
+        private final Recorder responseTime = new Recorder(3);
+
+        private final Recorder serviceTime = new Recorder(3);
+
+        private final LongAdder sent = new LongAdder();
+
+        private final LongAdder ok = new LongAdder();
+
+        private final LongAdder dropped = new LongAdder();
+
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        private volatile long lastCompletion;
+
+        private Histogram responseHistogram;
+
+        private Histogram serviceHistogram;
+
+        private long pacingNanos;
+
+        private long elapsedNanos;
+
+        private int unfinished;
+
+        private void completed(long intended, long sent, long now, HttpResponse<?> response, Throwable error) {
+            responseTime.recordValue((now - intended) / 1000);
+            serviceTime.recordValue((now - sent) / 1000);
+            lastCompletion = now;
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error;
+                errors.computeIfAbsent(cause.getClass().getSimpleName(), key -> new LongAdder()).increment();
+            } else if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                ok.increment();
+            } else {
+                errors.computeIfAbsent(String.valueOf(response.statusCode()), key -> new LongAdder()).increment();
+            }
+        }
+
+        private void finish(long start, long paced, int unfinished) {
+            this.responseHistogram = responseTime.getIntervalHistogram();
+            this.serviceHistogram = serviceTime.getIntervalHistogram();
+            this.pacingNanos = paced - start;
+            this.elapsedNanos = Math.max(paced, lastCompletion) - start;
+            this.unfinished = unfinished;
+        }
+
+        public Histogram getResponseTime() {
+            return responseHistogram;
+        }
+
+        public Histogram getServiceTime() {
+            return serviceHistogram;
+        }
+
+        public long getSent() {
+            return sent.sum();
+        }
+
+        public long getOk() {
+            return ok.sum();
+        }
+
+        public long getDropped() {
+            return dropped.sum();
+        }
+
+        /**
+         * Failed requests by HTTP status or exception type
+         */
+        public Map<String, Long> getErrors() {
+            Map<String, Long> counts = new TreeMap<>();
+            errors.forEach((key, count) -> counts.put(key, count.sum()));
+            return counts;
+        }
+
+        /**
+         * Requests still outstanding when the drain timeout ran out
+         */
+        public int getUnfinished() {
+            return unfinished;
+        }
+
+        /**
+         * Arrival rate actually offered; below target means the pacing thread fell behind
+         */
+        public double getOfferedRate() {
+            return (sent.sum() + dropped.sum()) * 1e9 / Math.max(1, pacingNanos);
+        }
+
+        /**
+         * Successful responses per second, first send to last completion
+         */
+        public double getThroughput() {
+            return ok.sum() * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+}
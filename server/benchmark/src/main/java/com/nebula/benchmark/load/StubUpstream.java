@@ -0,0 +1,79 @@
+package com.nebula.benchmark.load;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stub Upstream
+ * Stand-in for auth-service with injected latency and faults. Answers every path with a
+ * JSON body of the configured size after {@code latency} plus a uniform random
+ * {@code jitter}; a share of {@code errorRate} requests gets {@code errorStatus} instead.
+ * The delay is a timer, not a sleep, so the stub itself adds no queueing. Speaks HTTP/1.1
+ * and h2c like the real service.
+ */
+@Slf4j
+public class StubUpstream implements AutoCloseable {
+
+    public record Settings(Duration latency, Duration jitter, double errorRate, int errorStatus, int bodyBytes) {
+    }
+
+    private final DisposableServer server;
+
+    public StubUpstream(Settings settings) {
+        byte[] body = body(settings.bodyBytes());
+        byte[] errorBody = ("{\"code\":" + settings.errorStatus() + ",\"message\":\"Injected fault\",\"data\":null}")
+                .getBytes(StandardCharsets.UTF_8);
+        long latencyNanos = settings.latency().toNanos();
+        long jitterNanos = settings.jitter().toNanos();
+
+        this.server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .handle((request, response) -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long delay = latencyNanos + (jitterNanos > 0 ? random.nextLong(jitterNanos + 1) : 0);
+                    boolean fault = settings.errorRate() > 0 && random.nextDouble() < settings.errorRate();
+                    byte[] payload = fault ? errorBody : body;
+                    Mono<Void> reply = response.status(fault ? settings.errorStatus() : 200)
+                            .header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                            .header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(payload.length))
+                            .sendByteArray(Mono.just(payload))
+                            .then();
+                    return delay > 0 ? Mono.delay(Duration.ofNanos(delay)).then(reply) : reply;
+                })
+                .bindNow();
+        log.info("Stub upstream on port {}: {}", server.port(), settings);
+    }
+
+    public int getPort() {
+        return server.port();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    /**
+     * A Result-shaped JSON document of exactly {@code size} bytes (or the smallest valid one)
+     */
+    private static byte[] body(int size) {
+        String prefix = "{\"code\":200,\"message\":\"Operation successful\",\"data\":\"";
+        String suffix = "\"}";
+        int padding = Math.max(0, size - prefix.length() - suffix.length());
+        char[] data = new char[padding];
+        Arrays.fill(data, 'x');
+        return (prefix + new String(data) + suffix).getBytes(StandardCharsets.UTF_8);
+    }
+}
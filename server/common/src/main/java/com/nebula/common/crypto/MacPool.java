@@ -0,0 +1,67 @@
+package com.nebula.common.crypto;
+
+import javax.crypto.Mac;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * MAC Pool
+ * Initialized {@link Mac} instances for one key, shared by all threads. A thread takes the
+ * instance parked in the slot its id hashes to, uses it and parks it again; on a miss it
+ * initializes a new one, and an instance that finds its slot taken is dropped.
+ *
+ * <p>Unlike a ThreadLocal cache this works for virtual threads: each request runs on a new
+ * virtual thread, so a per-thread cache would miss (and allocate) on every call.
+ */
+public final class MacPool {
+
+    private final String algorithm;
+
+    private final Key key;
+
+    private final AtomicReferenceArray<Mac> slots;
+
+    private final int mask;
+
+    /**
+     * @throws IllegalArgumentException if the algorithm is unavailable or rejects the key
+     */
+    public MacPool(String algorithm, Key key) {
+        this.algorithm = algorithm;
+        this.key = key;
+        int size = Integer.highestOneBit(Math.max(2, Runtime.getRuntime().availableProcessors() * 4 - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        slots.set(0, create());
+    }
+
+    /**
+     * MAC of the input, as {@link Mac#doFinal(byte[])}
+     */
+    public byte[] doFinal(byte[] input) {
+        int slot = slot();
+        Mac mac = slots.getAndSet(slot, null);
+        if (mac == null) {
+            mac = create();
+        }
+        byte[] result = mac.doFinal(input);
+        slots.compareAndSet(slot, null, mac);
+        return result;
+    }
+
+    private int slot() {
+        long id = Thread.currentThread().threadId();
+        return (int) (id ^ (id >>> 17)) & mask;
+    }
+
+    private Mac create() {
+        try {
+            Mac mac = Mac.getInstance(algorithm);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException(algorithm + " unavailable for the configured key", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.nebula.common.jwt;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * JWT claim set shared by the issuer (auth) and the verifier (gateway)
+ * Times are epoch seconds as required by RFC 7519
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JwtClaims {
+
+    /**
+     * Issuer
+     */
+    private String iss;
+
+    /**
+     * Subject (user name)
+     */
+    private String sub;
+
+    /**
+     * User id
+     */
+    private Integer uid;
+
+    /**
+     * Role codes granted to the subject
+     */
+    private List<String> roles;
+
+    /**
+     * Token id
+     */
+    private String jti;
+
+    /**
+     * Issued-at, epoch seconds
+     */
+    private Long iat;
+
+    /**
+     * Expiry, epoch seconds
+     */
+    private Long exp;
+
+    /**
+     * Check expiry against the given clock, tolerating some skew
+     *
+     * @param nowSeconds       current epoch seconds
+     * @param clockSkewSeconds tolerated clock skew
+     */
+    @JsonIgnore
+    public boolean isExpired(long nowSeconds, long clockSkewSeconds) {
+        return exp == null || nowSeconds - clockSkewSeconds >= exp;
+    }
+}
@@ -0,0 +1,161 @@
+package com.nebula.common.jwt;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nebula.common.crypto.MacPool;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HS256 JWT encoder/verifier
+ * Key material is parsed once; each key has a {@link MacPool} of initialized MACs, and the
+ * encoded header of each key is precomputed so verification only hashes and compares.
+ * Multiple keys may be configured (by key id) so secrets can be rotated without downtime.
+ */
+public class JwtCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ObjectMapper objectMapper;
+
+    private final String activeKeyId;
+
+    private final Map<String, SigningKey> keysById = new HashMap<>();
+
+    /**
+     * Encoded header segment → key, so the common case needs no header JSON parsing
+     */
+    private final Map<String, SigningKey> keysByHeader = new HashMap<>();
+
+    /**
+     * Header segments seen with non-canonical encodings (other JWT libraries, key order)
+     */
+    private final Map<String, SigningKey> foreignHeaders = new ConcurrentHashMap<>();
+
+    /**
+     * @param keys        key id → shared secret (at least 32 bytes)
+     * @param activeKeyId key id used when signing
+     */
+    public JwtCodec(Map<String, String> keys, String activeKeyId, ObjectMapper objectMapper) {
+        if (keys == null || keys.isEmpty()) {
+            throw new IllegalArgumentException("At least one JWT key must be configured");
+        }
+        this.objectMapper = objectMapper;
+        this.activeKeyId = activeKeyId;
+        keys.forEach((kid, secret) -> {
+            byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+            if (secretBytes.length < 32) {
+                throw new IllegalArgumentException("JWT key '" + kid + "' must be at least 256 bits");
+            }
+            String header = "{\"alg\":\"HS256\",\"typ\":\"JWT\",\"kid\":\"" + kid + "\"}";
+            SigningKey key = new SigningKey(kid, new SecretKeySpec(secretBytes, ALGORITHM),
+                    ENCODER.encodeToString(header.getBytes(StandardCharsets.UTF_8)));
+            keysById.put(kid, key);
+            keysByHeader.put(key.encodedHeader, key);
+        });
+        if (!keysById.containsKey(activeKeyId)) {
+            throw new IllegalArgumentException("Active JWT key '" + activeKeyId + "' is not configured");
+        }
+    }
+
+    /**
+     * Sign the given claims with the active key
+     *
+     * @return compact serialized JWT
+     */
+    public String encode(JwtClaims claims) {
+        SigningKey key = keysById.get(activeKeyId);
+        try {
+            String payload = ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+            String signingInput = key.encodedHeader + '.' + payload;
+            byte[] signature = key.macs.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + '.' + ENCODER.encodeToString(signature);
+        } catch (Exception e) {
+            throw new JwtException("Failed to encode JWT", e);
+        }
+    }
+
+    /**
+     * Verify the signature and parse the claims. Expiry is left to the caller so that
+     * parsed claims can be cached and re-checked against the clock on every use.
+     *
+     * @throws JwtException if the token is malformed or the signature does not match
+     */
+    public JwtClaims decode(String token) {
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot || lastDot == token.length() - 1) {
+            throw new JwtException("Malformed JWT");
+        }
+        String header = token.substring(0, firstDot);
+        SigningKey key = resolveKey(header);
+
+        byte[] expected = key.macs.doFinal(token.substring(0, lastDot).getBytes(StandardCharsets.US_ASCII));
+        byte[] actual;
+        try {
+            actual = DECODER.decode(token.substring(lastDot + 1));
+        } catch (IllegalArgumentException e) {
+            throw new JwtException("Malformed JWT signature", e);
+        }
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new JwtException("Invalid JWT signature");
+        }
+        try {
+            return objectMapper.readValue(DECODER.decode(token.substring(firstDot + 1, lastDot)), JwtClaims.class);
+        } catch (Exception e) {
+            throw new JwtException("Malformed JWT claims", e);
+        }
+    }
+
+    private SigningKey resolveKey(String encodedHeader) {
+        SigningKey key = keysByHeader.get(encodedHeader);
+        if (key != null) {
+            return key;
+        }
+        key = foreignHeaders.get(encodedHeader);
+        if (key != null) {
+            return key;
+        }
+        JsonNode header;
+        try {
+            header = objectMapper.readTree(DECODER.decode(encodedHeader));
+        } catch (Exception e) {
+            throw new JwtException("Malformed JWT header", e);
+        }
+        if (!"HS256".equals(header.path("alg").asText())) {
+            throw new JwtException("Unsupported JWT algorithm");
+        }
+        key = keysById.get(header.path("kid").asText(activeKeyId));
+        if (key == null) {
+            throw new JwtException("Unknown JWT key id");
+        }
+        if (foreignHeaders.size() < 64) {
+            foreignHeaders.put(encodedHeader, key);
+        }
+        return key;
+    }
+
+    private static final class SigningKey {
+
+        private final String encodedHeader;
+
+        private final MacPool macs;
+
+        private SigningKey(String kid, SecretKeySpec secret, String encodedHeader) {
+            this.encodedHeader = encodedHeader;
+            try {
+                this.macs = new MacPool(ALGORITHM, secret);
+            } catch (IllegalArgumentException e) {
+                throw new JwtException("HS256 unavailable for key " + kid, e);
+            }
+        }
+    }
+}
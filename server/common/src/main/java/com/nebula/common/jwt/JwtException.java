@@ -0,0 +1,17 @@
+package com.nebula.common.jwt;
+
+/**
+ * Raised when a JWT cannot be issued or fails verification
+ */
+public class JwtException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public JwtException(String message) {
+        super(message);
+    }
+
+    public JwtException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,26 +1,26 @@
 package com.nebula.common.result;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Unified API response wrapper
  * Encapsulates all controller method return values
  *
  * @param <T> Type of data being returned
+ * @see ResultSerializer
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonSerialize(using = ResultSerializer.class)
 public class Result<T> implements Serializable {
 
     private static final long serialVersionUID = 1L;
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     /**
      * Response code (200 for success, others for errors)
@@ -69,7 +69,7 @@ public class Result<T> implements Serializable {
         result.setCode(200);
         result.setMessage(message);
         result.setData(data);
-        result.setTimestamp(LocalDateTime.now().format(FORMATTER));
+        result.setTimestamp(ResultClock.now());
         return result;
     }
 
@@ -93,7 +93,7 @@ public class Result<T> implements Serializable {
         result.setCode(code);
         result.setMessage(message);
         result.setData(null);
-        result.setTimestamp(LocalDateTime.now().format(FORMATTER));
+        result.setTimestamp(ResultClock.now());
         return result;
     }
 
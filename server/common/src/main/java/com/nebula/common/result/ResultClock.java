@@ -0,0 +1,73 @@
+package com.nebula.common.result;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Result Clock
+ * The response timestamp ({@code yyyy-MM-dd HH:mm:ss}, system time zone) formatted once per
+ * second and shared by every response. Reading it is a clock read and a field compare; the
+ * first caller in a new second formats the string, and racing callers at the boundary at
+ * worst format the same second twice.
+ */
+public final class ResultClock {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static volatile Tick tick = format(Long.MIN_VALUE);
+
+    private ResultClock() {
+    }
+
+    /**
+     * The current second, formatted
+     */
+    public static String now() {
+        return current().text;
+    }
+
+    static Tick current() {
+        long second = System.currentTimeMillis() / 1000;
+        Tick current = tick;
+        if (current.epochSecond != second) {
+            current = format(second);
+            tick = current;
+        }
+        return current;
+    }
+
+    private static Tick format(long epochSecond) {
+        if (epochSecond == Long.MIN_VALUE) {
+            return new Tick(epochSecond, "", new SerializedString(""), new byte[0]);
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        String text = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), zone).format(FORMATTER);
+        return new Tick(epochSecond, text, new SerializedString(text), text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * One formatted second: the string handed to Result, plus its JSON and raw byte forms
+     */
+    static final class Tick {
+
+        final long epochSecond;
+
+        final String text;
+
+        final SerializedString json;
+
+        final byte[] ascii;
+
+        private Tick(long epochSecond, String text, SerializedString json, byte[] ascii) {
+            this.epochSecond = epochSecond;
+            this.text = text;
+            this.json = json;
+            this.ascii = ascii;
+        }
+    }
+}
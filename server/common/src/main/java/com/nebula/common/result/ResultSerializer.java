@@ -0,0 +1,124 @@
+package com.nebula.common.result;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Result Serializer
+ * Writes the {@link Result} envelope straight to the generator instead of going through bean
+ * properties. Field names are pre-encoded, and so are success messages (constants by
+ * convention) and the timestamp of the current second from {@link ResultClock}. Only
+ * {@code data} goes through regular Jackson serialization. The output matches the bean
+ * serializer's, including the field order {@link SerializedResult} relies on.
+ */
+public class ResultSerializer extends StdSerializer<Result<?>> implements ContextualSerializer {
+
+    private static final SerializedString CODE = new SerializedString("code");
+
+    private static final SerializedString MESSAGE = new SerializedString("message");
+
+    private static final SerializedString DATA = new SerializedString("data");
+
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+
+    /**
+     * Bound on cached success messages, in case a caller builds them dynamically
+     */
+    private static final int MAX_MESSAGES = 256;
+
+    private static final Map<String, SerializedString> MESSAGES = new ConcurrentHashMap<>();
+
+    private final boolean skipNulls;
+
+    public ResultSerializer() {
+        this(false);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ResultSerializer(boolean skipNulls) {
+        super((Class) Result.class);
+        this.skipNulls = skipNulls;
+    }
+
+    /**
+     * Honour the mapper's default inclusion (e.g. spring.jackson.default-property-inclusion=non_null)
+     */
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) {
+        JsonInclude.Include inclusion = provider.getConfig().getDefaultPropertyInclusion(Result.class).getValueInclusion();
+        boolean skip = inclusion != JsonInclude.Include.ALWAYS && inclusion != JsonInclude.Include.USE_DEFAULTS;
+        return skip == skipNulls ? this : new ResultSerializer(skip);
+    }
+
+    @Override
+    public void serialize(Result<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+
+        Integer code = value.getCode();
+        if (code != null || !skipNulls) {
+            gen.writeFieldName(CODE);
+            if (code == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(code.intValue());
+            }
+        }
+
+        String message = value.getMessage();
+        if (message != null) {
+            gen.writeFieldName(MESSAGE);
+            SerializedString encoded = code != null && code == 200 ? encodedMessage(message) : null;
+            if (encoded != null) {
+                gen.writeString(encoded);
+            } else {
+                gen.writeString(message);
+            }
+        } else if (!skipNulls) {
+            gen.writeFieldName(MESSAGE);
+            gen.writeNull();
+        }
+
+        Object data = value.getData();
+        if (data != null) {
+            gen.writeFieldName(DATA);
+            provider.defaultSerializeValue(data, gen);
+        } else if (!skipNulls) {
+            gen.writeFieldName(DATA);
+            gen.writeNull();
+        }
+
+        String timestamp = value.getTimestamp();
+        if (timestamp != null) {
+            gen.writeFieldName(TIMESTAMP);
+            ResultClock.Tick tick = ResultClock.current();
+            if (timestamp.equals(tick.text)) {
+                gen.writeString(tick.json);
+            } else {
+                gen.writeString(timestamp);
+            }
+        } else if (!skipNulls) {
+            gen.writeFieldName(TIMESTAMP);
+            gen.writeNull();
+        }
+
+        gen.writeEndObject();
+    }
+
+    private static SerializedString encodedMessage(String message) {
+        SerializedString encoded = MESSAGES.get(message);
+        if (encoded == null && MESSAGES.size() < MAX_MESSAGES) {
+            encoded = MESSAGES.computeIfAbsent(message, SerializedString::new);
+        }
+        return encoded;
+    }
+}
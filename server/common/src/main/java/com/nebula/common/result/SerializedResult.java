@@ -0,0 +1,69 @@
+package com.nebula.common.result;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Serialized Result
+ * A {@link Result} rendered to JSON once and written many times. The bytes around the
+ * timestamp are kept, and a fresh timestamp is written between them on every response.
+ */
+public final class SerializedResult {
+
+    private static final String MARKER = "@@nebula-timestamp@@";
+
+    private static final byte[] MARKER_BYTES = MARKER.getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Length of "yyyy-MM-dd HH:mm:ss"
+     */
+    private static final int TIMESTAMP_LENGTH = 19;
+
+    private final byte[] head;
+
+    private final byte[] tail;
+
+    private SerializedResult(byte[] head, byte[] tail) {
+        this.head = head;
+        this.tail = tail;
+    }
+
+    public static SerializedResult of(Result<?> result, ObjectMapper objectMapper) throws JsonProcessingException {
+        Result<?> template = new Result<>(result.getCode(), result.getMessage(), result.getData(), MARKER);
+        byte[] json = objectMapper.writeValueAsBytes(template);
+        int at = indexOf(json, MARKER_BYTES);
+        if (at < 0) {
+            throw new IllegalStateException("Result serialized without its timestamp");
+        }
+        return new SerializedResult(Arrays.copyOfRange(json, 0, at),
+                Arrays.copyOfRange(json, at + MARKER_BYTES.length, json.length));
+    }
+
+    public int contentLength() {
+        return head.length + TIMESTAMP_LENGTH + tail.length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(head);
+        out.write(ResultClock.current().ascii);
+        out.write(tail);
+    }
+
+    private static int indexOf(byte[] data, byte[] target) {
+        outer:
+        for (int i = data.length - target.length; i >= 0; i--) {
+            for (int j = 0; j < target.length; j++) {
+                if (data[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,22 @@
+package com.nebula.common.trace;
+
+/**
+ * Span Data
+ * A finished span that the tail sampler decided to keep
+ *
+ * @param kind   "server" for a request a service received, "client" for a call it made
+ * @param status HTTP status, 0 if there was none
+ * @param route  gateway route id; null elsewhere
+ */
+public record SpanData(TraceContext context, String kind, String name, long startEpochMillis, long durationNanos,
+                       int status, Outcome outcome, String method, String path, String route) {
+
+    public enum Outcome {
+        OK,
+        ERROR,
+        /**
+         * Abandoned by the caller, e.g. a hedge attempt that lost or a client that hung up
+         */
+        CANCELLED
+    }
+}
@@ -0,0 +1,250 @@
+package com.nebula.common.trace;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Span Exporter
+ * Writes kept spans to a local file, one JSON object per line, rolling it over by size
+ * ({@code spans.log} → {@code spans.log.1} → ...). Request threads only offer to a bounded
+ * queue and never block; when it is full the span is dropped and counted. Only spans the
+ * tail sampler kept get here, so the queue sees a small share of the traffic.
+ */
+@Slf4j
+public class SpanExporter implements AutoCloseable {
+
+    private static final int BATCH_SIZE = 256;
+
+    private final String service;
+
+    private final Path file;
+
+    private final long maxFileBytes;
+
+    private final int maxHistory;
+
+    private final long flushIntervalNanos;
+
+    private final BlockingQueue<SpanData> queue;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder written = new LongAdder();
+
+    private final StringBuilder line = new StringBuilder(512);
+
+    private volatile boolean running;
+
+    private Thread worker;
+
+    private OutputStream out;
+
+    private long fileBytes;
+
+    /**
+     * @param maxFileBytes size at which the file is rolled over
+     * @param maxHistory   rolled-over files kept besides the current one
+     */
+    public SpanExporter(String service, Path file, int bufferSize, long maxFileBytes, int maxHistory,
+                        Duration flushInterval) {
+        this.service = service;
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        this.maxHistory = maxHistory;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    /**
+     * Queue a span for writing; never blocks
+     *
+     * @return false if the span was dropped
+     */
+    public boolean export(SpanData span) {
+        if (running && queue.offer(span)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    public void start() {
+        try {
+            open();
+        } catch (IOException e) {
+            log.error("Unable to open span file {}, span export disabled", file, e);
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().name("span-exporter").daemon(true).start(this::drainLoop);
+        log.info("Span export started: file={}, maxFileBytes={}, maxHistory={}", file, maxFileBytes, maxHistory);
+    }
+
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        // No interrupt: it would close the file channel under a write; the worker notices within one flush interval
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public long writtenCount() {
+        return written.sum();
+    }
+
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        List<SpanData> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (running) {
+                SpanData first;
+                try {
+                    first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                    write(batch);
+                }
+            }
+            // Flush whatever was queued before shutdown
+            while (queue.drainTo(batch, BATCH_SIZE) > 0) {
+                write(batch);
+            }
+        } finally {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.warn("Failed to close span file", e);
+            }
+        }
+    }
+
+    private void write(List<SpanData> batch) {
+        try {
+            for (SpanData span : batch) {
+                byte[] bytes = format(span).getBytes(StandardCharsets.UTF_8);
+                out.write(bytes);
+                fileBytes += bytes.length;
+                written.increment();
+            }
+            out.flush();
+            if (fileBytes >= maxFileBytes) {
+                roll();
+            }
+        } catch (IOException e) {
+            dropped.add(batch.size());
+            log.warn("Failed to write spans to {}: {}", file, e.getMessage());
+        }
+        batch.clear();
+    }
+
+    private String format(SpanData span) {
+        TraceContext context = span.context();
+        line.setLength(0);
+        line.append("{\"traceId\":\"").append(context.traceId())
+                .append("\",\"spanId\":\"").append(context.spanId()).append('"');
+        String parent = context.parentSpanId();
+        if (parent != null) {
+            line.append(",\"parentSpanId\":\"").append(parent).append('"');
+        }
+        line.append(",\"service\":\"").append(service)
+                .append("\",\"kind\":\"").append(span.kind())
+                .append("\",\"name\":\"");
+        appendEscaped(span.name());
+        line.append("\",\"start\":\"").append(Instant.ofEpochMilli(span.startEpochMillis()))
+                .append("\",\"durationMicros\":").append(span.durationNanos() / 1_000L)
+                .append(",\"status\":").append(span.status())
+                .append(",\"outcome\":\"").append(span.outcome().name().toLowerCase(Locale.ROOT))
+                .append("\",\"sampled\":").append(context.isSampled());
+        if (span.method() != null) {
+            line.append(",\"method\":\"").append(span.method()).append('"');
+        }
+        if (span.path() != null) {
+            line.append(",\"path\":\"");
+            appendEscaped(span.path());
+            line.append('"');
+        }
+        if (span.route() != null) {
+            line.append(",\"route\":\"");
+            appendEscaped(span.route());
+            line.append('"');
+        }
+        return line.append("}\n").toString();
+    }
+
+    private void appendEscaped(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\');
+            }
+            line.append(c < 0x20 ? ' ' : c);
+        }
+    }
+
+    private void open() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        out = new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        fileBytes = Files.size(file);
+    }
+
+    private void roll() throws IOException {
+        out.close();
+        try {
+            if (maxHistory > 0) {
+                for (int i = maxHistory - 1; i >= 1; i--) {
+                    Path older = rolled(i);
+                    if (Files.exists(older)) {
+                        Files.move(older, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                Files.move(file, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.delete(file);
+            }
+        } finally {
+            // Keep writing to the current file if it could not be moved away
+            open();
+        }
+    }
+
+    private Path rolled(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
@@ -0,0 +1,167 @@
+package com.nebula.common.trace;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Trace Context
+ * A span's position in a trace as carried by the W3C {@code traceparent} header:
+ * {@code 00-<32 hex trace id>-<16 hex parent span id>-<2 hex flags>}. Ids are kept as longs;
+ * hex strings are only built when a header or log line needs them.
+ */
+public final class TraceContext {
+
+    public static final String TRACEPARENT = "traceparent";
+
+    /**
+     * MDC key of the trace id, referenced as %X{traceId} by the log patterns
+     */
+    public static final String MDC_KEY = "traceId";
+
+    private static final int TRACEPARENT_LENGTH = 55;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final long traceIdHigh;
+
+    private final long traceIdLow;
+
+    private final long spanId;
+
+    /**
+     * Span id of the caller's span, 0 for a root span
+     */
+    private final long parentSpanId;
+
+    private final boolean sampled;
+
+    private String traceId;
+
+    TraceContext(long traceIdHigh, long traceIdLow, long spanId, long parentSpanId, boolean sampled) {
+        this.traceIdHigh = traceIdHigh;
+        this.traceIdLow = traceIdLow;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.sampled = sampled;
+    }
+
+    /**
+     * Parse a version-00 traceparent header
+     *
+     * @return the caller's context, or null if the header is missing or malformed
+     */
+    public static TraceContext parse(String traceparent) {
+        if (traceparent == null || traceparent.length() != TRACEPARENT_LENGTH
+                || traceparent.charAt(0) != '0' || traceparent.charAt(1) != '0' || traceparent.charAt(2) != '-'
+                || traceparent.charAt(35) != '-' || traceparent.charAt(52) != '-'
+                || !isHex(traceparent, 3, 35) || !isHex(traceparent, 36, 52) || !isHex(traceparent, 53, 55)) {
+            return null;
+        }
+        long high = parseHex(traceparent, 3);
+        long low = parseHex(traceparent, 19);
+        long span = parseHex(traceparent, 36);
+        if (high == 0 && low == 0 || span == 0) {
+            return null;
+        }
+        boolean sampled = (Character.digit(traceparent.charAt(54), 16) & 1) != 0;
+        return new TraceContext(high, low, span, 0, sampled);
+    }
+
+    /**
+     * Lowercase hex digits only, as the spec requires
+     */
+    private static boolean isHex(String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseHex(String text, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 16; i++) {
+            value = value << 4 | Character.digit(text.charAt(i), 16);
+        }
+        return value;
+    }
+
+    /**
+     * A new span in this trace whose parent is this span
+     */
+    public TraceContext child() {
+        return new TraceContext(traceIdHigh, traceIdLow, nextSpanId(), spanId, sampled);
+    }
+
+    static long nextSpanId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return id;
+    }
+
+    /**
+     * Header value that makes this span the parent of the receiving service's span
+     */
+    public String traceparent() {
+        char[] chars = new char[TRACEPARENT_LENGTH];
+        chars[0] = '0';
+        chars[1] = '0';
+        chars[2] = '-';
+        hex(traceIdHigh, chars, 3);
+        hex(traceIdLow, chars, 19);
+        chars[35] = '-';
+        hex(spanId, chars, 36);
+        chars[52] = '-';
+        chars[53] = '0';
+        chars[54] = sampled ? '1' : '0';
+        return new String(chars);
+    }
+
+    /**
+     * Trace id as 32 hex digits; computed once
+     */
+    public String traceId() {
+        String id = traceId;
+        if (id == null) {
+            char[] chars = new char[32];
+            hex(traceIdHigh, chars, 0);
+            hex(traceIdLow, chars, 16);
+            traceId = id = new String(chars);
+        }
+        return id;
+    }
+
+    public String spanId() {
+        return hex(spanId);
+    }
+
+    /**
+     * @return the parent span id as hex, or null for a root span
+     */
+    public String parentSpanId() {
+        return parentSpanId == 0 ? null : hex(parentSpanId);
+    }
+
+    /**
+     * Head sampling decision: whether the whole trace is recorded regardless of outcome
+     */
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    static String hex(long value) {
+        char[] chars = new char[16];
+        hex(value, chars, 0);
+        return new String(chars);
+    }
+
+    private static void hex(long value, char[] dst, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            dst[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.nebula.common.trace;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Trace Sampler
+ * Head sampling decides when a trace starts: a fixed share of new traces is sampled, and a
+ * trace continued from a caller keeps the caller's decision. Tail sampling decides when a
+ * span ends: sampled spans are kept, and so are slow and failed ones, whatever the head
+ * decision was. Until a span is kept it is only a few longs, so unsampled requests cost
+ * next to nothing.
+ */
+public final class TraceSampler {
+
+    private final long threshold;
+
+    private final long slowThresholdNanos;
+
+    private final boolean keepErrors;
+
+    /**
+     * @param ratio         share of new traces sampled at the head, 0.0-1.0
+     * @param slowThreshold spans at least this long are always kept
+     * @param keepErrors    whether failed spans are always kept
+     */
+    public TraceSampler(double ratio, Duration slowThreshold, boolean keepErrors) {
+        this.threshold = ratio >= 1.0 ? Long.MAX_VALUE : ratio <= 0.0 ? 0 : (long) (ratio * Long.MAX_VALUE);
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.keepErrors = keepErrors;
+    }
+
+    /**
+     * Context of a new server span: a child of the caller's span, or the root of a new trace
+     */
+    public TraceContext start(TraceContext caller) {
+        if (caller != null) {
+            return caller.child();
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = random.nextLong();
+        long low;
+        do {
+            low = random.nextLong();
+        } while (low == 0);
+        // Deciding on the trace id keeps the decision consistent for anyone who re-samples it
+        boolean sampled = threshold == Long.MAX_VALUE || (low & Long.MAX_VALUE) < threshold;
+        return new TraceContext(high, low, TraceContext.nextSpanId(), 0, sampled);
+    }
+
+    /**
+     * Tail decision for a finished span
+     */
+    public boolean keep(TraceContext context, long durationNanos, boolean error) {
+        return context.isSampled() || error && keepErrors || durationNanos >= slowThresholdNanos;
+    }
+}
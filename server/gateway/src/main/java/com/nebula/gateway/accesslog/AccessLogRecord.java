@@ -0,0 +1,33 @@
+package com.nebula.gateway.accesslog;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Access Log Record
+ * Preallocated, reusable slot in the access log ring buffer.
+ * Fields are written by one producer and read by the writer thread,
+ * with visibility provided by the ring buffer's sequence publication.
+ */
+final class AccessLogRecord {
+
+    long timestamp;
+
+    long durationNanos;
+
+    int status;
+
+    String method;
+
+    String path;
+
+    String routeId;
+
+    InetSocketAddress remoteAddress;
+
+    void clear() {
+        method = null;
+        path = null;
+        routeId = null;
+        remoteAddress = null;
+    }
+}
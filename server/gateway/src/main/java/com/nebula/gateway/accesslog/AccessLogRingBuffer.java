@@ -0,0 +1,118 @@
+package com.nebula.gateway.accesslog;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Access Log Ring Buffer
+ * Bounded multi-producer / single-consumer queue of preallocated records.
+ * Producers never block: when the buffer is full the record is dropped and counted.
+ */
+public class AccessLogRingBuffer {
+
+    private final AccessLogRecord[] slots;
+
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Only advanced by the single consumer thread; volatile so size() can be sampled by gauges
+     */
+    private volatile long head;
+
+    public AccessLogRingBuffer(int requestedCapacity) {
+        int capacity = 1 << (32 - Integer.numberOfLeadingZeros(Math.max(2, requestedCapacity) - 1));
+        this.slots = new AccessLogRecord[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new AccessLogRecord();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publish a record without blocking
+     * @return false if the buffer was full and the record was dropped
+     */
+    public boolean offer(long timestamp, long durationNanos, int status, String method,
+                         String path, String routeId, InetSocketAddress remoteAddress) {
+        long position = tail.get();
+        for (;;) {
+            int index = (int) (position & mask);
+            long sequence = sequences.getAcquire(index);
+            long difference = sequence - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    AccessLogRecord record = slots[index];
+                    record.timestamp = timestamp;
+                    record.durationNanos = durationNanos;
+                    record.status = status;
+                    record.method = method;
+                    record.path = path;
+                    record.routeId = routeId;
+                    record.remoteAddress = remoteAddress;
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                dropped.increment();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Hand up to {@code maxRecords} published records to the consumer, releasing each slot afterwards.
+     * Must only be called from the single consumer thread.
+     * @return number of records drained
+     */
+    int drain(AccessLogRecordHandler handler, int maxRecords) {
+        int drained = 0;
+        long position = head;
+        while (drained < maxRecords) {
+            int index = (int) (position & mask);
+            if (sequences.getAcquire(index) != position + 1) {
+                break;
+            }
+            AccessLogRecord record = slots[index];
+            handler.handle(record);
+            record.clear();
+            sequences.setRelease(index, position + slots.length);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public long size() {
+        return Math.max(0, tail.get() - head);
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Callback used by the consumer while draining
+     */
+    @FunctionalInterface
+    interface AccessLogRecordHandler {
+        void handle(AccessLogRecord record);
+    }
+}
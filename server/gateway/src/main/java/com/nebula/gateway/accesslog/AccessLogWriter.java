@@ -0,0 +1,223 @@
+package com.nebula.gateway.accesslog;
+
+import com.nebula.gateway.config.AccessLogProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Access Log Writer
+ * Accepts access records from the event loop and batches them to disk on a background thread.
+ * The request path only performs a sampling decision and a non-blocking ring buffer offer.
+ */
+@Slf4j
+@Component
+public class AccessLogWriter implements SmartLifecycle, MeterBinder {
+
+    private static final DateTimeFormatter FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final AccessLogProperties properties;
+
+    private final AccessLogRingBuffer ringBuffer;
+
+    private final long slowThresholdNanos;
+
+    private final LongAdder sampledOut = new LongAdder();
+
+    private final LongAdder written = new LongAdder();
+
+    private final LongAdder writeErrors = new LongAdder();
+
+    private final StringBuilder line = new StringBuilder(256);
+
+    private volatile boolean running;
+
+    private Thread worker;
+
+    private Writer out;
+
+    public AccessLogWriter(AccessLogProperties properties) {
+        this.properties = properties;
+        this.ringBuffer = new AccessLogRingBuffer(properties.getBufferSize());
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+    }
+
+    /**
+     * Record a completed exchange. Never blocks; the record may be sampled out or dropped.
+     */
+    public void record(long timestamp, long durationNanos, int status, String method,
+                       String path, String routeId, InetSocketAddress remoteAddress) {
+        if (!running) {
+            return;
+        }
+        if (!isSampled(status, durationNanos)) {
+            sampledOut.increment();
+            return;
+        }
+        ringBuffer.offer(timestamp, durationNanos, status, method, path, routeId, remoteAddress);
+    }
+
+    private boolean isSampled(int status, long durationNanos) {
+        double sampleRate = properties.getSampleRate();
+        if (sampleRate >= 1.0) {
+            return true;
+        }
+        if (properties.isAlwaysLogErrors() && status >= 500) {
+            return true;
+        }
+        if (durationNanos >= slowThresholdNanos) {
+            return true;
+        }
+        return sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("Access log pipeline disabled");
+            return;
+        }
+        try {
+            Path file = Path.of(properties.getFile());
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            out = new OutputStreamWriter(Files.newOutputStream(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.error("Unable to open access log file {}, access logging disabled", properties.getFile(), e);
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().name("access-log-writer").daemon(true).start(this::drainLoop);
+        log.info("Access log pipeline started: file={}, bufferSize={}, sampleRate={}",
+                properties.getFile(), ringBuffer.capacity(), properties.getSampleRate());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drainLoop() {
+        long parkNanos = properties.getFlushInterval().toNanos();
+        int batchSize = Math.max(1, properties.getBatchSize());
+        try {
+            while (running) {
+                if (writeBatch(batchSize) == 0) {
+                    LockSupport.parkNanos(this, parkNanos);
+                }
+            }
+            // Flush whatever was published before shutdown
+            while (writeBatch(batchSize) > 0) {
+                // keep draining
+            }
+        } finally {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.warn("Failed to close access log file", e);
+            }
+        }
+    }
+
+    private int writeBatch(int batchSize) {
+        int drained = ringBuffer.drain(this::append, batchSize);
+        if (drained > 0) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                writeErrors.increment();
+            }
+        }
+        return drained;
+    }
+
+    private void append(AccessLogRecord record) {
+        line.setLength(0);
+        line.append("{\"time\":\"");
+        FORMATTER.formatTo(Instant.ofEpochMilli(record.timestamp), line);
+        line.append("\",\"method\":\"").append(record.method)
+                .append("\",\"path\":\"");
+        appendEscaped(record.path);
+        line.append("\",\"status\":").append(record.status)
+                .append(",\"durationMicros\":").append(record.durationNanos / 1_000L)
+                .append(",\"route\":\"").append(record.routeId == null ? "" : record.routeId)
+                .append("\",\"remote\":\"")
+                .append(record.remoteAddress == null ? "" : record.remoteAddress.getHostString())
+                .append("\"}\n");
+        try {
+            out.append(line);
+            written.increment();
+        } catch (IOException e) {
+            writeErrors.increment();
+        }
+    }
+
+    private void appendEscaped(String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\');
+            }
+            line.append(c < 0x20 ? ' ' : c);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.access.log.dropped", ringBuffer, AccessLogRingBuffer::droppedCount)
+                .description("Access records dropped because the ring buffer was full")
+                .register(registry);
+        FunctionCounter.builder("gateway.access.log.sampled.out", sampledOut, LongAdder::sum)
+                .description("Access records skipped by the sampling policy")
+                .register(registry);
+        FunctionCounter.builder("gateway.access.log.written", written, LongAdder::sum)
+                .description("Access records written to disk")
+                .register(registry);
+        FunctionCounter.builder("gateway.access.log.write.errors", writeErrors, LongAdder::sum)
+                .description("Access records lost to I/O errors")
+                .register(registry);
+        Gauge.builder("gateway.access.log.pending", ringBuffer, AccessLogRingBuffer::size)
+                .description("Access records waiting for the writer")
+                .register(registry);
+    }
+}
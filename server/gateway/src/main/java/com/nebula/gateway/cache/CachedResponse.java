@@ -0,0 +1,48 @@
+package com.nebula.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Cached Response
+ * Immutable snapshot of an upstream 200 response: headers, body and strong ETag
+ */
+public final class CachedResponse {
+
+    private final HttpHeaders headers;
+
+    private final byte[] body;
+
+    private final String etag;
+
+    private final long createdNanos;
+
+    public CachedResponse(HttpHeaders headers, byte[] body, String etag) {
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+        this.etag = etag;
+        this.createdNanos = System.nanoTime();
+    }
+
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getCreatedNanos() {
+        return createdNanos;
+    }
+
+    /**
+     * Approximate retained size, used as the cache weight
+     */
+    public int weight() {
+        return body.length + etag.length() + 256;
+    }
+}
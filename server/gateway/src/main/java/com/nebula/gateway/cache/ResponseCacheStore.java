@@ -0,0 +1,120 @@
+package com.nebula.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Response Cache Store
+ * Size-bounded, TTL-based response storage for a single route.
+ * The store outlives route refreshes so its meters stay bound; a changed
+ * configuration swaps the underlying cache instead of re-registering meters.
+ */
+public class ResponseCacheStore {
+
+    private final String routeId;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder notModified = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder uncacheable = new LongAdder();
+
+    private volatile Cache<String, CachedResponse> cache;
+
+    private volatile Duration ttl;
+
+    private volatile long maxWeight;
+
+    public ResponseCacheStore(String routeId, Duration ttl, long maxWeight) {
+        this.routeId = routeId;
+        configure(ttl, maxWeight);
+    }
+
+    /**
+     * Apply (possibly new) limits; entries are dropped only if the limits actually changed
+     */
+    public synchronized void configure(Duration ttl, long maxWeight) {
+        if (cache != null && ttl.equals(this.ttl) && maxWeight == this.maxWeight) {
+            return;
+        }
+        this.ttl = ttl;
+        this.maxWeight = maxWeight;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maxWeight)
+                .weigher((String key, CachedResponse value) -> key.length() + value.weight())
+                .evictionListener((String key, CachedResponse value, RemovalCause cause) -> evictions.increment())
+                .build();
+    }
+
+    public CachedResponse get(String key) {
+        CachedResponse response = cache.getIfPresent(key);
+        if (response == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return response;
+    }
+
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public void recordNotModified() {
+        notModified.increment();
+    }
+
+    public void recordUncacheable() {
+        uncacheable.increment();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Publish this store's counters, tagged with its route id
+     */
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.response.cache.requests", hits, LongAdder::sum)
+                .tags("route", routeId, "result", "hit")
+                .description("Response cache lookups")
+                .register(registry);
+        FunctionCounter.builder("gateway.response.cache.requests", misses, LongAdder::sum)
+                .tags("route", routeId, "result", "miss")
+                .description("Response cache lookups")
+                .register(registry);
+        FunctionCounter.builder("gateway.response.cache.not.modified", notModified, LongAdder::sum)
+                .tag("route", routeId)
+                .description("Requests answered with 304 Not Modified")
+                .register(registry);
+        FunctionCounter.builder("gateway.response.cache.evictions", evictions, LongAdder::sum)
+                .tag("route", routeId)
+                .description("Entries evicted for size or expiry")
+                .register(registry);
+        FunctionCounter.builder("gateway.response.cache.uncacheable", uncacheable, LongAdder::sum)
+                .tag("route", routeId)
+                .description("Upstream responses that could not be cached")
+                .register(registry);
+        Gauge.builder("gateway.response.cache.size", this, ResponseCacheStore::size)
+                .tag("route", routeId)
+                .description("Cached responses")
+                .register(registry);
+    }
+}
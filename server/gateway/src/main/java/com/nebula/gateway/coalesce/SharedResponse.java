@@ -0,0 +1,40 @@
+package com.nebula.gateway.coalesce;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Shared Response
+ * Buffered upstream response fanned out to every request of a flight
+ */
+public final class SharedResponse {
+
+    /**
+     * The leader's response could not be shared; waiters go upstream themselves
+     */
+    public static final SharedResponse NONE = new SharedResponse(null, HttpHeaders.EMPTY, new byte[0]);
+
+    private final HttpStatusCode status;
+
+    private final HttpHeaders headers;
+
+    private final byte[] body;
+
+    public SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+        this.status = status;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+    }
+
+    public HttpStatusCode getStatus() {
+        return status;
+    }
+
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,159 @@
+package com.nebula.gateway.coalesce;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single Flight Group
+ * In-flight upstream exchanges of one route, keyed by request identity. The first
+ * request for a key leads the flight; identical requests arriving before it finishes
+ * wait for its response instead of going upstream.
+ */
+public class SingleFlightGroup {
+
+    private final String routeId;
+
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder leaders = new LongAdder();
+
+    private final LongAdder followers = new LongAdder();
+
+    private final LongAdder fallbacks = new LongAdder();
+
+    private final LongAdder unshared = new LongAdder();
+
+    public SingleFlightGroup(String routeId) {
+        this.routeId = routeId;
+    }
+
+    /**
+     * Join the flight for a key; the returned flight is led by the caller if {@link Flight#isLeader} is true
+     */
+    public Flight join(String key) {
+        Flight created = new Flight(key);
+        Flight existing = flights.putIfAbsent(key, created);
+        if (existing == null) {
+            leaders.increment();
+            return created;
+        }
+        followers.increment();
+        return existing.follower();
+    }
+
+    public void recordFallback() {
+        fallbacks.increment();
+    }
+
+    /**
+     * Share of coalescable requests that did not go upstream themselves
+     */
+    public double collapseRatio() {
+        long followed = followers.sum() - fallbacks.sum();
+        long total = leaders.sum() + followers.sum();
+        return total == 0 ? 0 : (double) followed / total;
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.coalesce.requests", leaders, LongAdder::sum)
+                .tags("route", routeId, "role", "leader")
+                .description("Coalescable requests by role in their flight")
+                .register(registry);
+        FunctionCounter.builder("gateway.coalesce.requests", followers, LongAdder::sum)
+                .tags("route", routeId, "role", "follower")
+                .description("Coalescable requests by role in their flight")
+                .register(registry);
+        FunctionCounter.builder("gateway.coalesce.fallbacks", fallbacks, LongAdder::sum)
+                .tag("route", routeId)
+                .description("Followers that went upstream because the leader's response was not shareable")
+                .register(registry);
+        FunctionCounter.builder("gateway.coalesce.unshared", unshared, LongAdder::sum)
+                .tag("route", routeId)
+                .description("Leader responses that were too large, streamed, failed or set cookies")
+                .register(registry);
+        Gauge.builder("gateway.coalesce.collapse.ratio", this, SingleFlightGroup::collapseRatio)
+                .tag("route", routeId)
+                .description("Fraction of coalescable requests served from another request's upstream exchange")
+                .register(registry);
+        Gauge.builder("gateway.coalesce.in.flight", flights, Map::size)
+                .tag("route", routeId)
+                .description("Upstream exchanges currently being shared")
+                .register(registry);
+    }
+
+    /**
+     * One upstream exchange and its waiters
+     */
+    public final class Flight {
+
+        private final String key;
+
+        private final boolean leader;
+
+        private final Sinks.One<SharedResponse> result;
+
+        private final AtomicBoolean done;
+
+        private Flight(String key) {
+            this.key = key;
+            this.leader = true;
+            this.result = Sinks.one();
+            this.done = new AtomicBoolean();
+        }
+
+        private Flight(Flight leader) {
+            this.key = leader.key;
+            this.leader = false;
+            this.result = leader.result;
+            this.done = leader.done;
+        }
+
+        private Flight follower() {
+            return new Flight(this);
+        }
+
+        public boolean isLeader() {
+            return leader;
+        }
+
+        public boolean isDone() {
+            return done.get();
+        }
+
+        /**
+         * Emits the shared response, or {@link SharedResponse#NONE} if the leader could not share it
+         */
+        public Mono<SharedResponse> result() {
+            return result.asMono();
+        }
+
+        /**
+         * Hand the leader's response to the waiters; later arrivals start a new flight
+         */
+        public void complete(SharedResponse response) {
+            if (done.compareAndSet(false, true)) {
+                flights.remove(key, this);
+                result.tryEmitValue(response);
+            }
+        }
+
+        /**
+         * Release the waiters without a response; no-op once completed
+         */
+        public void abandon() {
+            if (done.compareAndSet(false, true)) {
+                unshared.increment();
+                flights.remove(key, this);
+                result.tryEmitValue(SharedResponse.NONE);
+            }
+        }
+    }
+}
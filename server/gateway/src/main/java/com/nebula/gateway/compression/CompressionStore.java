@@ -0,0 +1,130 @@
+package com.nebula.gateway.compression;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compression Store
+ * Precompressed bodies of one route, keyed by strong ETag and encoding, plus the
+ * route's compression meters. Like ResponseCacheStore it outlives route refreshes.
+ */
+public class CompressionStore {
+
+    private static final Duration IDLE_EXPIRY = Duration.ofMinutes(10);
+
+    private final String routeId;
+
+    private final LongAdder bytesIn = new LongAdder();
+
+    private final LongAdder bytesOut = new LongAdder();
+
+    private final LongAdder compressed = new LongAdder();
+
+    private final LongAdder precompressed = new LongAdder();
+
+    private final LongAdder skippedSmall = new LongAdder();
+
+    private final LongAdder skippedCpu = new LongAdder();
+
+    private final LongAdder incompressible = new LongAdder();
+
+    private final Map<Encoding, Timer> timers = new EnumMap<>(Encoding.class);
+
+    private volatile Cache<String, byte[]> cache;
+
+    private volatile long maxWeight = -1;
+
+    public CompressionStore(String routeId, long maxWeight) {
+        this.routeId = routeId;
+        configure(maxWeight);
+    }
+
+    public synchronized void configure(long maxWeight) {
+        if (maxWeight == this.maxWeight) {
+            return;
+        }
+        this.maxWeight = maxWeight;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String key, byte[] value) -> key.length() + value.length + 64)
+                .expireAfterAccess(IDLE_EXPIRY)
+                .build();
+    }
+
+    public byte[] getPrecompressed(String etag, Encoding encoding) {
+        return cache.getIfPresent(key(etag, encoding));
+    }
+
+    public void putPrecompressed(String etag, Encoding encoding, byte[] body) {
+        cache.put(key(etag, encoding), body);
+    }
+
+    public void recordCompressed(Encoding encoding, int inputBytes, int outputBytes, long nanos) {
+        compressed.increment();
+        bytesIn.add(inputBytes);
+        bytesOut.add(outputBytes);
+        timers.get(encoding).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPrecompressed(int inputBytes, int outputBytes) {
+        precompressed.increment();
+        bytesIn.add(inputBytes);
+        bytesOut.add(outputBytes);
+    }
+
+    public void recordSkippedSmall() {
+        skippedSmall.increment();
+    }
+
+    public void recordSkippedCpu() {
+        skippedCpu.increment();
+    }
+
+    public void recordIncompressible() {
+        incompressible.increment();
+    }
+
+    private static String key(String etag, Encoding encoding) {
+        return encoding.token() + etag;
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        for (Encoding encoding : Encoding.values()) {
+            timers.put(encoding, Timer.builder("gateway.compression.time")
+                    .tags("route", routeId, "encoding", encoding.token())
+                    .description("Time spent compressing response bodies")
+                    .register(registry));
+        }
+        FunctionCounter.builder("gateway.compression.bytes.in", bytesIn, LongAdder::sum)
+                .tag("route", routeId)
+                .baseUnit("bytes")
+                .description("Uncompressed size of compressed responses")
+                .register(registry);
+        FunctionCounter.builder("gateway.compression.bytes.saved", this, store -> store.bytesIn.sum() - store.bytesOut.sum())
+                .tag("route", routeId)
+                .baseUnit("bytes")
+                .description("Bytes not sent thanks to compression")
+                .register(registry);
+        counter(registry, compressed, "compressed");
+        counter(registry, precompressed, "precompressed");
+        counter(registry, skippedSmall, "skipped.small");
+        counter(registry, skippedCpu, "skipped.cpu");
+        counter(registry, incompressible, "incompressible");
+    }
+
+    private void counter(MeterRegistry registry, LongAdder adder, String result) {
+        FunctionCounter.builder("gateway.compression.responses", adder, LongAdder::sum)
+                .tags("route", routeId, "result", result)
+                .description("Compression-eligible responses by outcome")
+                .register(registry);
+    }
+}
@@ -0,0 +1,70 @@
+package com.nebula.gateway.compression;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU Load Monitor
+ * Smoothed process CPU load, sampled in the background so the hot path only reads a volatile.
+ * The gateway's CPU is spent on its event loops, so this is the signal for shedding
+ * optional work such as compression.
+ */
+@Slf4j
+@Component
+public class CpuLoadMonitor implements SmartLifecycle {
+
+    private static final long SAMPLE_INTERVAL_MILLIS = 500;
+
+    /**
+     * Weight of the newest sample; ~2s to follow a step change
+     */
+    private static final double ALPHA = 0.3;
+
+    private volatile double load;
+
+    private ScheduledExecutorService sampler;
+
+    /**
+     * Recent process CPU load in [0, 1]; 0 when the platform does not report it
+     */
+    public double getLoad() {
+        return load;
+    }
+
+    @Override
+    public void start() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (!(os instanceof com.sun.management.OperatingSystemMXBean sunOs)) {
+            log.warn("Process CPU load not available; CPU-aware policies are disabled");
+            return;
+        }
+        sampler = Executors.newSingleThreadScheduledExecutor(
+                runnable -> Thread.ofPlatform().name("cpu-load-monitor").daemon(true).unstarted(runnable));
+        sampler.scheduleAtFixedRate(() -> {
+            double sample = sunOs.getProcessCpuLoad();
+            if (sample >= 0) {
+                load = load + ALPHA * (sample - load);
+            }
+        }, SAMPLE_INTERVAL_MILLIS, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+            sampler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return sampler != null;
+    }
+}
@@ -0,0 +1,120 @@
+package com.nebula.gateway.compression;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.github.luben.zstd.Zstd;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding
+ * Supported Content-Encoding values. Brotli and zstd are native libraries and report
+ * themselves unavailable if they cannot be loaded on this platform.
+ */
+@Slf4j
+public enum Encoding {
+
+    GZIP("gzip") {
+        @Override
+        public byte[] compress(byte[] input, int level) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 4 + 64);
+            try (GZIPOutputStream gzip = new LeveledGzipOutputStream(out, level)) {
+                gzip.write(input);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+    },
+
+    BROTLI("br") {
+        @Override
+        public byte[] compress(byte[] input, int level) {
+            try {
+                return Encoder.compress(input, new Encoder.Parameters().setQuality(level));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return Natives.BROTLI;
+        }
+    },
+
+    ZSTD("zstd") {
+        @Override
+        public byte[] compress(byte[] input, int level) {
+            return Zstd.compress(input, level);
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return Natives.ZSTD;
+        }
+    };
+
+    private final String token;
+
+    Encoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Content-Encoding / Accept-Encoding token
+     */
+    public String token() {
+        return token;
+    }
+
+    public abstract byte[] compress(byte[] input, int level);
+
+    public abstract boolean isAvailable();
+
+    public static Encoding fromToken(String token) {
+        for (Encoding encoding : values()) {
+            if (encoding.token.equalsIgnoreCase(token)) {
+                return encoding;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported encoding: " + token);
+    }
+
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        private LeveledGzipOutputStream(ByteArrayOutputStream out, int level) throws IOException {
+            super(out, 8192);
+            def.setLevel(level);
+        }
+    }
+
+    /**
+     * Loaded once, on first use of a native encoding
+     */
+    private static final class Natives {
+
+        static final boolean BROTLI = load("brotli", Brotli4jLoader::ensureAvailability);
+
+        static final boolean ZSTD = load("zstd", Zstd::defaultCompressionLevel);
+
+        private static boolean load(String name, Runnable probe) {
+            try {
+                probe.run();
+                return true;
+            } catch (Throwable e) {
+                log.warn("{} compression unavailable on this platform: {}", name, e.toString());
+                return false;
+            }
+        }
+    }
+}
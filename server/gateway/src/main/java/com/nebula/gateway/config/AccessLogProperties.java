@@ -0,0 +1,55 @@
+package com.nebula.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Access Log Properties
+ * Tunes the asynchronous access log pipeline behind LoggingFilter
+ */
+@Data
+@ConfigurationProperties(prefix = "nebula.gateway.access-log")
+public class AccessLogProperties {
+
+    /**
+     * Whether access records are captured at all
+     */
+    private boolean enabled = true;
+
+    /**
+     * Target file for access records, one JSON object per line
+     */
+    private String file = "logs/gateway-access.log";
+
+    /**
+     * Ring buffer capacity, rounded up to a power of two
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * Maximum number of records written per flush
+     */
+    private int batchSize = 512;
+
+    /**
+     * How long the writer parks when the ring buffer is empty
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * Fraction of successful, fast requests that are recorded (0.0 - 1.0)
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * Always record 5xx responses regardless of sample rate
+     */
+    private boolean alwaysLogErrors = true;
+
+    /**
+     * Always record requests slower than this regardless of sample rate
+     */
+    private Duration slowThreshold = Duration.ofSeconds(1);
+}
@@ -1,7 +1,14 @@
 package com.nebula.gateway.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nebula.common.jwt.JwtCodec;
+import com.nebula.gateway.introspection.TokenIntrospector;
+import com.nebula.gateway.revocation.RevocationList;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -13,14 +20,45 @@ import org.springframework.web.reactive.function.client.WebClient;
 @Slf4j
 @Configuration
 @RequiredArgsConstructor
+@EnableConfigurationProperties({AccessLogProperties.class, JwtProperties.class, IntrospectionProperties.class,
+        RevocationProperties.class})
 public class GatewayConfig {
 
     /**
      * WebClient builder for downstream service calls
-     * Future: Use for custom filters or load balancing
+     * Used by the load balancer's active health checks, token introspection and revocation polling
      */
     @Bean
     public WebClient.Builder webClientBuilder() {
         return WebClient.builder();
     }
+
+    /**
+     * Codec used by JwtAuthenticationFilter to verify access tokens
+     */
+    @Bean
+    public JwtCodec jwtCodec(JwtProperties properties, ObjectMapper objectMapper) {
+        return new JwtCodec(properties.getKeys(), properties.getActiveKeyId(), objectMapper);
+    }
+
+    /**
+     * Introspects opaque bearer tokens for JwtAuthenticationFilter; the service id in the
+     * introspection URI is resolved by the load balancer
+     */
+    @Bean
+    public TokenIntrospector tokenIntrospector(IntrospectionProperties properties, WebClient.Builder webClientBuilder,
+                                               LoadBalancedExchangeFilterFunction loadBalancer,
+                                               MeterRegistry meterRegistry) {
+        return new TokenIntrospector(properties, webClientBuilder, loadBalancer, meterRegistry);
+    }
+
+    /**
+     * Revocations polled from auth-service for JwtAuthenticationFilter's local checks
+     */
+    @Bean
+    public RevocationList revocationList(RevocationProperties properties, WebClient.Builder webClientBuilder,
+                                         LoadBalancedExchangeFilterFunction loadBalancer,
+                                         MeterRegistry meterRegistry) {
+        return new RevocationList(properties, webClientBuilder, loadBalancer, meterRegistry);
+    }
 }
@@ -0,0 +1,51 @@
+package com.nebula.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Introspection Properties
+ * Validation of opaque (non-JWT) bearer tokens against the auth service
+ */
+@Data
+@ConfigurationProperties(prefix = "nebula.gateway.introspection")
+public class IntrospectionProperties {
+
+    /**
+     * Whether bearer tokens that are not JWTs are introspected; otherwise they are rejected
+     */
+    private boolean enabled = false;
+
+    /**
+     * Introspection endpoint; the host is a load-balanced service id
+     */
+    private String uri = "http://auth-service/api/auth/introspect";
+
+    /**
+     * Timeout of one introspection call
+     */
+    private Duration timeout = Duration.ofSeconds(2);
+
+    /**
+     * How long an active token is trusted without asking again (never past its expiry).
+     * This bounds how late the gateway notices a revocation.
+     */
+    private Duration positiveTtl = Duration.ofSeconds(30);
+
+    /**
+     * How long an unknown, expired or revoked token is remembered as invalid
+     */
+    private Duration negativeTtl = Duration.ofSeconds(5);
+
+    /**
+     * Maximum number of introspection results kept in memory
+     */
+    private long cacheMaximumSize = 100_000;
+
+    /**
+     * Longer tokens are rejected without introspection
+     */
+    private int maxTokenLength = 512;
+}
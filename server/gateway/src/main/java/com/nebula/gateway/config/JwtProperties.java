@@ -0,0 +1,64 @@
+package com.nebula.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JWT Properties
+ * Local validation of access tokens issued by the auth service
+ */
+@Data
+@ConfigurationProperties(prefix = "nebula.gateway.jwt")
+public class JwtProperties {
+
+    /**
+     * Whether the gateway validates bearer tokens itself
+     */
+    private boolean enabled = true;
+
+    /**
+     * Expected issuer claim; empty to skip the check
+     */
+    private String issuer = "nebula-auth";
+
+    /**
+     * Key id → HS256 secret; must match the auth service configuration
+     */
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+    /**
+     * Key id the codec treats as default when a token carries no kid
+     */
+    private String activeKeyId = "default";
+
+    /**
+     * Tolerated clock skew between auth service and gateway
+     */
+    private Duration clockSkew = Duration.ofSeconds(30);
+
+    /**
+     * Paths that require a valid token
+     */
+    private List<String> protectedPaths = new ArrayList<>(List.of("/api/**"));
+
+    /**
+     * Paths reachable without a token, checked before protectedPaths
+     */
+    private List<String> publicPaths = new ArrayList<>(List.of("/api/auth/login", "/api/auth/refresh"));
+
+    /**
+     * Maximum number of verified tokens kept in memory
+     */
+    private long cacheMaximumSize = 100_000;
+
+    /**
+     * Upper bound on how long a verified token stays cached (expiry is still checked on every hit)
+     */
+    private Duration cacheTtl = Duration.ofMinutes(5);
+}
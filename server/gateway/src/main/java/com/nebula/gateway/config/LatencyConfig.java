@@ -0,0 +1,27 @@
+package com.nebula.gateway.config;
+
+import com.nebula.gateway.latency.LatencyEndpoint;
+import com.nebula.gateway.latency.LatencyRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Latency Configuration
+ * Per-route latency histograms, their Micrometer gauges and the latency actuator endpoint
+ */
+@Configuration
+@EnableConfigurationProperties(LatencyProperties.class)
+public class LatencyConfig {
+
+    @Bean
+    public LatencyRegistry latencyRegistry(LatencyProperties properties, MeterRegistry meterRegistry) {
+        return new LatencyRegistry(properties, meterRegistry);
+    }
+
+    @Bean
+    public LatencyEndpoint latencyEndpoint(LatencyRegistry latencyRegistry) {
+        return new LatencyEndpoint(latencyRegistry);
+    }
+}
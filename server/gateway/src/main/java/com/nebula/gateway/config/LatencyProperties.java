@@ -0,0 +1,89 @@
+package com.nebula.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latency Properties
+ * Per-route latency histograms and SLO burn rates (see LatencyRegistry)
+ */
+@Data
+@ConfigurationProperties(prefix = "nebula.gateway.latency")
+public class LatencyProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Sliding window the percentiles are computed over
+     */
+    private Duration window = Duration.ofMinutes(1);
+
+    /**
+     * Histograms rotate once per slice; the window moves in steps of this size
+     */
+    private Duration slice = Duration.ofSeconds(10);
+
+    /**
+     * Largest latency kept exactly; longer requests are recorded as this value
+     */
+    private Duration highestTrackable = Duration.ofMinutes(1);
+
+    /**
+     * Histogram precision in significant decimal digits (1-5); memory grows tenfold per digit
+     */
+    private int significantDigits = 2;
+
+    /**
+     * Windows a burn rate is reported for, e.g. a short and a long one for multi-window alerts
+     */
+    private List<Duration> burnRateWindows = new ArrayList<>(List.of(Duration.ofMinutes(5), Duration.ofHours(1)));
+
+    private Slo slo = Slo.defaults();
+
+    /**
+     * Route id → SLO overrides
+     */
+    private Map<String, Slo> routes = new LinkedHashMap<>();
+
+    /**
+     * Effective SLO for a route
+     */
+    public Slo resolve(String routeId) {
+        Slo route = routes.get(routeId);
+        return route == null ? slo : slo.merge(route);
+    }
+
+    /**
+     * A request is good if it did not fail with 5xx and finished within the latency threshold
+     */
+    @Data
+    public static class Slo {
+
+        /**
+         * Target share of good requests, e.g. 0.999
+         */
+        private Double objective;
+
+        private Duration latencyThreshold;
+
+        static Slo defaults() {
+            Slo slo = new Slo();
+            slo.objective = 0.999;
+            slo.latencyThreshold = Duration.ofMillis(500);
+            return slo;
+        }
+
+        Slo merge(Slo override) {
+            Slo slo = new Slo();
+            slo.objective = override.objective != null ? override.objective : objective;
+            slo.latencyThreshold = override.latencyThreshold != null ? override.latencyThreshold : latencyThreshold;
+            return slo;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.nebula.gateway.config;
+
+import com.nebula.gateway.loadbalancer.LoadBalancerClientConfig;
+import com.nebula.gateway.loadbalancer.UpstreamRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Load Balancer Configuration
+ * Client-side load balancing for lb:// routes over static or file-based instance lists
+ */
+@Configuration
+@EnableConfigurationProperties(LoadBalancerProperties.class)
+@LoadBalancerClients(defaultConfiguration = LoadBalancerClientConfig.class)
+public class LoadBalancerConfig {
+
+    @Bean
+    public UpstreamRegistry upstreamRegistry(LoadBalancerProperties properties, WebClient.Builder webClientBuilder,
+                                             MeterRegistry meterRegistry) {
+        return new UpstreamRegistry(properties, webClientBuilder, meterRegistry);
+    }
+}
@@ -0,0 +1,93 @@
+package com.nebula.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load Balancer Properties
+ * Upstream instance lists, active health checks and passive outlier ejection
+ * for lb:// routes
+ */
+@Data
+@ConfigurationProperties(prefix = "nebula.gateway.load-balancer")
+public class LoadBalancerProperties {
+
+    /**
+     * Service id (as used in lb://service-id) → instance source
+     */
+    private Map<String, Service> services = new LinkedHashMap<>();
+
+    private HealthCheck healthCheck = new HealthCheck();
+
+    private OutlierDetection outlierDetection = new OutlierDetection();
+
+    @Data
+    public static class Service {
+
+        /**
+         * Static instance URIs, e.g. http://auth-1:8080
+         */
+        private List<String> instances = new ArrayList<>();
+
+        /**
+         * Optional file with one instance URI per line ('#' starts a comment); merged with instances
+         */
+        private String file;
+
+        /**
+         * How often the instance file is checked for changes
+         */
+        private Duration fileRefreshInterval = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class HealthCheck {
+
+        private boolean enabled = true;
+
+        private String path = "/actuator/health";
+
+        private Duration interval = Duration.ofSeconds(5);
+
+        private Duration timeout = Duration.ofSeconds(1);
+
+        /**
+         * Consecutive failed probes before an instance is marked down
+         */
+        private int unhealthyThreshold = 2;
+
+        /**
+         * Consecutive successful probes before a down instance is marked up again
+         */
+        private int healthyThreshold = 1;
+    }
+
+    @Data
+    public static class OutlierDetection {
+
+        private boolean enabled = true;
+
+        /**
+         * Consecutive 502/503/504 responses or connection errors before ejection
+         */
+        private int consecutiveFailures = 5;
+
+        /**
+         * Ejection time, multiplied by the number of times the instance has been ejected
+         */
+        private Duration baseEjectionTime = Duration.ofSeconds(10);
+
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+        /**
+         * Never eject more than this share of a service's instances
+         */
+        private int maxEjectionPercent = 50;
+    }
+}
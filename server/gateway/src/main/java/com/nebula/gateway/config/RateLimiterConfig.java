@@ -0,0 +1,47 @@
+package com.nebula.gateway.config;
+
+import com.nebula.gateway.ratelimit.InMemoryRateLimiter;
+import com.nebula.gateway.ratelimit.KeyResolvers;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Rate Limiter Configuration
+ * In-process rate limiter and key resolvers for the RequestRateLimiter filter,
+ * so rate limiting works without Redis
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimiterProperties.class)
+public class RateLimiterConfig {
+
+    @Bean
+    public InMemoryRateLimiter inMemoryRateLimiter(RateLimiterProperties properties,
+                                                   ConfigurationService configurationService,
+                                                   MeterRegistry meterRegistry) {
+        return new InMemoryRateLimiter(properties, configurationService, meterRegistry);
+    }
+
+    /**
+     * Default key resolver: authenticated user, falling back to client IP
+     */
+    @Bean
+    @Primary
+    public KeyResolver userKeyResolver() {
+        return KeyResolvers.user();
+    }
+
+    @Bean
+    public KeyResolver clientIpKeyResolver() {
+        return KeyResolvers.clientIp();
+    }
+
+    @Bean
+    public KeyResolver routeKeyResolver() {
+        return KeyResolvers.route();
+    }
+}
@@ -0,0 +1,46 @@
+package com.nebula.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Rate Limiter Properties
+ * Store-wide settings for the in-memory token bucket rate limiter.
+ * Per-route limits are set on each route's RequestRateLimiter filter.
+ */
+@Data
+@ConfigurationProperties(prefix = "nebula.gateway.rate-limiter")
+public class RateLimiterProperties {
+
+    /**
+     * Number of independent bucket stripes per route
+     */
+    private int stripes = 64;
+
+    /**
+     * Buckets that have been full for this long are evicted
+     */
+    private Duration idleTimeout = Duration.ofMinutes(2);
+
+    /**
+     * How often idle buckets are swept
+     */
+    private Duration evictionInterval = Duration.ofSeconds(30);
+
+    /**
+     * Whether X-RateLimit-* headers are added to responses
+     */
+    private boolean includeHeaders = true;
+
+    /**
+     * Fallback tokens per second for routes without their own limits
+     */
+    private int defaultReplenishRate = 100;
+
+    /**
+     * Fallback burst capacity for routes without their own limits
+     */
+    private int defaultBurstCapacity = 200;
+}
@@ -0,0 +1,33 @@
+package com.nebula.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Revocation Properties
+ * Polling of the auth service's revocation feed, so logouts and user changes reach
+ * locally verified access tokens before they expire
+ */
+@Data
+@ConfigurationProperties(prefix = "nebula.gateway.revocation")
+public class RevocationProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Revocation feed endpoint; the host is a load-balanced service id
+     */
+    private String uri = "http://auth-service/api/auth/revocations";
+
+    /**
+     * How often the feed is polled; this bounds how late the gateway notices a revocation
+     */
+    private Duration pollInterval = Duration.ofSeconds(5);
+
+    /**
+     * Timeout of one poll
+     */
+    private Duration timeout = Duration.ofSeconds(2);
+}
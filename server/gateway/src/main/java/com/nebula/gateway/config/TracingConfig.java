@@ -0,0 +1,54 @@
+package com.nebula.gateway.config;
+
+import com.nebula.common.trace.SpanExporter;
+import com.nebula.common.trace.TraceSampler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Tracing Configuration
+ * Sampler and span file exporter behind TracingFilter
+ */
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfig {
+
+    @Bean
+    public TraceSampler traceSampler(TracingProperties properties) {
+        return new TraceSampler(properties.getSampleRatio(), properties.getSlowThreshold(), properties.isKeepErrors());
+    }
+
+    @Bean(destroyMethod = "close")
+    public SpanExporter spanExporter(TracingProperties properties,
+                                     @Value("${spring.application.name}") String serviceName) {
+        SpanExporter exporter = new SpanExporter(serviceName, Path.of(properties.getFile()),
+                properties.getBufferSize(), properties.getMaxFileSize().toBytes(), properties.getMaxHistory(),
+                properties.getFlushInterval());
+        if (properties.isEnabled()) {
+            exporter.start();
+        }
+        return exporter;
+    }
+
+    @Bean
+    public MeterBinder spanExporterMetrics(SpanExporter exporter) {
+        return registry -> {
+            FunctionCounter.builder("tracing.spans.exported", exporter, SpanExporter::writtenCount)
+                    .description("Spans written to the span file")
+                    .register(registry);
+            FunctionCounter.builder("tracing.spans.dropped", exporter, SpanExporter::droppedCount)
+                    .description("Kept spans lost because the buffer was full or the file could not be written")
+                    .register(registry);
+            Gauge.builder("tracing.spans.pending", exporter, SpanExporter::pendingCount)
+                    .description("Spans waiting for the writer")
+                    .register(registry);
+        };
+    }
+}
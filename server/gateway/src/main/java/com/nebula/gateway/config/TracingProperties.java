@@ -0,0 +1,55 @@
+package com.nebula.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Tracing Properties
+ * W3C trace context, head/tail sampling and the local span file
+ */
+@Data
+@ConfigurationProperties(prefix = "nebula.gateway.tracing")
+public class TracingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Share of new traces recorded in full (head sampling); callers' decisions are honoured
+     */
+    private double sampleRatio = 0.01;
+
+    /**
+     * Requests at least this slow are always recorded (tail sampling)
+     */
+    private Duration slowThreshold = Duration.ofSeconds(1);
+
+    /**
+     * Whether failed requests (5xx or an exception) are always recorded
+     */
+    private boolean keepErrors = true;
+
+    /**
+     * Span file, one JSON object per line
+     */
+    private String file = "logs/gateway-spans.log";
+
+    /**
+     * Spans waiting for the writer; more are dropped
+     */
+    private int bufferSize = 4096;
+
+    private Duration flushInterval = Duration.ofMillis(500);
+
+    /**
+     * Size at which the span file is rolled over
+     */
+    private DataSize maxFileSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Rolled-over span files to keep
+     */
+    private int maxHistory = 5;
+}
@@ -0,0 +1,33 @@
+package com.nebula.gateway.config;
+
+import com.nebula.gateway.filter.UpstreamRoutingFilter;
+import com.nebula.gateway.latency.LatencyRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ * Upstream Pool Configuration
+ * Per-route upstream connection pools; the built-in routing filter is switched off
+ * with spring.cloud.gateway.global-filter.netty-routing.enabled=false
+ */
+@Configuration
+@EnableConfigurationProperties(UpstreamPoolProperties.class)
+public class UpstreamPoolConfig {
+
+    @Bean
+    public UpstreamRoutingFilter upstreamRoutingFilter(HttpClient httpClient,
+                                                       ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                                       HttpClientProperties httpClientProperties,
+                                                       UpstreamPoolProperties poolProperties,
+                                                       LatencyRegistry latencyRegistry) {
+        return new UpstreamRoutingFilter(httpClient, headersFilters, httpClientProperties, poolProperties,
+                latencyRegistry);
+    }
+}
@@ -0,0 +1,101 @@
+package com.nebula.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Upstream Pool Properties
+ * Reactor Netty connection pool and protocol per route; unset route values
+ * fall back to the defaults
+ */
+@Data
+@ConfigurationProperties(prefix = "nebula.gateway.upstream")
+public class UpstreamPoolProperties {
+
+    private Pool defaults = Pool.defaults();
+
+    /**
+     * Route id → pool overrides
+     */
+    private Map<String, Pool> routes = new LinkedHashMap<>();
+
+    /**
+     * Effective pool settings for a route
+     */
+    public Pool resolve(String routeId) {
+        Pool route = routes.get(routeId);
+        return route == null ? defaults : defaults.merge(route);
+    }
+
+    public enum Protocol {
+        /**
+         * HTTP/1.1, one request per connection at a time
+         */
+        HTTP11,
+        /**
+         * Cleartext HTTP/2 with prior knowledge; many streams per connection
+         */
+        H2C
+    }
+
+    @Data
+    public static class Pool {
+
+        private Protocol protocol;
+
+        /**
+         * Connections per upstream address (for H2C, each carries many streams)
+         */
+        private Integer maxConnections;
+
+        /**
+         * Requests allowed to wait for a connection before failing fast
+         */
+        private Integer pendingAcquireMaxCount;
+
+        private Duration pendingAcquireTimeout;
+
+        private Duration maxIdleTime;
+
+        private Duration maxLifeTime;
+
+        /**
+         * Background eviction of idle/expired connections; zero disables it
+         */
+        private Duration evictionInterval;
+
+        private Duration connectTimeout;
+
+        static Pool defaults() {
+            Pool pool = new Pool();
+            pool.protocol = Protocol.HTTP11;
+            pool.maxConnections = 500;
+            pool.pendingAcquireMaxCount = 1000;
+            pool.pendingAcquireTimeout = Duration.ofSeconds(5);
+            pool.maxIdleTime = Duration.ofSeconds(30);
+            pool.maxLifeTime = Duration.ofMinutes(5);
+            pool.evictionInterval = Duration.ofSeconds(10);
+            pool.connectTimeout = Duration.ofSeconds(2);
+            return pool;
+        }
+
+        Pool merge(Pool override) {
+            Pool pool = new Pool();
+            pool.protocol = override.protocol != null ? override.protocol : protocol;
+            pool.maxConnections = override.maxConnections != null ? override.maxConnections : maxConnections;
+            pool.pendingAcquireMaxCount = override.pendingAcquireMaxCount != null
+                    ? override.pendingAcquireMaxCount : pendingAcquireMaxCount;
+            pool.pendingAcquireTimeout = override.pendingAcquireTimeout != null
+                    ? override.pendingAcquireTimeout : pendingAcquireTimeout;
+            pool.maxIdleTime = override.maxIdleTime != null ? override.maxIdleTime : maxIdleTime;
+            pool.maxLifeTime = override.maxLifeTime != null ? override.maxLifeTime : maxLifeTime;
+            pool.evictionInterval = override.evictionInterval != null ? override.evictionInterval : evictionInterval;
+            pool.connectTimeout = override.connectTimeout != null ? override.connectTimeout : connectTimeout;
+            return pool;
+        }
+    }
+}
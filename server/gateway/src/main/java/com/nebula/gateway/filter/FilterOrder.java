@@ -0,0 +1,44 @@
+package com.nebula.gateway.filter;
+
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+
+/**
+ * Filter Order
+ * Central place for the relative order of Nebula's gateway filters.
+ * Lower values run earlier on the request path and later on the response path.
+ */
+public final class FilterOrder {
+
+    /**
+     * Outermost: starts or continues the trace, so every later filter runs inside it
+     */
+    public static final int TRACING = -400;
+
+    /**
+     * Times the full exchange, including rejections by later filters
+     */
+    public static final int LOGGING = -300;
+
+    /**
+     * Token validation; must run before anything that can answer without the upstream
+     */
+    public static final int AUTHENTICATION = -200;
+
+    /**
+     * Compression wraps every body writer below it, including cache hits
+     */
+    public static final int COMPRESSION = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 3;
+
+    /**
+     * Response cache answers hits before coalescing and the upstream see the request
+     */
+    public static final int RESPONSE_CACHE = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+
+    /**
+     * Filters that decorate the response body must wrap it before NettyWriteResponseFilter writes it
+     */
+    public static final int RESPONSE_BODY = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private FilterOrder() {
+    }
+}
@@ -0,0 +1,264 @@
+package com.nebula.gateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nebula.common.jwt.JwtClaims;
+import com.nebula.common.jwt.JwtCodec;
+import com.nebula.common.jwt.JwtException;
+import com.nebula.common.result.Result;
+import com.nebula.gateway.config.JwtProperties;
+import com.nebula.gateway.introspection.TokenIntrospector;
+import com.nebula.gateway.revocation.RevocationList;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * JWT Authentication Filter
+ * Validates bearer tokens locally so auth-service is not on every request's path,
+ * and forwards the verified identity to upstream services as headers. Opaque (non-JWT)
+ * tokens are checked through the {@link TokenIntrospector} when it is enabled. Revocations
+ * reach locally verified tokens through the polled {@link RevocationList}.
+ * Client-supplied identity headers are always removed.
+ */
+@Slf4j
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_NAME_HEADER = "X-User-Name";
+    public static final String USER_ROLES_HEADER = "X-User-Roles";
+    public static final String TOKEN_ID_HEADER = "X-Token-Id";
+
+    /**
+     * Exchange attribute holding the verified {@link JwtClaims}
+     */
+    public static final String CLAIMS_ATTR = JwtAuthenticationFilter.class.getName() + ".claims";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtProperties properties;
+
+    private final JwtCodec jwtCodec;
+
+    private final ObjectMapper objectMapper;
+
+    private final List<PathPattern> protectedPaths;
+
+    private final List<PathPattern> publicPaths;
+
+    private final long clockSkewSeconds;
+
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    private final TokenIntrospector introspector;
+
+    private final RevocationList revocations;
+
+    public JwtAuthenticationFilter(JwtProperties properties, JwtCodec jwtCodec, TokenIntrospector introspector,
+                                   RevocationList revocations, ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jwtCodec = jwtCodec;
+        this.introspector = introspector;
+        this.revocations = revocations;
+        this.objectMapper = objectMapper;
+        this.protectedPaths = properties.getProtectedPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.publicPaths = properties.getPublicPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.clockSkewSeconds = properties.getClockSkew().toSeconds();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaximumSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "gateway.jwt.verified");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        boolean required = isProtected(request.getPath().pathWithinApplication());
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return required
+                    ? reject(exchange, HttpStatus.UNAUTHORIZED, "Missing bearer token")
+                    : chain.filter(withoutIdentity(exchange));
+        }
+
+        String token = authorization.substring(BEARER_PREFIX.length());
+        if (introspector.accepts(token)) {
+            return introspector.introspect(token)
+                    .materialize()
+                    .flatMap(signal -> {
+                        if (signal.isOnError()) {
+                            return required
+                                    ? reject(exchange, HttpStatus.SERVICE_UNAVAILABLE, "Token introspection unavailable")
+                                    : chain.filter(withoutIdentity(exchange));
+                        }
+                        return authenticate(exchange, chain, required, signal.hasValue() ? verify(signal.get()) : null);
+                    });
+        }
+        return authenticate(exchange, chain, required, verify(token));
+    }
+
+    private Mono<Void> authenticate(ServerWebExchange exchange, GatewayFilterChain chain,
+                                    boolean required, VerifiedToken verified) {
+        if (verified == null) {
+            return required
+                    ? reject(exchange, HttpStatus.UNAUTHORIZED, "Invalid or expired token")
+                    : chain.filter(withoutIdentity(exchange));
+        }
+
+        exchange.getAttributes().put(CLAIMS_ATTR, verified.claims);
+        ServerHttpRequest forwarded = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.set(USER_NAME_HEADER, verified.claims.getSub());
+                    headers.set(USER_ROLES_HEADER, verified.rolesHeader);
+                    if (verified.userIdHeader != null) {
+                        headers.set(USER_ID_HEADER, verified.userIdHeader);
+                    } else {
+                        headers.remove(USER_ID_HEADER);
+                    }
+                    if (verified.claims.getJti() != null) {
+                        headers.set(TOKEN_ID_HEADER, verified.claims.getJti());
+                    } else {
+                        headers.remove(TOKEN_ID_HEADER);
+                    }
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(forwarded).build());
+    }
+
+    /**
+     * Wrap introspected claims; introspection results are cached, so expiry is checked here too
+     */
+    private VerifiedToken verify(JwtClaims claims) {
+        return claims.isExpired(System.currentTimeMillis() / 1000L, clockSkewSeconds) ? null : new VerifiedToken(claims);
+    }
+
+    /**
+     * Return the verified token, or null if it is invalid or expired.
+     * Signature checks and JSON parsing only happen on a cache miss; expiry and revocation are
+     * checked on every call.
+     */
+    private VerifiedToken verify(String token) {
+        VerifiedToken verified = verifiedTokens.getIfPresent(token);
+        if (verified == null) {
+            try {
+                JwtClaims claims = jwtCodec.decode(token);
+                String issuer = properties.getIssuer();
+                if (issuer != null && !issuer.isEmpty() && !issuer.equals(claims.getIss())) {
+                    log.debug("Rejecting token from unexpected issuer {}", claims.getIss());
+                    return null;
+                }
+                verified = new VerifiedToken(claims);
+            } catch (JwtException e) {
+                log.debug("Rejecting token: {}", e.getMessage());
+                return null;
+            }
+            verifiedTokens.put(token, verified);
+        }
+        if (verified.claims.isExpired(System.currentTimeMillis() / 1000L, clockSkewSeconds)) {
+            verifiedTokens.invalidate(token);
+            return null;
+        }
+        if (revocations.isRevoked(verified.claims)) {
+            log.debug("Rejecting revoked token {}", verified.claims.getJti());
+            return null;
+        }
+        return verified;
+    }
+
+    private boolean isProtected(PathContainer path) {
+        for (PathPattern pattern : publicPaths) {
+            if (pattern.matches(path)) {
+                return false;
+            }
+        }
+        for (PathPattern pattern : protectedPaths) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ServerWebExchange withoutIdentity(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        if (!headers.containsKey(USER_NAME_HEADER) && !headers.containsKey(USER_ID_HEADER)
+                && !headers.containsKey(USER_ROLES_HEADER) && !headers.containsKey(TOKEN_ID_HEADER)) {
+            return exchange;
+        }
+        ServerHttpRequest stripped = exchange.getRequest().mutate()
+                .headers(h -> {
+                    h.remove(USER_NAME_HEADER);
+                    h.remove(USER_ID_HEADER);
+                    h.remove(USER_ROLES_HEADER);
+                    h.remove(TOKEN_ID_HEADER);
+                })
+                .build();
+        return exchange.mutate().request(stripped).build();
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(status == HttpStatus.UNAUTHORIZED
+                    ? Result.unauthorized(message)
+                    : Result.error(status.value(), message));
+        } catch (JsonProcessingException e) {
+            return response.setComplete();
+        }
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.AUTHENTICATION;
+    }
+
+    /**
+     * Cached verification result with the forwarded header values precomputed
+     */
+    private static final class VerifiedToken {
+
+        private final JwtClaims claims;
+
+        private final String rolesHeader;
+
+        private final String userIdHeader;
+
+        private VerifiedToken(JwtClaims claims) {
+            this.claims = claims;
+            this.rolesHeader = claims.getRoles() == null ? "" : String.join(",", claims.getRoles());
+            this.userIdHeader = claims.getUid() == null ? null : claims.getUid().toString();
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.nebula.gateway.filter;
 
-import lombok.extern.slf4j.Slf4j;
+import com.nebula.gateway.accesslog.AccessLogWriter;
+import com.nebula.gateway.latency.LatencyRegistry;
+import lombok.RequiredArgsConstructor;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
@@ -11,33 +16,45 @@ import reactor.core.publisher.Mono;
 
 /**
  * Global Logging Filter
- * Logs all incoming requests and outgoing responses
+ * Captures one structured access record per request and hands it to the
+ * asynchronous access log pipeline, so no I/O happens on the event loop.
+ * The same timings feed the per-route latency histograms.
  */
-@Slf4j
 @Component
+@RequiredArgsConstructor
 public class LoggingFilter implements GlobalFilter, Ordered {
 
-    @Override
-    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
+    private final AccessLogWriter accessLogWriter;
 
-        log.info("Incoming Request: {} {} from {}",
-                request.getMethod(),
-                request.getURI().getPath(),
-                request.getRemoteAddress());
+    private final LatencyRegistry latencyRegistry;
 
-        long startTime = System.currentTimeMillis();
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long timestamp = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
 
-        return chain.filter(exchange).then(Mono.fromRunnable(() -> {
-            long duration = System.currentTimeMillis() - startTime;
-            log.info("Request completed in {} ms with status {}",
-                    duration,
-                    exchange.getResponse().getStatusCode());
-        }));
+        return chain.filter(exchange).doFinally(signalType -> {
+            long durationNanos = System.nanoTime() - startNanos;
+            ServerHttpRequest request = exchange.getRequest();
+            HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+            int status = statusCode == null ? 0 : statusCode.value();
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route == null ? null : route.getId();
+            accessLogWriter.record(timestamp,
+                    durationNanos,
+                    status,
+                    request.getMethod().name(),
+                    request.getPath().value(),
+                    routeId,
+                    request.getRemoteAddress());
+            if (latencyRegistry.isEnabled()) {
+                latencyRegistry.record(routeId, status, durationNanos, LatencyRegistry.getUpstreamNanos(exchange));
+            }
+        });
     }
 
     @Override
     public int getOrder() {
-        return -1; // High priority
+        return FilterOrder.LOGGING;
     }
 }
@@ -0,0 +1,71 @@
+package com.nebula.gateway.filter;
+
+import com.nebula.common.trace.SpanData;
+import com.nebula.common.trace.SpanExporter;
+import com.nebula.common.trace.TraceContext;
+import com.nebula.common.trace.TraceSampler;
+import com.nebula.gateway.config.TracingProperties;
+import com.nebula.gateway.tracing.ServerSpan;
+import com.nebula.gateway.tracing.TraceMdcMono;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Tracing Filter
+ * Continues the client's W3C trace or starts a new one (head sampling), and puts the trace
+ * id into the MDC for the gateway's log lines. UpstreamRoutingFilter sends each upstream
+ * attempt its own traceparent. When the exchange ends, the tail sampler decides whether
+ * its spans go to the span file; an unsampled fast request costs a few ids and no I/O.
+ */
+@Component
+@RequiredArgsConstructor
+public class TracingFilter implements GlobalFilter, Ordered {
+
+    private final TracingProperties properties;
+
+    private final TraceSampler sampler;
+
+    private final SpanExporter exporter;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        TraceContext context = sampler.start(TraceContext.parse(request.getHeaders().getFirst(TraceContext.TRACEPARENT)));
+        ServerSpan span = new ServerSpan(context);
+        exchange.getAttributes().put(ServerSpan.ATTR, span);
+
+        Mono<Void> traced = chain.filter(exchange).doFinally(signalType -> {
+            HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+            int status = statusCode == null ? 0 : statusCode.value();
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            span.finish(sampler, exporter, status, outcome(signalType, status),
+                    request.getMethod().name(), request.getPath().value(), route == null ? null : route.getId());
+        });
+        return new TraceMdcMono(traced, context.traceId());
+    }
+
+    static SpanData.Outcome outcome(SignalType signalType, int status) {
+        if (signalType == SignalType.ON_ERROR || status >= 500) {
+            return SpanData.Outcome.ERROR;
+        }
+        return signalType == SignalType.CANCEL ? SpanData.Outcome.CANCELLED : SpanData.Outcome.OK;
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.TRACING;
+    }
+}
@@ -0,0 +1,145 @@
+package com.nebula.gateway.filter;
+
+import com.nebula.common.trace.TraceContext;
+import com.nebula.gateway.config.UpstreamPoolProperties;
+import com.nebula.gateway.latency.LatencyRegistry;
+import com.nebula.gateway.tracing.ServerSpan;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.CONNECT_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+
+/**
+ * Upstream Routing Filter
+ * Replaces the default NettyRoutingFilter so each route gets its own connection
+ * pool (and optionally h2c) from nebula.gateway.upstream. Pool meters are
+ * published as reactor.netty.connection.provider.* tagged with name=upstream-{routeId}.
+ * Time until the upstream response headers arrive is added to the exchange's upstream
+ * latency; cancelled (losing hedge) attempts are not counted. When the exchange is traced,
+ * every attempt gets its own child span and traceparent header.
+ */
+@Slf4j
+public class UpstreamRoutingFilter extends NettyRoutingFilter implements DisposableBean {
+
+    private final UpstreamPoolProperties poolProperties;
+
+    private final HttpClientProperties httpClientProperties;
+
+    private final LatencyRegistry latencyRegistry;
+
+    private final Map<String, RouteClient> clients = new ConcurrentHashMap<>();
+
+    public UpstreamRoutingFilter(HttpClient httpClient, ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                 HttpClientProperties httpClientProperties, UpstreamPoolProperties poolProperties,
+                                 LatencyRegistry latencyRegistry) {
+        super(httpClient, headersFiltersProvider, httpClientProperties);
+        this.poolProperties = poolProperties;
+        this.httpClientProperties = httpClientProperties;
+        this.latencyRegistry = latencyRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerSpan span = exchange.getAttribute(ServerSpan.ATTR);
+        Mono<Void> routed = span == null || !willRoute(exchange)
+                ? super.filter(exchange, chain)
+                : traced(exchange, chain, span);
+        if (!latencyRegistry.isEnabled()) {
+            return routed;
+        }
+        long startNanos = System.nanoTime();
+        return routed.doOnTerminate(() -> LatencyRegistry.addUpstreamNanos(exchange, System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Same guard as NettyRoutingFilter, so no attempt span is opened for a request it would skip
+     */
+    private static boolean willRoute(ServerWebExchange exchange) {
+        URI requestUrl = exchange.getRequiredAttribute(GATEWAY_REQUEST_URL_ATTR);
+        String scheme = requestUrl.getScheme();
+        return !isAlreadyRouted(exchange) && ("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme));
+    }
+
+    /**
+     * Send this attempt's traceparent upstream and record the attempt as a client span
+     */
+    private Mono<Void> traced(ServerWebExchange exchange, GatewayFilterChain chain, ServerSpan span) {
+        ServerSpan.Attempt attempt = span.startAttempt();
+        ServerWebExchange routed = exchange.mutate()
+                .request(request -> request.headers(headers -> headers.set(TraceContext.TRACEPARENT, attempt.traceparent())))
+                .build();
+        return super.filter(routed, chain).doFinally(signalType -> {
+            HttpStatusCode statusCode = routed.getResponse().getStatusCode();
+            int status = statusCode == null ? 0 : statusCode.value();
+            Route route = routed.getAttribute(GATEWAY_ROUTE_ATTR);
+            attempt.finish(status, TracingFilter.outcome(signalType, status), routed.getRequest().getMethod().name(),
+                    routed.getRequest().getPath().value(), route == null ? null : route.getId());
+        });
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        HttpClient client = clients.computeIfAbsent(route.getId(), this::createClient).httpClient();
+        Object connectTimeout = route.getMetadata().get(CONNECT_TIMEOUT_ATTR);
+        if (connectTimeout != null) {
+            client = client.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Integer.parseInt(connectTimeout.toString()));
+        }
+        return client;
+    }
+
+    private RouteClient createClient(String routeId) {
+        UpstreamPoolProperties.Pool pool = poolProperties.resolve(routeId);
+        ConnectionProvider provider = ConnectionProvider.builder("upstream-" + routeId)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictionInterval())
+                .metrics(true)
+                .build();
+
+        HttpProtocol protocol = pool.getProtocol() == UpstreamPoolProperties.Protocol.H2C
+                ? HttpProtocol.H2C : HttpProtocol.HTTP11;
+        HttpClient client = HttpClient.create(provider)
+                .protocol(protocol)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) pool.getConnectTimeout().toMillis())
+                .compress(httpClientProperties.isCompression());
+        if (httpClientProperties.isWiretap()) {
+            client = client.wiretap(true);
+        }
+        log.info("Upstream pool for route {}: protocol={}, maxConnections={}, pendingAcquireMaxCount={}",
+                routeId, protocol, pool.getMaxConnections(), pool.getPendingAcquireMaxCount());
+        return new RouteClient(provider, client);
+    }
+
+    @Override
+    public void destroy() {
+        clients.values().forEach(client -> client.provider().dispose());
+        clients.clear();
+    }
+
+    private record RouteClient(ConnectionProvider provider, HttpClient httpClient) {
+    }
+}
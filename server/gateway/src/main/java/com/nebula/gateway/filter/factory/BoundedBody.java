@@ -0,0 +1,84 @@
+package com.nebula.gateway.filter.factory;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Bounded Body
+ * Holds a response body back until it completes or outgrows a limit, counting bytes as they
+ * stream rather than trusting Content-Length (chunked upstream responses have none). A body
+ * that completes within the limit is joined into one array and replaced by what
+ * {@code complete} makes of it; past the limit, the held chunks and everything after them
+ * stream through untouched, so a response never holds more than the limit plus one chunk.
+ */
+final class BoundedBody {
+
+    private final long maxBytes;
+
+    private final Runnable onExceeded;
+
+    private long bytes;
+
+    private boolean started;
+
+    private boolean exceeded;
+
+    private BoundedBody(long maxBytes, Runnable onExceeded) {
+        this.maxBytes = maxBytes;
+        this.onExceeded = onExceeded;
+    }
+
+    /**
+     * @param onExceeded run once, when the body first goes over {@code maxBytes}
+     * @param complete   the buffers to write instead of a body that fit; called once, also
+     *                   for an empty body; the caller may still change headers and status
+     */
+    static Flux<DataBuffer> hold(Publisher<? extends DataBuffer> body, long maxBytes, Runnable onExceeded,
+                                 Function<byte[], Publisher<DataBuffer>> complete) {
+        BoundedBody bounded = new BoundedBody(maxBytes, onExceeded);
+        return Flux.<DataBuffer>from(body)
+                .bufferUntil(bounded::exceedsWith)
+                .concatMap(buffers -> bounded.exceeded ? Flux.fromIterable(buffers) : complete.apply(join(buffers)))
+                .concatWith(Flux.defer(() -> bounded.started ? Flux.empty() : complete.apply(new byte[0])))
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    /**
+     * @return true once the body is over the limit, which lets everything held so far through
+     */
+    private boolean exceedsWith(DataBuffer buffer) {
+        started = true;
+        if (!exceeded) {
+            bytes += buffer.readableByteCount();
+            if (bytes > maxBytes) {
+                exceeded = true;
+                onExceeded.run();
+            }
+        }
+        return exceeded;
+    }
+
+    /**
+     * Copy the buffers into one array and release them
+     */
+    private static byte[] join(List<DataBuffer> buffers) {
+        int total = 0;
+        for (DataBuffer buffer : buffers) {
+            total += buffer.readableByteCount();
+        }
+        byte[] joined = new byte[total];
+        int offset = 0;
+        for (DataBuffer buffer : buffers) {
+            int length = buffer.readableByteCount();
+            buffer.read(joined, offset, length);
+            offset += length;
+            DataBufferUtils.release(buffer);
+        }
+        return joined;
+    }
+}
@@ -0,0 +1,231 @@
+package com.nebula.gateway.filter.factory;
+
+import com.nebula.gateway.coalesce.SharedResponse;
+import com.nebula.gateway.coalesce.SingleFlightGroup;
+import com.nebula.gateway.filter.FilterOrder;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesce Gateway Filter Factory
+ * Single-flight for identical concurrent GETs: while one request is upstream, others with the
+ * same method, path, query and key headers wait for it and receive a copy of its buffered
+ * response. Conditional headers are always part of the key so a 304 is only shared with
+ * requests that asked for it. Responses marked {@code Cache-Control: no-store} are streamed
+ * through to the leader only.
+ *
+ * <pre>
+ * filters:
+ *   - name: Coalesce
+ *     args:
+ *       key-headers: Authorization,Accept-Language
+ *       max-body-size: 256KB
+ * </pre>
+ */
+@Slf4j
+@Component
+public class CoalesceGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<CoalesceGatewayFilterFactory.Config> {
+
+    public static final String COALESCED_HEADER = "X-Coalesced";
+
+    private static final List<String> CONDITIONAL_HEADERS = List.of(
+            HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE);
+
+    private static final List<String> UNSHARED_HEADERS = List.of(
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION, HttpHeaders.DATE);
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, SingleFlightGroup> groups = new ConcurrentHashMap<>();
+
+    public CoalesceGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() == null ? "unknown" : config.getRouteId();
+        SingleFlightGroup group = groups.computeIfAbsent(routeId, id -> {
+            SingleFlightGroup created = new SingleFlightGroup(id);
+            created.bindTo(meterRegistry);
+            return created;
+        });
+        log.info("Request coalescing enabled for route {}: keyHeaders={}, maxBodySize={}",
+                routeId, config.getKeyHeaders(), config.getMaxBodySize());
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config, group),
+                FilterOrder.RESPONSE_BODY);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain,
+                              Config config, SingleFlightGroup group) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!HttpMethod.GET.equals(request.getMethod()) || request.getHeaders().containsKey(HttpHeaders.RANGE)) {
+            return chain.filter(exchange);
+        }
+
+        SingleFlightGroup.Flight flight = group.join(flightKey(request, config.getKeyHeaders()));
+        if (!flight.isLeader()) {
+            return flight.result().flatMap(shared -> {
+                if (shared == SharedResponse.NONE) {
+                    group.recordFallback();
+                    return chain.filter(exchange);
+                }
+                return writeShared(exchange.getResponse(), shared);
+            });
+        }
+
+        LeaderResponse decorated = new LeaderResponse(exchange.getResponse(), flight,
+                config.getMaxBodySize().toBytes());
+        return chain.filter(exchange.mutate().response(decorated).build())
+                .doFinally(signal -> flight.abandon());
+    }
+
+    private static Mono<Void> writeShared(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.getStatus());
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(shared.getHeaders());
+        headers.set(COALESCED_HEADER, "true");
+        byte[] body = shared.getBody();
+        if (body.length == 0) {
+            return response.setComplete();
+        }
+        headers.setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static String flightKey(ServerHttpRequest request, List<String> keyHeaders) {
+        StringBuilder key = new StringBuilder(128).append(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        HttpHeaders headers = request.getHeaders();
+        appendHeaders(key, headers, keyHeaders);
+        appendHeaders(key, headers, CONDITIONAL_HEADERS);
+        return key.toString();
+    }
+
+    private static void appendHeaders(StringBuilder key, HttpHeaders headers, List<String> names) {
+        for (String name : names) {
+            List<String> values = headers.get(name);
+            if (values != null) {
+                key.append('\n').append(name).append('=');
+                for (String value : values) {
+                    key.append(value).append(',');
+                }
+            }
+        }
+    }
+
+    /**
+     * no-store responses (e.g. streamed exports) pass through unbuffered, like in ResponseCache
+     */
+    private static boolean isNoStore(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        return cacheControl != null && cacheControl.contains("no-store");
+    }
+
+    /**
+     * Buffers the leader's upstream body and publishes it to the flight before writing it
+     */
+    private static final class LeaderResponse extends ServerHttpResponseDecorator {
+
+        private final SingleFlightGroup.Flight flight;
+
+        private final long maxBodyBytes;
+
+        private LeaderResponse(ServerHttpResponse delegate, SingleFlightGroup.Flight flight, long maxBodyBytes) {
+            super(delegate);
+            this.flight = flight;
+            this.maxBodyBytes = maxBodyBytes;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            if (flight.isDone() || headers.containsKey(HttpHeaders.SET_COOKIE)
+                    || headers.getContentLength() > maxBodyBytes || isNoStore(headers)) {
+                flight.abandon();
+                return super.writeWith(body);
+            }
+            // Held back until the body completes or outgrows the limit; past it, chunks stream through
+            // and the flight is abandoned, so waiting requests go upstream themselves
+            return super.writeWith(BoundedBody.hold(body, maxBodyBytes, flight::abandon, this::share));
+        }
+
+        /**
+         * Publish the complete body to the flight and hand the leader its copy
+         */
+        private Publisher<DataBuffer> share(byte[] bytes) {
+            flight.complete(new SharedResponse(getStatusCode(), snapshot(getHeaders()), bytes));
+            return bytes.length == 0 ? Mono.empty() : Mono.just(bufferFactory().wrap(bytes));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            flight.abandon();
+            return super.writeAndFlushWith(body);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            if (!flight.isDone() && !getHeaders().containsKey(HttpHeaders.SET_COOKIE)) {
+                flight.complete(new SharedResponse(getStatusCode(), snapshot(getHeaders()), new byte[0]));
+            }
+            return super.setComplete();
+        }
+
+        private static HttpHeaders snapshot(HttpHeaders headers) {
+            HttpHeaders copy = new HttpHeaders();
+            headers.forEach((name, values) -> {
+                if (UNSHARED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    copy.put(name, new ArrayList<>(values));
+                }
+            });
+            return copy;
+        }
+    }
+
+    /**
+     * Per-route coalescing settings, bound from the route's filter args
+     */
+    @Data
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        /**
+         * Request headers that are part of the flight key, in addition to method, path and query
+         */
+        private List<String> keyHeaders = new ArrayList<>(List.of(HttpHeaders.AUTHORIZATION));
+
+        /**
+         * Larger responses are not shared; waiting requests then go upstream themselves
+         */
+        private DataSize maxBodySize = DataSize.ofKilobytes(256);
+    }
+}
@@ -0,0 +1,343 @@
+package com.nebula.gateway.filter.factory;
+
+import com.nebula.gateway.compression.CompressionStore;
+import com.nebula.gateway.compression.CpuLoadMonitor;
+import com.nebula.gateway.compression.Encoding;
+import com.nebula.gateway.filter.FilterOrder;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compress Gateway Filter Factory
+ * Negotiates br, zstd or gzip from Accept-Encoding and compresses response bodies above
+ * a size threshold. Bodies with a strong ETag (e.g. from ResponseCache) are compressed once
+ * and served from a per-route precompressed store afterwards. Live compression is skipped
+ * while process CPU is above the configured load.
+ *
+ * <pre>
+ * filters:
+ *   - name: Compress
+ *     args:
+ *       min-size: 1KB
+ *       encodings: br,zstd,gzip
+ *       cpu-threshold: 0.85
+ * </pre>
+ */
+@Slf4j
+@Component
+public class CompressGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<CompressGatewayFilterFactory.Config> {
+
+    private final CpuLoadMonitor cpuLoadMonitor;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, CompressionStore> stores = new ConcurrentHashMap<>();
+
+    public CompressGatewayFilterFactory(CpuLoadMonitor cpuLoadMonitor, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.cpuLoadMonitor = cpuLoadMonitor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() == null ? "unknown" : config.getRouteId();
+        long cacheWeight = config.getPrecompressedCacheSize().toBytes();
+        CompressionStore store = stores.compute(routeId, (id, existing) -> {
+            if (existing == null) {
+                CompressionStore created = new CompressionStore(id, cacheWeight);
+                created.bindTo(meterRegistry);
+                return created;
+            }
+            existing.configure(cacheWeight);
+            return existing;
+        });
+        List<Encoding> encodings = config.getEncodings().stream()
+                .map(Encoding::fromToken)
+                .filter(Encoding::isAvailable)
+                .toList();
+        log.info("Compression enabled for route {}: encodings={}, minSize={}", routeId, encodings, config.getMinSize());
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config, encodings, store),
+                FilterOrder.COMPRESSION);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+                              List<Encoding> encodings, CompressionStore store) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (HttpMethod.HEAD.equals(request.getMethod())) {
+            return chain.filter(exchange);
+        }
+        Encoding encoding = negotiate(request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING), encodings);
+        if (encoding == null) {
+            return chain.filter(exchange);
+        }
+
+        // Variant ETags carry an encoding suffix; strip it so validators downstream see the identity ETag
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        ServerWebExchange.Builder mutated = exchange.mutate()
+                .response(new CompressingResponse(exchange.getResponse(), encoding, ifNoneMatch, config, store));
+        if (!ifNoneMatch.isEmpty()) {
+            List<String> identity = ifNoneMatch.stream().map(CompressGatewayFilterFactory::stripVariant).toList();
+            mutated.request(builder -> builder.headers(headers -> headers.setIfNoneMatch(identity)));
+        }
+        return chain.filter(mutated.build());
+    }
+
+    /**
+     * Server preference order among the encodings the client accepts with q > 0
+     */
+    private static Encoding negotiate(List<String> acceptEncoding, List<Encoding> encodings) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        List<String> accepted = new ArrayList<>(4);
+        boolean wildcard = false;
+        for (String header : acceptEncoding) {
+            for (String part : header.split(",")) {
+                String[] tokens = part.trim().split(";");
+                String coding = tokens[0].trim();
+                if (tokens.length > 1 && isZeroQuality(tokens[1])) {
+                    continue;
+                }
+                if ("*".equals(coding)) {
+                    wildcard = true;
+                } else {
+                    accepted.add(coding);
+                }
+            }
+        }
+        for (Encoding encoding : encodings) {
+            if (wildcard || accepted.stream().anyMatch(encoding.token()::equalsIgnoreCase)) {
+                return encoding;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isZeroQuality(String parameter) {
+        String value = parameter.trim();
+        if (!value.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(value.substring(2)) <= 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static String variant(String etag, Encoding encoding) {
+        return etag.substring(0, etag.length() - 1) + '-' + encoding.token() + '"';
+    }
+
+    private static String stripVariant(String etag) {
+        for (Encoding encoding : Encoding.values()) {
+            String suffix = '-' + encoding.token() + '"';
+            if (etag.endsWith(suffix)) {
+                return etag.substring(0, etag.length() - suffix.length()) + '"';
+            }
+        }
+        return etag;
+    }
+
+    /**
+     * Buffers an eligible body, compresses it (or reuses a precompressed copy) and writes the result;
+     * bodies over max-body-size stream through uncompressed as soon as they cross it
+     */
+    private final class CompressingResponse extends ServerHttpResponseDecorator {
+
+        private final Encoding encoding;
+
+        private final List<String> ifNoneMatch;
+
+        private final Config config;
+
+        private final CompressionStore store;
+
+        private CompressingResponse(ServerHttpResponse delegate, Encoding encoding, List<String> ifNoneMatch,
+                                    Config config, CompressionStore store) {
+            super(delegate);
+            this.encoding = encoding;
+            this.ifNoneMatch = ifNoneMatch;
+            this.config = config;
+            this.store = store;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            if (!isEligible(headers)) {
+                return super.writeWith(body);
+            }
+            addVary(headers);
+            long contentLength = headers.getContentLength();
+            long maxBodyBytes = config.getMaxBodySize().toBytes();
+            if (contentLength >= 0 && contentLength < config.getMinSize().toBytes()) {
+                store.recordSkippedSmall();
+                return super.writeWith(body);
+            }
+            if (contentLength > maxBodyBytes) {
+                return super.writeWith(body);
+            }
+            // Held back until the body completes or outgrows the limit; past it, chunks stream through as is
+            return super.writeWith(BoundedBody.hold(body, maxBodyBytes, () -> { }, this::compress));
+        }
+
+        /**
+         * The encoded body (or a precompressed copy) with its headers set; small, incompressible
+         * bodies and bodies met under CPU pressure are written as is
+         */
+        private Publisher<DataBuffer> compress(byte[] bytes) {
+            if (bytes.length < config.getMinSize().toBytes()) {
+                store.recordSkippedSmall();
+                return identity(bytes);
+            }
+            HttpHeaders headers = getHeaders();
+            String etag = headers.getETag();
+            boolean strong = etag != null && !etag.startsWith("W/");
+            byte[] encoded = strong ? store.getPrecompressed(etag, encoding) : null;
+            if (encoded != null) {
+                store.recordPrecompressed(bytes.length, encoded.length);
+            } else if (cpuLoadMonitor.getLoad() >= config.getCpuThreshold()) {
+                store.recordSkippedCpu();
+                return identity(bytes);
+            } else {
+                long start = System.nanoTime();
+                encoded = encoding.compress(bytes, config.levelFor(encoding));
+                store.recordCompressed(encoding, bytes.length, encoded.length, System.nanoTime() - start);
+                if (encoded.length >= bytes.length) {
+                    store.recordIncompressible();
+                    return identity(bytes);
+                }
+                if (strong) {
+                    store.putPrecompressed(etag, encoding, encoded);
+                }
+            }
+            headers.set(HttpHeaders.CONTENT_ENCODING, encoding.token());
+            headers.setContentLength(encoded.length);
+            if (strong) {
+                headers.setETag(variant(etag, encoding));
+            }
+            return Mono.just(bufferFactory().wrap(encoded));
+        }
+
+        private Publisher<DataBuffer> identity(byte[] bytes) {
+            getHeaders().setContentLength(bytes.length);
+            return Mono.just(bufferFactory().wrap(bytes));
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            // A 304 must echo the validator the client holds, which may be an encoded variant
+            HttpHeaders headers = getHeaders();
+            String etag = headers.getETag();
+            if (HttpStatus.NOT_MODIFIED.equals(getStatusCode()) && etag != null
+                    && ifNoneMatch.contains(variant(etag, encoding))) {
+                headers.setETag(variant(etag, encoding));
+                addVary(headers);
+            }
+            return super.setComplete();
+        }
+
+        private boolean isEligible(HttpHeaders headers) {
+            if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                return false;
+            }
+            String cacheControl = headers.getCacheControl();
+            if (cacheControl != null && cacheControl.contains("no-transform")) {
+                return false;
+            }
+            MediaType contentType = headers.getContentType();
+            return contentType != null
+                    && config.getMimeTypes().stream().anyMatch(type -> type.includes(contentType));
+        }
+
+        private void addVary(HttpHeaders headers) {
+            List<String> vary = headers.getVary();
+            if (vary.stream().noneMatch(HttpHeaders.ACCEPT_ENCODING::equalsIgnoreCase)) {
+                List<String> updated = new ArrayList<>(vary);
+                updated.add(HttpHeaders.ACCEPT_ENCODING);
+                headers.setVary(updated);
+            }
+        }
+    }
+
+    /**
+     * Per-route compression settings, bound from the route's filter args
+     */
+    @Data
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        /**
+         * Encodings in server preference order; unavailable native codecs are skipped
+         */
+        private List<String> encodings = new ArrayList<>(List.of("br", "zstd", "gzip"));
+
+        /**
+         * Smaller bodies are sent as is
+         */
+        private DataSize minSize = DataSize.ofKilobytes(1);
+
+        /**
+         * Larger bodies are streamed through uncompressed rather than buffered
+         */
+        private DataSize maxBodySize = DataSize.ofMegabytes(2);
+
+        private List<MediaType> mimeTypes = new ArrayList<>(List.of(
+                MediaType.APPLICATION_JSON, MediaType.parseMediaType("application/*+json"),
+                MediaType.parseMediaType("text/*"), MediaType.APPLICATION_XML,
+                MediaType.parseMediaType("application/javascript")));
+
+        private int gzipLevel = 6;
+
+        private int brotliQuality = 5;
+
+        private int zstdLevel = 3;
+
+        /**
+         * Process CPU load (0-1) at or above which live compression is skipped;
+         * precompressed bodies are still served
+         */
+        private double cpuThreshold = 0.85;
+
+        /**
+         * Total retained size of the route's precompressed bodies
+         */
+        private DataSize precompressedCacheSize = DataSize.ofMegabytes(32);
+
+        int levelFor(Encoding encoding) {
+            return switch (encoding) {
+                case GZIP -> gzipLevel;
+                case BROTLI -> brotliQuality;
+                case ZSTD -> zstdLevel;
+            };
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.nebula.gateway.filter.factory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nebula.common.result.Result;
+import com.nebula.gateway.loadbalancer.UpstreamRegistry;
+import com.nebula.gateway.resilience.HedgeBudget;
+import com.nebula.gateway.resilience.LatencyTracker;
+import com.nebula.gateway.resilience.ResilientRoute;
+import com.nebula.gateway.resilience.SlidingWindowCircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resilience Gateway Filter Factory
+ * Sliding-window circuit breakers per route and per upstream instance, plus
+ * latency-triggered hedging for idempotent requests under a load budget.
+ * Place it before Retry so retries happen inside each attempt.
+ *
+ * <pre>
+ * filters:
+ *   - name: Resilience
+ *     args:
+ *       failure-rate-threshold: 50
+ *       open-duration: 10s
+ *       hedge-percentile: 0.95
+ *       hedge-budget-percent: 5
+ * </pre>
+ */
+@Slf4j
+@Component
+public class ResilienceGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResilienceGatewayFilterFactory.Config> {
+
+    public static final String CIRCUIT_BREAKER_HEADER = "X-Circuit-Breaker";
+
+    private final UpstreamRegistry upstreamRegistry;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, ResilientRoute> routes = new ConcurrentHashMap<>();
+
+    public ResilienceGatewayFilterFactory(UpstreamRegistry upstreamRegistry, MeterRegistry meterRegistry,
+                                          ObjectMapper objectMapper) {
+        super(Config.class);
+        this.upstreamRegistry = upstreamRegistry;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() == null ? "unknown" : config.getRouteId();
+        ResilientRoute route = routes.compute(routeId, (id, existing) -> {
+            ResilientRoute target = existing != null ? existing
+                    : new ResilientRoute(id, upstreamRegistry, meterRegistry, this::reject);
+            target.configure(settings(config));
+            return target;
+        });
+        return route::filter;
+    }
+
+    private static ResilientRoute.Settings settings(Config config) {
+        long openNanos = config.getOpenDuration().toNanos();
+        return new ResilientRoute.Settings(
+                () -> new SlidingWindowCircuitBreaker(config.getWindowSize(), config.getMinimumCalls(),
+                        config.getFailureRateThreshold(), config.getSlowCallRateThreshold(),
+                        openNanos, config.getHalfOpenPermits()),
+                openNanos,
+                config.getSlowCallDuration().toNanos(),
+                config.isHedgingEnabled(),
+                List.copyOf(config.getHedgeMethods()),
+                new LatencyTracker(1024, config.getHedgePercentile()),
+                config.getMinHedgeDelay().toNanos(),
+                config.getMaxHedgeDelay().toNanos(),
+                new HedgeBudget(config.getHedgeBudgetPercent(), config.getHedgeBudgetMinTokens()));
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().set(CIRCUIT_BREAKER_HEADER, "open");
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(Result.error(503, "Upstream temporarily unavailable"));
+        } catch (JsonProcessingException e) {
+            return response.setComplete();
+        }
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    /**
+     * Per-route breaker and hedging settings, bound from the route's filter args
+     */
+    @Data
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        /**
+         * Number of most recent calls the breaker looks at
+         */
+        private int windowSize = 100;
+
+        /**
+         * Calls needed in the window before the breaker can open
+         */
+        private int minimumCalls = 20;
+
+        /**
+         * Percentage of failed calls (errors and 5xx) that opens the breaker
+         */
+        private int failureRateThreshold = 50;
+
+        /**
+         * Percentage of slow calls that opens the breaker
+         */
+        private int slowCallRateThreshold = 80;
+
+        /**
+         * Calls slower than this count as slow
+         */
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+
+        /**
+         * How long an open breaker rejects calls (or keeps an instance ejected)
+         */
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        /**
+         * Trial calls let through while half-open
+         */
+        private int halfOpenPermits = 5;
+
+        private boolean hedgingEnabled = true;
+
+        /**
+         * Methods that may be hedged; must be idempotent and bodiless
+         */
+        private List<String> hedgeMethods = new ArrayList<>(List.of("GET", "HEAD"));
+
+        /**
+         * Latency percentile after which a hedge is sent
+         */
+        private double hedgePercentile = 0.95;
+
+        private Duration minHedgeDelay = Duration.ofMillis(10);
+
+        /**
+         * Upper bound on the hedge delay, also used until enough samples exist
+         */
+        private Duration maxHedgeDelay = Duration.ofMillis(500);
+
+        /**
+         * Hedges allowed as a percentage of requests
+         */
+        private int hedgeBudgetPercent = 5;
+
+        /**
+         * Hedges available after an idle period
+         */
+        private int hedgeBudgetMinTokens = 10;
+    }
+}
@@ -0,0 +1,308 @@
+package com.nebula.gateway.filter.factory;
+
+import com.nebula.gateway.cache.CachedResponse;
+import com.nebula.gateway.cache.ResponseCacheStore;
+import com.nebula.gateway.filter.FilterOrder;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Response Cache Gateway Filter Factory
+ * Caches 200 responses to GET requests per route, keyed by path, query and the configured
+ * vary headers (the principal's Authorization by default). Every response carries a strong
+ * ETag, and a matching If-None-Match is answered with 304 without touching the upstream.
+ *
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       ttl: 30s
+ *       max-size: 16MB
+ *       max-body-size: 512KB
+ *       vary-headers: Authorization
+ *       read-only-paths: /api/user/batch/get
+ * </pre>
+ */
+@Slf4j
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final List<String> UNCACHED_HEADERS = List.of(
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION,
+            HttpHeaders.SET_COOKIE, HttpHeaders.DATE, CACHE_STATUS_HEADER);
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, ResponseCacheStore> stores = new ConcurrentHashMap<>();
+
+    public ResponseCacheGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() == null ? "unknown" : config.getRouteId();
+        Duration ttl = config.getTtl();
+        long maxWeight = config.getMaxSize().toBytes();
+        ResponseCacheStore store = stores.compute(routeId, (id, existing) -> {
+            if (existing == null) {
+                ResponseCacheStore created = new ResponseCacheStore(id, ttl, maxWeight);
+                created.bindTo(meterRegistry);
+                return created;
+            }
+            existing.configure(ttl, maxWeight);
+            return existing;
+        });
+        List<PathPattern> readOnlyPaths = config.getReadOnlyPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        log.info("Response cache enabled for route {}: ttl={}, maxSize={}", routeId, ttl, config.getMaxSize());
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config, readOnlyPaths, store),
+                FilterOrder.RESPONSE_CACHE);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain,
+                              Config config, List<PathPattern> readOnlyPaths, ResponseCacheStore store) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        if (!HttpMethod.GET.equals(method)) {
+            if (config.isInvalidateOnWrite() && !HttpMethod.HEAD.equals(method) && !HttpMethod.OPTIONS.equals(method)
+                    && !matchesAny(readOnlyPaths, request)) {
+                store.invalidateAll();
+                return chain.filter(exchange).doFinally(signal -> store.invalidateAll());
+            }
+            return chain.filter(exchange);
+        }
+
+        String key = cacheKey(request, config.getVaryHeaders());
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        CachedResponse cached = store.get(key);
+        if (cached != null) {
+            return writeCached(exchange.getResponse(), cached, ifNoneMatch, store);
+        }
+
+        CachingResponse decorated = new CachingResponse(exchange.getResponse(), key, ifNoneMatch,
+                store, config);
+        return chain.filter(exchange.mutate().response(decorated).build());
+    }
+
+    private static boolean matchesAny(List<PathPattern> patterns, ServerHttpRequest request) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(request.getPath().pathWithinApplication())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, CachedResponse cached,
+                                   List<String> ifNoneMatch, ResponseCacheStore store) {
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.getHeaders());
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+        if (matches(ifNoneMatch, cached.getEtag())) {
+            store.recordNotModified();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(cached.getBody().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+    }
+
+    private static String cacheKey(ServerHttpRequest request, List<String> varyHeaders) {
+        StringBuilder key = new StringBuilder(128).append(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        HttpHeaders headers = request.getHeaders();
+        for (String name : varyHeaders) {
+            key.append('\n').append(name).append('=');
+            List<String> values = headers.get(name);
+            if (values != null) {
+                for (String value : values) {
+                    key.append(value).append(',');
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || etag.equals(candidate)
+                    || (candidate.startsWith("W/") && etag.equals(candidate.substring(2)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String strongEtag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static boolean isCacheable(HttpHeaders headers) {
+        if (headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null && cacheControl.contains("no-store")) {
+            return false;
+        }
+        return !headers.getVary().contains("*");
+    }
+
+    /**
+     * Buffers a cacheable upstream body, stores it and adds the ETag before writing; bodies
+     * over max-body-size are streamed through uncached as soon as they cross it
+     */
+    private static final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+
+        private final List<String> ifNoneMatch;
+
+        private final ResponseCacheStore store;
+
+        private final Config config;
+
+        private CachingResponse(ServerHttpResponse delegate, String key, List<String> ifNoneMatch,
+                                ResponseCacheStore store, Config config) {
+            super(delegate);
+            this.key = key;
+            this.ifNoneMatch = ifNoneMatch;
+            this.store = store;
+            this.config = config;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            long maxBodyBytes = config.getMaxBodySize().toBytes();
+            if (status == null || status.value() != HttpStatus.OK.value() || !isCacheable(getHeaders())
+                    || getHeaders().getContentLength() > maxBodyBytes) {
+                store.recordUncacheable();
+                return super.writeWith(body);
+            }
+            // Held back until the body completes or outgrows the limit; past it, chunks stream through uncached.
+            // Nothing to write means a 304, which completes like one so outer decorators see setComplete
+            return BoundedBody.hold(body, maxBodyBytes, store::recordUncacheable, this::cache)
+                    .switchOnFirst((first, held) -> first.isOnComplete() ? setComplete() : super.writeWith(held))
+                    .then();
+        }
+
+        /**
+         * Store the complete body and add its ETag; the buffers to write in its place, none for a 304
+         */
+        private Publisher<DataBuffer> cache(byte[] bytes) {
+            String etag = strongEtag(bytes);
+            HttpHeaders headers = getHeaders();
+            headers.setETag(etag);
+            if (headers.getCacheControl() == null) {
+                headers.setCacheControl("private, no-cache");
+            }
+            if (!config.getVaryHeaders().isEmpty()) {
+                headers.setVary(config.getVaryHeaders());
+            }
+
+            HttpHeaders stored = new HttpHeaders();
+            headers.forEach((name, values) -> {
+                if (UNCACHED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    stored.put(name, new ArrayList<>(values));
+                }
+            });
+            store.put(key, new CachedResponse(stored, bytes, etag));
+
+            headers.set(CACHE_STATUS_HEADER, "MISS");
+            if (matches(ifNoneMatch, etag)) {
+                store.recordNotModified();
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                setStatusCode(HttpStatus.NOT_MODIFIED);
+                return Mono.empty();
+            }
+            headers.setContentLength(bytes.length);
+            return Mono.just(bufferFactory().wrap(bytes));
+        }
+    }
+
+    /**
+     * Per-route cache settings, bound from the route's filter args
+     */
+    @Data
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        /**
+         * How long a response may be served from the cache
+         */
+        private Duration ttl = Duration.ofSeconds(30);
+
+        /**
+         * Total retained size of the route's cache
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(16);
+
+        /**
+         * Larger responses are passed through without caching
+         */
+        private DataSize maxBodySize = DataSize.ofKilobytes(512);
+
+        /**
+         * Request headers that are part of the cache key
+         */
+        private List<String> varyHeaders = new ArrayList<>(List.of(HttpHeaders.AUTHORIZATION));
+
+        /**
+         * Clear the route's cache when a non-safe request passes through it
+         */
+        private boolean invalidateOnWrite = true;
+
+        /**
+         * Paths whose non-safe requests only read (e.g. a batch get sent as POST), so they
+         * leave the cache alone
+         */
+        private List<String> readOnlyPaths = new ArrayList<>();
+    }
+}
@@ -0,0 +1,187 @@
+package com.nebula.gateway.introspection;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nebula.common.jwt.JwtClaims;
+import com.nebula.gateway.config.IntrospectionProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token Introspector
+ * Validates opaque bearer tokens by asking the auth service, with a near-cache in front.
+ * Active tokens are cached for the positive TTL but never past their expiry; unknown,
+ * expired or revoked tokens are cached as negatives for the (shorter) negative TTL. The
+ * cache holds futures, so concurrent lookups of a token share one call. Failed calls are
+ * not cached.
+ */
+@Slf4j
+public class TokenIntrospector {
+
+    private static final Introspection INACTIVE = new Introspection(null);
+
+    private final boolean enabled;
+
+    private final int maxTokenLength;
+
+    private final URI uri;
+
+    private final Duration timeout;
+
+    private final WebClient webClient;
+
+    private final AsyncCache<String, Introspection> results;
+
+    private final LongAdder active = new LongAdder();
+
+    private final LongAdder inactive = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    public TokenIntrospector(IntrospectionProperties properties, WebClient.Builder webClientBuilder,
+                             ExchangeFilterFunction loadBalancer, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.maxTokenLength = properties.getMaxTokenLength();
+        this.uri = URI.create(properties.getUri());
+        this.timeout = properties.getTimeout();
+        this.webClient = webClientBuilder.clone().filter(loadBalancer).build();
+        this.results = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaximumSize())
+                .expireAfter(new IntrospectionExpiry(properties.getPositiveTtl().toNanos(),
+                        properties.getNegativeTtl().toNanos()))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, results.synchronous(), "gateway.introspection");
+        bindTo(meterRegistry);
+    }
+
+    /**
+     * Whether a bearer token should be introspected: introspection is on and the token is
+     * not a JWT (those are verified locally)
+     */
+    public boolean accepts(String token) {
+        return enabled && !token.isEmpty() && token.length() <= maxTokenLength && token.indexOf('.') < 0;
+    }
+
+    /**
+     * @return the claims of an active token; empty if the token is not active; an error if
+     * the auth service could not be asked
+     */
+    public Mono<JwtClaims> introspect(String token) {
+        CompletableFuture<Introspection> result = results.get(token, (key, executor) -> fetch(key).toFuture());
+        // A cancelled caller must not cancel the call other callers are waiting on
+        return Mono.fromFuture(result, true).mapNotNull(Introspection::claims);
+    }
+
+    private Mono<Introspection> fetch(String token) {
+        return webClient.post()
+                .uri(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("token", token))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(timeout)
+                .map(body -> toIntrospection(body.path("data")))
+                .doOnNext(introspection -> (introspection.claims() == null ? inactive : active).increment())
+                .doOnError(e -> {
+                    failed.increment();
+                    log.warn("Token introspection failed: {}", e.toString());
+                });
+    }
+
+    private static Introspection toIntrospection(JsonNode data) {
+        if (!data.path("active").asBoolean(false) || !data.path("sub").isTextual()
+                || !data.path("exp").canConvertToLong()) {
+            return INACTIVE;
+        }
+        JwtClaims claims = new JwtClaims();
+        claims.setSub(data.get("sub").asText());
+        claims.setExp(data.get("exp").asLong());
+        if (data.path("uid").canConvertToInt()) {
+            claims.setUid(data.get("uid").asInt());
+        }
+        if (data.path("jti").isTextual()) {
+            claims.setJti(data.get("jti").asText());
+        }
+        JsonNode roles = data.path("roles");
+        if (roles.isArray()) {
+            List<String> codes = new ArrayList<>(roles.size());
+            roles.forEach(role -> codes.add(role.asText()));
+            claims.setRoles(codes);
+        }
+        return new Introspection(claims);
+    }
+
+    private void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.introspection.calls", active, LongAdder::sum)
+                .tag("outcome", "active")
+                .description("Introspection calls to the auth service by outcome")
+                .register(registry);
+        FunctionCounter.builder("gateway.introspection.calls", inactive, LongAdder::sum)
+                .tag("outcome", "inactive")
+                .description("Introspection calls to the auth service by outcome")
+                .register(registry);
+        FunctionCounter.builder("gateway.introspection.calls", failed, LongAdder::sum)
+                .tag("outcome", "error")
+                .description("Introspection calls to the auth service by outcome")
+                .register(registry);
+    }
+
+    /**
+     * Cached answer; claims are null for an inactive token
+     */
+    private record Introspection(JwtClaims claims) {
+    }
+
+    /**
+     * Positive entries live until the positive TTL or the token's expiry, whichever is first
+     */
+    private static final class IntrospectionExpiry implements Expiry<String, Introspection> {
+
+        private final long positiveTtlNanos;
+
+        private final long negativeTtlNanos;
+
+        private IntrospectionExpiry(long positiveTtlNanos, long negativeTtlNanos) {
+            this.positiveTtlNanos = positiveTtlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Introspection value, long currentTime) {
+            JwtClaims claims = value.claims();
+            if (claims == null) {
+                return negativeTtlNanos;
+            }
+            long remainingMillis = claims.getExp() * 1000 - System.currentTimeMillis();
+            return Math.max(0, Math.min(positiveTtlNanos, TimeUnit.MILLISECONDS.toNanos(remainingMillis)));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Introspection value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Introspection value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.nebula.gateway.latency;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latency Endpoint
+ * {@code /actuator/latency}: windowed p50/p90/p99/p999 per route, status class and latency
+ * kind, with each route's SLO and burn rates. {@code /actuator/latency/{routeId}} reports
+ * a single route.
+ */
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+    private final LatencyRegistry registry;
+
+    public LatencyEndpoint(LatencyRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public LatencyReport latency() {
+        Map<String, RouteReport> routes = new TreeMap<>();
+        for (RouteLatency route : registry.getRoutes()) {
+            routes.put(route.getRouteId(), report(route));
+        }
+        return new LatencyReport(LatencyRegistry.format(registry.getWindow()), routes);
+    }
+
+    @ReadOperation
+    public RouteReport route(@Selector String routeId) {
+        RouteLatency route = registry.getRoute(routeId);
+        return route == null ? null : report(route);
+    }
+
+    private static RouteReport report(RouteLatency route) {
+        Map<String, Double> burnRates = new LinkedHashMap<>();
+        for (int i = 0; i < route.getBurnRateWindows().size(); i++) {
+            burnRates.put(LatencyRegistry.format(route.getBurnRateWindows().get(i)), route.burnRate(i));
+        }
+        SloReport slo = new SloReport(route.getObjective(), route.getLatencyThreshold().toMillis(), burnRates);
+
+        Map<String, Map<String, LatencySnapshot>> statuses = new LinkedHashMap<>();
+        for (int statusClass = 0; statusClass < RouteLatency.STATUS_CLASSES.length; statusClass++) {
+            if (route.snapshot(statusClass, LatencyKind.TOTAL) == null) {
+                continue;
+            }
+            Map<String, LatencySnapshot> kinds = new LinkedHashMap<>();
+            for (LatencyKind kind : LatencyKind.values()) {
+                kinds.put(kind.tag(), route.snapshot(statusClass, kind));
+            }
+            statuses.put(RouteLatency.STATUS_CLASSES[statusClass], kinds);
+        }
+        return new RouteReport(slo, statuses);
+    }
+
+    public record LatencyReport(String window, Map<String, RouteReport> routes) {
+    }
+
+    /**
+     * @param statuses status class → latency kind → snapshot (milliseconds)
+     */
+    public record RouteReport(SloReport slo, Map<String, Map<String, LatencySnapshot>> statuses) {
+    }
+
+    /**
+     * @param burnRates burn rate per window; above 1.0 the error budget runs out before the SLO period ends
+     */
+    public record SloReport(double objective, long latencyThresholdMillis, Map<String, Double> burnRates) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.nebula.gateway.latency;
+
+/**
+ * Latency Kind
+ * The three timings recorded for every routed request
+ */
+public enum LatencyKind {
+
+    /**
+     * From the first gateway filter until the response completed
+     */
+    TOTAL("total"),
+
+    /**
+     * Time spent in upstream calls up to their response headers, summed over retries;
+     * hedge attempts that lost are not counted
+     */
+    UPSTREAM("upstream"),
+
+    /**
+     * Total minus upstream: filters, load balancing, connection acquisition and writing the response
+     */
+    OVERHEAD("overhead");
+
+    private final String tag;
+
+    LatencyKind(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
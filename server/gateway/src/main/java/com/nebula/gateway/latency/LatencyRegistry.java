@@ -0,0 +1,185 @@
+package com.nebula.gateway.latency;
+
+import com.nebula.gateway.config.LatencyProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Latency Registry
+ * Per-route, per-status-class latency histograms fed by LoggingFilter. Recording on the
+ * event loop is a map lookup plus wait-free HdrHistogram recorder writes; a background
+ * thread rotates the sliding windows once per slice and precomputes the percentiles and
+ * SLO burn rates, so readers (the latency actuator endpoint and Micrometer gauges) never
+ * touch a live histogram.
+ */
+@Slf4j
+public class LatencyRegistry implements SmartLifecycle {
+
+    /**
+     * Exchange attribute holding the upstream time (Long nanos) UpstreamRoutingFilter adds up;
+     * absent until the first upstream response, so exchanges that never go upstream allocate nothing
+     */
+    public static final String UPSTREAM_NANOS_ATTR = LatencyRegistry.class.getName() + ".upstreamNanos";
+
+    private final LatencyProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, RouteLatency> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Kept in a field so a lookup miss does not allocate a capturing lambda
+     */
+    private final Function<String, RouteLatency> routeFactory;
+
+    private ScheduledExecutorService scheduler;
+
+    public LatencyRegistry(LatencyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.routeFactory = routeId -> new RouteLatency(routeId, properties);
+    }
+
+    /**
+     * Add one upstream attempt's time to the exchange; safe for concurrent (hedged) attempts
+     */
+    public static void addUpstreamNanos(ServerWebExchange exchange, long nanos) {
+        exchange.getAttributes().merge(UPSTREAM_NANOS_ATTR, nanos, (sum, add) -> (Long) sum + (Long) add);
+    }
+
+    public static long getUpstreamNanos(ServerWebExchange exchange) {
+        Long nanos = exchange.getAttribute(UPSTREAM_NANOS_ATTR);
+        return nanos == null ? 0 : nanos;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * @param status        response status, or 0 if none was set
+     * @param upstreamNanos time spent upstream, or zero if the request never went upstream
+     */
+    public void record(String routeId, int status, long totalNanos, long upstreamNanos) {
+        if (routeId == null || !properties.isEnabled()) {
+            return;
+        }
+        RouteLatency route = routes.get(routeId);
+        if (route == null) {
+            route = routes.computeIfAbsent(routeId, routeFactory);
+        }
+        route.record(status, totalNanos, upstreamNanos);
+    }
+
+    public Collection<RouteLatency> getRoutes() {
+        return routes.values();
+    }
+
+    public RouteLatency getRoute(String routeId) {
+        return routes.get(routeId);
+    }
+
+    public Duration getWindow() {
+        return properties.getWindow();
+    }
+
+    void rotate() {
+        for (RouteLatency route : routes.values()) {
+            if (!route.bound) {
+                route.bound = true;
+                bind(route);
+            }
+            route.rotate(statusClass -> bind(route, statusClass));
+        }
+    }
+
+    private void bind(RouteLatency route) {
+        for (int i = 0; i < route.getBurnRateWindows().size(); i++) {
+            int window = i;
+            Gauge.builder("gateway.slo.burn.rate", route, r -> r.burnRate(window))
+                    .tags("route", route.getRouteId(), "window", format(route.getBurnRateWindows().get(i)))
+                    .description("Bad-request share over the window divided by the SLO error budget")
+                    .register(meterRegistry);
+        }
+    }
+
+    private void bind(RouteLatency route, int statusClass) {
+        for (LatencyKind kind : LatencyKind.values()) {
+            Tags tags = Tags.of("route", route.getRouteId(),
+                    "status", RouteLatency.STATUS_CLASSES[statusClass],
+                    "kind", kind.tag());
+            gauge("gateway.latency", tags.and("quantile", "0.5"), route, statusClass, kind, LatencySnapshot::p50);
+            gauge("gateway.latency", tags.and("quantile", "0.9"), route, statusClass, kind, LatencySnapshot::p90);
+            gauge("gateway.latency", tags.and("quantile", "0.99"), route, statusClass, kind, LatencySnapshot::p99);
+            gauge("gateway.latency", tags.and("quantile", "0.999"), route, statusClass, kind, LatencySnapshot::p999);
+            gauge("gateway.latency.max", tags, route, statusClass, kind, LatencySnapshot::max);
+        }
+    }
+
+    private void gauge(String name, Tags tags, RouteLatency route, int statusClass, LatencyKind kind,
+                       ToDoubleFunction<LatencySnapshot> millis) {
+        Gauge.builder(name, route, r -> millis.applyAsDouble(r.snapshot(statusClass, kind)) / 1000.0)
+                .tags(tags)
+                .baseUnit("seconds")
+                .description("Request latency over the sliding window")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Compact form for tags and reports, e.g. 30s, 5m, 1h
+     */
+    static String format(Duration duration) {
+        long seconds = duration.toSeconds();
+        if (seconds % 3600 == 0) {
+            return seconds / 3600 + "h";
+        }
+        if (seconds % 60 == 0) {
+            return seconds / 60 + "m";
+        }
+        return seconds + "s";
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long sliceMillis = properties.getSlice().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                runnable -> Thread.ofPlatform().name("latency-rotation").daemon(true).unstarted(runnable));
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                rotate();
+            } catch (RuntimeException e) {
+                log.error("Latency window rotation failed", e);
+            }
+        }, sliceMillis, sliceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.nebula.gateway.latency;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency Snapshot
+ * Percentiles of one histogram over the sliding window, in milliseconds
+ */
+public record LatencySnapshot(long count, double p50, double p90, double p99, double p999, double max) {
+
+    static final LatencySnapshot EMPTY = new LatencySnapshot(0, 0, 0, 0, 0, 0);
+
+    /**
+     * @param histogram values in microseconds
+     */
+    static LatencySnapshot of(Histogram histogram) {
+        long count = histogram.getTotalCount();
+        if (count == 0) {
+            return EMPTY;
+        }
+        return new LatencySnapshot(count,
+                millis(histogram.getValueAtPercentile(50.0)),
+                millis(histogram.getValueAtPercentile(90.0)),
+                millis(histogram.getValueAtPercentile(99.0)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,214 @@
+package com.nebula.gateway.latency;
+
+import com.nebula.gateway.config.LatencyProperties;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Route Latency
+ * Latency histograms of one route, one set per status class, plus the route's SLO burn
+ * rates. A request is bad if it failed with 5xx or took longer than the SLO threshold;
+ * the burn rate is the bad share over a window divided by the error budget (1 - objective),
+ * so 1.0 spends the budget exactly as fast as the SLO allows.
+ */
+public final class RouteLatency {
+
+    static final String[] STATUS_CLASSES = {"none", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private static final int SERVER_ERROR = 5;
+
+    private final String routeId;
+
+    private final long highestTrackableMicros;
+
+    private final int significantDigits;
+
+    private final int windowSlices;
+
+    private final AtomicReferenceArray<StatusLatency> statuses = new AtomicReferenceArray<>(STATUS_CLASSES.length);
+
+    private final double objective;
+
+    private final Duration latencyThreshold;
+
+    private final long thresholdMicros;
+
+    private final List<Duration> burnRateWindows;
+
+    private final int[] burnRateSlices;
+
+    /**
+     * Request and bad-request counts of the most recent slices, for the burn rates; rotation thread only
+     */
+    private final long[] sliceRequests;
+
+    private final long[] sliceBad;
+
+    private int slicePosition;
+
+    private volatile double[] burnRates;
+
+    /**
+     * Whether the route's meters are registered; rotation thread only
+     */
+    boolean bound;
+
+    RouteLatency(String routeId, LatencyProperties properties) {
+        this.routeId = routeId;
+        long sliceMillis = properties.getSlice().toMillis();
+        this.highestTrackableMicros = TimeUnit.MILLISECONDS.toMicros(properties.getHighestTrackable().toMillis());
+        this.significantDigits = properties.getSignificantDigits();
+        this.windowSlices = slices(properties.getWindow(), sliceMillis);
+
+        LatencyProperties.Slo slo = properties.resolve(routeId);
+        this.objective = slo.getObjective();
+        this.latencyThreshold = slo.getLatencyThreshold();
+        this.thresholdMicros = TimeUnit.MILLISECONDS.toMicros(latencyThreshold.toMillis());
+        this.burnRateWindows = List.copyOf(properties.getBurnRateWindows());
+        this.burnRateSlices = new int[burnRateWindows.size()];
+        int longest = 1;
+        for (int i = 0; i < burnRateSlices.length; i++) {
+            burnRateSlices[i] = slices(burnRateWindows.get(i), sliceMillis);
+            longest = Math.max(longest, burnRateSlices[i]);
+        }
+        this.sliceRequests = new long[longest];
+        this.sliceBad = new long[longest];
+        this.burnRates = new double[burnRateSlices.length];
+    }
+
+    private static int slices(Duration window, long sliceMillis) {
+        return (int) Math.max(1, (window.toMillis() + sliceMillis - 1) / sliceMillis);
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    /**
+     * Record one request; lock-free and allocation-free once the status class has been seen
+     *
+     * @param upstreamNanos time spent upstream, or zero if the request never went upstream
+     */
+    void record(int status, long totalNanos, long upstreamNanos) {
+        int statusClass = status >= 100 && status < 600 ? status / 100 : 0;
+        StatusLatency latency = statuses.get(statusClass);
+        if (latency == null) {
+            latency = new StatusLatency(highestTrackableMicros, significantDigits, windowSlices);
+            if (!statuses.compareAndSet(statusClass, null, latency)) {
+                latency = statuses.get(statusClass);
+            }
+        }
+        long totalMicros = totalNanos / 1000;
+        latency.total.record(totalMicros);
+        if (upstreamNanos > 0) {
+            long upstreamMicros = Math.min(upstreamNanos / 1000, totalMicros);
+            latency.upstream.record(upstreamMicros);
+            latency.overhead.record(totalMicros - upstreamMicros);
+        } else {
+            latency.overhead.record(totalMicros);
+        }
+    }
+
+    /**
+     * Slide every window by one slice and recompute the burn rates; rotation thread only
+     *
+     * @param firstSeen called with each status class seen for the first time
+     */
+    void rotate(IntConsumer firstSeen) {
+        long requests = 0;
+        long bad = 0;
+        for (int i = 0; i < STATUS_CLASSES.length; i++) {
+            StatusLatency latency = statuses.get(i);
+            if (latency == null) {
+                continue;
+            }
+            if (!latency.seen) {
+                latency.seen = true;
+                firstSeen.accept(i);
+            }
+            Histogram total = latency.total.rotate();
+            latency.upstream.rotate();
+            latency.overhead.rotate();
+            long count = total.getTotalCount();
+            requests += count;
+            bad += i == SERVER_ERROR ? count : count - total.getCountBetweenValues(0, thresholdMicros);
+        }
+        sliceRequests[slicePosition] = requests;
+        sliceBad[slicePosition] = bad;
+        slicePosition = (slicePosition + 1) % sliceRequests.length;
+
+        double budget = 1.0 - objective;
+        double[] rates = new double[burnRateSlices.length];
+        for (int w = 0; w < rates.length; w++) {
+            long windowRequests = 0;
+            long windowBad = 0;
+            for (int s = 1; s <= burnRateSlices[w]; s++) {
+                int index = Math.floorMod(slicePosition - s, sliceRequests.length);
+                windowRequests += sliceRequests[index];
+                windowBad += sliceBad[index];
+            }
+            rates[w] = windowRequests == 0 || budget <= 0 ? 0 : ((double) windowBad / windowRequests) / budget;
+        }
+        burnRates = rates;
+    }
+
+    /**
+     * @return the snapshot, or null if no request of this status class was seen
+     */
+    public LatencySnapshot snapshot(int statusClass, LatencyKind kind) {
+        StatusLatency latency = statuses.get(statusClass);
+        return latency == null ? null : latency.get(kind).snapshot();
+    }
+
+    public double getObjective() {
+        return objective;
+    }
+
+    public Duration getLatencyThreshold() {
+        return latencyThreshold;
+    }
+
+    public List<Duration> getBurnRateWindows() {
+        return burnRateWindows;
+    }
+
+    /**
+     * Burn rate per entry of {@link #getBurnRateWindows}, as of the last rotation
+     */
+    public double burnRate(int window) {
+        return burnRates[window];
+    }
+
+    private static final class StatusLatency {
+
+        private final WindowedHistogram total;
+
+        private final WindowedHistogram upstream;
+
+        private final WindowedHistogram overhead;
+
+        /**
+         * Whether a rotation has reported it yet; rotation thread only
+         */
+        private boolean seen;
+
+        private StatusLatency(long highestTrackableMicros, int significantDigits, int windowSlices) {
+            this.total = new WindowedHistogram(highestTrackableMicros, significantDigits, windowSlices);
+            this.upstream = new WindowedHistogram(highestTrackableMicros, significantDigits, windowSlices);
+            this.overhead = new WindowedHistogram(highestTrackableMicros, significantDigits, windowSlices);
+        }
+
+        private WindowedHistogram get(LatencyKind kind) {
+            return switch (kind) {
+                case TOTAL -> total;
+                case UPSTREAM -> upstream;
+                case OVERHEAD -> overhead;
+            };
+        }
+    }
+}
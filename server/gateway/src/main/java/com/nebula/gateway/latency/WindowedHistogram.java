@@ -0,0 +1,65 @@
+package com.nebula.gateway.latency;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Windowed Histogram
+ * A sliding-window latency histogram. Writers record into an HdrHistogram {@link Recorder},
+ * which is wait-free and does not allocate. Once per slice the rotation thread swaps out the
+ * recorder's interval histogram into a ring of slices and recomputes the window snapshot;
+ * the slice that falls out of the window is recycled as the next interval histogram.
+ */
+final class WindowedHistogram {
+
+    private final Recorder recorder;
+
+    private final long highestTrackableMicros;
+
+    private final Histogram[] slices;
+
+    private final Histogram window;
+
+    private int position;
+
+    private volatile LatencySnapshot snapshot = LatencySnapshot.EMPTY;
+
+    WindowedHistogram(long highestTrackableMicros, int significantDigits, int windowSlices) {
+        this.recorder = new Recorder(1, highestTrackableMicros, significantDigits);
+        this.highestTrackableMicros = highestTrackableMicros;
+        this.slices = new Histogram[windowSlices];
+        this.window = new Histogram(1, highestTrackableMicros, significantDigits);
+    }
+
+    /**
+     * Safe to call from any thread
+     */
+    void record(long micros) {
+        recorder.recordValue(Math.min(Math.max(micros, 0), highestTrackableMicros));
+    }
+
+    /**
+     * Close the current slice and slide the window; rotation thread only
+     *
+     * @return the slice just closed, valid until the window wraps around to it again
+     */
+    Histogram rotate() {
+        Histogram expired = slices[position];
+        Histogram closed = expired == null ? recorder.getIntervalHistogram() : recorder.getIntervalHistogram(expired);
+        slices[position] = closed;
+        position = (position + 1) % slices.length;
+
+        window.reset();
+        for (Histogram slice : slices) {
+            if (slice != null) {
+                window.add(slice);
+            }
+        }
+        snapshot = LatencySnapshot.of(window);
+        return closed;
+    }
+
+    LatencySnapshot snapshot() {
+        return snapshot;
+    }
+}
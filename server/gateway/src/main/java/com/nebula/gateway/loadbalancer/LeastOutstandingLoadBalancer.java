@@ -0,0 +1,79 @@
+package com.nebula.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Least Outstanding Load Balancer
+ * Power-of-two-choices over available instances: sample two at random and pick
+ * the one with fewer in-flight requests, breaking ties on latency. If every
+ * instance is down or ejected it falls back to all instances rather than failing.
+ */
+public class LeastOutstandingLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final String serviceId;
+
+    private final UpstreamRegistry registry;
+
+    public LeastOutstandingLoadBalancer(String serviceId, UpstreamRegistry registry) {
+        this.serviceId = serviceId;
+        this.registry = registry;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        UpstreamInstance chosen = choose(registry.getInstances(serviceId), System.nanoTime());
+        return Mono.just(chosen == null ? new EmptyResponse() : new DefaultResponse(chosen.getServiceInstance()));
+    }
+
+    static UpstreamInstance choose(List<UpstreamInstance> instances, long nowNanos) {
+        int size = instances.size();
+        if (size == 0) {
+            return null;
+        }
+        if (size == 1) {
+            return instances.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // A few random draws usually find two available instances without building a filtered list
+        UpstreamInstance first = null;
+        UpstreamInstance second = null;
+        for (int attempt = 0; attempt < 2 * size && second == null; attempt++) {
+            UpstreamInstance candidate = instances.get(random.nextInt(size));
+            if (candidate == first || !candidate.isAvailable(nowNanos)) {
+                continue;
+            }
+            if (first == null) {
+                first = candidate;
+            } else {
+                second = candidate;
+            }
+        }
+        if (first == null) {
+            // Panic mode: nothing is available, spread over everything
+            first = instances.get(random.nextInt(size));
+            second = instances.get(random.nextInt(size));
+        } else if (second == null) {
+            return first;
+        }
+        return better(first, second);
+    }
+
+    private static UpstreamInstance better(UpstreamInstance a, UpstreamInstance b) {
+        int inFlightA = a.getInFlight();
+        int inFlightB = b.getInFlight();
+        if (inFlightA != inFlightB) {
+            return inFlightA < inFlightB ? a : b;
+        }
+        return a.getLatencyEwmaNanos() <= b.getLatencyEwmaNanos() ? a : b;
+    }
+}
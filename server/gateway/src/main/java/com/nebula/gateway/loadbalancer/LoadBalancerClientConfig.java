@@ -0,0 +1,28 @@
+package com.nebula.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load Balancer Client Configuration
+ * Applied to every load balancer child context. Deliberately not a
+ * {@code @Configuration} so component scanning does not pick it up globally.
+ */
+public class LoadBalancerClientConfig {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(Environment environment,
+                                                                                   UpstreamRegistry registry) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LeastOutstandingLoadBalancer(serviceId, registry);
+    }
+
+    @Bean
+    public LoadBalancerLifecycle<Object, Object, ServiceInstance> upstreamStatsLifecycle(UpstreamRegistry registry) {
+        return new UpstreamStatsLifecycle(registry);
+    }
+}
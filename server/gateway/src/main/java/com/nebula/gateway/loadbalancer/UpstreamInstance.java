@@ -0,0 +1,128 @@
+package com.nebula.gateway.loadbalancer;
+
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Upstream Instance
+ * One instance of an upstream service together with the live statistics
+ * the load balancer selects on
+ */
+public class UpstreamInstance {
+
+    /**
+     * Weight of the newest sample in the latency moving average
+     */
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final ServiceInstance serviceInstance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final AtomicInteger ejections = new AtomicInteger();
+
+    private final AtomicLong ejectedUntilNanos = new AtomicLong();
+
+    private volatile long latencyEwmaNanos;
+
+    private volatile boolean healthy = true;
+
+    private int probeStreak;
+
+    public UpstreamInstance(String serviceId, URI uri) {
+        int port = uri.getPort() > 0 ? uri.getPort() : ("https".equals(uri.getScheme()) ? 443 : 80);
+        this.serviceInstance = new DefaultServiceInstance(uri.getHost() + ":" + port, serviceId,
+                uri.getHost(), port, "https".equals(uri.getScheme()));
+    }
+
+    public ServiceInstance getServiceInstance() {
+        return serviceInstance;
+    }
+
+    public String getInstanceId() {
+        return serviceInstance.getInstanceId();
+    }
+
+    public URI getUri() {
+        return serviceInstance.getUri();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getLatencyEwmaNanos() {
+        return latencyEwmaNanos;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public boolean isEjected(long nowNanos) {
+        return ejectedUntilNanos.get() - nowNanos > 0;
+    }
+
+    public boolean isAvailable(long nowNanos) {
+        return healthy && !isEjected(nowNanos);
+    }
+
+    void onStart() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * @return consecutive failures after this completion (0 on success)
+     */
+    int onComplete(long latencyNanos, boolean failed) {
+        inFlight.decrementAndGet();
+        long previous = latencyEwmaNanos;
+        latencyEwmaNanos = previous == 0 ? latencyNanos : (long) (previous + EWMA_ALPHA * (latencyNanos - previous));
+        if (failed) {
+            return consecutiveFailures.incrementAndGet();
+        }
+        consecutiveFailures.set(0);
+        return 0;
+    }
+
+    /**
+     * Eject for {@code base * ejections}, capped at {@code max}
+     */
+    void eject(long nowNanos, long baseNanos, long maxNanos) {
+        int count = ejections.incrementAndGet();
+        ejectedUntilNanos.set(nowNanos + Math.min(maxNanos, baseNanos * count));
+        consecutiveFailures.set(0);
+    }
+
+    int getEjections() {
+        return ejections.get();
+    }
+
+    /**
+     * Apply an active probe result
+     *
+     * @return true if the health state changed
+     */
+    synchronized boolean onProbe(boolean success, int healthyThreshold, int unhealthyThreshold) {
+        if (success == healthy) {
+            probeStreak = 0;
+            return false;
+        }
+        probeStreak++;
+        if (probeStreak >= (success ? healthyThreshold : unhealthyThreshold)) {
+            healthy = success;
+            probeStreak = 0;
+            if (success) {
+                ejections.set(0);
+            }
+            return true;
+        }
+        return false;
+    }
+}
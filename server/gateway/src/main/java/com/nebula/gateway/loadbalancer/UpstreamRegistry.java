@@ -0,0 +1,299 @@
+package com.nebula.gateway.loadbalancer;
+
+import com.nebula.gateway.config.LoadBalancerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upstream Registry
+ * Static or file-based instance lists for lb:// services, kept current by
+ * active health probes and passive outlier ejection. Publishes per-instance
+ * in-flight, availability and latency metrics.
+ */
+@Slf4j
+public class UpstreamRegistry implements SmartLifecycle {
+
+    private final LoadBalancerProperties properties;
+
+    private final WebClient webClient;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, ServiceUpstreams> services = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public UpstreamRegistry(LoadBalancerProperties properties, WebClient.Builder webClientBuilder,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.webClient = webClientBuilder.clone().build();
+        this.meterRegistry = meterRegistry;
+        properties.getServices().forEach((serviceId, service) -> {
+            ServiceUpstreams upstreams = new ServiceUpstreams(serviceId);
+            upstreams.update(loadUris(service));
+            services.put(serviceId, upstreams);
+        });
+    }
+
+    /**
+     * All known instances of a service, healthy or not
+     */
+    public List<UpstreamInstance> getInstances(String serviceId) {
+        ServiceUpstreams upstreams = services.get(serviceId);
+        return upstreams == null ? List.of() : upstreams.instances;
+    }
+
+    void onStart(ServiceInstance serviceInstance) {
+        UpstreamInstance instance = find(serviceInstance);
+        if (instance != null) {
+            instance.onStart();
+        }
+    }
+
+    void onComplete(ServiceInstance serviceInstance, long latencyNanos, boolean failed) {
+        ServiceUpstreams upstreams = services.get(serviceInstance.getServiceId());
+        UpstreamInstance instance = upstreams == null ? null : upstreams.byId.get(serviceInstance.getInstanceId());
+        if (instance == null) {
+            return;
+        }
+        int failures = instance.onComplete(latencyNanos, failed);
+        upstreams.latency(instance).record(latencyNanos, TimeUnit.NANOSECONDS);
+        LoadBalancerProperties.OutlierDetection outlier = properties.getOutlierDetection();
+        if (failed && outlier.isEnabled() && failures >= outlier.getConsecutiveFailures()) {
+            upstreams.tryEject(instance, outlier);
+        }
+    }
+
+    /**
+     * Take an instance out of rotation for a fixed time, e.g. while its circuit breaker is open
+     */
+    public void eject(ServiceInstance serviceInstance, long durationNanos) {
+        UpstreamInstance instance = find(serviceInstance);
+        if (instance != null) {
+            long now = System.nanoTime();
+            instance.eject(now, durationNanos, durationNanos);
+            log.warn("Ejected upstream {} of {} for {} ms", instance.getInstanceId(),
+                    serviceInstance.getServiceId(), TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        }
+    }
+
+    private UpstreamInstance find(ServiceInstance serviceInstance) {
+        ServiceUpstreams upstreams = services.get(serviceInstance.getServiceId());
+        return upstreams == null ? null : upstreams.byId.get(serviceInstance.getInstanceId());
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                runnable -> Thread.ofPlatform().name("upstream-registry").daemon(true).unstarted(runnable));
+        properties.getServices().forEach((serviceId, service) -> {
+            if (service.getFile() != null) {
+                long refreshMillis = service.getFileRefreshInterval().toMillis();
+                scheduler.scheduleWithFixedDelay(() -> refreshFromFile(serviceId, service),
+                        refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+            }
+        });
+        LoadBalancerProperties.HealthCheck healthCheck = properties.getHealthCheck();
+        if (healthCheck.isEnabled()) {
+            long intervalMillis = healthCheck.getInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::probeAll, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        services.values().forEach(upstreams ->
+                log.info("Load balancing {} across {}", upstreams.serviceId,
+                        upstreams.instances.stream().map(UpstreamInstance::getInstanceId).toList()));
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void refreshFromFile(String serviceId, LoadBalancerProperties.Service service) {
+        try {
+            ServiceUpstreams upstreams = services.get(serviceId);
+            Path file = Path.of(service.getFile());
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            if (modified != upstreams.fileModified) {
+                upstreams.fileModified = modified;
+                upstreams.update(loadUris(service));
+                log.info("Reloaded {} instances from {}: {}", serviceId, file,
+                        upstreams.instances.stream().map(UpstreamInstance::getInstanceId).toList());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to refresh instances of {} from {}: {}", serviceId, service.getFile(), e.getMessage());
+        }
+    }
+
+    private Set<URI> loadUris(LoadBalancerProperties.Service service) {
+        Set<URI> uris = new LinkedHashSet<>();
+        service.getInstances().forEach(uri -> uris.add(URI.create(uri.trim())));
+        if (service.getFile() != null) {
+            try {
+                for (String line : Files.readAllLines(Path.of(service.getFile()))) {
+                    String value = line.strip();
+                    int comment = value.indexOf('#');
+                    if (comment >= 0) {
+                        value = value.substring(0, comment).strip();
+                    }
+                    if (!value.isEmpty()) {
+                        uris.add(URI.create(value));
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Unable to read instance file {}: {}", service.getFile(), e.getMessage());
+            }
+        }
+        return uris;
+    }
+
+    private void probeAll() {
+        LoadBalancerProperties.HealthCheck healthCheck = properties.getHealthCheck();
+        Duration timeout = healthCheck.getTimeout();
+        for (ServiceUpstreams upstreams : services.values()) {
+            for (UpstreamInstance instance : upstreams.instances) {
+                webClient.get()
+                        .uri(instance.getUri().resolve(healthCheck.getPath()))
+                        .exchangeToMono(response -> response.releaseBody()
+                                .thenReturn(response.statusCode().is2xxSuccessful()))
+                        .timeout(timeout)
+                        .onErrorReturn(false)
+                        .subscribe(success -> {
+                            if (instance.onProbe(success, healthCheck.getHealthyThreshold(),
+                                    healthCheck.getUnhealthyThreshold())) {
+                                log.warn("Upstream {} of {} is now {}", instance.getInstanceId(),
+                                        upstreams.serviceId, success ? "UP" : "DOWN");
+                            }
+                        });
+            }
+        }
+    }
+
+    /**
+     * Instances of one service; the list is replaced wholesale so readers never lock
+     */
+    private final class ServiceUpstreams {
+
+        private final String serviceId;
+
+        private final Map<UpstreamInstance, List<Meter>> meters = new ConcurrentHashMap<>();
+
+        private final Map<UpstreamInstance, Timer> timers = new ConcurrentHashMap<>();
+
+        private volatile List<UpstreamInstance> instances = List.of();
+
+        private volatile Map<String, UpstreamInstance> byId = Map.of();
+
+        private volatile long fileModified;
+
+        private ServiceUpstreams(String serviceId) {
+            this.serviceId = serviceId;
+        }
+
+        /**
+         * Replace the instance list, keeping statistics of instances that are still present
+         */
+        private synchronized void update(Set<URI> uris) {
+            Map<String, UpstreamInstance> next = new LinkedHashMap<>();
+            for (URI uri : uris) {
+                UpstreamInstance candidate = new UpstreamInstance(serviceId, uri);
+                UpstreamInstance existing = byId.get(candidate.getInstanceId());
+                next.put(candidate.getInstanceId(), existing != null ? existing : candidate);
+            }
+            for (UpstreamInstance removed : instances) {
+                if (next.get(removed.getInstanceId()) != removed) {
+                    unbind(removed);
+                }
+            }
+            for (UpstreamInstance added : next.values()) {
+                if (!meters.containsKey(added)) {
+                    bind(added);
+                }
+            }
+            byId = Collections.unmodifiableMap(next);
+            instances = List.copyOf(next.values());
+        }
+
+        private void tryEject(UpstreamInstance instance, LoadBalancerProperties.OutlierDetection outlier) {
+            long now = System.nanoTime();
+            List<UpstreamInstance> current = instances;
+            long ejected = current.stream().filter(i -> i.isEjected(now)).count();
+            if ((ejected + 1) * 100 > (long) current.size() * outlier.getMaxEjectionPercent()) {
+                return;
+            }
+            instance.eject(now, outlier.getBaseEjectionTime().toNanos(), outlier.getMaxEjectionTime().toNanos());
+            Counter.builder("gateway.upstream.ejections")
+                    .tags("service", serviceId, "instance", instance.getInstanceId())
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Ejected upstream {} of {} after consecutive failures (ejection #{})",
+                    instance.getInstanceId(), serviceId, instance.getEjections());
+        }
+
+        private Timer latency(UpstreamInstance instance) {
+            Timer timer = timers.get(instance);
+            return timer != null ? timer : bindTimer(instance);
+        }
+
+        private Timer bindTimer(UpstreamInstance instance) {
+            return timers.computeIfAbsent(instance, i -> Timer.builder("gateway.upstream.latency")
+                    .tags("service", serviceId, "instance", i.getInstanceId())
+                    .description("Upstream exchange latency per instance")
+                    .register(meterRegistry));
+        }
+
+        private void bind(UpstreamInstance instance) {
+            List<Meter> bound = new ArrayList<>();
+            bound.add(Gauge.builder("gateway.upstream.in.flight", instance, UpstreamInstance::getInFlight)
+                    .tags("service", serviceId, "instance", instance.getInstanceId())
+                    .description("Requests currently outstanding per instance")
+                    .register(meterRegistry));
+            bound.add(Gauge.builder("gateway.upstream.available", instance,
+                            i -> i.isAvailable(System.nanoTime()) ? 1 : 0)
+                    .tags("service", serviceId, "instance", instance.getInstanceId())
+                    .description("1 if the instance is healthy and not ejected")
+                    .register(meterRegistry));
+            bound.add(bindTimer(instance));
+            meters.put(instance, bound);
+        }
+
+        private void unbind(UpstreamInstance instance) {
+            List<Meter> bound = meters.remove(instance);
+            timers.remove(instance);
+            if (bound != null) {
+                bound.forEach(meterRegistry::remove);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.nebula.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+
+import java.util.Map;
+
+/**
+ * Upstream Stats Lifecycle
+ * Feeds in-flight counts, latency and failures of every load-balanced exchange
+ * back into the {@link UpstreamRegistry}
+ */
+public class UpstreamStatsLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    /**
+     * Exchange attribute holding the upstream start time; the request's attributes are the exchange's
+     */
+    private static final String START_NANOS_ATTR = UpstreamStatsLifecycle.class.getName() + ".startNanos";
+
+    private final UpstreamRegistry registry;
+
+    public UpstreamStatsLifecycle(UpstreamRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        Map<String, Object> attributes = attributes(request);
+        if (lbResponse.hasServer() && attributes != null) {
+            attributes.put(START_NANOS_ATTR, System.nanoTime());
+            registry.onStart(lbResponse.getServer());
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        Map<String, Object> attributes = attributes(completionContext.getLoadBalancerRequest());
+        Object startNanos = attributes == null ? null : attributes.remove(START_NANOS_ATTR);
+        if (lbResponse == null || !lbResponse.hasServer() || !(startNanos instanceof Long start)) {
+            return;
+        }
+        registry.onComplete(lbResponse.getServer(), System.nanoTime() - start, isFailure(completionContext));
+    }
+
+    private static Map<String, Object> attributes(Request<?> request) {
+        if (request != null && request.getContext() instanceof RequestDataContext context
+                && context.getClientRequest() != null) {
+            return context.getClientRequest().getAttributes();
+        }
+        return null;
+    }
+
+    private static boolean isFailure(CompletionContext<Object, ServiceInstance, Object> context) {
+        if (context.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        if (context.getClientResponse() instanceof ResponseData response && response.getHttpStatus() != null) {
+            int status = response.getHttpStatus().value();
+            return status == 502 || status == 503 || status == 504;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,209 @@
+package com.nebula.gateway.ratelimit;
+
+import com.nebula.gateway.config.RateLimiterProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.SmartLifecycle;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-Memory Rate Limiter
+ * Drop-in replacement for RedisRateLimiter that keeps token buckets in process.
+ * Limits apply per gateway node; configure them per route with
+ *
+ * <pre>
+ * - name: RequestRateLimiter
+ *   args:
+ *     rate-limiter: "#{@inMemoryRateLimiter}"
+ *     key-resolver: "#{@clientIpKeyResolver}"
+ *     in-memory-rate-limiter.replenish-rate: 20
+ *     in-memory-rate-limiter.burst-capacity: 40
+ * </pre>
+ */
+@Slf4j
+public class InMemoryRateLimiter extends AbstractRateLimiter<InMemoryRateLimiter.Config> implements SmartLifecycle {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "in-memory-rate-limiter";
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    public static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+
+    private final RateLimiterProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Config defaultConfig;
+
+    private final Map<String, RouteLimiter> routes = new ConcurrentHashMap<>();
+
+    private final LongAdder evicted = new LongAdder();
+
+    private ScheduledExecutorService sweeper;
+
+    public InMemoryRateLimiter(RateLimiterProperties properties, ConfigurationService configurationService,
+                               MeterRegistry meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.defaultConfig = new Config();
+        this.defaultConfig.setReplenishRate(properties.getDefaultReplenishRate());
+        this.defaultConfig.setBurstCapacity(properties.getDefaultBurstCapacity());
+        FunctionCounter.builder("gateway.rate.limiter.evicted", evicted, LongAdder::sum)
+                .description("Idle token buckets evicted")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        RouteLimiter limiter = routes.get(routeId);
+        if (limiter == null || limiter.config != config) {
+            limiter = routes.compute(routeId, (key, existing) -> existing != null && existing.config == config
+                    ? existing
+                    : new RouteLimiter(key, config, existing));
+        }
+        return Mono.just(limiter.acquire(id, System.nanoTime()));
+    }
+
+    @Override
+    public void start() {
+        long intervalMillis = properties.getEvictionInterval().toMillis();
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        sweeper = Executors.newSingleThreadScheduledExecutor(
+                runnable -> Thread.ofPlatform().name("rate-limiter-sweeper").daemon(true).unstarted(runnable));
+        sweeper.scheduleWithFixedDelay(() -> {
+            long now = System.nanoTime();
+            for (RouteLimiter limiter : routes.values()) {
+                evicted.add(limiter.store.evictIdle(now, idleNanos));
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return sweeper != null;
+    }
+
+    /**
+     * Buckets and precomputed limits for one route. The store survives a config
+     * refresh so existing buckets are kept; only the limits are recomputed.
+     */
+    private final class RouteLimiter {
+
+        private final Config config;
+
+        private final StripedTokenBucketStore store;
+
+        private final long emissionIntervalNanos;
+
+        private final long capacityNanos;
+
+        private final int requestedTokens;
+
+        private final String replenishRateValue;
+
+        private final String burstCapacityValue;
+
+        private final String requestedTokensValue;
+
+        private final LongAdder allowed;
+
+        private final LongAdder denied;
+
+        private RouteLimiter(String routeId, Config config, RouteLimiter previous) {
+            if (config.getReplenishRate() <= 0 || config.getRequestedTokens() <= 0
+                    || config.getBurstCapacity() < config.getRequestedTokens()) {
+                throw new IllegalArgumentException("Invalid rate limiter config for route " + routeId
+                        + ": replenishRate and requestedTokens must be positive and burstCapacity >= requestedTokens");
+            }
+            this.config = config;
+            this.emissionIntervalNanos = TimeUnit.SECONDS.toNanos(1) / config.getReplenishRate();
+            this.capacityNanos = emissionIntervalNanos * config.getBurstCapacity();
+            this.requestedTokens = config.getRequestedTokens();
+            this.replenishRateValue = String.valueOf(config.getReplenishRate());
+            this.burstCapacityValue = String.valueOf(config.getBurstCapacity());
+            this.requestedTokensValue = String.valueOf(config.getRequestedTokens());
+            if (previous != null) {
+                this.store = previous.store;
+                this.allowed = previous.allowed;
+                this.denied = previous.denied;
+            } else {
+                this.store = new StripedTokenBucketStore(properties.getStripes());
+                this.allowed = new LongAdder();
+                this.denied = new LongAdder();
+                bindMetrics(routeId);
+            }
+        }
+
+        private Response acquire(String id, long nowNanos) {
+            long remaining = store.tryAcquire(id, requestedTokens, emissionIntervalNanos, capacityNanos, nowNanos);
+            boolean isAllowed = remaining >= 0;
+            (isAllowed ? allowed : denied).increment();
+            if (!properties.isIncludeHeaders()) {
+                return new Response(isAllowed, Map.of());
+            }
+            return new Response(isAllowed, Map.of(
+                    REMAINING_HEADER, isAllowed ? Long.toString(remaining) : "0",
+                    REPLENISH_RATE_HEADER, replenishRateValue,
+                    BURST_CAPACITY_HEADER, burstCapacityValue,
+                    REQUESTED_TOKENS_HEADER, requestedTokensValue));
+        }
+
+        private void bindMetrics(String routeId) {
+            FunctionCounter.builder("gateway.rate.limiter.requests", allowed, LongAdder::sum)
+                    .tags("route", routeId, "result", "allowed")
+                    .register(meterRegistry);
+            FunctionCounter.builder("gateway.rate.limiter.requests", denied, LongAdder::sum)
+                    .tags("route", routeId, "result", "denied")
+                    .register(meterRegistry);
+            Gauge.builder("gateway.rate.limiter.keys", store, StripedTokenBucketStore::size)
+                    .tag("route", routeId)
+                    .description("Active token buckets")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Per-route limits, bound from the in-memory-rate-limiter.* filter args
+     */
+    @Data
+    public static class Config {
+
+        /**
+         * Tokens added to each bucket per second
+         */
+        private int replenishRate;
+
+        /**
+         * Maximum tokens a bucket holds
+         */
+        private int burstCapacity = 1;
+
+        /**
+         * Tokens consumed per request
+         */
+        private int requestedTokens = 1;
+    }
+}
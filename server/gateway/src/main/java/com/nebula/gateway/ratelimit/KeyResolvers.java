@@ -0,0 +1,61 @@
+package com.nebula.gateway.ratelimit;
+
+import com.nebula.common.jwt.JwtClaims;
+import com.nebula.gateway.filter.JwtAuthenticationFilter;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Key Resolvers
+ * Rate limiter keys for client IP, authenticated user and route
+ */
+public final class KeyResolvers {
+
+    private static final String UNKNOWN = "unknown";
+
+    private KeyResolvers() {
+    }
+
+    /**
+     * Key by the client's remote address
+     */
+    public static KeyResolver clientIp() {
+        return exchange -> Mono.just(clientAddress(exchange));
+    }
+
+    /**
+     * Key by the verified JWT subject; anonymous requests fall back to the client address
+     */
+    public static KeyResolver user() {
+        return exchange -> {
+            JwtClaims claims = exchange.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTR);
+            if (claims != null && claims.getSub() != null) {
+                return Mono.just("user:" + claims.getSub());
+            }
+            return Mono.just("ip:" + clientAddress(exchange));
+        };
+    }
+
+    /**
+     * Key by route id, i.e. one shared bucket per route per gateway node
+     */
+    public static KeyResolver route() {
+        return exchange -> {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            return Mono.just(route == null ? UNKNOWN : route.getId());
+        };
+    }
+
+    private static String clientAddress(ServerWebExchange exchange) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return UNKNOWN;
+        }
+        return remoteAddress.getAddress().getHostAddress();
+    }
+}
@@ -0,0 +1,71 @@
+package com.nebula.gateway.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Striped Token Bucket Store
+ * Maps limiter keys to lock-free token buckets, split over independent stripes so
+ * that idle-key sweeps and resizes only ever touch a fraction of the keys at once.
+ * Memory stays proportional to the number of recently active keys.
+ */
+public class StripedTokenBucketStore {
+
+    private final ConcurrentHashMap<String, TokenBucket>[] stripes;
+
+    private final int shift;
+
+    @SuppressWarnings("unchecked")
+    public StripedTokenBucketStore(int stripeCount) {
+        int size = 1 << (32 - Integer.numberOfLeadingZeros(Math.max(2, stripeCount) - 1));
+        this.stripes = new ConcurrentHashMap[size];
+        this.shift = Integer.numberOfLeadingZeros(size) + 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Try to take {@code requested} tokens from the bucket for {@code key}
+     *
+     * @param emissionIntervalNanos time to replenish one token
+     * @param capacityNanos         burst capacity expressed as time (burst * interval)
+     * @return tokens left after the acquisition, or -1 if denied
+     */
+    public long tryAcquire(String key, int requested, long emissionIntervalNanos,
+                           long capacityNanos, long nowNanos) {
+        ConcurrentHashMap<String, TokenBucket> stripe = stripeFor(key);
+        TokenBucket bucket = stripe.get(key);
+        if (bucket == null) {
+            bucket = stripe.computeIfAbsent(key, k -> new TokenBucket(nowNanos));
+        }
+        return bucket.tryAcquire(requested, emissionIntervalNanos, capacityNanos, nowNanos);
+    }
+
+    /**
+     * Remove buckets that have been full for at least {@code idleNanos}
+     *
+     * @return number of evicted keys
+     */
+    public int evictIdle(long nowNanos, long idleNanos) {
+        int evicted = 0;
+        for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+            int before = stripe.size();
+            stripe.values().removeIf(bucket -> bucket.isIdle(nowNanos, idleNanos));
+            evicted += Math.max(0, before - stripe.size());
+        }
+        return evicted;
+    }
+
+    public long size() {
+        long size = 0;
+        for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private ConcurrentHashMap<String, TokenBucket> stripeFor(String key) {
+        // Pick the stripe from the high bits so the map inside it still sees well-spread low bits
+        return stripes[(key.hashCode() * 0x9E3779B9) >>> shift];
+    }
+}
@@ -0,0 +1,59 @@
+package com.nebula.gateway.ratelimit;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Token Bucket
+ * Lock-free bucket stored as a single "theoretical arrival time" (GCRA).
+ * The bucket is full whenever {@code tat <= now}, so a full bucket carries no
+ * state and can be evicted and recreated without changing any decision.
+ */
+final class TokenBucket {
+
+    private static final VarHandle TAT;
+
+    static {
+        try {
+            TAT = MethodHandles.lookup().findVarHandle(TokenBucket.class, "tat", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @SuppressWarnings("unused") // accessed through TAT
+    private volatile long tat;
+
+    TokenBucket(long nowNanos) {
+        this.tat = nowNanos;
+    }
+
+    /**
+     * Try to take {@code requested} tokens
+     *
+     * @param emissionIntervalNanos time to replenish one token
+     * @param capacityNanos         burst capacity expressed as time (burst * interval)
+     * @return tokens left after the acquisition, or -1 if denied
+     */
+    long tryAcquire(int requested, long emissionIntervalNanos, long capacityNanos, long nowNanos) {
+        long cost = requested * emissionIntervalNanos;
+        for (;;) {
+            long current = (long) TAT.getVolatile(this);
+            long newTat = Math.max(current, nowNanos) + cost;
+            long ahead = newTat - nowNanos;
+            if (ahead > capacityNanos) {
+                return -1;
+            }
+            if (TAT.compareAndSet(this, current, newTat)) {
+                return (capacityNanos - ahead) / emissionIntervalNanos;
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket has been full for at least {@code idleNanos}
+     */
+    boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - (long) TAT.getVolatile(this) >= idleNanos;
+    }
+}
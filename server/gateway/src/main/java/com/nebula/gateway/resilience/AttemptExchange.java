@@ -0,0 +1,104 @@
+package com.nebula.gateway.resilience;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Attempt Exchange
+ * One upstream attempt of a hedged request. It has its own attributes and its own
+ * response status/headers, so concurrent attempts cannot see each other's routing
+ * state. The winner's state is copied back to the real exchange with {@link #commitTo}.
+ */
+class AttemptExchange extends ServerWebExchangeDecorator {
+
+    private final Map<String, Object> attributes;
+
+    private final AttemptResponse response;
+
+    AttemptExchange(ServerWebExchange delegate) {
+        super(delegate);
+        this.attributes = new ConcurrentHashMap<>(delegate.getAttributes());
+        this.response = new AttemptResponse(delegate.getResponse());
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public ServerHttpResponse getResponse() {
+        return response;
+    }
+
+    /**
+     * Make this attempt's outcome the exchange's outcome
+     */
+    void commitTo(ServerWebExchange exchange) {
+        exchange.getAttributes().putAll(attributes);
+        ServerHttpResponse target = exchange.getResponse();
+        if (response.status != null) {
+            target.setStatusCode(response.status);
+        }
+        target.getHeaders().putAll(response.headers);
+    }
+
+    HttpStatusCode getStatus() {
+        return response.status;
+    }
+
+    /**
+     * Captures status and headers; the body is written later from the winning connection
+     */
+    private static final class AttemptResponse extends ServerHttpResponseDecorator {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private HttpStatusCode status;
+
+        private AttemptResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public boolean setStatusCode(HttpStatusCode status) {
+            this.status = status;
+            return true;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return status;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public boolean setRawStatusCode(Integer value) {
+            this.status = value == null ? null : HttpStatusCode.valueOf(value);
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public Integer getRawStatusCode() {
+            return status == null ? null : status.value();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.nebula.gateway.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hedge Budget
+ * Caps extra load from hedged requests to a percentage of primary traffic.
+ * Each primary request deposits {@code percent} hundredths of a token; a hedge
+ * withdraws a whole token. The balance is capped so idle periods cannot bank
+ * an unlimited burst of hedges.
+ */
+public class HedgeBudget {
+
+    private static final long TOKEN = 100;
+
+    private final long deposit;
+
+    private final long maxBalance;
+
+    private final AtomicLong balance;
+
+    /**
+     * @param percent   allowed hedges as a percentage of requests
+     * @param minTokens hedges always available after an idle period, so low-traffic routes can still hedge
+     */
+    public HedgeBudget(int percent, int minTokens) {
+        this.deposit = Math.max(0, percent);
+        this.maxBalance = Math.max(1, minTokens) * TOKEN;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    public void onRequest() {
+        long current;
+        do {
+            current = balance.get();
+            if (current >= maxBalance) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(maxBalance, current + deposit)));
+    }
+
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+}
@@ -0,0 +1,50 @@
+package com.nebula.gateway.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency Tracker
+ * Keeps the most recent latency samples in a ring and periodically recomputes
+ * one percentile from them. Readers only see a volatile long.
+ */
+public class LatencyTracker {
+
+    private static final int RECOMPUTE_EVERY = 256;
+
+    private final long[] samples;
+
+    private final AtomicLong recorded = new AtomicLong();
+
+    private final double percentile;
+
+    private volatile long percentileNanos = -1;
+
+    public LatencyTracker(int sampleSize, double percentile) {
+        this.samples = new long[Math.max(RECOMPUTE_EVERY, sampleSize)];
+        this.percentile = percentile;
+    }
+
+    public void record(long latencyNanos) {
+        long n = recorded.getAndIncrement();
+        samples[(int) (n % samples.length)] = latencyNanos;
+        if ((n + 1) % RECOMPUTE_EVERY == 0) {
+            recompute(Math.min(n + 1, samples.length));
+        }
+    }
+
+    /**
+     * @return the tracked percentile, or -1 until enough samples were recorded
+     */
+    public long percentileNanos() {
+        return percentileNanos;
+    }
+
+    private void recompute(long available) {
+        // Racy copy is fine: a torn sample only nudges an estimate
+        long[] copy = Arrays.copyOf(samples, (int) available);
+        Arrays.sort(copy);
+        int rank = (int) Math.min(copy.length - 1, Math.ceil(percentile * copy.length) - 1);
+        percentileNanos = copy[Math.max(0, rank)];
+    }
+}
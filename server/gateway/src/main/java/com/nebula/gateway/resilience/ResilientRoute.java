@@ -0,0 +1,212 @@
+package com.nebula.gateway.resilience;
+
+import com.nebula.gateway.loadbalancer.UpstreamRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Resilient Route
+ * Circuit breaking and hedging state of one route. Survives route refreshes so
+ * its meters stay bound; {@link #configure} swaps in new settings.
+ */
+@Slf4j
+public class ResilientRoute {
+
+    private static final String ATTEMPT_ERROR_ATTR = ResilientRoute.class.getName() + ".error";
+
+    private final String routeId;
+
+    private final UpstreamRegistry upstreamRegistry;
+
+    private final Function<ServerWebExchange, Mono<Void>> rejection;
+
+    private final Map<String, SlidingWindowCircuitBreaker> instanceBreakers = new ConcurrentHashMap<>();
+
+    private final LongAdder shortCircuited = new LongAdder();
+
+    private final LongAdder hedgesSent = new LongAdder();
+
+    private final LongAdder hedgesWon = new LongAdder();
+
+    private volatile Settings settings;
+
+    private volatile SlidingWindowCircuitBreaker routeBreaker;
+
+    public ResilientRoute(String routeId, UpstreamRegistry upstreamRegistry, MeterRegistry meterRegistry,
+                          Function<ServerWebExchange, Mono<Void>> rejection) {
+        this.routeId = routeId;
+        this.upstreamRegistry = upstreamRegistry;
+        this.rejection = rejection;
+        bindMetrics(meterRegistry);
+    }
+
+    public synchronized void configure(Settings settings) {
+        this.settings = settings;
+        this.routeBreaker = settings.breakerFactory().get();
+        this.instanceBreakers.clear();
+    }
+
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Settings current = settings;
+        SlidingWindowCircuitBreaker breaker = routeBreaker;
+        long startNanos = System.nanoTime();
+        if (!breaker.tryAcquire(startNanos)) {
+            shortCircuited.increment();
+            return rejection.apply(exchange);
+        }
+
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (!current.hedgingEnabled() || !current.hedgeMethods().contains(method.name())) {
+            return chain.filter(exchange)
+                    .doOnSuccess(ignored -> onComplete(current, breaker, exchange,
+                            exchange.getResponse().getStatusCode(), startNanos, null))
+                    .doOnError(error -> onComplete(current, breaker, exchange, null, startNanos, error))
+                    .doOnCancel(breaker::release);
+        }
+
+        current.hedgeBudget().onRequest();
+        AttemptExchange primary = new AttemptExchange(exchange);
+        AttemptExchange[] hedge = new AttemptExchange[1];
+        Mono<AttemptExchange> hedged = Mono.delay(Duration.ofNanos(hedgeDelayNanos(current)))
+                .flatMap(tick -> {
+                    if (!current.hedgeBudget().tryWithdraw()) {
+                        return Mono.never();
+                    }
+                    hedgesSent.increment();
+                    hedge[0] = new AttemptExchange(exchange);
+                    return attempt(hedge[0], chain);
+                });
+
+        return Mono.firstWithValue(attempt(primary, chain), hedged)
+                .flatMap(winner -> {
+                    AttemptExchange loser = winner == primary ? hedge[0] : primary;
+                    if (winner != primary) {
+                        hedgesWon.increment();
+                    }
+                    if (loser != null) {
+                        Connection connection = loser.getAttribute(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+                        if (connection != null) {
+                            connection.dispose();
+                        }
+                    }
+                    winner.commitTo(exchange);
+                    Throwable error = winner.getAttribute(ATTEMPT_ERROR_ATTR);
+                    onComplete(current, breaker, winner, winner.getStatus(), startNanos, error);
+                    return error == null ? Mono.<Void>empty() : Mono.<Void>error(error);
+                })
+                .doOnCancel(breaker::release);
+    }
+
+    /**
+     * Run one attempt through the rest of the chain; errors are captured so the attempt always emits
+     */
+    private static Mono<AttemptExchange> attempt(AttemptExchange attempt, GatewayFilterChain chain) {
+        return chain.filter(attempt)
+                .then(Mono.just(attempt))
+                .onErrorResume(error -> {
+                    attempt.getAttributes().put(ATTEMPT_ERROR_ATTR, error);
+                    return Mono.just(attempt);
+                });
+    }
+
+    private static long hedgeDelayNanos(Settings settings) {
+        long percentile = settings.latencyTracker().percentileNanos();
+        if (percentile < 0) {
+            return settings.maxHedgeDelayNanos();
+        }
+        return Math.max(settings.minHedgeDelayNanos(), Math.min(settings.maxHedgeDelayNanos(), percentile));
+    }
+
+    private void onComplete(Settings settings, SlidingWindowCircuitBreaker breaker, ServerWebExchange exchange,
+                            HttpStatusCode status, long startNanos, Throwable error) {
+        long now = System.nanoTime();
+        long latency = now - startNanos;
+        boolean failure = error != null || (status != null && status.is5xxServerError() && !isShed(exchange, status));
+        boolean slow = latency >= settings.slowCallNanos();
+        if (!failure) {
+            settings.latencyTracker().record(latency);
+        }
+
+        SlidingWindowCircuitBreaker.State before = breaker.getState();
+        SlidingWindowCircuitBreaker.State after = breaker.record(now, failure, slow);
+        if (before != after) {
+            log.warn("Circuit breaker for route {} is now {}", routeId, after);
+        }
+
+        Response<ServiceInstance> lbResponse = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        ServiceInstance server = lbResponse.getServer();
+        SlidingWindowCircuitBreaker instanceBreaker = instanceBreakers.computeIfAbsent(server.getInstanceId(),
+                id -> settings.breakerFactory().get());
+        SlidingWindowCircuitBreaker.State instanceBefore = instanceBreaker.getState();
+        if (instanceBreaker.record(now, failure, slow) == SlidingWindowCircuitBreaker.State.OPEN
+                && instanceBefore != SlidingWindowCircuitBreaker.State.OPEN) {
+            log.warn("Circuit breaker for route {} instance {} opened", routeId, server.getInstanceId());
+            upstreamRegistry.eject(server, settings.openNanos());
+        }
+    }
+
+    /**
+     * A 503 with Retry-After is a healthy upstream shedding load (e.g. auth-service's password
+     * hashing pool), not a fault; opening the breaker would turn a login storm into an outage
+     */
+    private static boolean isShed(ServerWebExchange exchange, HttpStatusCode status) {
+        return status.value() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                && exchange.getResponse().getHeaders().containsKey(HttpHeaders.RETRY_AFTER);
+    }
+
+    private void bindMetrics(MeterRegistry registry) {
+        Gauge.builder("gateway.circuit.breaker.state", this, route -> route.routeBreaker == null
+                        ? 0 : route.routeBreaker.getState().ordinal())
+                .tag("route", routeId)
+                .description("Route breaker state: 0 closed, 1 open, 2 half-open")
+                .register(registry);
+        FunctionCounter.builder("gateway.circuit.breaker.short.circuited", shortCircuited, LongAdder::sum)
+                .tag("route", routeId)
+                .description("Requests rejected by an open breaker")
+                .register(registry);
+        FunctionCounter.builder("gateway.hedge.requests", hedgesSent, LongAdder::sum)
+                .tags("route", routeId, "result", "sent")
+                .register(registry);
+        FunctionCounter.builder("gateway.hedge.requests", hedgesWon, LongAdder::sum)
+                .tags("route", routeId, "result", "won")
+                .register(registry);
+    }
+
+    /**
+     * Immutable per-route settings, replaced as a whole on reconfiguration
+     */
+    public record Settings(Supplier<SlidingWindowCircuitBreaker> breakerFactory,
+                           long openNanos,
+                           long slowCallNanos,
+                           boolean hedgingEnabled,
+                           List<String> hedgeMethods,
+                           LatencyTracker latencyTracker,
+                           long minHedgeDelayNanos,
+                           long maxHedgeDelayNanos,
+                           HedgeBudget hedgeBudget) {
+    }
+}
@@ -0,0 +1,161 @@
+package com.nebula.gateway.resilience;
+
+/**
+ * Sliding Window Circuit Breaker
+ * Count-based window over the last N calls. Opens when the failure rate or the
+ * slow-call rate crosses its threshold, lets a few trial calls through after the
+ * open period, and closes again once they all succeed. The CLOSED fast path is a
+ * single volatile read; state changes are serialized on the breaker.
+ */
+public class SlidingWindowCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+
+    private final int minimumCalls;
+
+    private final int failureRateThreshold;
+
+    private final int slowCallRateThreshold;
+
+    private final long openNanos;
+
+    private final int halfOpenPermits;
+
+    private final byte[] window;
+
+    private int index;
+
+    private int count;
+
+    private int failures;
+
+    private int slowCalls;
+
+    private volatile State state = State.CLOSED;
+
+    private long openedAtNanos;
+
+    private int halfOpenInFlight;
+
+    private int halfOpenSuccesses;
+
+    /**
+     * @param windowSize            number of most recent calls considered
+     * @param minimumCalls          calls needed before rates are evaluated
+     * @param failureRateThreshold  failure percentage that opens the breaker
+     * @param slowCallRateThreshold slow-call percentage that opens the breaker
+     * @param openNanos             how long the breaker stays open
+     * @param halfOpenPermits       trial calls allowed while half-open
+     */
+    public SlidingWindowCircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold,
+                                       int slowCallRateThreshold, long openNanos, int halfOpenPermits) {
+        this.window = new byte[Math.max(1, windowSize)];
+        this.minimumCalls = Math.min(Math.max(1, minimumCalls), window.length);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = openNanos;
+        this.halfOpenPermits = Math.max(1, halfOpenPermits);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Ask for permission to send a call
+     */
+    public boolean tryAcquire(long nowNanos) {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            transitionIfOpenExpired(nowNanos);
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.HALF_OPEN && halfOpenInFlight < halfOpenPermits) {
+                halfOpenInFlight++;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Record the outcome of a call
+     *
+     * @return the state after recording
+     */
+    public synchronized State record(long nowNanos, boolean failure, boolean slow) {
+        transitionIfOpenExpired(nowNanos);
+        switch (state) {
+            case HALF_OPEN -> {
+                halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+                if (failure || slow) {
+                    open(nowNanos);
+                } else if (++halfOpenSuccesses >= halfOpenPermits) {
+                    reset(State.CLOSED);
+                }
+            }
+            case CLOSED -> {
+                byte outcome = (byte) ((failure ? FAILURE : 0) | (slow ? SLOW : 0));
+                if (count == window.length) {
+                    byte evicted = window[index];
+                    failures -= evicted & FAILURE;
+                    slowCalls -= (evicted & SLOW) >> 1;
+                } else {
+                    count++;
+                }
+                window[index] = outcome;
+                index = (index + 1) % window.length;
+                failures += outcome & FAILURE;
+                slowCalls += (outcome & SLOW) >> 1;
+                if (count >= minimumCalls && (failures * 100 >= failureRateThreshold * count
+                        || slowCalls * 100 >= slowCallRateThreshold * count)) {
+                    open(nowNanos);
+                }
+            }
+            case OPEN -> {
+                // Calls admitted before the breaker opened; nothing to learn from them
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Give back a half-open permit for a call that was cancelled before it completed
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+        }
+    }
+
+    private void transitionIfOpenExpired(long nowNanos) {
+        if (state == State.OPEN && nowNanos - openedAtNanos >= openNanos) {
+            state = State.HALF_OPEN;
+            halfOpenInFlight = 0;
+            halfOpenSuccesses = 0;
+        }
+    }
+
+    private void open(long nowNanos) {
+        openedAtNanos = nowNanos;
+        reset(State.OPEN);
+    }
+
+    private void reset(State next) {
+        index = 0;
+        count = 0;
+        failures = 0;
+        slowCalls = 0;
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+        state = next;
+    }
+}
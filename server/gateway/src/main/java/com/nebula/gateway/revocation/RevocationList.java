@@ -0,0 +1,178 @@
+package com.nebula.gateway.revocation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.nebula.common.jwt.JwtClaims;
+import com.nebula.gateway.config.RevocationProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Revocation List
+ * Local copy of the auth service's revocation feed, polled every poll interval, so
+ * JwtAuthenticationFilter can reject revoked access tokens it would otherwise trust until
+ * they expire. A token is revoked if its jti is listed, or if its user was revoked in a
+ * later second than it was issued (tokens issued within the second of a user revocation
+ * are let through, so a login right after a role change keeps working). The check is two
+ * map lookups, skipped entirely while nothing is revoked. If the auth service cannot be
+ * reached the last known list stays in force.
+ */
+@Slf4j
+public class RevocationList implements SmartLifecycle {
+
+    private final RevocationProperties properties;
+
+    private final URI uri;
+
+    private final WebClient webClient;
+
+    /**
+     * Revoked jti → revocation time, epoch seconds
+     */
+    private final Map<String, Long> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * User id → time of the user's latest revocation, epoch seconds
+     */
+    private final Map<Integer, Long> users = new ConcurrentHashMap<>();
+
+    private final LongAdder failedPolls = new LongAdder();
+
+    private final LongAdder resets = new LongAdder();
+
+    /**
+     * Poll position; only touched by the serialized poll loop
+     */
+    private long epoch;
+
+    private long sequence;
+
+    private volatile Disposable polling;
+
+    public RevocationList(RevocationProperties properties, WebClient.Builder webClientBuilder,
+                          ExchangeFilterFunction loadBalancer, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.uri = URI.create(properties.getUri());
+        this.webClient = webClientBuilder.clone().filter(loadBalancer).build();
+        bindTo(meterRegistry);
+    }
+
+    /**
+     * Whether the auth service revoked the token after issuing it
+     */
+    public boolean isRevoked(JwtClaims claims) {
+        if (sessions.isEmpty() && users.isEmpty()) {
+            return false;
+        }
+        if (claims.getJti() != null && sessions.containsKey(claims.getJti())) {
+            return true;
+        }
+        Long revokedAt = claims.getUid() == null ? null : users.get(claims.getUid());
+        return revokedAt != null && (claims.getIat() == null || claims.getIat() < revokedAt);
+    }
+
+    Mono<Void> poll() {
+        URI request = UriComponentsBuilder.fromUri(uri)
+                .queryParam("epoch", epoch)
+                .queryParam("since", sequence)
+                .build(true)
+                .toUri();
+        return webClient.get()
+                .uri(request)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(properties.getTimeout())
+                .doOnNext(body -> apply(body.path("data")))
+                .then()
+                .onErrorResume(e -> {
+                    failedPolls.increment();
+                    log.warn("Revocation poll failed: {}", e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    private void apply(JsonNode data) {
+        if (!data.path("sequence").canConvertToLong()) {
+            return;
+        }
+        if (data.path("reset").asBoolean(false)) {
+            if (epoch != 0) {
+                resets.increment();
+                log.info("Revocation feed reset (auth service restarted or feed overflowed)");
+            }
+            sessions.clear();
+            users.clear();
+        }
+        for (JsonNode entry : data.path("revocations")) {
+            long at = entry.path("at").asLong();
+            if (entry.path("jti").isTextual()) {
+                sessions.put(entry.get("jti").asText(), at);
+            } else if (entry.path("uid").canConvertToInt()) {
+                users.merge(entry.get("uid").asInt(), at, Math::max);
+            }
+        }
+        epoch = data.path("epoch").asLong();
+        sequence = data.path("sequence").asLong();
+
+        // Drop entries no token they apply to can outlive
+        long cutoff = System.currentTimeMillis() / 1000 - data.path("retentionSeconds").asLong(Long.MAX_VALUE / 2);
+        sessions.values().removeIf(at -> at < cutoff);
+        users.values().removeIf(at -> at < cutoff);
+    }
+
+    private void bindTo(MeterRegistry registry) {
+        Gauge.builder("gateway.revocations", sessions, Map::size)
+                .tag("kind", "session")
+                .description("Revocations held for local token checks")
+                .register(registry);
+        Gauge.builder("gateway.revocations", users, Map::size)
+                .tag("kind", "user")
+                .description("Revocations held for local token checks")
+                .register(registry);
+        FunctionCounter.builder("gateway.revocations.poll.failures", failedPolls, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("gateway.revocations.resets", resets, LongAdder::sum)
+                .register(registry);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Duration interval = properties.getPollInterval();
+        // concatMap: a slow poll delays the next one instead of overlapping it
+        polling = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> poll(), 0)
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = polling;
+        if (current != null) {
+            current.dispose();
+            polling = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return polling != null;
+    }
+}
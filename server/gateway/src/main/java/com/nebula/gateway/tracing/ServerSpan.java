@@ -0,0 +1,109 @@
+package com.nebula.gateway.tracing;
+
+import com.nebula.common.trace.SpanData;
+import com.nebula.common.trace.SpanExporter;
+import com.nebula.common.trace.TraceContext;
+import com.nebula.common.trace.TraceSampler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Server Span
+ * The gateway's span for one exchange plus one client span per upstream attempt, so retries
+ * and hedges show up separately from the gateway's own time. Attempt spans are held here
+ * until the exchange finishes, since only then does tail sampling decide whether the trace
+ * is kept.
+ */
+public final class ServerSpan {
+
+    /**
+     * Exchange attribute holding the current ServerSpan
+     */
+    public static final String ATTR = ServerSpan.class.getName();
+
+    private final TraceContext context;
+
+    private final long startEpochMillis = System.currentTimeMillis();
+
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Guarded by this; hedge attempts finish concurrently
+     */
+    private List<SpanData> attempts;
+
+    private int attemptCount;
+
+    public ServerSpan(TraceContext context) {
+        this.context = context;
+    }
+
+    public TraceContext getContext() {
+        return context;
+    }
+
+    /**
+     * Start a client span for one upstream call; its traceparent goes into the upstream request
+     */
+    public Attempt startAttempt() {
+        int number;
+        synchronized (this) {
+            number = ++attemptCount;
+        }
+        return new Attempt(context.child(), number);
+    }
+
+    private synchronized void add(SpanData attempt) {
+        if (attempts == null) {
+            attempts = new ArrayList<>(2);
+        }
+        attempts.add(attempt);
+    }
+
+    /**
+     * End the exchange; the span and its attempts are exported only if the sampler keeps them
+     */
+    public void finish(TraceSampler sampler, SpanExporter exporter, int status, SpanData.Outcome outcome,
+                       String method, String path, String routeId) {
+        long durationNanos = System.nanoTime() - startNanos;
+        if (!sampler.keep(context, durationNanos, outcome == SpanData.Outcome.ERROR)) {
+            return;
+        }
+        exporter.export(new SpanData(context, "server", method + " " + path, startEpochMillis, durationNanos,
+                status, outcome, method, path, routeId));
+        synchronized (this) {
+            if (attempts != null) {
+                attempts.forEach(exporter::export);
+            }
+        }
+    }
+
+    public final class Attempt {
+
+        private final TraceContext context;
+
+        private final int number;
+
+        private final long startEpochMillis = System.currentTimeMillis();
+
+        private final long startNanos = System.nanoTime();
+
+        private Attempt(TraceContext context, int number) {
+            this.context = context;
+            this.number = number;
+        }
+
+        /**
+         * Header value that makes this attempt the parent of the upstream service's span
+         */
+        public String traceparent() {
+            return context.traceparent();
+        }
+
+        public void finish(int status, SpanData.Outcome outcome, String method, String path, String routeId) {
+            add(new SpanData(context, "client", "upstream attempt " + number, startEpochMillis,
+                    System.nanoTime() - startNanos, status, outcome, method, path, routeId));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.nebula.gateway.tracing;
+
+import com.nebula.common.trace.TraceContext;
+import org.reactivestreams.Subscription;
+import org.slf4j.MDC;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoOperator;
+import reactor.util.context.Context;
+
+/**
+ * Trace MDC Mono
+ * Puts the trace id into the SLF4J MDC while the wrapped filter chain is being subscribed
+ * (when most filter code runs) and while it signals completion, then restores the previous
+ * value. Callbacks deeper in the chain that run later on another thread do not see it; that
+ * is the price of not installing a context propagation hook on every operator.
+ */
+public final class TraceMdcMono extends MonoOperator<Void, Void> {
+
+    private final String traceId;
+
+    public TraceMdcMono(Mono<Void> source, String traceId) {
+        super(source);
+        this.traceId = traceId;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super Void> actual) {
+        String previous = enter(traceId);
+        try {
+            source.subscribe(new TraceMdcSubscriber(actual, traceId));
+        } finally {
+            exit(previous);
+        }
+    }
+
+    private static String enter(String traceId) {
+        String previous = MDC.get(TraceContext.MDC_KEY);
+        MDC.put(TraceContext.MDC_KEY, traceId);
+        return previous;
+    }
+
+    private static void exit(String previous) {
+        if (previous == null) {
+            MDC.remove(TraceContext.MDC_KEY);
+        } else {
+            MDC.put(TraceContext.MDC_KEY, previous);
+        }
+    }
+
+    private static final class TraceMdcSubscriber implements CoreSubscriber<Void> {
+
+        private final CoreSubscriber<? super Void> actual;
+
+        private final String traceId;
+
+        private TraceMdcSubscriber(CoreSubscriber<? super Void> actual, String traceId) {
+            this.actual = actual;
+            this.traceId = traceId;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            actual.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(Void value) {
+            actual.onNext(value);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            String previous = enter(traceId);
+            try {
+                actual.onError(error);
+            } finally {
+                exit(previous);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            String previous = enter(traceId);
+            try {
+                actual.onComplete();
+            } finally {
+                exit(previous);
+            }
+        }
+    }
+}